@@ -0,0 +1,89 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.utils.fx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javafx.scene.image.Image;
+
+/**
+ * Image together with a fixed set of downscaled variants (mipmap levels), each having half of the size of its predecessor.
+ * Users display the variant which matches the size on the screen; that keeps the textures small when many
+ * instances of the image are shown in a small size and avoids the aliasing of the plain image when it is drawn much
+ * smaller than its original size.
+ * Instances are immutable and can be shared among threads.
+ */
+public class ImagePyramid {
+    /**
+     * Images whose width and height are not bigger than this size are not downscaled any more.
+     */
+    public static final int DEFAULT_MIN_LEVEL_SIZE = 16;
+
+    protected final List<Image> mLevels;
+
+    protected ImagePyramid(List<Image> levels) {
+        mLevels = Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Creates the pyramid for the given image, which must be completely loaded. This method can be called in a background thread.
+     */
+    public static ImagePyramid create(Image image) {
+        return create(image, DEFAULT_MIN_LEVEL_SIZE);
+    }
+
+    public static ImagePyramid create(Image image, int minLevelSize) {
+        List<Image> levels = new ArrayList<>();
+        levels.add(image);
+        if (!image.isError()) {
+            Image level = image;
+            while (level.getWidth() > minLevelSize || level.getHeight() > minLevelSize) {
+                level = ImageUtils.downscaleByHalf(level);
+                levels.add(level);
+            }
+        }
+        return new ImagePyramid(levels);
+    }
+
+    /**
+     * Gets the original image.
+     */
+    public Image getImage() {
+        return mLevels.get(0);
+    }
+
+    public List<Image> getLevels() {
+        return mLevels;
+    }
+
+    /**
+     * Gets the smallest variant which is at least as big as the given size in pixels, or the original image if the
+     * given size is bigger than the original image.
+     */
+    public Image getImageForSize(double width, double height) {
+        for (int i = mLevels.size() - 1; i > 0; i--) {
+            Image level = mLevels.get(i);
+            if (level.getWidth() >= width && level.getHeight() >= height) {
+                return level;
+            }
+        }
+        return mLevels.get(0);
+    }
+}
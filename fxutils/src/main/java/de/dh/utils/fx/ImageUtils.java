@@ -26,6 +26,7 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.IntBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -47,6 +48,7 @@ import javafx.scene.SnapshotParameters;
 import javafx.scene.SubScene;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelReader;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
@@ -340,6 +342,44 @@ public class ImageUtils {
         return result;
     }
 
+    /**
+     * Creates a copy of the given image with half of its width and height, each target pixel is the average of
+     * the corresponding 2x2 source pixels. Odd source sizes are rounded up, the last row or column is then
+     * repeated. The averaging is done on premultiplied colors to avoid dark borders at transparent areas.
+     * This method doesn't need to be called on the JavaFX application thread.
+     */
+    public static WritableImage downscaleByHalf(Image image) {
+        int srcWidth = (int) image.getWidth();
+        int srcHeight = (int) image.getHeight();
+        int width = Math.max(1, (srcWidth + 1) / 2);
+        int height = Math.max(1, (srcHeight + 1) / 2);
+        PixelFormat<IntBuffer> format = PixelFormat.getIntArgbPreInstance();
+        int[] src = new int[srcWidth * srcHeight];
+        image.getPixelReader().getPixels(0, 0, srcWidth, srcHeight, format, src, 0, srcWidth);
+        int[] dest = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int y1 = Math.min(2 * y, srcHeight - 1) * srcWidth;
+            int y2 = Math.min(2 * y + 1, srcHeight - 1) * srcWidth;
+            for (int x = 0; x < width; x++) {
+                int x1 = Math.min(2 * x, srcWidth - 1);
+                int x2 = Math.min(2 * x + 1, srcWidth - 1);
+                int p1 = src[y1 + x1];
+                int p2 = src[y1 + x2];
+                int p3 = src[y2 + x1];
+                int p4 = src[y2 + x2];
+                int result = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = ((p1 >>> shift) & 0xFF) + ((p2 >>> shift) & 0xFF) + ((p3 >>> shift) & 0xFF) + ((p4 >>> shift) & 0xFF);
+                    result |= ((sum + 2) >> 2) << shift;
+                }
+                dest[y * width + x] = result;
+            }
+        }
+        WritableImage result = new WritableImage(width, height);
+        result.getPixelWriter().setPixels(0, 0, width, height, format, dest, 0, width);
+        return result;
+    }
+
     public static void addImageOverlay(BufferedImage image, String overlayText) {
         int imageWidth = image.getWidth();
         int imageHeight = image.getHeight();
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.utils.fx;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Executes an action at most once per JavaFX pulse, no matter how often it was {@link #schedule() scheduled} in between.
+ * The action is run on the FX application thread before the next layout and rendering pass, so it should always work on
+ * the latest state instead of the state at the time it was scheduled.
+ */
+public class PulseThrottledAction {
+    protected final Runnable mAction;
+    protected final AnimationTimer mTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            runPending();
+        }
+    };
+    protected boolean mScheduled = false;
+
+    public PulseThrottledAction(Runnable action) {
+        mAction = action;
+    }
+
+    public boolean isScheduled() {
+        return mScheduled;
+    }
+
+    /**
+     * Schedules the action for the next pulse. Does nothing if the action is already scheduled.
+     */
+    public void schedule() {
+        if (mScheduled) {
+            return;
+        }
+        mScheduled = true;
+        mTimer.start();
+    }
+
+    /**
+     * Runs the action immediately if it is scheduled, e.g. if its results are needed before the next pulse.
+     */
+    public void runPending() {
+        if (!mScheduled) {
+            return;
+        }
+        cancel();
+        mAction.run();
+    }
+
+    public void cancel() {
+        mScheduled = false;
+        mTimer.stop();
+    }
+}
@@ -21,10 +21,14 @@ import javafx.concurrent.Task;
 import javafx.concurrent.WorkerStateEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
@@ -32,8 +36,19 @@ import javafx.stage.StageStyle;
 public class ProgressDialog {
     private final Stage mDialogStage;
     private final ProgressBar mProgressBar = new ProgressBar();
+    private final Label mMessageLabel = new Label();
+    private final Button mCancelButton;
+    private Task<?> mTask = null;
 
     public ProgressDialog(String title, javafx.stage.Window ownerWindow) {
+        this(title, ownerWindow, null);
+    }
+
+    /**
+     * Creates a progress dialog which shows the progress and the message of the task.
+     * @param cancelButtonText If set, the dialog shows a button with that text which cancels the task.
+     */
+    public ProgressDialog(String title, javafx.stage.Window ownerWindow, String cancelButtonText) {
         mDialogStage = new Stage();
         mDialogStage.initOwner(ownerWindow);
         mDialogStage.initStyle(StageStyle.UTILITY);
@@ -55,17 +70,38 @@ public class ProgressDialog {
         titleLabel.setStyle("-fx-font-weight: bold");
         pane.setTop(titleLabel);
 
+        double height = 60;
+        if (cancelButtonText == null) {
+            mCancelButton = null;
+        } else {
+            mCancelButton = new Button(cancelButtonText);
+            mCancelButton.setOnAction(event -> {
+                if (mTask != null) {
+                    mTask.cancel();
+                }
+            });
+            mMessageLabel.setMaxWidth(Double.MAX_VALUE);
+            HBox.setHgrow(mMessageLabel, Priority.ALWAYS);
+            HBox bottomBox = new HBox(5, mMessageLabel, mCancelButton);
+            bottomBox.setAlignment(Pos.CENTER_LEFT);
+            bottomBox.setPadding(new Insets(5, 10, 5, 10));
+            pane.setBottom(bottomBox);
+            height = 100;
+        }
+
         Scene scene = new Scene(pane);
         mDialogStage.setScene(scene);
 
-        mDialogStage.setHeight(60);
-        mDialogStage.setWidth(250);
+        mDialogStage.setHeight(height);
+        mDialogStage.setWidth(cancelButtonText == null ? 250 : 350);
         mDialogStage.setResizable(false);
         mDialogStage.initStyle(StageStyle.UNDECORATED);
     }
 
     public void start(Task<?> task)  {
+        mTask = task;
         mProgressBar.progressProperty().bind(task.progressProperty());
+        mMessageLabel.textProperty().bind(task.messageProperty());
         EventHandler<WorkerStateEvent> closeHandler = event -> {
             close();
         };
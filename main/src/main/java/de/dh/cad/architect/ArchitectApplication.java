@@ -38,9 +38,9 @@ public class ArchitectApplication extends Application {
             mApplicationController = ApplicationController.create(config, primaryStage);
 
             primaryStage.setOnCloseRequest(event -> {
-                if (!mApplicationController.queryQuitApplication(primaryStage)) {
-                    event.consume();
-                }
+                // The application is exited by the controller when the user agreed and a save, if requested, has finished
+                event.consume();
+                mApplicationController.queryQuitApplication(primaryStage);
             });
 
             mApplicationController.startup();
@@ -36,9 +36,11 @@ import de.dh.cad.architect.model.objects.Dimensioning;
 import de.dh.cad.architect.model.objects.Floor;
 import de.dh.cad.architect.model.objects.GuideLine;
 import de.dh.cad.architect.model.objects.IAnchorContainer;
+import de.dh.cad.architect.model.objects.ObjectCopies;
 import de.dh.cad.architect.model.objects.ObjectsGroup;
 import de.dh.cad.architect.model.objects.SupportObject;
 import de.dh.cad.architect.model.objects.Wall;
+import de.dh.cad.architect.model.objects.WallHole;
 import de.dh.cad.architect.utils.IdGenerator;
 
 // For serialization/deserialization with JAXB, use the API in the UI project
@@ -66,6 +68,32 @@ public class Plan implements IRootContainer, IAnchorContainer {
         return new Plan(IdGenerator.generateUniqueId(Plan.class));
     }
 
+    /**
+     * Creates a deep copy of this plan, which is independent of further changes of this plan.
+     * Copying is much cheaper than serializing the plan, so a copy can be taken as snapshot in the FX thread and
+     * be serialized in a background thread.
+     */
+    public Plan copy() {
+        Plan result = new Plan(mId);
+        ObjectCopies copies = new ObjectCopies(this, result);
+        result.mAnchors = copies.addAll(mAnchors);
+        result.mDimensionings = copies.addAll(mDimensionings);
+        result.mFloors = copies.addAll(mFloors);
+        result.mWalls = copies.addAll(mWalls);
+        for (Wall wall : mWalls.values()) {
+            for (WallHole wallHole : wall.getWallHoles()) {
+                copies.add(wallHole);
+            }
+        }
+        result.mCeilings = copies.addAll(mCeilings);
+        result.mCoverings = copies.addAll(mCoverings);
+        result.mSupportObjects = copies.addAll(mSupportObjects);
+        result.mGuideLines = copies.addAll(mGuideLines);
+        result.mGroups = copies.addAll(mGroups);
+        copies.copyReferences();
+        return result;
+    }
+
     // Explicitly called by PlanTypeAdapter.PlanProxy after deserialization
     public void afterDeserialize() {
         forEach(bo -> {
@@ -19,10 +19,36 @@ import de.dh.cad.architect.model.objects.BaseObject;
  * be added to the undo stack as a revertible operation.
  */
 public interface IModelChange {
+    /**
+     * Estimated memory size of a change instance inclusive its undo data, in bytes.
+     */
+    long ESTIMATED_CHANGE_SIZE = 128;
+
+    /**
+     * Estimated memory size of a reference to an object which is present in the model, in bytes.
+     */
+    long ESTIMATED_OBJECT_REFERENCE_SIZE = 16;
+
+    /**
+     * Estimated memory size of a removed object, in bytes. Removed objects are only held by the
+     * change, so the change keeps the object and its sub objects alive.
+     */
+    long ESTIMATED_REMOVED_OBJECT_SIZE = 1024;
+
     Collection<BaseObject> getModifications();
     Collection<BaseObject> getAdditions();
     Collection<BaseObject> getRemovals();
 
+    /**
+     * Returns a rough estimation of the memory which is held by this change, in bytes.
+     * This value is used to limit the size of the undo history.
+     */
+    default long estimateMemorySize() {
+        return ESTIMATED_CHANGE_SIZE
+                + (getModifications().size() + getAdditions().size()) * ESTIMATED_OBJECT_REFERENCE_SIZE
+                + getRemovals().size() * ESTIMATED_REMOVED_OBJECT_SIZE;
+    }
+
     /**
      * Undo this change.
      * The given undo change trace will be filled with one or more {@link IModelChange} instances
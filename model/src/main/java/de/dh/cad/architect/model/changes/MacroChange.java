@@ -103,6 +103,16 @@ public class MacroChange implements IModelChange {
         undoChangeTrace.add(MacroChange.create(childUndoChangeTrace, false));
     }
 
+    @Override
+    public long estimateMemorySize() {
+        long result = ESTIMATED_CHANGE_SIZE
+                + (mMergedAdditions.size() + mMergedModifications.size() + mMergedRemovals.size()) * ESTIMATED_OBJECT_REFERENCE_SIZE;
+        for (IModelChange change : mChanges) {
+            result += change.estimateMemorySize();
+        }
+        return result;
+    }
+
     @Override
     public Collection<BaseObject> getAdditions() {
         return mMergedAdditions;
@@ -36,13 +36,9 @@ public class Angle implements Comparable<Angle> {
      * Returns the angle between vector {@code a1} and {@code a2} in degrees from 0-360 degrees.
      */
     public static Angle angleBetween(Vector2D a1, Vector2D a2) {
-        double x1 = a1.getX().inInternalFormat();
-        double y1 = a1.getY().inInternalFormat();
-        double x2 = a2.getX().inInternalFormat();
-        double y2 = a2.getY().inInternalFormat();
-
-        double res = Math.atan2(x1*y2 - y1*x2, x1*x2 + y1*y2) * 180/Math.PI;
-        return new Angle(res < 0 ? 360 + res : res);
+        return new Angle(Geometry2D.angleBetweenDeg(
+            a1.getX().inInternalFormat(), a1.getY().inInternalFormat(),
+            a2.getX().inInternalFormat(), a2.getY().inInternalFormat()));
     }
 
     /**
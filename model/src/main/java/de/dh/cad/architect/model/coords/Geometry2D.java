@@ -0,0 +1,168 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.model.coords;
+
+/**
+ * Primitive 2D geometry kernel for hot code paths.
+ * All methods work on raw coordinates in {@link Length#inInternalFormat() internal length format} and don't allocate objects;
+ * results which consist of more than one value are written to a {@link MutableVector2D} provided by the caller.
+ * The value types {@link Position2D}, {@link Vector2D} and {@link Length} should be used in all other places.
+ */
+public class Geometry2D {
+    private Geometry2D() {
+        // Only static methods
+    }
+
+    public static double dotProduct(double ux, double uy, double vx, double vy) {
+        return ux * vx + uy * vy;
+    }
+
+    /**
+     * Returns the z coordinate of the cross product of the two given vectors, which is the determinant u|v.
+     */
+    public static double crossProduct(double ux, double uy, double vx, double vy) {
+        return ux * vy - uy * vx;
+    }
+
+    public static double length(double x, double y) {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    public static double distanceSq(double x1, double y1, double x2, double y2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    public static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt(distanceSq(x1, y1, x2, y2));
+    }
+
+    /**
+     * Returns the angle between vector {@code u} and {@code v} in degrees from 0-360 degrees.
+     */
+    public static double angleBetweenDeg(double ux, double uy, double vx, double vy) {
+        double res = Math.atan2(ux * vy - uy * vx, ux * vx + uy * vy) * 180 / Math.PI;
+        return res < 0 ? 360 + res : res;
+    }
+
+    public static boolean isAlmostEqual(double x1, double y1, double x2, double y2, double maxDistance) {
+        return Math.abs(x2 - x1) <= maxDistance && Math.abs(y2 - y1) <= maxDistance;
+    }
+
+    /**
+     * Sets the given {@code result} vector to the normal vector of {@code v} in clockwise direction with the given length.
+     * The given vector must not be a zero vector.
+     */
+    public static void normalCW(double vx, double vy, double length, MutableVector2D result) {
+        double f = length / length(vx, vy);
+        result.set(vy * f, -vx * f);
+    }
+
+    /**
+     * Finds the intersection point of two lines in 2D, the first line going through {@code l1p1} and {@code l1p2}, the second line
+     * going through {@code l2p1} and {@code l2p2}.
+     * @param result Vector which will be set to the intersection point, if present.
+     * @return {@code true} if the lines intersect, {@code false} if they are parallel. In the latter case,
+     * the {@code result} vector is left untouched.
+     */
+    public static boolean calculateLinesIntersectionPoint(
+        double l1p1x, double l1p1y, double l1p2x, double l1p2y,
+        double l2p1x, double l2p1y, double l2p2x, double l2p2y,
+        MutableVector2D result) {
+        double v1x = l1p2x - l1p1x;
+        double v1y = l1p2y - l1p1y;
+        double v2x = l2p2x - l2p1x;
+        double v2y = l2p2y - l2p1y;
+        double d = v2y * v1x - v1y * v2x;
+        double c1 = l1p2x * l1p1y - l1p1x * l1p2y;
+        double c2 = l2p2x * l2p1y - l2p1x * l2p2y;
+        double x = (v2x * c1 - v1x * c2) / d;
+        double y = (-v1y * c2 + v2y * c1) / d;
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return false;
+        }
+        result.set(x, y);
+        return true;
+    }
+
+    /**
+     * Returns the information whether the given point is located inside the given polygon, using the even-odd rule.
+     * @param polygonCoords Corner points of the polygon as sequence of x/y coordinate pairs.
+     */
+    public static boolean isPointInPolygon(double x, double y, double[] polygonCoords) {
+        int numCoords = polygonCoords.length;
+        boolean inside = false;
+        for (int i = 0, j = numCoords - 2; i < numCoords; j = i, i += 2) {
+            double xi = polygonCoords[i];
+            double yi = polygonCoords[i + 1];
+            double xj = polygonCoords[j];
+            double yj = polygonCoords[j + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Returns the information whether the line segment from {@code p1} to {@code p2} touches the given axis aligned rectangle.
+     */
+    public static boolean segmentIntersectsRectangle(double p1x, double p1y, double p2x, double p2y,
+        double minX, double minY, double maxX, double maxY) {
+        if (Math.max(p1x, p2x) < minX || Math.min(p1x, p2x) > maxX || Math.max(p1y, p2y) < minY || Math.min(p1y, p2y) > maxY) {
+            return false;
+        }
+        // Bounding boxes overlap, so the segment touches the rectangle if the rectangle's corners are not all on the same side of the line
+        double vx = p2x - p1x;
+        double vy = p2y - p1y;
+        double c1 = crossProduct(vx, vy, minX - p1x, minY - p1y);
+        double c2 = crossProduct(vx, vy, maxX - p1x, minY - p1y);
+        double c3 = crossProduct(vx, vy, maxX - p1x, maxY - p1y);
+        double c4 = crossProduct(vx, vy, minX - p1x, maxY - p1y);
+        return !((c1 > 0 && c2 > 0 && c3 > 0 && c4 > 0) || (c1 < 0 && c2 < 0 && c3 < 0 && c4 < 0));
+    }
+
+    /**
+     * Returns the information whether the area of the given polygon and the area of the given axis aligned rectangle intersect.
+     * @param polygonCoords Corner points of the polygon as sequence of x/y coordinate pairs.
+     */
+    public static boolean polygonIntersectsRectangle(double[] polygonCoords, double minX, double minY, double maxX, double maxY) {
+        int numCoords = polygonCoords.length;
+        if (numCoords < 2) {
+            return false;
+        }
+        // Covers polygon edges crossing the rectangle and polygons which are completely located inside the rectangle
+        for (int i = 0, j = numCoords - 2; i < numCoords; j = i, i += 2) {
+            if (segmentIntersectsRectangle(polygonCoords[j], polygonCoords[j + 1], polygonCoords[i], polygonCoords[i + 1], minX, minY, maxX, maxY)) {
+                return true;
+            }
+        }
+        // No edge touches the rectangle, so the rectangle is either completely inside or completely outside of the polygon
+        return isPointInPolygon(minX, minY, polygonCoords);
+    }
+
+    /**
+     * Returns the information whether the given circle and the given axis aligned rectangle intersect.
+     */
+    public static boolean circleIntersectsRectangle(double cx, double cy, double radius, double minX, double minY, double maxX, double maxY) {
+        double nearestX = Math.max(minX, Math.min(cx, maxX));
+        double nearestY = Math.max(minY, Math.min(cy, maxY));
+        return distanceSq(cx, cy, nearestX, nearestY) <= radius * radius;
+    }
+}
@@ -28,7 +28,9 @@ public class MathUtils {
     }
 
     public static boolean isAlmostEqual(Position2D p1, Position2D p2, Length maxDistance) {
-        return p1.getX().difference(p2.getX()).le(maxDistance) && p1.getY().difference(p2.getY()).le(maxDistance);
+        return Geometry2D.isAlmostEqual(
+            p1.getX().inInternalFormat(), p1.getY().inInternalFormat(),
+            p2.getX().inInternalFormat(), p2.getY().inInternalFormat(), maxDistance.inInternalFormat());
     }
 
     // Code from https://stackoverflow.com/questions/5666222/3d-line-plane-intersection
@@ -54,27 +56,15 @@ public class MathUtils {
      * Finds the intersection point of two lines in 2D.
      */
     public static Optional<Position2D> calculateLinesIntersectionPoint(Position2D l1p1, Position2D l1p2, Position2D l2p1, Position2D l2p2) {
-        double l1p1x = l1p1.getX().inMM();
-        double l1p1y = l1p1.getY().inMM();
-        double l1p2x = l1p2.getX().inMM();
-        double l1p2y = l1p2.getY().inMM();
-        double l2p1x = l2p1.getX().inMM();
-        double l2p1y = l2p1.getY().inMM();
-        double l2p2x = l2p2.getX().inMM();
-        double l2p2y = l2p2.getY().inMM();
-        double v1x = l1p2x - l1p1x;
-        double v1y = l1p2y - l1p1y;
-        double v2x = l2p2x - l2p1x;
-        double v2y = l2p2y - l2p1y;
-        Position2D res = new Position2D(
-            Length.ofMM(
-                (v2x * (l1p2x*l1p1y - l1p1x*l1p2y) - v1x * (l2p2x*l2p1y - l2p1x*l2p2y)) /
-                (v2y * v1x - v1y * v2x)),
-
-            Length.ofMM(
-                (-v1y * (l2p2x*l2p1y - l2p1x*l2p2y) + v2y * (l1p2x*l1p1y - l1p1x*l1p2y)) /
-                (v2y * v1x - v1y * v2x)));
-        return res.getX().isValid() && res.getY().isValid() ? Optional.of(res) : Optional.empty();
+        MutableVector2D result = new MutableVector2D();
+        if (!Geometry2D.calculateLinesIntersectionPoint(
+            l1p1.getX().inInternalFormat(), l1p1.getY().inInternalFormat(),
+            l1p2.getX().inInternalFormat(), l1p2.getY().inInternalFormat(),
+            l2p1.getX().inInternalFormat(), l2p1.getY().inInternalFormat(),
+            l2p2.getX().inInternalFormat(), l2p2.getY().inInternalFormat(), result)) {
+            return Optional.empty();
+        }
+        return Optional.of(result.toPosition2D());
     }
 
     /**
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.model.coords;
+
+/**
+ * Mutable 2D vector of primitive coordinates in {@link Length#inInternalFormat() internal length format}.
+ * Instances are meant to be used as reusable scratch objects in hot code paths together with {@link Geometry2D},
+ * they must not escape the algorithm which uses them. Use {@link #toPosition2D()} or {@link #toVector2D()} to produce results.
+ */
+public class MutableVector2D {
+    protected double mX;
+    protected double mY;
+
+    public MutableVector2D() {
+        this(0, 0);
+    }
+
+    public MutableVector2D(double x, double y) {
+        mX = x;
+        mY = y;
+    }
+
+    public double getX() {
+        return mX;
+    }
+
+    public double getY() {
+        return mY;
+    }
+
+    public MutableVector2D set(double x, double y) {
+        mX = x;
+        mY = y;
+        return this;
+    }
+
+    public MutableVector2D set(MutableVector2D other) {
+        return set(other.mX, other.mY);
+    }
+
+    public MutableVector2D set(Position2D position) {
+        return set(position.getX().inInternalFormat(), position.getY().inInternalFormat());
+    }
+
+    public MutableVector2D set(Vector2D vector) {
+        return set(vector.getX().inInternalFormat(), vector.getY().inInternalFormat());
+    }
+
+    public MutableVector2D add(double x, double y) {
+        mX += x;
+        mY += y;
+        return this;
+    }
+
+    public MutableVector2D scale(double factor) {
+        mX *= factor;
+        mY *= factor;
+        return this;
+    }
+
+    public double getLength() {
+        return Geometry2D.length(mX, mY);
+    }
+
+    public double distance(double x, double y) {
+        return Geometry2D.distance(mX, mY, x, y);
+    }
+
+    public double distance(MutableVector2D other) {
+        return Geometry2D.distance(mX, mY, other.mX, other.mY);
+    }
+
+    public Position2D toPosition2D() {
+        return Position2D.ofInternalFormat(mX, mY);
+    }
+
+    public Vector2D toVector2D() {
+        return new Vector2D(Length.ofInternalFormat(mX), Length.ofInternalFormat(mY));
+    }
+
+    @Override
+    public String toString() {
+        return "MutableVector2D [X=" + mX + "; Y=" + mY + "]";
+    }
+}
@@ -38,6 +38,13 @@ public class Position2D implements IPosition {
         return EMPTY;
     }
 
+    /**
+     * Returns a position of the given coordinates in {@link Length#inInternalFormat() internal format}.
+     */
+    public static Position2D ofInternalFormat(double x, double y) {
+        return new Position2D(Length.ofInternalFormat(x), Length.ofInternalFormat(y));
+    }
+
     public static Position2D pointBetween(Position2D pos1, Position2D pos2, double ratio) {
         return pos1.plus(pos2.minus(pos1).times(ratio));
     }
@@ -93,11 +100,9 @@ public class Position2D implements IPosition {
     }
 
     public static Length distance(Position2D first, Position2D second) {
-        double x1 = first.getX().inMM();
-        double y1 = first.getY().inMM();
-        double x2 = second.getX().inMM();
-        double y2 = second.getY().inMM();
-        return Length.ofMM(Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1)));
+        return Length.ofInternalFormat(Geometry2D.distance(
+            first.getX().inInternalFormat(), first.getY().inInternalFormat(),
+            second.getX().inInternalFormat(), second.getY().inInternalFormat()));
     }
 
     public Length distanceX(Position2D other) {
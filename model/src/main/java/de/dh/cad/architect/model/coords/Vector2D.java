@@ -85,13 +85,9 @@ public class Vector2D {
      * Returns the angle between vector {@code a1} and {@code a2} in degrees from 0-360 degrees.
      */
     public static double angleBetween(Vector2D a1, Vector2D a2) {
-        double x1 = a1.getX().inInternalFormat();
-        double y1 = a1.getY().inInternalFormat();
-        double x2 = a2.getX().inInternalFormat();
-        double y2 = a2.getY().inInternalFormat();
-
-        double res = Math.atan2(x1*y2-y1*x2,x1*x2+y1*y2) * 180/Math.PI;
-        return res < 0 ? 360 + res : res;
+        return Geometry2D.angleBetweenDeg(
+            a1.getX().inInternalFormat(), a1.getY().inInternalFormat(),
+            a2.getX().inInternalFormat(), a2.getY().inInternalFormat());
     }
 
     /**
@@ -125,9 +121,7 @@ public class Vector2D {
     }
 
     public Length getLength() {
-        double xInternal = mX.inInternalFormat();
-        double yInternal = mY.inInternalFormat();
-        return Length.ofInternalFormat(Math.sqrt(xInternal * xInternal + yInternal * yInternal));
+        return Length.ofInternalFormat(Geometry2D.length(mX.inInternalFormat(), mY.inInternalFormat()));
     }
 
     public Vector2D scaleToLength(Length length) {
@@ -89,6 +89,8 @@ public class Anchor extends BaseObject implements IDeserializationHandler {
     }
 
     public void setDockMaster(Anchor newDockMaster, Optional<Integer> oNewDockSlaveIndex, List<IModelChange> changeTrace) {
+        // All anchors of the old and of the new dock change their dock situation
+        List<Anchor> affectedAnchors = new ArrayList<>(getAllDockedAnchors());
         mDockMaster.ifPresent(oldDockMaster -> {
             List<Anchor> oldMasterSlaves = oldDockMaster.getDockSlaves();
             int oldDockSlaveIndex = oldMasterSlaves.indexOf(this);
@@ -133,6 +135,10 @@ public class Anchor extends BaseObject implements IDeserializationHandler {
                 .objectModified(newDockMaster)
                 .objectModified(this)
                 .objectsModified(newDockMaster.getAllDockOwners()));
+            affectedAnchors.addAll(getAllDockedAnchors());
+        }
+        for (Anchor anchor : affectedAnchors) {
+            anchor.fireAnchorChanged();
         }
     }
 
@@ -165,6 +171,14 @@ public class Anchor extends BaseObject implements IDeserializationHandler {
         return super.delete(changeTrace);
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        mAnchorOwner = copies.get(mAnchorOwner);
+        mDockMaster = mDockMaster.map(copies::get);
+        mDockSlaves = copies.getAll(mDockSlaves, new ArrayList<>());
+    }
+
     @XmlTransient
     public BaseAnchoredObject getAnchorOwner() {
         return mAnchorOwner;
@@ -217,6 +231,7 @@ public class Anchor extends BaseObject implements IDeserializationHandler {
         }
         IPosition oldValue = mPosition;
         mPosition = value;
+        fireAnchorChanged();
         changeTrace.add(new ObjectModificationChange(this, getAnchorOwner()) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -225,6 +240,12 @@ public class Anchor extends BaseObject implements IDeserializationHandler {
         });
     }
 
+    protected void fireAnchorChanged() {
+        if (mAnchorOwner != null) {
+            mAnchorOwner.anchorChanged_Internal(this);
+        }
+    }
+
     public void setDockPosition(IPosition position, List<IModelChange> changeTrace) {
         for (Anchor anchor : getAllDockedAnchors()) {
             anchor.setPosition(position, changeTrace);
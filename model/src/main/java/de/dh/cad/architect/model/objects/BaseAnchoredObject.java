@@ -64,6 +64,12 @@ public abstract class BaseAnchoredObject extends BaseObject implements IDeserial
         }
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        mAnchors = copies.getAll(mAnchors, new ArrayList<>());
+    }
+
     public Anchor createAnchor(String anchorType, IPosition position, List<IModelChange> changeTrace) {
         return Anchor.create(this, anchorType, position, changeTrace);
     }
@@ -186,6 +192,14 @@ public abstract class BaseAnchoredObject extends BaseObject implements IDeserial
         }
     }
 
+    /**
+     * Called after the position or the dock situation of one of this object's anchors has changed.
+     * Can be overridden to invalidate data which was calculated from anchor positions.
+     */
+    protected void anchorChanged_Internal(Anchor anchor) {
+        // Empty, can be overridden
+    }
+
     /**
      * Returns the information whether the given (child) anchor is a handle anchor, i.e. it can be moved by the user or by other modules than this object.
      * Anchors which are no handles must only be moved by this owner object.
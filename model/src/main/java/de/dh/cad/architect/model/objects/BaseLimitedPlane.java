@@ -71,6 +71,12 @@ public abstract class BaseLimitedPlane extends BaseSolidObject {
         super(id, name);
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        mEdgeAnchorTypes = new ArrayList<>(mEdgeAnchorTypes);
+    }
+
     public abstract Length getHeightAtPosition(Position2D xyPosition);
 
     public Position3D get3DPosition(Position2D xyPosition) {
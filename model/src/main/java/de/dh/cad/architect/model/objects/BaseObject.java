@@ -42,7 +42,7 @@ import de.dh.cad.architect.model.changes.ObjectModificationChange;
     BaseAnchoredObject.class,
     ObjectsGroup.class
 })
-public abstract class BaseObject implements Comparable<BaseObject> {
+public abstract class BaseObject implements Comparable<BaseObject>, Cloneable {
     protected Set<ObjectsGroup> mGroups = new TreeSet<>();
     protected IObjectsContainer mOwnerContainer = null;
     protected String mId;
@@ -167,6 +167,29 @@ public abstract class BaseObject implements Comparable<BaseObject> {
         mHidden = value;
     }
 
+    /**
+     * Internal method to be used by {@link ObjectCopies}.
+     * Creates a copy of this object which shares all values with this object. Values are immutable, so they can be shared;
+     * references to other objects and mutable collections are replaced in {@link #copyReferences_Internal(ObjectCopies)}.
+     */
+    public BaseObject copy_Internal() {
+        try {
+            return (BaseObject) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Internal method to be used by {@link ObjectCopies}.
+     * Called on a copy of an object to replace its references to original objects by references to their copies.
+     * Sub classes must override this method to copy their own references and mutable collections.
+     */
+    public void copyReferences_Internal(ObjectCopies copies) {
+        mGroups = copies.getAll(mGroups, new TreeSet<>());
+        mOwnerContainer = copies.getContainer(mOwnerContainer);
+    }
+
     protected String attrsToString() {
         return "Id=" + mId + ", Name=" + (mName == null ? "<Empty>" : ("'" + mName + "'")) + ", OwnerContainer=" + (mOwnerContainer == null ? "<Empty>" : mOwnerContainer)
                 + ", #Groups=" + mGroups.size();
@@ -57,6 +57,19 @@ public abstract class BaseSolidObject extends BaseAnchoredObject {
         }
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        Collection<SurfaceConfiguration> surfaceConfigurations = mSurfaceConfigurations;
+        mSurfaceConfigurations = new ArrayList<>();
+        mSurfaceTypeIdsToSurfaceConfigurations = new TreeMap<>();
+        for (SurfaceConfiguration surfaceConfiguration : surfaceConfigurations) {
+            SurfaceConfiguration copy = surfaceConfiguration.copy();
+            mSurfaceConfigurations.add(copy);
+            mSurfaceTypeIdsToSurfaceConfigurations.put(copy.getSurfaceTypeId(), copy);
+        }
+    }
+
     /**
      * Returns all configurable surfaces of this object.
      */
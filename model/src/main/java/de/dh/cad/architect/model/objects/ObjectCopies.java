@@ -0,0 +1,111 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.model.objects;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps the objects of an objects container, typically a plan, to their copies while the container is copied.
+ * Copying is done in two steps: First, each object is {@link #add(BaseObject) added}, which creates a copy sharing all
+ * values with the original object. After that, {@link #copyReferences()} replaces all references of the copies to other
+ * objects by references to the corresponding copies.
+ */
+public class ObjectCopies {
+    protected final IObjectsContainer mContainer;
+    protected final IObjectsContainer mContainerCopy;
+    protected final Map<BaseObject, BaseObject> mCopies = new HashMap<>();
+
+    public ObjectCopies(IObjectsContainer container, IObjectsContainer containerCopy) {
+        mContainer = container;
+        mContainerCopy = containerCopy;
+    }
+
+    /**
+     * Creates a copy of the given object, which still references the original objects.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseObject> T add(T original) {
+        T result = (T) original.copy_Internal();
+        mCopies.put(original, result);
+        return result;
+    }
+
+    /**
+     * Creates copies of all objects in the given map, see {@link #add(BaseObject)}.
+     */
+    public <T extends BaseObject> Map<String, T> addAll(Map<String, T> originals) {
+        Map<String, T> result = new TreeMap<>();
+        for (Map.Entry<String, T> entry : originals.entrySet()) {
+            result.put(entry.getKey(), add(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the copy of the given original object.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends BaseObject> T get(T original) {
+        if (original == null) {
+            return null;
+        }
+        T result = (T) mCopies.get(original);
+        if (result == null) {
+            throw new IllegalStateException("Object <" + original + "> is not part of the copied container");
+        }
+        return result;
+    }
+
+    /**
+     * Gets the copies of the given original objects, filled into the given result collection.
+     */
+    public <T extends BaseObject, C extends Collection<T>> C getAll(Collection<T> originals, C result) {
+        for (T original : originals) {
+            result.add(get(original));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the copy of the given objects container, which is either the copied container itself or a copied object.
+     */
+    public IObjectsContainer getContainer(IObjectsContainer original) {
+        if (original == null) {
+            return null;
+        }
+        if (original == mContainer) {
+            return mContainerCopy;
+        }
+        if (original instanceof BaseObject bo) {
+            return (IObjectsContainer) get(bo);
+        }
+        throw new IllegalStateException("Container <" + original + "> is not part of the copied container");
+    }
+
+    /**
+     * Replaces the references of all copies to original objects by references to the copies.
+     */
+    public void copyReferences() {
+        for (BaseObject copy : mCopies.values()) {
+            copy.copyReferences_Internal(this);
+        }
+    }
+}
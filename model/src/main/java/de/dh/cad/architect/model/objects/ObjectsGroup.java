@@ -60,6 +60,12 @@ public class ObjectsGroup extends BaseObject implements IDeserializationHandler
         }
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        mGroupedObjects = copies.getAll(mGroupedObjects, new TreeSet<>());
+    }
+
     @XmlElementWrapper(name = "Objects")
     @XmlElement(name = "Object")
     @XmlIDREF
@@ -40,6 +40,12 @@ public class SurfaceConfiguration {
         mSurfaceTypeId = surfaceTypeId;
     }
 
+    public SurfaceConfiguration copy() {
+        SurfaceConfiguration result = new SurfaceConfiguration(mSurfaceTypeId);
+        result.mMaterialAssignment = mMaterialAssignment;
+        return result;
+    }
+
     @XmlTransient
     public String getSurfaceTypeId() {
         return mSurfaceTypeId;
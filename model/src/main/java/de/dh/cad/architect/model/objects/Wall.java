@@ -18,6 +18,7 @@
 package de.dh.cad.architect.model.objects;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -51,6 +52,7 @@ import de.dh.cad.architect.model.wallmodel.WallAnchorPositions;
 import de.dh.cad.architect.model.wallmodel.WallBevelType;
 import de.dh.cad.architect.model.wallmodel.WallDockEnd;
 import de.dh.cad.architect.model.wallmodel.WallEndView;
+import de.dh.cad.architect.model.wallmodel.WallOutline;
 import de.dh.cad.architect.model.wallmodel.WallSurface;
 import de.dh.cad.architect.utils.IdGenerator;
 
@@ -122,6 +124,13 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     protected Collection<WallHole> mWallHoles = new ArrayList<>();
     protected Map<String, WallHole> mWallHoleById = new TreeMap<>();
 
+    // Memoized outline data, null if not calculated yet or invalidated.
+    // Anchor positions and outline extracted from our current anchor positions, depend on our anchors and bevel apexes.
+    protected Optional<WallAnchorPositions> mCachedWallAnchorPositions = null;
+    protected Optional<WallOutline> mCachedWallOutlineCW = null;
+    // Anchor positions calculated from the dock situation, depend on our handles and on the walls docked at our handles.
+    protected Optional<WallAnchorPositions> mCachedDockSituation = null;
+
     public Wall() {
         // For JAXB
     }
@@ -223,20 +232,87 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
         return result;
     }
 
+    /**
+     * Returns the wall anchor positions which are currently set in this wall's anchors.
+     * The result is cached until one of this wall's anchors, its dock situation or its bevel apexes change.
+     */
     public Optional<WallAnchorPositions> extractWallAnchorPositions() {
-        return Optional.of(new WallAnchorPositions(
-            getAnchorWallHandleA().requirePosition2D(),
-            getAnchorWallHandleB().requirePosition2D(),
-            hasNeighborWallA(),
-            hasNeighborWallB(),
-            getAnchorWallCornerLA1().getPosition().projectionXY(), mA1BevelApex,
-            getAnchorWallCornerLA2().getPosition().projectionXY(), mA2BevelApex,
-            getAnchorWallCornerLB1().getPosition().projectionXY(), mB1BevelApex,
-            getAnchorWallCornerLB2().getPosition().projectionXY(), mB2BevelApex));
+        if (mCachedWallAnchorPositions == null) {
+            mCachedWallAnchorPositions = Optional.of(new WallAnchorPositions(
+                getAnchorWallHandleA().requirePosition2D(),
+                getAnchorWallHandleB().requirePosition2D(),
+                hasNeighborWallA(),
+                hasNeighborWallB(),
+                getAnchorWallCornerLA1().getPosition().projectionXY(), mA1BevelApex,
+                getAnchorWallCornerLA2().getPosition().projectionXY(), mA2BevelApex,
+                getAnchorWallCornerLB1().getPosition().projectionXY(), mB1BevelApex,
+                getAnchorWallCornerLB2().getPosition().projectionXY(), mB2BevelApex));
+        }
+        return mCachedWallAnchorPositions;
+    }
+
+    /**
+     * Returns the clockwise wall outline of the {@link #extractWallAnchorPositions() current wall anchor positions}.
+     * The result is cached and shared between all callers, so it must not be modified.
+     */
+    public Optional<WallOutline> extractWallOutlineCW() {
+        if (mCachedWallOutlineCW == null) {
+            mCachedWallOutlineCW = extractWallAnchorPositions().map(wap -> wap.calculateWallOutlineCW());
+        }
+        return mCachedWallOutlineCW;
+    }
+
+    /**
+     * Calculates the wall anchor positions which result from the current docking situation of this wall's handles.
+     * The result is cached until this wall's handles, thickness or bevel types or one of the walls docked at our
+     * handles change.
+     */
+    public Optional<WallAnchorPositions> calculateDockSituation() {
+        if (mCachedDockSituation == null) {
+            mCachedDockSituation = WallAnchorPositions.calculateDockSituation(new AdaptedModelWall(this, Optional.empty()));
+        }
+        return mCachedDockSituation;
+    }
+
+    /**
+     * Invalidates the cached anchor positions and outline which were extracted from this wall's anchors.
+     */
+    protected void invalidateExtractedWallOutline() {
+        mCachedWallAnchorPositions = null;
+        mCachedWallOutlineCW = null;
+    }
+
+    /**
+     * Invalidates all cached outline data of this wall and the cached dock situation of all walls which are docked
+     * at our handles because their dock situation depends on our handle positions, thickness and bevel types.
+     */
+    protected void invalidateWallOutlineCaches() {
+        invalidateExtractedWallOutline();
+        mCachedDockSituation = null;
+        for (Anchor handleAnchor : Arrays.asList(getAnchorWallHandleA(), getAnchorWallHandleB())) {
+            if (handleAnchor == null) {
+                // Can happen during construction or undo of deletion, when not all anchors are present
+                continue;
+            }
+            for (Anchor dockedAnchor : handleAnchor.getAllDockedAnchors()) {
+                if (dockedAnchor.getAnchorOwner() instanceof Wall dockedWall && dockedWall != this) {
+                    dockedWall.mCachedDockSituation = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void anchorChanged_Internal(Anchor anchor) {
+        if (isWallHandleAnchor(anchor)) {
+            invalidateWallOutlineCaches();
+        } else {
+            invalidateExtractedWallOutline();
+        }
     }
 
     protected Collection<AnchorTarget> updateAnchors(List<IModelChange> changeTrace) {
-        Optional<WallAnchorPositions> oWallAnchorPositions = WallAnchorPositions.calculateDockSituation(new AdaptedModelWall(this, Optional.empty()));
+        Optional<WallAnchorPositions> oWallAnchorPositions = calculateDockSituation();
         if (oWallAnchorPositions.isEmpty()) {
             throw new IllegalStateException("Cannot move anchors according given handle positions");
         }
@@ -313,6 +389,20 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
         return isWallHandleAnchor(anchor);
     }
 
+    @Override
+    public void copyReferences_Internal(ObjectCopies copies) {
+        super.copyReferences_Internal(copies);
+        mWallHoles = copies.getAll(mWallHoles, new ArrayList<>());
+        mWallHoleById = new TreeMap<>();
+        for (WallHole wallHole : mWallHoles) {
+            mWallHoleById.put(wallHole.getId(), wallHole);
+        }
+        // The memoized data references the original anchors
+        mCachedWallAnchorPositions = null;
+        mCachedWallOutlineCW = null;
+        mCachedDockSituation = null;
+    }
+
     @Override
     public Collection<? extends BaseObject> getOwnedChildren() {
         return mWallHoles;
@@ -502,6 +592,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setThickness(Length value, List<IModelChange> changeTrace) {
         Length oldThickness = mThickness;
         mThickness = value;
+        invalidateWallOutlineCaches();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -559,6 +650,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setWallBevelA(WallBevelType value, List<IModelChange> changeTrace) {
         WallBevelType oldWallBevel = mWallBevelA;
         mWallBevelA = value;
+        invalidateWallOutlineCaches();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -584,6 +676,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setWallBevelB(WallBevelType value, List<IModelChange> changeTrace) {
         WallBevelType oldWallBevel = mWallBevelB;
         mWallBevelB = value;
+        invalidateWallOutlineCaches();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -600,6 +693,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setA1BevelApex(Optional<Position2D> value, List<IModelChange> changeTrace) {
         Optional<Position2D> oldApex = mA1BevelApex;
         mA1BevelApex = value;
+        invalidateExtractedWallOutline();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -616,6 +710,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setA2BevelApex(Optional<Position2D> value, List<IModelChange> changeTrace) {
         Optional<Position2D> oldApex = mA2BevelApex;
         mA2BevelApex = value;
+        invalidateExtractedWallOutline();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -632,6 +727,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setB1BevelApex(Optional<Position2D> value, List<IModelChange> changeTrace) {
         Optional<Position2D> oldApex = mB1BevelApex;
         mB1BevelApex = value;
+        invalidateExtractedWallOutline();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -648,6 +744,7 @@ public class Wall extends BaseSolidObject implements IObjectsContainer {
     public void setB2BevelApex(Optional<Position2D> value, List<IModelChange> changeTrace) {
         Optional<Position2D> oldApex = mB2BevelApex;
         mB2BevelApex = value;
+        invalidateExtractedWallOutline();
         changeTrace.add(new ObjectModificationChange(this) {
             @Override
             public void undo(List<IModelChange> undoChangeTrace) {
@@ -21,10 +21,10 @@ import java.util.List;
 import java.util.Optional;
 
 import de.dh.cad.architect.model.changes.IModelChange;
-import de.dh.cad.architect.model.coords.Angle;
 import de.dh.cad.architect.model.coords.Length;
 import de.dh.cad.architect.model.coords.LengthUnit;
-import de.dh.cad.architect.model.coords.MathUtils;
+import de.dh.cad.architect.model.coords.MutableVector2D;
+import de.dh.cad.architect.model.coords.Geometry2D;
 import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.coords.Vector2D;
 import de.dh.cad.architect.model.objects.Anchor;
@@ -268,6 +268,17 @@ public class WallAnchorPositions {
         return Optional.of(WallAnchorPositions.fromWallEnds(weapA, weapB));
     }
 
+    /**
+     * Same as {@link #calculateDockSituation(IWall)} but uses the memoized dock situation of the model wall
+     * if the given wall directly represents a model wall without overridden anchor positions.
+     */
+    public static Optional<WallAnchorPositions> getDockSituation(IWall wall) {
+        if (wall instanceof AdaptedModelWall adaptedWall && adaptedWall.getOverriddenAnchorPositions().isEmpty()) {
+            return adaptedWall.getModelWall().calculateDockSituation();
+        }
+        return calculateDockSituation(wall);
+    }
+
     /**
      * Gets the wall bevel which is set for the anchor dock of the given wall handle anchor.
      * The bevel type will be taken from the priority docked anchor, so it can not just be read from any wall, it should
@@ -320,19 +331,24 @@ public class WallAnchorPositions {
         }
     }
 
+    // Hot path during wall drag operations; calculations are done on primitive coordinates in internal format to avoid allocations
     protected static Optional<WallEndAnchorPositions> calculateWallEndAnchorPositions(WallEndBasePositions basePositions) {
         IWallAnchor thisNearHandleAnchor = basePositions.getNearHandleAnchor();
         Position2D thisNearHandlePosition = thisNearHandleAnchor.getPosition();
-        IWallAnchor thisFarHandleAnchor = basePositions.getFarHandleAnchor();
-        Position2D thisFarHandlePosition = thisFarHandleAnchor.getPosition();
-        Vector2D thisWallFN = basePositions.getVectorFN();
-        Length thisWallFNLength = thisWallFN.getLength();
-        Vector2D thisWallCW2 = basePositions.getVectorCW().times(0.5); // Pointing from this handle in clockwise direction
-        Vector2D thisWallCCW2 = thisWallCW2.negated(); // Pointing from this handle in counter clockwise direction
+        Position2D thisFarHandlePosition = basePositions.getFarHandlePosition();
+        double thisNearX = thisNearHandlePosition.getX().inInternalFormat();
+        double thisNearY = thisNearHandlePosition.getY().inInternalFormat();
+        double thisFarX = thisFarHandlePosition.getX().inInternalFormat();
+        double thisFarY = thisFarHandlePosition.getY().inInternalFormat();
+        double thisWallFNX = thisNearX - thisFarX;
+        double thisWallFNY = thisNearY - thisFarY;
+        double thisWallFNLength = Geometry2D.length(thisWallFNX, thisWallFNY);
         Length thisWallThickness = basePositions.getThickness();
+        double thisWallThicknessI = thisWallThickness.inInternalFormat();
+        double wallMinLength = WALL_MIN_LENGTH.inInternalFormat();
         WallBevelType bevelType = null;
 
-        if (thisWallFNLength.lt(WALL_MIN_LENGTH)) {
+        if (thisWallFNLength < wallMinLength) {
             return Optional.empty();
         }
 
@@ -375,12 +391,15 @@ public class WallAnchorPositions {
                 continue;
             }
 
-            Vector2D neighbourFN = thisNearHandlePosition.minus(neighbourFarHandleAnchor.getPosition()); // This handle position = other handle position at this side
-            if (neighbourFN.getLength().lt(WALL_MIN_LENGTH)) {
+            // This handle position = other handle position at this side
+            Position2D neighbourFarHandlePosition = neighbourFarHandleAnchor.getPosition();
+            double neighbourFNX = thisNearX - neighbourFarHandlePosition.getX().inInternalFormat();
+            double neighbourFNY = thisNearY - neighbourFarHandlePosition.getY().inInternalFormat();
+            if (Geometry2D.length(neighbourFNX, neighbourFNY) < wallMinLength) {
                 // Neighbour wall too short and thus invalid; treat it as if it would not exist
                 continue;
             }
-            double angle = Angle.angleBetween(neighbourFN, thisWallFN).getAngleDeg();
+            double angle = Geometry2D.angleBetweenDeg(neighbourFNX, neighbourFNY, thisWallFNX, thisWallFNY);
             if (Math.abs(angle % 360) < EPSILON) {
                 // Neighbour wall is parallel, skip
             }
@@ -394,113 +413,129 @@ public class WallAnchorPositions {
 
         if (leftWallData == null || rightWallData == null) {
             // Trivial case: No other (valid) wall is connected
-            return Optional.of(WallEndAnchorPositions.fromThickness(thisNearHandlePosition, thisWallFN, thisWallThickness, false));
+            return Optional.of(WallEndAnchorPositions.fromThickness(thisNearHandlePosition, thisNearHandlePosition.minus(thisFarHandlePosition), thisWallThickness, false));
         }
 
+        // Pointing from this handle in clockwise direction, half wall thickness
+        MutableVector2D v = new MutableVector2D();
+        Geometry2D.normalCW(thisWallFNX, thisWallFNY, thisWallThicknessI / 2, v);
+        double thisWallCW2X = v.getX();
+        double thisWallCW2Y = v.getY();
+
         // Left (CCW) situation
-        Position2D leftCorner;
+        MutableVector2D leftCorner = new MutableVector2D();
         Optional<Position2D> oLeftBevelApexCorner = Optional.empty();
         {
             double leftAngle = leftWallData.getAngle(); // Angle between thisWallFN and otherWallFN in degrees
-            Position2D thisNearCCW = thisNearHandlePosition.plus(thisWallCCW2);
-            Position2D thisFarCCW = thisFarHandlePosition.plus(thisWallCCW2);
-            Vector2D otherCW = leftWallData.getVectorCW().times(0.5);
-            Position2D otherNearHandlePosition = leftWallData.getNearHandlePosition();
+            double thisNearCCWX = thisNearX - thisWallCW2X;
+            double thisNearCCWY = thisNearY - thisWallCW2Y;
+            double thisFarCCWX = thisFarX - thisWallCW2X;
+            double thisFarCCWY = thisFarY - thisWallCW2Y;
             Position2D otherFarHandlePosition = leftWallData.getFarHandlePosition();
-            Position2D otherNearCW = otherNearHandlePosition.plus(otherCW);
-            Position2D otherFarCW = otherFarHandlePosition.plus(otherCW);
-            Vector2D otherFN = otherNearHandlePosition.minus(otherFarHandlePosition);
-            Length thickerWallThickness = Length.max(thisWallThickness, leftWallData.getThickness());
+            double otherFarX = otherFarHandlePosition.getX().inInternalFormat();
+            double otherFarY = otherFarHandlePosition.getY().inInternalFormat();
+            double otherFNX = thisNearX - otherFarX; // Other near handle position = this near handle position
+            double otherFNY = thisNearY - otherFarY;
+            double otherThickness = leftWallData.getThickness().inInternalFormat();
+            Geometry2D.normalCW(otherFNX, otherFNY, otherThickness / 2, v);
+            double otherNearCWX = thisNearX + v.getX();
+            double otherNearCWY = thisNearY + v.getY();
+            double otherFarCWX = otherFarX + v.getX();
+            double otherFarCWY = otherFarY + v.getY();
+            double thickerWallThickness = Math.max(thisWallThicknessI, otherThickness);
             boolean includeLeftBevelApex = !leftWallData.hasBevelPriority();
 
             if (Math.abs(leftAngle) < EPSILON) {
                 // Other wall parallel, located over this wall (pointing to same direction)
                 return Optional.empty(); // Invalid situation, (hopefully) prevented by check above
             } else if (Math.abs(leftAngle - 180) < EPSILON) {
-                leftCorner = thisNearCCW; // Walls nearly parallel, other wall is elongation of this wall
+                leftCorner.set(thisNearCCWX, thisNearCCWY); // Walls nearly parallel, other wall is elongation of this wall
             } else if (leftAngle < 180) {
-                 leftCorner = MathUtils.calculateLinesIntersectionPoint(
-                    thisNearCCW, thisFarCCW,
-                    otherNearCW, otherFarCW).orElse(null);
-
-                if (leftCorner == null || leftCorner.distance(thisNearCCW).gt(thisWallFNLength)
-                        || leftCorner.distance(otherNearCW).gt(otherFN.getLength())) {
-                    leftCorner = thisNearCCW; // Intersection point outside wall range of shorter wall
+                if (!Geometry2D.calculateLinesIntersectionPoint(
+                            thisNearCCWX, thisNearCCWY, thisFarCCWX, thisFarCCWY,
+                            otherNearCWX, otherNearCWY, otherFarCWX, otherFarCWY, leftCorner)
+                        || leftCorner.distance(thisNearCCWX, thisNearCCWY) > thisWallFNLength
+                        || leftCorner.distance(otherNearCWX, otherNearCWY) > Geometry2D.length(otherFNX, otherFNY)) {
+                    leftCorner.set(thisNearCCWX, thisNearCCWY); // Intersection point outside wall range of shorter wall
                 }
             } else { // leftAngle > 180
                 if (bevelType == WallBevelType.Miter) {
-                    leftCorner = MathUtils.calculateLinesIntersectionPoint(
-                        thisNearCCW, thisFarCCW,
-                        otherNearCW, otherFarCW).orElse(null);
-                    if (leftCorner == null || leftAngle > 270 && (
-                            leftCorner.distance(thisNearHandlePosition).gt(thickerWallThickness))) {
+                    if (!Geometry2D.calculateLinesIntersectionPoint(
+                                thisNearCCWX, thisNearCCWY, thisFarCCWX, thisFarCCWY,
+                                otherNearCWX, otherNearCWY, otherFarCWX, otherFarCWY, leftCorner)
+                            || leftAngle > 270 && leftCorner.distance(thisNearX, thisNearY) > thickerWallThickness) {
                         // Walls build a sharp angle, intersection point is too far away; fallback to bevel
-                        leftCorner = thisNearCCW;
+                        leftCorner.set(thisNearCCWX, thisNearCCWY);
                         if (includeLeftBevelApex) {
-                            oLeftBevelApexCorner = Optional.of(otherNearCW);
+                            oLeftBevelApexCorner = Optional.of(Position2D.ofInternalFormat(otherNearCWX, otherNearCWY));
                         }
                     }
                 } else if (bevelType == WallBevelType.Bevel) {
-                    leftCorner = thisNearCCW;
+                    leftCorner.set(thisNearCCWX, thisNearCCWY);
                     if (includeLeftBevelApex) {
-                        oLeftBevelApexCorner = Optional.of(otherNearCW);
+                        oLeftBevelApexCorner = Optional.of(Position2D.ofInternalFormat(otherNearCWX, otherNearCWY));
                     }
                 } else throw new IllegalArgumentException("Unexpected value for wall bevel type: '" + bevelType + "'");
             }
         }
 
         // Right (CW) situation
-        Position2D rightCorner;
+        MutableVector2D rightCorner = new MutableVector2D();
         Optional<Position2D> oRightBevelApexCorner = Optional.empty();
         {
             double rightAngle = rightWallData.getAngle(); // Angle between thisWallFN and otherWallFN in degrees
-            Position2D thisNearCW = thisNearHandlePosition.plus(thisWallCW2);
-            Position2D thisFarCW = thisFarHandlePosition.plus(thisWallCW2);
-            Vector2D otherCCW = rightWallData.getVectorCCW().times(0.5);
-            Position2D otherNearHandlePosition = rightWallData.getNearHandlePosition();
+            double thisNearCWX = thisNearX + thisWallCW2X;
+            double thisNearCWY = thisNearY + thisWallCW2Y;
+            double thisFarCWX = thisFarX + thisWallCW2X;
+            double thisFarCWY = thisFarY + thisWallCW2Y;
             Position2D otherFarHandlePosition = rightWallData.getFarHandlePosition();
-            Position2D otherNearCCW = otherNearHandlePosition.plus(otherCCW);
-            Position2D otherFarCCW = otherFarHandlePosition.plus(otherCCW);
-            Vector2D otherFN = otherNearHandlePosition.minus(otherFarHandlePosition);
-            Length thickerWallThickness = Length.max(thisWallThickness, rightWallData.getThickness());
+            double otherFarX = otherFarHandlePosition.getX().inInternalFormat();
+            double otherFarY = otherFarHandlePosition.getY().inInternalFormat();
+            double otherFNX = thisNearX - otherFarX; // Other near handle position = this near handle position
+            double otherFNY = thisNearY - otherFarY;
+            double otherThickness = rightWallData.getThickness().inInternalFormat();
+            Geometry2D.normalCW(otherFNX, otherFNY, otherThickness / 2, v);
+            double otherNearCCWX = thisNearX - v.getX();
+            double otherNearCCWY = thisNearY - v.getY();
+            double otherFarCCWX = otherFarX - v.getX();
+            double otherFarCCWY = otherFarY - v.getY();
+            double thickerWallThickness = Math.max(thisWallThicknessI, otherThickness);
             boolean includeRightBevelApex = !rightWallData.hasBevelPriority();
 
             if (Math.abs(rightAngle) < EPSILON) {
                 // Other wall parallel, located over this wall (pointing to same direction)
                 return Optional.empty(); // Invalid situation, (hopefully) prevented by check above
             } else if (Math.abs(rightAngle - 180) < EPSILON) {
-                rightCorner = thisNearCW; // Walls nearly parallel, other wall is elongation of this wall
+                rightCorner.set(thisNearCWX, thisNearCWY); // Walls nearly parallel, other wall is elongation of this wall
             } else if (rightAngle > 180) {
-                rightCorner = MathUtils.calculateLinesIntersectionPoint(
-                    thisNearCW, thisFarCW,
-                    otherNearCCW, otherFarCCW).orElse(null);
-
-                if (rightCorner == null || rightCorner.distance(thisNearCW).gt(thisWallFNLength)
-                        || rightCorner.distance(otherNearCCW).gt(otherFN.getLength())) {
-                    rightCorner = thisNearCW; // Intersection point outside wall range of shorter wall
+                if (!Geometry2D.calculateLinesIntersectionPoint(
+                            thisNearCWX, thisNearCWY, thisFarCWX, thisFarCWY,
+                            otherNearCCWX, otherNearCCWY, otherFarCCWX, otherFarCCWY, rightCorner)
+                        || rightCorner.distance(thisNearCWX, thisNearCWY) > thisWallFNLength
+                        || rightCorner.distance(otherNearCCWX, otherNearCCWY) > Geometry2D.length(otherFNX, otherFNY)) {
+                    rightCorner.set(thisNearCWX, thisNearCWY); // Intersection point outside wall range of shorter wall
                 }
             } else { // rightAngle < 180
                 if (bevelType == WallBevelType.Miter) {
-                    rightCorner = MathUtils.calculateLinesIntersectionPoint(
-                        thisNearCW, thisFarCW,
-                        otherNearCCW, otherFarCCW).orElse(null);
-                    if (rightCorner == null || rightAngle < 90 && (
-                            rightCorner.distance(thisNearHandlePosition).gt(thickerWallThickness))) {
+                    if (!Geometry2D.calculateLinesIntersectionPoint(
+                                thisNearCWX, thisNearCWY, thisFarCWX, thisFarCWY,
+                                otherNearCCWX, otherNearCCWY, otherFarCCWX, otherFarCCWY, rightCorner)
+                            || rightAngle < 90 && rightCorner.distance(thisNearX, thisNearY) > thickerWallThickness) {
                         // Walls build a sharp angle, intersection point is too far away; fallback to bevel
-                        rightCorner = thisNearCW;
+                        rightCorner.set(thisNearCWX, thisNearCWY);
                         if (includeRightBevelApex) {
-                            oRightBevelApexCorner = Optional.of(otherNearCCW);
+                            oRightBevelApexCorner = Optional.of(Position2D.ofInternalFormat(otherNearCCWX, otherNearCCWY));
                         }
                     }
                 } else if (bevelType == WallBevelType.Bevel) {
-                    rightCorner = thisNearCW;
+                    rightCorner.set(thisNearCWX, thisNearCWY);
                     if (includeRightBevelApex) {
-                        oRightBevelApexCorner = Optional.of(otherNearCCW);
+                        oRightBevelApexCorner = Optional.of(Position2D.ofInternalFormat(otherNearCCWX, otherNearCCWY));
                     }
                 } else throw new IllegalArgumentException("Unexpected value for wall bevel type: '" + bevelType + "'");
             }
         }
-        return Optional.of(new WallEndAnchorPositions(leftCorner, oLeftBevelApexCorner, thisNearHandlePosition, oRightBevelApexCorner, rightCorner, true));
+        return Optional.of(new WallEndAnchorPositions(leftCorner.toPosition2D(), oLeftBevelApexCorner, thisNearHandlePosition, oRightBevelApexCorner, rightCorner.toPosition2D(), true));
     }
 
     public Position2D getHandleA() {
@@ -0,0 +1,92 @@
+package de.dh.cad.architect.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dh.cad.architect.model.changes.IModelChange;
+import de.dh.cad.architect.model.coords.Dimensions2D;
+import de.dh.cad.architect.model.coords.Length;
+import de.dh.cad.architect.model.coords.Position2D;
+import de.dh.cad.architect.model.objects.Anchor;
+import de.dh.cad.architect.model.objects.ObjectsGroup;
+import de.dh.cad.architect.model.objects.Wall;
+import de.dh.cad.architect.model.objects.WallHole;
+import de.dh.cad.architect.model.wallmodel.WallDockEnd;
+
+/**
+ * Test class for {@link Plan#copy()}.
+ */
+public class PlanCopyTest {
+    @Test
+    @DisplayName("Plan copy references only copied objects")
+    public void testCopyReferences() {
+        List<IModelChange> changeTrace = new ArrayList<>();
+        Plan plan = Plan.newPlan();
+        Wall wall1 = Wall.createFromHandlePositions("1", Length.ofCM(20), Length.ofM(2.5), Length.ofM(2.5),
+            Position2D.ofInternalFormat(0, 0), Position2D.ofInternalFormat(5000, 0), plan, changeTrace);
+        Wall wall2 = Wall.createFromHandlePositions("2", Length.ofCM(20), Length.ofM(2.5), Length.ofM(2.5),
+            Position2D.ofInternalFormat(5000, 0), Position2D.ofInternalFormat(5000, 4000), plan, changeTrace);
+        wall2.getAnchorWallHandleA().setDockMaster(wall1.getAnchorWallHandleB(), changeTrace);
+        WallHole hole = WallHole.createFromParameters("Window", Length.ofM(1), new Dimensions2D(Length.ofM(1), Length.ofM(1)),
+            WallDockEnd.A, Length.ofM(1), wall1, changeTrace);
+        ObjectsGroup group = ObjectsGroup.create("Group", "Group", plan, changeTrace);
+        group.addAllObjects(Arrays.asList(wall1, wall2), changeTrace);
+
+        Plan copy = plan.copy();
+
+        Wall wall1Copy = copy.getWalls().get(wall1.getId());
+        Wall wall2Copy = copy.getWalls().get(wall2.getId());
+        assertNotSame(wall1, wall1Copy, "Wall must be copied");
+        assertSame(copy, wall1Copy.getOwnerContainer(), "Copied wall must be owned by the copied plan");
+        assertEquals(plan.getAnchors().size(), copy.getAnchors().size(), "Number of anchors must be equal");
+        for (Anchor anchor : wall1Copy.getAnchors()) {
+            assertSame(wall1Copy, anchor.getAnchorOwner(), "Anchor must be owned by the copied wall");
+            assertSame(anchor, copy.getAnchors().get(anchor.getId()), "Anchor of the copied wall must be the plan copy's anchor");
+        }
+        assertSame(wall1Copy.getAnchorWallHandleB(), wall2Copy.getAnchorWallHandleA().getDockMaster().get(), "Dock master must be the copied anchor");
+        assertTrue(wall1Copy.getAnchorWallHandleB().getDockSlaves().contains(wall2Copy.getAnchorWallHandleA()), "Dock slave must be the copied anchor");
+
+        WallHole holeCopy = (WallHole) copy.getObjectById(hole.getId());
+        assertNotSame(hole, holeCopy, "Wall hole must be copied");
+        assertSame(wall1Copy, holeCopy.getOwnerContainer(), "Copied wall hole must be owned by the copied wall");
+
+        ObjectsGroup groupCopy = copy.getGroups().get(group.getId());
+        assertTrue(groupCopy.getGroupedObjects().contains(wall1Copy) && groupCopy.getGroupedObjects().stream().allMatch(o -> o == wall1Copy || o == wall2Copy),
+            "Group must contain the copied walls");
+        assertTrue(wall1Copy.getGroups().stream().allMatch(g -> g == groupCopy), "Copied wall must be in the copied group");
+    }
+
+    @Test
+    @DisplayName("Plan copy is independent of changes of the plan")
+    public void testCopyIndependence() {
+        List<IModelChange> changeTrace = new ArrayList<>();
+        Plan plan = Plan.newPlan();
+        Wall wall = Wall.createFromHandlePositions("1", Length.ofCM(20), Length.ofM(2.5), Length.ofM(2.5),
+            Position2D.ofInternalFormat(0, 0), Position2D.ofInternalFormat(5000, 0), plan, changeTrace);
+        Plan copy = plan.copy();
+        Wall wallCopy = copy.getWalls().get(wall.getId());
+
+        wall.setThickness(Length.ofCM(30), changeTrace);
+        wall.getAnchorWallHandleB().setPosition(Position2D.ofInternalFormat(6000, 0), changeTrace);
+        wall.setName("Changed", changeTrace);
+        WallHole.createFromParameters("Door", Length.ZERO, new Dimensions2D(Length.ofM(1), Length.ofM(2)),
+            WallDockEnd.A, Length.ofM(1), wall, changeTrace);
+
+        assertEquals(Length.ofCM(20), wallCopy.getThickness(), "Thickness of the copy must not change");
+        assertEquals(Position2D.ofInternalFormat(5000, 0), wallCopy.getAnchorWallHandleB().getPosition(), "Anchor of the copy must not move");
+        assertEquals("1", wallCopy.getName(), "Name of the copy must not change");
+        assertTrue(wallCopy.getWallHoles().isEmpty(), "Copy must not get the new wall hole");
+        assertEquals(plan.getAnchors().size() - 4, copy.getAnchors().size(), "Copy must not get the anchors of the new wall hole");
+        assertNotSame(wall.getSurfaceConfigurations().iterator().next(), wallCopy.getSurfaceConfigurations().iterator().next(),
+            "Surface configurations must be copied");
+    }
+}
@@ -0,0 +1,59 @@
+package de.dh.cad.architect.model.coords;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link Geometry2D}.
+ */
+public class Geometry2DTest {
+    protected static final double EPSILON = 0.0001;
+
+    @Test
+    @DisplayName("Lines intersection test")
+    public void testLinesIntersection() {
+        MutableVector2D result = new MutableVector2D();
+        assertTrue(Geometry2D.calculateLinesIntersectionPoint(0, 0, 10, 10, 0, 10, 10, 0, result), "Lines should intersect");
+        assertEquals(5, result.getX(), EPSILON, "Wrong X coordinate of intersection point");
+        assertEquals(5, result.getY(), EPSILON, "Wrong Y coordinate of intersection point");
+
+        assertFalse(Geometry2D.calculateLinesIntersectionPoint(0, 0, 10, 0, 0, 5, 10, 5, result), "Parallel lines must not intersect");
+
+        Optional<Position2D> oIntersection = MathUtils.calculateLinesIntersectionPoint(
+            Position2D.ofInternalFormat(0, 0), Position2D.ofInternalFormat(10, 10),
+            Position2D.ofInternalFormat(0, 10), Position2D.ofInternalFormat(10, 0));
+        assertTrue(oIntersection.isPresent(), "Lines should intersect");
+        assertTrue(MathUtils.isAlmostEqual(oIntersection.get(), Position2D.ofInternalFormat(5, 5)), "Wrong intersection point");
+    }
+
+    @Test
+    @DisplayName("Angle test")
+    public void testAngleBetween() {
+        assertEquals(90, Geometry2D.angleBetweenDeg(1, 0, 0, 1), EPSILON, "Angle must be measured counter-clockwise");
+        assertEquals(270, Geometry2D.angleBetweenDeg(0, 1, 1, 0), EPSILON, "Angle must be in range 0-360 degrees");
+        assertEquals(Angle.angleBetween(Vector2D.X1M, Vector2D.X1M.rotate(30)).getAngleDeg(),
+            Geometry2D.angleBetweenDeg(1, 0, Math.cos(Math.PI / 6), Math.sin(Math.PI / 6)), EPSILON, "Value types must produce the same angle");
+    }
+
+    @Test
+    @DisplayName("Polygon/rectangle intersection test")
+    public void testPolygonIntersectsRectangle() {
+        // L-shaped polygon
+        double[] polygon = new double[] {0, 0, 10, 0, 10, 2, 2, 2, 2, 10, 0, 10};
+        assertTrue(Geometry2D.polygonIntersectsRectangle(polygon, 1, 1, 3, 3), "Rectangle overlapping a polygon corner must intersect");
+        assertTrue(Geometry2D.polygonIntersectsRectangle(polygon, 0.5, 0.5, 1.5, 1.5), "Rectangle inside the polygon must intersect");
+        assertTrue(Geometry2D.polygonIntersectsRectangle(polygon, -5, -5, 20, 20), "Rectangle enclosing the polygon must intersect");
+        assertTrue(Geometry2D.polygonIntersectsRectangle(polygon, 4, -1, 5, 3), "Rectangle crossing a polygon edge must intersect");
+        assertFalse(Geometry2D.polygonIntersectsRectangle(polygon, 4, 4, 8, 8), "Rectangle in the polygon's notch must not intersect");
+        assertFalse(Geometry2D.polygonIntersectsRectangle(polygon, 11, 0, 12, 10), "Rectangle beside the polygon must not intersect");
+
+        assertTrue(Geometry2D.circleIntersectsRectangle(0, 0, 1.5, 1, 1, 2, 2), "Circle should intersect");
+        assertFalse(Geometry2D.circleIntersectsRectangle(0, 0, 1.2, 1, 1, 2, 2), "Circle must not intersect");
+    }
+}
@@ -0,0 +1,140 @@
+package de.dh.cad.architect.model.objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.model.changes.IModelChange;
+import de.dh.cad.architect.model.coords.Length;
+import de.dh.cad.architect.model.coords.Position2D;
+import de.dh.cad.architect.model.wallmodel.AdaptedModelWall;
+import de.dh.cad.architect.model.wallmodel.WallAnchorPositions;
+import de.dh.cad.architect.model.wallmodel.WallBevelType;
+import de.dh.cad.architect.model.wallmodel.WallOutline;
+import de.dh.cad.architect.model.wallmodel.WallOutlineCorner;
+
+/**
+ * Test class for the cached wall outline data of {@link Wall}.
+ */
+public class WallTest {
+    protected final List<IModelChange> mChangeTrace = new ArrayList<>();
+    protected Wall mWall1;
+    protected Wall mWall2;
+
+    @BeforeEach
+    public void setUp() {
+        Plan plan = Plan.newPlan();
+        mWall1 = Wall.createFromHandlePositions("1", Length.ofCM(20), Length.ofM(2.5), Length.ofM(2.5),
+            Position2D.ofInternalFormat(0, 0), Position2D.ofInternalFormat(5000, 0), plan, mChangeTrace);
+        mWall2 = Wall.createFromHandlePositions("2", Length.ofCM(10), Length.ofM(2.5), Length.ofM(2.5),
+            Position2D.ofInternalFormat(5000, 0), Position2D.ofInternalFormat(5000, 4000), plan, mChangeTrace);
+        // Fill the caches
+        assertCachesUpToDate();
+    }
+
+    protected static String describe(Optional<WallAnchorPositions> oWallAnchorPositions) {
+        return oWallAnchorPositions.map(wap -> "Handles: " + wap.getHandleA() + ", " + wap.getHandleB()
+            + "; Corners: " + wap.getCornerA1() + ", " + wap.getCornerA2() + ", " + wap.getCornerB1() + ", " + wap.getCornerB2()
+            + "; Bevel apexes: " + wap.getOA1BevelApex() + ", " + wap.getOA2BevelApex() + ", " + wap.getOB1BevelApex() + ", " + wap.getOB2BevelApex()
+            + "; Outline: " + describe(wap.calculateWallOutlineCW())).orElse("-");
+    }
+
+    protected static String describe(WallOutline wallOutline) {
+        StringBuilder result = new StringBuilder();
+        for (WallOutlineCorner corner : wallOutline.getCornersAsList()) {
+            result.append(corner.getPosition());
+            if (corner.getNext() != null) {
+                result.append(" -" + corner.getNext().getSurface() + (corner.getNext().isNeighborBorder() ? "(N)" : "") + "- ");
+            }
+        }
+        return result.toString();
+    }
+
+    protected static Optional<WallAnchorPositions> calculateFreshWallAnchorPositions(Wall wall) {
+        return Optional.of(new WallAnchorPositions(
+            wall.getAnchorWallHandleA().requirePosition2D(),
+            wall.getAnchorWallHandleB().requirePosition2D(),
+            wall.hasNeighborWallA(),
+            wall.hasNeighborWallB(),
+            wall.getAnchorWallCornerLA1().getPosition().projectionXY(), wall.getA1BevelApex(),
+            wall.getAnchorWallCornerLA2().getPosition().projectionXY(), wall.getA2BevelApex(),
+            wall.getAnchorWallCornerLB1().getPosition().projectionXY(), wall.getB1BevelApex(),
+            wall.getAnchorWallCornerLB2().getPosition().projectionXY(), wall.getB2BevelApex()));
+    }
+
+    protected static void assertCacheUpToDate(Wall wall) {
+        Optional<WallAnchorPositions> freshWallAnchorPositions = calculateFreshWallAnchorPositions(wall);
+        assertEquals(describe(freshWallAnchorPositions), describe(wall.extractWallAnchorPositions()),
+            "Cached anchor positions of wall " + wall.getName() + " must be up to date");
+        assertEquals(freshWallAnchorPositions.map(wap -> describe(wap.calculateWallOutlineCW())), wall.extractWallOutlineCW().map(WallTest::describe),
+            "Cached outline of wall " + wall.getName() + " must be up to date");
+        assertEquals(describe(WallAnchorPositions.calculateDockSituation(new AdaptedModelWall(wall))), describe(wall.calculateDockSituation()),
+            "Cached dock situation of wall " + wall.getName() + " must be up to date");
+    }
+
+    protected void assertCachesUpToDate() {
+        assertCacheUpToDate(mWall1);
+        assertCacheUpToDate(mWall2);
+    }
+
+    protected void dockWalls() {
+        mWall2.getAnchorWallHandleA().setDockMaster(mWall1.getAnchorWallHandleB(), mChangeTrace);
+    }
+
+    @Test
+    @DisplayName("Caches are updated when anchors are moved")
+    public void testMoveAnchors() {
+        dockWalls();
+        assertCachesUpToDate();
+
+        mWall1.getAnchorWallHandleA().setPosition(Position2D.ofInternalFormat(-1000, 500), mChangeTrace);
+        assertCachesUpToDate();
+
+        mWall1.getAnchorWallHandleB().setDockPosition(Position2D.ofInternalFormat(4000, 1000), mChangeTrace);
+        assertCachesUpToDate();
+
+        mWall1.getAnchorWallCornerLA1().setPosition(mWall1.getAnchorWallCornerLA1().getPosition().withX(Length.ofCM(10)), mChangeTrace);
+        assertCachesUpToDate();
+    }
+
+    @Test
+    @DisplayName("Caches are updated when walls are docked and undocked")
+    public void testDockAndUndock() {
+        assertTrue(!mWall1.hasNeighborWallB() && !mWall2.hasNeighborWallA(), "Walls must not be docked initially");
+
+        dockWalls();
+        assertTrue(mWall1.hasNeighborWallB() && mWall2.hasNeighborWallA(), "Walls must be docked");
+        assertCachesUpToDate();
+
+        mWall2.getAnchorWallHandleA().undockFromDockMaster(mChangeTrace);
+        assertTrue(!mWall1.hasNeighborWallB() && !mWall2.hasNeighborWallA(), "Walls must be undocked");
+        assertCachesUpToDate();
+    }
+
+    @Test
+    @DisplayName("Caches are updated when thickness and bevel types change")
+    public void testChangeThicknessAndBevel() {
+        dockWalls();
+        assertCachesUpToDate();
+
+        mWall1.setThickness(Length.ofCM(40), mChangeTrace);
+        assertCachesUpToDate();
+
+        mWall1.setWallBevelB(WallBevelType.Bevel, mChangeTrace);
+        assertCachesUpToDate();
+
+        mWall2.setWallBevelA(WallBevelType.Bevel, mChangeTrace);
+        assertCachesUpToDate();
+
+        mWall1.setB1BevelApex(Optional.of(Position2D.ofInternalFormat(5100, -100)), mChangeTrace);
+        assertCachesUpToDate();
+    }
+}
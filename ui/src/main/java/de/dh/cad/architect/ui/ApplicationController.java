@@ -20,21 +20,55 @@ package de.dh.cad.architect.ui;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.model.changes.IModelChange;
+import de.dh.cad.architect.model.objects.Anchor;
 import de.dh.cad.architect.model.objects.BaseObject;
+import de.dh.cad.architect.model.objects.IObjectsContainer;
+import de.dh.cad.architect.model.objects.Wall;
 import de.dh.cad.architect.ui.assets.AssetManager;
+import de.dh.cad.architect.ui.controller.ChangeEntry;
+import de.dh.cad.architect.ui.controller.ICommittedChangeHandler;
 import de.dh.cad.architect.ui.controller.ObjectsChangeHandler;
 import de.dh.cad.architect.ui.controller.UiController;
+import de.dh.cad.architect.ui.persistence.PlanChangeJournal;
+import de.dh.cad.architect.ui.persistence.PlanChangeJournal.Record;
+import de.dh.cad.architect.ui.persistence.PlanChangeJournal.RecoveryInfo;
 import de.dh.cad.architect.ui.persistence.PlanFile;
 import de.dh.cad.architect.ui.persistence.PlanFileIO;
+import de.dh.cad.architect.ui.persistence.PlanFileIO.PlanFileFormat;
+import de.dh.cad.architect.ui.persistence.PlanFileStreamIO;
 import de.dh.cad.architect.utils.vfs.PlainFileSystemDirectoryLocator;
 import de.dh.utils.fx.StageState;
+import de.dh.utils.fx.dialogs.ProgressDialog;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
@@ -42,6 +76,8 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonBar.ButtonData;
@@ -50,6 +86,7 @@ import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import javafx.stage.Stage;
 import javafx.stage.Window;
+import javafx.util.Duration;
 
 /**
  * Root application controller, responsible for managing the open file, the configuration and the UI controller.
@@ -62,6 +99,38 @@ public class ApplicationController {
     protected final ObjectProperty<Plan> mPlanProperty = new SimpleObjectProperty<>();
     protected final ObjectProperty<Path> mPlanFilePathProperty = new SimpleObjectProperty<>();
     protected final ObjectProperty<Boolean> mDirtyProperty = new SimpleObjectProperty<>(false);
+    protected final ObjectProperty<Task<Void>> mRunningSaveTaskProperty = new SimpleObjectProperty<>(null);
+
+    // Single thread to write plan files in the order of their save requests
+    protected final ExecutorService mSaveExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread result = new Thread(r, "Plan file writer");
+        result.setDaemon(true);
+        return result;
+    });
+
+    // Counts the changes of the plan to detect changes which were made while the plan was saved in the background
+    protected long mPlanChangeCount = 0;
+
+    /**
+     * Number of journal records after which the journal is merged into a new checkpoint of the plan.
+     */
+    public static final int CHECKPOINT_INTERVAL_CHANGES = 50;
+
+    /**
+     * Time without further changes after which the pending change is written to the journal, although it could still be
+     * continued by merged changes.
+     */
+    public static final Duration JOURNAL_IDLE_DELAY = Duration.seconds(1);
+
+    // Journal of the current plan, only present if the plan has a file path. The journal's methods are only called in the
+    // plan file writer thread.
+    protected PlanChangeJournal mJournal = null;
+
+    // Ids of the plan level objects which were touched by the pending change, which is not yet written to the journal
+    protected final Set<String> mPendingJournalObjectIds = new LinkedHashSet<>();
+    protected String mPendingJournalChangeDescription = null;
+    protected final PauseTransition mJournalIdleTimer = new PauseTransition(JOURNAL_IDLE_DELAY);
+
     protected final UiController mUiController;
     protected final AssetManager mAssetManager;
 
@@ -72,19 +141,26 @@ public class ApplicationController {
         mUiController.addChangeHandler(new ObjectsChangeHandler() {
             @Override
             public void objectsRemoved(Collection<BaseObject> removedObjects) {
-                setDirty(true);
+                planChanged();
             }
 
             @Override
             public void objectsChanged(Collection<BaseObject> changedObjects) {
-                setDirty(true);
+                planChanged();
             }
 
             @Override
             public void objectsAdded(Collection<BaseObject> addedObjects) {
-                setDirty(true);
+                planChanged();
             }
         });
+        mUiController.addCommittedChangeHandler(new ICommittedChangeHandler() {
+            @Override
+            public void changeCommitted(ChangeEntry changeEntry, boolean merged) {
+                journalChange(changeEntry, merged);
+            }
+        });
+        mJournalIdleTimer.setOnFinished(event -> flushJournal());
         mAssetManager = AssetManager.create();
     }
 
@@ -120,6 +196,8 @@ public class ApplicationController {
             public void changed(ObservableValue<? extends Plan> observable, Plan oldValue, Plan newValue) {
                 // Attention: Ensure that mPlanFilePath is always set before setting mPlanProperty
                 mAssetManager.setCurrentPlan(newValue.getId(), new PlainFileSystemDirectoryLocator(getPlanFilePath()));
+                // Load the plan's assets while the views create their representations
+                mAssetManager.getPrefetcher().prefetch(newValue);
             }
         };
         mPlanFilePathProperty.addListener(updateTitleChangeListener);
@@ -136,18 +214,27 @@ public class ApplicationController {
         if (path == null) {
             newPlan();
         } else {
-            try {
-                loadPlanFile(path);
-            } catch (Exception e) {
-                log.error("Unable to load last plan '" + path + "', starting with a new one", e);
-                newPlan();
-            }
+            // There is no plan to go back to, so a new plan is created if loading fails or is cancelled
+            Task<Void> loadTask = loadPlanFileAsync(path, true);
+            loadTask.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> {
+                log.error("Unable to load last plan '" + path + "', starting with a new one", event.getSource().getException());
+            });
         }
     }
 
     public void shutdown() {
         log.info("Exiting from application");
         mUiController.shutdown();
+        closeJournal(!isDirty());
+        mSaveExecutor.shutdown();
+        try {
+            // Pending journal records must be written before the JVM terminates the daemon writer thread
+            if (!mSaveExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Plan file writer didn't finish in time, the change journal might be incomplete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         mAssetManager.shutdown();
         saveStageState();
         Platform.exit();
@@ -161,6 +248,10 @@ public class ApplicationController {
         Path planFilePath = getPlanFilePath();
         String dirtyMarker = isDirty() ? "*" : "";
         String firstPart = planFilePath == null ? (Strings.NEW_PLAN_FILE + dirtyMarker) : (getPlanName(planFilePath) + dirtyMarker + " - " + planFilePath.toString());
+        Task<Void> saveTask = mRunningSaveTaskProperty.get();
+        if (saveTask != null) {
+            firstPart += " - " + MessageFormat.format(Strings.SAVING_PLAN_TITLE_MARKER, Math.round(Math.max(0, saveTask.getProgress()) * 100));
+        }
         String title = firstPart + " - " + Strings.MAIN_WINDOW_TITLE;
         mPrimaryStage.setTitle(title);
     }
@@ -214,6 +305,141 @@ public class ApplicationController {
         mDirtyProperty.setValue(value);
     }
 
+    protected void planChanged() {
+        mPlanChangeCount++;
+        setDirty(true);
+    }
+
+    /**
+     * Opens a new change journal for the current plan, which is stored at the given file path.
+     * @param keepRecords If set to {@code true}, the existing journal of the plan file is continued, which must be done
+     * if the current plan was restored from that journal.
+     */
+    protected void openJournal(Path planFilePath, boolean keepRecords) {
+        closeJournal(false);
+        mJournal = new PlanChangeJournal(planFilePath, CHECKPOINT_INTERVAL_CHANGES);
+        executeJournalOperation(mJournal, journal -> journal.open(keepRecords));
+    }
+
+    /**
+     * Closes the change journal of the current plan.
+     * @param discard If set to {@code true}, the journal and checkpoint files are deleted. This must be done
+     * if the plan doesn't contain changes which are not saved or which should be kept.
+     */
+    protected void closeJournal(boolean discard) {
+        if (mJournal == null) {
+            return;
+        }
+        if (discard) {
+            clearPendingJournalChange();
+        } else {
+            flushJournal();
+        }
+        PlanChangeJournal journal = mJournal;
+        mJournal = null;
+        if (journal != null) {
+            executeJournalOperation(journal, discard ? PlanChangeJournal::discard : PlanChangeJournal::close);
+        }
+    }
+
+    /**
+     * Executes the given operation on the given journal in the plan file writer thread, in order with plan file writes.
+     */
+    protected void executeJournalOperation(PlanChangeJournal journal, Consumer<PlanChangeJournal> operation) {
+        mSaveExecutor.execute(() -> {
+            try {
+                operation.accept(journal);
+            } catch (Exception e) {
+                log.warn("Error writing change journal for plan file '" + journal.getPlanFilePath() + "', continuing without journal", e);
+                try {
+                    journal.close();
+                } catch (Exception ce) {
+                    // Ignore, the journal is unusable anyway
+                }
+            }
+        });
+    }
+
+    /**
+     * Collects the plan level objects which were touched by the given change. The journal record for a change is only written
+     * when the change is complete, so the single steps of a drag operation don't produce records.
+     */
+    protected void journalChange(ChangeEntry changeEntry, boolean merged) {
+        if (mJournal == null) {
+            return;
+        }
+        if (!merged) {
+            flushJournal();
+        }
+        mPendingJournalChangeDescription = changeEntry.getChangeDescription();
+        IModelChange change = changeEntry.getModelChange();
+        collectJournalObjectIds(change.getAdditions());
+        collectJournalObjectIds(change.getModifications());
+        collectJournalObjectIds(change.getRemovals());
+        mJournalIdleTimer.playFromStart();
+    }
+
+    protected void collectJournalObjectIds(Collection<BaseObject> objects) {
+        Plan plan = getPlan();
+        for (BaseObject object : objects) {
+            // Objects which are stored inside other objects, like wall holes, are journaled with their plan level owner
+            BaseObject journalObject = object;
+            while (journalObject != null && !(journalObject instanceof Anchor) && !plan.isRootObject(journalObject)) {
+                IObjectsContainer owner = journalObject.getOwnerContainer();
+                journalObject = owner instanceof BaseObject bo ? bo : null;
+            }
+            if (journalObject != null) {
+                mPendingJournalObjectIds.add(journalObject.getId());
+            }
+        }
+    }
+
+    protected void clearPendingJournalChange() {
+        mJournalIdleTimer.stop();
+        mPendingJournalObjectIds.clear();
+        mPendingJournalChangeDescription = null;
+    }
+
+    /**
+     * Writes the pending change to the journal. The states of the touched objects are serialized here, in the FX thread,
+     * the record is written in the plan file writer thread.
+     */
+    protected void flushJournal() {
+        if (mJournal == null || mPendingJournalObjectIds.isEmpty()) {
+            clearPendingJournalChange();
+            return;
+        }
+        Plan plan = getPlan();
+        Map<String, String> objectStates = new LinkedHashMap<>();
+        List<String> removedObjectIds = new ArrayList<>();
+        Record record;
+        try {
+            for (String id : mPendingJournalObjectIds) {
+                BaseObject object = plan.getObjectById(id);
+                if (object == null) {
+                    removedObjectIds.add(id);
+                } else {
+                    objectStates.put(id, PlanFileStreamIO.writePlanObject(object));
+                }
+            }
+            record = new Record(Instant.now(), mPendingJournalChangeDescription, objectStates, removedObjectIds);
+        } catch (Exception e) {
+            log.warn("Error serializing change for journal, continuing without journal", e);
+            clearPendingJournalChange();
+            closeJournal(false);
+            return;
+        }
+        clearPendingJournalChange();
+        executeJournalOperation(mJournal, journal -> journal.append(record));
+    }
+
+    /**
+     * Returns the task which currently writes the plan file in the background or {@code null}.
+     */
+    public ReadOnlyObjectProperty<Task<Void>> runningSaveTaskProperty() {
+        return mRunningSaveTaskProperty;
+    }
+
     public AssetManager getAssetManager() {
         return mAssetManager;
     }
@@ -223,6 +449,7 @@ public class ApplicationController {
      */
     public void newPlan() {
         log.info("Creating new root plan");
+        closeJournal(true);
         mConfig.setLastPlanFilePath(null);
         setPlan(Plan.newPlan(), null);
         setDirty(false);
@@ -230,75 +457,398 @@ public class ApplicationController {
     }
 
     /**
-     * Loads the plan from the given file.
+     * Loads the plan from the given file and waits until it is installed in all views.
      */
     public void loadPlanFile(Path planFilePath) {
         log.info("Loading plan from '" + planFilePath + "'");
-        PlanFile planFile = PlanFileIO.deserializePlanFile(planFilePath);
-        setPlan(planFile.getPlan(), planFilePath);
+        boolean restoreJournal;
+        try {
+            restoreJournal = findRecovery(planFilePath).get().map(this::queryRestoreJournal).orElse(false);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error checking recovery information for plan file '" + planFilePath + "'", e);
+        }
+        PlanFile planFile = readPlanFile(planFilePath, restoreJournal, null);
+        preparePlan(planFile.getPlan());
+        installPlan(planFile.getPlan(), planFilePath);
+        finishLoadPlan(planFile, planFilePath, restoreJournal);
+    }
+
+    /**
+     * Loads the plan from the given file in the background while a progress dialog is shown. The current plan stays
+     * open until the new plan was read, after that the plan is installed in the views in small chunks to keep the UI
+     * responsive. If the user cancels the task after the installation was started or if the installation fails,
+     * a new plan is created.
+     */
+    public Task<Void> loadPlanFileAsync(Path planFilePath) {
+        return loadPlanFileAsync(planFilePath, false);
+    }
+
+    /**
+     * Like {@link #loadPlanFileAsync(Path)}.
+     * @param newPlanOnAbort If set to {@code true}, a new plan is created if loading fails or is cancelled even before
+     * the installation of the loaded plan was started, i.e. while the current plan was still open.
+     */
+    public Task<Void> loadPlanFileAsync(Path planFilePath, boolean newPlanOnAbort) {
+        log.info("Loading plan from '" + planFilePath + "' in the background");
+        PlanLoadTask task = new PlanLoadTask(planFilePath, newPlanOnAbort);
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> {
+            log.error("Error loading plan from '" + planFilePath + "'", task.getException());
+            task.abortInstallation();
+        });
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, event -> {
+            log.info("Loading plan from '" + planFilePath + "' was cancelled");
+            task.abortInstallation();
+        });
+        ProgressDialog progressDialog = new ProgressDialog(Strings.LOADING_PLAN_DIALOG_TITLE, mPrimaryStage, Strings.CANCEL);
+        progressDialog.start(task);
+        return task;
+    }
+
+    /**
+     * Checks in the plan file writer thread if the journal of the given plan file contains unsaved changes. The check is done
+     * after all journal operations which were started before, e.g. after the journal of the current plan was discarded.
+     */
+    protected Future<Optional<RecoveryInfo>> findRecovery(Path planFilePath) {
+        return mSaveExecutor.submit(() -> {
+            try {
+                return PlanChangeJournal.tryFindRecovery(planFilePath);
+            } catch (Exception e) {
+                log.warn("Error checking recovery information for plan file '" + planFilePath + "'", e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Reads the given plan file, optionally with the unsaved changes of its journal.
+     */
+    protected static PlanFile readPlanFile(Path planFilePath, boolean restoreJournal, DoubleConsumer progressListener) {
+        return restoreJournal
+                ? PlanChangeJournal.restorePlanFile(planFilePath, progressListener)
+                : PlanFileIO.deserializePlanFile(planFilePath, progressListener);
+    }
+
+    /**
+     * Precomputes the cached wall outlines of the given plan, which is not installed yet. Walls only access their own
+     * anchors for that, so they can be computed in parallel outside the FX thread.
+     */
+    protected static void preparePlan(Plan plan) {
+        plan.getWalls().values().parallelStream().forEach(Wall::extractWallOutlineCW);
+    }
+
+    /**
+     * Closes the current plan and sets the given plan as current plan. Must be called in the FX thread.
+     */
+    protected void installPlan(Plan plan, Path planFilePath) {
+        closeJournal(true);
+        setPlan(plan, planFilePath);
+    }
+
+    /**
+     * Restores the UI state and the journal of a plan which was {@link #installPlan(Plan, Path) installed}.
+     */
+    protected void finishLoadPlan(PlanFile planFile, Path planFilePath, boolean restoredJournal) {
         try {
             mUiController.setUiState(planFile.getUiState());
         } catch (Exception e) {
             log.warn("Error loading UI state for plan file '" + planFilePath + "'", e);
         }
         mConfig.setLastPlanFilePath(planFilePath);
-        setDirty(false);
+        openJournal(planFilePath, restoredJournal);
+        setDirty(restoredJournal);
         updateTitle();
     }
 
     /**
-     * Saves the plan under the given file path without user query.
+     * Task which loads a plan file in stages: The plan file is read and the plan is prepared in the background, then the
+     * plan is installed and the representations of all views are created in time slices in the FX thread.
+     */
+    protected class PlanLoadTask extends Task<Void> {
+        // Maximum duration of a chunk of view initialization steps in the FX thread
+        protected static final long INSTALL_TIME_SLICE_NANOS = 20_000_000;
+
+        // Shares of the stages in the overall progress
+        protected static final double PROGRESS_READ = 0.5;
+        protected static final double PROGRESS_PREPARE = 0.1;
+
+        protected final Path mPlanFilePath;
+        protected final boolean mNewPlanOnAbort;
+
+        // Only accessed in the FX thread
+        protected boolean mInstallationStarted = false;
+
+        public PlanLoadTask(Path planFilePath, boolean newPlanOnAbort) {
+            mPlanFilePath = planFilePath;
+            mNewPlanOnAbort = newPlanOnAbort;
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            updateMessage(Strings.LOADING_PLAN_STEP_READING);
+            updateProgress(0, 1);
+            Optional<RecoveryInfo> oRecoveryInfo = findRecovery(mPlanFilePath).get();
+            boolean restoreJournal = oRecoveryInfo.isPresent() && Boolean.TRUE.equals(callInFxThread(() -> queryRestoreJournal(oRecoveryInfo.get())));
+            if (isCancelled()) {
+                return null;
+            }
+            PlanFile planFile = readPlanFile(mPlanFilePath, restoreJournal, progress -> {
+                if (isCancelled()) {
+                    throw new CancellationException();
+                }
+                updateProgress(progress * PROGRESS_READ, 1);
+            });
+            if (isCancelled()) {
+                return null;
+            }
+
+            updateMessage(Strings.LOADING_PLAN_STEP_PREPARING);
+            preparePlan(planFile.getPlan());
+            updateProgress(PROGRESS_READ + PROGRESS_PREPARE, 1);
+            if (isCancelled()) {
+                return null;
+            }
+
+            updateMessage(Strings.LOADING_PLAN_STEP_INSTALLING);
+            List<Runnable> steps = callInFxThread(() -> {
+                mInstallationStarted = true;
+                List<Runnable> result;
+                mUiController.beginDeferredViewInitialization();
+                try {
+                    installPlan(planFile.getPlan(), mPlanFilePath);
+                } finally {
+                    result = mUiController.endDeferredViewInitialization();
+                }
+                return result;
+            });
+            if (steps == null) {
+                return null;
+            }
+            int numSteps = steps.size();
+            int stepIndex = 0;
+            while (stepIndex < numSteps) {
+                int firstStep = stepIndex;
+                Integer nextStep = callInFxThread(() -> {
+                    long endTime = System.nanoTime() + INSTALL_TIME_SLICE_NANOS;
+                    int i = firstStep;
+                    do {
+                        steps.get(i++).run();
+                    } while (i < numSteps && System.nanoTime() < endTime);
+                    return i;
+                });
+                if (nextStep == null) {
+                    return null;
+                }
+                stepIndex = nextStep;
+                updateProgress(PROGRESS_READ + PROGRESS_PREPARE + (1 - PROGRESS_READ - PROGRESS_PREPARE) * stepIndex / numSteps, 1);
+            }
+
+            callInFxThread(() -> {
+                finishLoadPlan(planFile, mPlanFilePath, restoreJournal);
+                return null;
+            });
+            updateProgress(1, 1);
+            return null;
+        }
+
+        /**
+         * Executes the given code in the FX thread and waits for its result. The code is not executed if this task was
+         * cancelled in the meantime, {@code null} is returned in that case.
+         */
+        protected <T> T callInFxThread(Callable<T> callable) throws InterruptedException, ExecutionException {
+            FutureTask<T> future = new FutureTask<>(() -> isCancelled() ? null : callable.call());
+            Platform.runLater(future);
+            return future.get();
+        }
+
+        /**
+         * Replaces a partly installed plan by a new plan. If the installation wasn't started yet, the current plan stays open,
+         * unless this task was created to replace it in any case.
+         * Must be called in the FX thread after this task failed or was cancelled.
+         */
+        public void abortInstallation() {
+            if (mInstallationStarted || mNewPlanOnAbort) {
+                newPlan();
+            }
+        }
+    }
+
+    protected boolean queryRestoreJournal(RecoveryInfo recoveryInfo) {
+        String lastChangeTime = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM)
+                .withZone(ZoneId.systemDefault())
+                .format(recoveryInfo.getLastChangeTime());
+        String content = MessageFormat.format(Strings.DIALOG_RESTORE_JOURNAL_CONTENT, lastChangeTime);
+        Optional<String> oLastChangeDescription = recoveryInfo.getLastChangeDescription();
+        if (oLastChangeDescription.isPresent()) {
+            content += "\n\n" + MessageFormat.format(Strings.DIALOG_RESTORE_JOURNAL_LAST_CHANGE, oLastChangeDescription.get());
+        }
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+        alert.setTitle(Strings.DIALOG_RESTORE_JOURNAL_TITLE);
+        alert.setHeaderText(Strings.DIALOG_RESTORE_JOURNAL_HEADER);
+        alert.setContentText(content);
+
+        ButtonType buttonTypeYes = new ButtonType(Strings.YES);
+        ButtonType buttonTypeNo = new ButtonType(Strings.NO, ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(buttonTypeYes, buttonTypeNo);
+
+        Optional<ButtonType> result = alert.showAndWait();
+        return result.isPresent() && result.get() == buttonTypeYes;
+    }
+
+    /**
+     * Task which writes a snapshot of the plan to a plan file.
      */
-    public void savePlanAs(Path planFilePath) {
+    protected class PlanSaveTask extends Task<Void> {
+        protected final Path mPlanFilePath;
+        protected final PlanFile mPlanFileSnapshot;
+        protected final Plan mSnapshotPlan;
+        protected final long mSnapshotChangeCount;
+        protected final PlanChangeJournal mSnapshotJournal;
+        protected boolean mFinished = false;
+
+        public PlanSaveTask(Path planFilePath) {
+            mPlanFilePath = planFilePath;
+            // The snapshot is copied in the FX thread, so it is consistent and can be serialized in the background
+            // while the plan is edited
+            mPlanFileSnapshot = new PlanFile(getPlan().copy(), mUiController.getUiState());
+            mSnapshotPlan = getPlan();
+            mSnapshotChangeCount = mPlanChangeCount;
+            // The snapshot contains the pending change, so it must be journaled before the journal is reset after writing
+            flushJournal();
+            mSnapshotJournal = mJournal;
+        }
+
+        @Override
+        protected Void call() throws Exception {
+            byte[] data = PlanFileIO.serializePlanFileToBytes(mPlanFileSnapshot, PlanFileFormat.forPath(mPlanFilePath));
+            PlanFileIO.writeFileAtomically(data, mPlanFilePath, progress -> updateProgress(progress, 1));
+            // Executed in the plan file writer thread, so the journal contains exactly the records of the snapshot
+            if (mSnapshotJournal != null && mSnapshotJournal.getPlanFilePath().equals(mPlanFilePath)) {
+                try {
+                    mSnapshotJournal.planFileWritten();
+                } catch (Exception e) {
+                    log.warn("Error resetting change journal for plan file '" + mPlanFilePath + "'", e);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Updates the application state after the plan file was written. Must be called in the FX thread,
+         * subsequent calls are ignored.
+         */
+        public void finishSave() {
+            if (mFinished) {
+                return;
+            }
+            mFinished = true;
+            log.info("Plan was saved as '" + mPlanFilePath + "'");
+            saveTaskFinished(this);
+            if (getPlan() != mSnapshotPlan) {
+                // Another plan was loaded in the meantime
+                return;
+            }
+            changePlanFilePath(mPlanFilePath);
+            mConfig.setLastPlanFilePath(mPlanFilePath);
+            if (mJournal == null || !mPlanFilePath.equals(mJournal.getPlanFilePath())) {
+                // Plan was saved under a new path, the former journal belongs to the former plan file
+                closeJournal(true);
+                openJournal(mPlanFilePath, false);
+            }
+            if (mPlanChangeCount == mSnapshotChangeCount) {
+                setDirty(false);
+            }
+            updateTitle();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the current plan and UI state and starts a task which writes that snapshot to the given file path
+     * in the background. The file is replaced atomically after the new content was completely written.
+     * The plan path, the change journal and the dirty state are updated when the task succeeded; the dirty flag is only
+     * reset if the plan wasn't changed in the meantime. Failures are reported to the user.
+     */
+    protected PlanSaveTask startSavePlanTask(Path planFilePath) {
         log.info("Saving current plan as '" + planFilePath + "'");
-        PlanFileIO.serializePlanFile(new PlanFile(getPlan(), mUiController.getUiState()), planFilePath);
-        changePlanFilePath(planFilePath);
-        mConfig.setLastPlanFilePath(planFilePath);
-        setDirty(false);
+        PlanSaveTask task = new PlanSaveTask(planFilePath);
+        task.progressProperty().addListener((observable, oldValue, newValue) -> updateTitle());
+        task.setOnSucceeded(event -> {
+            task.finishSave();
+        });
+        task.setOnFailed(event -> {
+            log.error("Error saving plan as '" + planFilePath + "'", task.getException());
+            saveTaskFinished(task);
+            updateTitle();
+            new Alert(AlertType.ERROR, MessageFormat.format(Strings.ERROR_SAVING_PLAN, planFilePath)).show();
+        });
+        mRunningSaveTaskProperty.set(task);
         updateTitle();
+        mSaveExecutor.execute(task);
+        return task;
+    }
+
+    protected void saveTaskFinished(Task<Void> task) {
+        if (mRunningSaveTaskProperty.get() == task) {
+            mRunningSaveTaskProperty.set(null);
+        }
+    }
+
+    /**
+     * Saves the plan under the given file path without user query in the background. Editing can continue while the
+     * plan file is written, failures are reported to the user.
+     */
+    public Task<Void> savePlanAsAsync(Path planFilePath) {
+        return startSavePlanTask(planFilePath);
+    }
+
+    /**
+     * Saves the plan under the given file path without user query in the background and runs the given action
+     * in the FX thread after the plan file was written. If saving fails, the failure is reported to the user
+     * and the action is not run.
+     */
+    public void savePlanAs(Path planFilePath, Runnable onSaved) {
+        PlanSaveTask task = startSavePlanTask(planFilePath);
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, event -> {
+            // This handler might be called before the task's own success handler, but the action expects the new state
+            task.finishSave();
+            onSaved.run();
+        });
     }
 
     /**
      * Checks if the current plan is unsaved, queries the user to save the plan and quits the platform, if not cancelled.
      */
-    public boolean queryQuitApplication(Window parentWindow) {
-        if (querySavePlanBeforeClose(parentWindow)) {
-            shutdown();
-            return true;
-        } else {
-            return false;
-        }
+    public void queryQuitApplication(Window parentWindow) {
+        querySavePlanBeforeClose(parentWindow, () -> shutdown());
     }
 
     /**
      * Checks if the currnt plan is unsaved, queries the user to save the plan and opens a new plan, if not cancelled.
      */
-    public boolean queryNewPlan(Window parentWindow) {
-        if (!querySavePlanBeforeClose(parentWindow)) {
-            return false;
-        }
-        newPlan();
-        return true;
+    public void queryNewPlan(Window parentWindow) {
+        querySavePlanBeforeClose(parentWindow, () -> newPlan());
     }
 
-    public boolean queryLoadPlanFile(Window parentWindow, Path planFilePath) {
-        if (!querySavePlanBeforeClose(parentWindow)) {
-            return false;
-        }
-        loadPlanFile(planFilePath);
-        return true;
+    public void queryLoadPlanFile(Window parentWindow, Path planFilePath) {
+        querySavePlanBeforeClose(parentWindow, () -> {
+            Task<Void> loadTask = loadPlanFileAsync(planFilePath);
+            loadTask.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> {
+                new Alert(AlertType.ERROR, MessageFormat.format(Strings.ERROR_LOADING_PLAN, planFilePath)).show();
+            });
+        });
     }
 
     /**
      * Checks if the user wants to save an potentially unsaved plan before an operation which would
-     * close the current plan. This method will save the plan as side-effect if the user wants to do that,
-     * returning the information whether the ongoing process can continue or not.
-     * Returns {@code true} if the process can continue, {@code false} if not.
+     * close the current plan. This method will save the plan as side-effect if the user wants to do that.
+     * The given action, which continues the ongoing process, is run immediately if the plan is unchanged or if the user
+     * wants to discard the changes, or after the plan was saved successfully. It is not run if the user cancelled
+     * or if saving failed.
      */
-    protected boolean querySavePlanBeforeClose(Window parentWindow) {
+    protected void querySavePlanBeforeClose(Window parentWindow, Runnable onCanClose) {
         if (!isDirty()) {
             log.debug("Plan is unchanged, no need to save");
-            return true;
+            onCanClose.run();
+            return;
         }
         Alert alert = new Alert(AlertType.CONFIRMATION);
         alert.setTitle(Strings.DIALOG_SAVE_PLAN_ON_CLOSE_TITLE);
@@ -314,25 +864,37 @@ public class ApplicationController {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.get() == buttonTypeYes) {
             log.debug("Plan was changed and user wants to save");
-            return saveOrQueryPath(parentWindow);
+            saveOrQueryPath(parentWindow, onCanClose);
         } else if (result.get() == buttonTypeNo) {
             log.debug("Plan was changed but user wants to discard changes");
-            return true;
+            closeJournal(true);
+            onCanClose.run();
+        } // Else user chose CANCEL or closed the dialog
+    }
+
+    /**
+     * Saves the plan in the background if it is attached to a file path, else queries the user for path to save as.
+     */
+    public void saveInBackgroundOrQueryPath(Window parentWindow) {
+        Path currentPath = getPlanFilePath();
+        if (currentPath == null) {
+            querySaveAs(parentWindow, () -> {});
         } else {
-            // ... user chose CANCEL or closed the dialog
-            return false;
+            savePlanAsAsync(currentPath);
         }
     }
 
     /**
      * Saves the plan if it is attached to a file path, else queries the user for path to save as.
+     * @param onSaved Action to be run after the plan was saved successfully.
+     * @return {@code true} if the plan is being saved, {@code false} if the user cancelled the save-as dialog.
      */
-    public boolean saveOrQueryPath(Window parentWindow) {
+    public boolean saveOrQueryPath(Window parentWindow, Runnable onSaved) {
         Path currentPath = getPlanFilePath();
         if (currentPath == null) {
-            return querySaveAs(parentWindow);
+            return querySaveAs(parentWindow, onSaved);
         } else {
-            savePlanAs(currentPath);
+            savePlanAs(currentPath, onSaved);
             return true;
         }
     }
@@ -372,13 +934,15 @@ public class ApplicationController {
 
     protected void addFileChooserExtensionFilters(PlanFileChooser fileChooser) {
         fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter(Strings.FILE_TYPE_ROOT_PLAN_EXTENSION_NAME, "*." + PlanFileIO.PLAN_FILE_EXTENSION));
+        fileChooser.addExtensionFilter(new FileChooser.ExtensionFilter(Strings.FILE_TYPE_BINARY_PLAN_EXTENSION_NAME, "*." + PlanFileIO.BINARY_PLAN_FILE_EXTENSION));
     }
 
     /**
-     * Shows a save-as dialog to the user.
-     * @return {@code true} if the user saved the file, else {@code false}.
+     * Shows a save-as dialog to the user and saves the plan in the background.
+     * @param onSaved Action to be run after the plan was saved successfully.
+     * @return {@code true} if the plan is being saved, {@code false} if the user cancelled the dialog.
      */
-    public boolean querySaveAs(Window parentWindow) {
+    public boolean querySaveAs(Window parentWindow, Runnable onSaved) {
         PlanFileChooser fileChooser = new PlanFileChooser();
         fileChooser.setTitle(Strings.DIALOG_SAVE_PLAN_TITLE);
         fileChooser.setInitialFileName(PlanFileIO.DEFAULT_ROOT_PATH_NAME);
@@ -397,7 +961,7 @@ public class ApplicationController {
         addFileChooserExtensionFilters(fileChooser);
         Path path = fileChooser.showSaveDialog(parentWindow);
         if (path != null) {
-            savePlanAs(path);
+            savePlanAs(path, onSaved);
             return true;
         }
         return false;
@@ -418,6 +982,7 @@ public class ApplicationController {
         }
         addFileChooserExtensionFilters(fileChooser);
         Optional<Path> oPath = fileChooser.showOpenDialog(parentWindow);
-        return oPath.map(path -> queryLoadPlanFile(mPrimaryStage, path)).orElse(false);
+        oPath.ifPresent(path -> queryLoadPlanFile(mPrimaryStage, path));
+        return oPath.isPresent();
     }
 }
@@ -128,7 +128,19 @@ public class Strings {
     public static final String DIALOG_SAVE_PLAN_ON_CLOSE_TITLE = "Plan schließen";
     public static final String DIALOG_SAVE_PLAN_ON_QUIT_HEADER = "Geänderten Plan speichern?";
     public static final String DIALOG_OPEN_PLAN_TITLE = "Plan öffnen";
+    public static final String SAVING_PLAN_TITLE_MARKER = "Speichere ({0} %)";
+    public static final String ERROR_SAVING_PLAN = "Fehler beim Speichern des Plans unter ''{0}''. Details siehe Log-Datei.";
+    public static final String LOADING_PLAN_DIALOG_TITLE = "Lade Plan...";
+    public static final String LOADING_PLAN_STEP_READING = "Lese Plan-Datei";
+    public static final String LOADING_PLAN_STEP_PREPARING = "Berechne Wände";
+    public static final String LOADING_PLAN_STEP_INSTALLING = "Baue Ansichten auf";
+    public static final String ERROR_LOADING_PLAN = "Fehler beim Laden des Plans ''{0}''. Details siehe Log-Datei.";
+    public static final String DIALOG_RESTORE_JOURNAL_TITLE = "Plan wiederherstellen";
+    public static final String DIALOG_RESTORE_JOURNAL_HEADER = "Es gibt ungespeicherte Änderungen an diesem Plan";
+    public static final String DIALOG_RESTORE_JOURNAL_CONTENT = "Der Plan wurde zuletzt am {0} geändert, die Änderungen wurden aber nicht gespeichert. Sollen die ungespeicherten Änderungen wiederhergestellt werden?";
+    public static final String DIALOG_RESTORE_JOURNAL_LAST_CHANGE = "Letzte Änderung: {0}";
     public static final String FILE_TYPE_ROOT_PLAN_EXTENSION_NAME = "Architect Plan";
+    public static final String FILE_TYPE_BINARY_PLAN_EXTENSION_NAME = "Architect Plan (komprimiert)";
 
     public static final String PLAN_FILES_HISTORY_CLEAR_HISTORY_MENU_ITEM = "History löschen";
 
@@ -310,6 +322,9 @@ public class Strings {
     public static final String CONSTRUCTION_BEHAVIOR_TURN_INVISIBLE_1 = "Objekt ausblenden";
     public static final String CONSTRUCTION_BEHAVIOR_TURN_INVISIBLE_N = "Objekte ausblenden";
 
+    public static final String CONSTRUCTION_LARGE_PLAN_MODE_ACTION_TITLE = "Großer Plan";
+    public static final String CONSTRUCTION_LARGE_PLAN_MODE_ACTION_TOOLTIP = "Nicht bearbeitete Objekte auf einer Zeichenfläche darstellen, um große Pläne flüssig zu bearbeiten";
+
     public static final String DRAG_ELEVATION = "Abstand vom Boden: {0}";
     public static final String DRAG_HEIGHT = "Höhe: {0}";
 
@@ -571,6 +586,28 @@ public class Strings {
     public static final String WINDOW_MENU_ITEM_OBJECTS_VIEW = "Objektbaum";
     public static final String WINDOW_MENU_ITEM_SCRIPT_CONSOLE_VIEW = "Skript-Konsole";
     public static final String WINDOW_MENU_ITEM_LOG_OUTPUT_VIEW = "Log-Ausgabe";
+    public static final String WINDOW_MENU_ITEM_ASSET_CACHE_STATISTICS = "Asset-Cache-Statistik";
+
+    public static final String ASSET_CACHE_STATISTICS_DIALOG_TITLE = "Asset-Cache-Statistik";
+    public static final String ASSET_CACHE_STATISTICS_DIALOG_HEADER = "Belegung und Zugriffe der Asset-Caches";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_CACHE = "Cache";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_ENTRIES = "Einträge";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_SIZE = "Geschätzte Größe";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_BUDGET = "Budget (Einträge / Größe)";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_HITS = "Treffer";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_MISSES = "Fehlzugriffe";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_HIT_RATIO = "Trefferquote";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_EVICTIONS = "Verdrängungen";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_SOFT_HITS = "Soft-Treffer / -Einträge";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_LOAD_FAILURES = "Ladefehler";
+    public static final String ASSET_CACHE_STATISTICS_COLUMN_LOAD_TIMES = "Ladezeiten";
+    public static final String ASSET_CACHE_STATISTICS_CLEAR_CACHES_BUTTON = "Caches leeren";
+
+    public static final String ASSET_CACHE_TYPE_IMAGES = "Bilder";
+    public static final String ASSET_CACHE_TYPE_DESCRIPTORS = "Objekt-Deskriptoren";
+    public static final String ASSET_CACHE_TYPE_OBJ_MODELS = "3D-Modelle";
+    public static final String ASSET_CACHE_TYPE_PLAN_VIEW_IMAGES = "Grundriss-Bilder";
+    public static final String ASSET_CACHE_TYPE_MATERIAL_SETS = "Material-Kollektionen";
 
     public static final String INFO_DIALOG_TITLE_TEXT = "Info";
     public static final String INFO_DIALOG_HEADER_TEXT = "Architect (c) by Daniel Höh";
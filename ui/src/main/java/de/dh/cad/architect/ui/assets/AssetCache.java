@@ -0,0 +1,339 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache for loaded assets with single-flight loading: Concurrent requests for the same key share a single load.
+ *
+ * Loads are either executed by the requesting thread ({@link #get(Object, IAssetLoadOperation)}) or by an executor
+ * ({@link #getAsync(Object, IAssetLoadOperation, Executor)}). A thread which requests an entry whose asynchronous load
+ * was not started yet executes that load itself instead of waiting for the executor, so waiting threads never block
+ * on queued work.
+ *
+ * Failed loads are never cached. Successfully loaded values are only kept if the cache was created to retain values,
+ * else the cache only joins concurrent loads, which is appropriate for mutable objects like asset descriptors.
+ * Retaining caches are limited by a {@link AssetCacheBudget budget}; when it is exceeded, the least recently used
+ * entries are evicted. The cache counts its hits, misses and evictions and the load times, see {@link #getStatistics()}.
+ */
+public class AssetCache<K, V> {
+    /**
+     * Load of a single cache entry which is executed at most once, either by the executor or by a requesting thread.
+     */
+    protected class PendingLoad extends CompletableFuture<V> {
+        protected final K mKey;
+        protected final IAssetLoadOperation<V> mLoadOperation;
+        protected final AtomicBoolean mStarted = new AtomicBoolean(false);
+        protected final AtomicBoolean mScheduled = new AtomicBoolean(false);
+        protected volatile long mLastAccess;
+        protected volatile long mEstimatedBytes = 0;
+
+        public PendingLoad(K key, IAssetLoadOperation<V> loadOperation) {
+            mKey = key;
+            mLoadOperation = loadOperation;
+            touch();
+        }
+
+        public void touch() {
+            mLastAccess = mAccessCounter.incrementAndGet();
+        }
+
+        /**
+         * Executes the load operation if it was not started yet.
+         */
+        public void tryRun() {
+            if (!mStarted.compareAndSet(false, true) || isDone()) {
+                return;
+            }
+            long startTime = System.nanoTime();
+            try {
+                V value = mLoadOperation.load();
+                recordLoadTime(System.nanoTime() - startTime);
+                mEstimatedBytes = value == null ? 0 : mWeigher.applyAsLong(value);
+                complete(value);
+            } catch (Throwable e) {
+                mNumLoadFailures.increment();
+                completeExceptionally(e);
+            } finally {
+                if (!mRetainValues || isCompletedExceptionally()) {
+                    mEntries.remove(mKey, this);
+                }
+            }
+            if (mRetainValues) {
+                enforceBudget();
+            }
+        }
+    }
+
+    protected final AssetCacheType mType;
+    protected final boolean mRetainValues;
+    protected final ToLongFunction<? super V> mWeigher;
+    protected final Map<K, PendingLoad> mEntries = new ConcurrentHashMap<>();
+    protected final Map<K, SoftReference<V>> mSoftValues = new ConcurrentHashMap<>(); // Evicted values, if the budget allows soft references
+    protected volatile AssetCacheBudget mBudget = AssetCacheBudget.UNLIMITED;
+    protected final Object mEvictionLock = new Object();
+
+    protected final AtomicLong mAccessCounter = new AtomicLong();
+    protected final LongAdder mNumHits = new LongAdder();
+    protected final LongAdder mNumMisses = new LongAdder();
+    protected final LongAdder mNumSoftHits = new LongAdder();
+    protected final LongAdder mNumEvictions = new LongAdder();
+    protected final LongAdder mNumLoadFailures = new LongAdder();
+    protected final LongAdder mTotalLoadTimeNanos = new LongAdder();
+    protected final LongAdder[] mLoadTimeHistogram = new LongAdder[AssetCacheStatistics.LOAD_TIME_BUCKET_BOUNDS_MS.length + 1];
+
+    /**
+     * Creates a cache which only joins concurrent loads of the same entry and doesn't keep loaded values.
+     */
+    public AssetCache() {
+        this(null, false, value -> 0);
+    }
+
+    /**
+     * Creates a cache which keeps loaded values until they are invalidated or evicted.
+     * @param type Type of this cache which determines its budget in the configuration.
+     * @param weigher Function which estimates the memory size of a value in bytes.
+     */
+    public AssetCache(AssetCacheType type, ToLongFunction<? super V> weigher) {
+        this(type, true, weigher);
+    }
+
+    protected AssetCache(AssetCacheType type, boolean retainValues, ToLongFunction<? super V> weigher) {
+        mType = type;
+        mRetainValues = retainValues;
+        mWeigher = weigher;
+        for (int i = 0; i < mLoadTimeHistogram.length; i++) {
+            mLoadTimeHistogram[i] = new LongAdder();
+        }
+    }
+
+    public AssetCacheType getType() {
+        return mType;
+    }
+
+    public AssetCacheBudget getBudget() {
+        return mBudget;
+    }
+
+    /**
+     * Sets the budget of this cache and evicts entries if the new budget is exceeded.
+     */
+    public void setBudget(AssetCacheBudget value) {
+        mBudget = value;
+        if (!value.isSoftReferences()) {
+            mSoftValues.clear();
+        }
+        enforceBudget();
+    }
+
+    /**
+     * Returns the cached value for the given key, waits for a running load of that value or loads it in the calling thread.
+     */
+    public V get(K key, IAssetLoadOperation<V> loadOperation) throws IOException {
+        while (true) {
+            PendingLoad load = getOrCreateLoad(key, loadOperation);
+            load.tryRun();
+            try {
+                return load.join();
+            } catch (CancellationException e) {
+                // Entry was discarded while we were waiting, try again
+                mEntries.remove(key, load);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioe) {
+                    throw ioe;
+                } else if (cause instanceof RuntimeException re) {
+                    throw re;
+                } else if (cause instanceof Error err) {
+                    throw err;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns a future for the value of the given key. If the value is neither cached nor being loaded, its load is
+     * scheduled at the given executor.
+     */
+    public CompletableFuture<V> getAsync(K key, IAssetLoadOperation<V> loadOperation, Executor executor) {
+        PendingLoad load = getOrCreateLoad(key, loadOperation);
+        if (!load.mStarted.get() && load.mScheduled.compareAndSet(false, true)) {
+            executor.execute(load::tryRun);
+        }
+        return load;
+    }
+
+    protected PendingLoad getOrCreateLoad(K key, IAssetLoadOperation<V> loadOperation) {
+        PendingLoad load = mEntries.get(key);
+        if (load != null) {
+            mNumHits.increment();
+            load.touch();
+            return load;
+        }
+        PendingLoad newLoad = new PendingLoad(key, loadOperation);
+        SoftReference<V> softValue = mSoftValues.remove(key);
+        V value = softValue == null ? null : softValue.get();
+        if (value != null) {
+            // Revive evicted value
+            newLoad.mStarted.set(true);
+            newLoad.mEstimatedBytes = mWeigher.applyAsLong(value);
+            newLoad.complete(value);
+        }
+        load = mEntries.putIfAbsent(key, newLoad);
+        if (load != null) {
+            mNumHits.increment();
+            load.touch();
+            return load;
+        }
+        if (value != null) {
+            mNumSoftHits.increment();
+            enforceBudget();
+        } else {
+            mNumMisses.increment();
+        }
+        return newLoad;
+    }
+
+    protected void recordLoadTime(long loadTimeNanos) {
+        mTotalLoadTimeNanos.add(loadTimeNanos);
+        mLoadTimeHistogram[AssetCacheStatistics.getLoadTimeBucket(loadTimeNanos)].increment();
+    }
+
+    /**
+     * Evicts the least recently used loaded entries until this cache doesn't exceed its budget any more.
+     */
+    protected void enforceBudget() {
+        AssetCacheBudget budget = mBudget;
+        if (!mRetainValues || budget.isUnlimited()) {
+            return;
+        }
+        synchronized (mEvictionLock) {
+            int numEntries = mEntries.size();
+            long numBytes = getEstimatedBytes();
+            if (!budget.isExceeded(numEntries, numBytes)) {
+                return;
+            }
+            List<PendingLoad> loadedEntries = new ArrayList<>();
+            for (PendingLoad load : mEntries.values()) {
+                if (load.isDone() && !load.isCompletedExceptionally()) {
+                    loadedEntries.add(load);
+                }
+            }
+            loadedEntries.sort(Comparator.comparingLong(load -> load.mLastAccess));
+            for (PendingLoad load : loadedEntries) {
+                if (!budget.isExceeded(numEntries, numBytes)) {
+                    break;
+                }
+                if (mEntries.remove(load.mKey, load)) {
+                    numEntries--;
+                    numBytes -= load.mEstimatedBytes;
+                    mNumEvictions.increment();
+                    if (budget.isSoftReferences()) {
+                        mSoftValues.put(load.mKey, new SoftReference<>(load.getNow(null)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the future of the given key if its value is cached or being loaded.
+     */
+    public Optional<CompletableFuture<V>> getFuture(K key) {
+        return Optional.ofNullable(mEntries.get(key));
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    /**
+     * Returns the sum of the estimated sizes of all loaded values.
+     */
+    public long getEstimatedBytes() {
+        long result = 0;
+        for (PendingLoad load : mEntries.values()) {
+            result += load.mEstimatedBytes;
+        }
+        return result;
+    }
+
+    public AssetCacheStatistics getStatistics() {
+        long[] loadTimeHistogram = new long[mLoadTimeHistogram.length];
+        for (int i = 0; i < loadTimeHistogram.length; i++) {
+            loadTimeHistogram[i] = mLoadTimeHistogram[i].sum();
+        }
+        return new AssetCacheStatistics(mType, mBudget, mEntries.size(), mSoftValues.size(), getEstimatedBytes(),
+            mNumHits.sum(), mNumMisses.sum(), mNumSoftHits.sum(), mNumEvictions.sum(), mNumLoadFailures.sum(),
+            mTotalLoadTimeNanos.sum(), loadTimeHistogram);
+    }
+
+    /**
+     * Discards the entry of the given key. A running load of that entry is not interrupted, but its result won't be cached.
+     */
+    public void invalidate(K key) {
+        mSoftValues.remove(key);
+        PendingLoad load = mEntries.remove(key);
+        if (load != null) {
+            cancelIfNotStarted(load);
+        }
+    }
+
+    /**
+     * Discards all entries whose keys match the given predicate.
+     */
+    public void invalidateIf(Predicate<? super K> keyPredicate) {
+        mSoftValues.keySet().removeIf(keyPredicate);
+        mEntries.keySet().removeIf(keyPredicate);
+    }
+
+    /**
+     * Discards all entries; loads which were not started yet are cancelled.
+     */
+    public void clear() {
+        mSoftValues.clear();
+        for (PendingLoad load : new ArrayList<>(mEntries.values())) {
+            cancelIfNotStarted(load);
+        }
+        mEntries.clear();
+    }
+
+    protected void cancelIfNotStarted(PendingLoad load) {
+        if (!load.mStarted.get()) {
+            load.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+/**
+ * Memory budget of an asset cache. If a cache exceeds its budget, the least recently used entries are evicted.
+ * Evicted entries can be kept softly referenced, which lets the garbage collector decide when they are finally dropped.
+ */
+public class AssetCacheBudget {
+    public static final AssetCacheBudget UNLIMITED = new AssetCacheBudget(0, 0, false);
+
+    protected final int mMaxEntries;
+    protected final long mMaxBytes;
+    protected final boolean mSoftReferences;
+
+    /**
+     * @param maxEntries Maximum number of entries, {@code 0} for no limit.
+     * @param maxBytes Maximum estimated size of all entries in bytes, {@code 0} for no limit.
+     * @param softReferences If set to {@code true}, evicted entries are kept softly referenced.
+     */
+    public AssetCacheBudget(int maxEntries, long maxBytes, boolean softReferences) {
+        mMaxEntries = maxEntries;
+        mMaxBytes = maxBytes;
+        mSoftReferences = softReferences;
+    }
+
+    public int getMaxEntries() {
+        return mMaxEntries;
+    }
+
+    public long getMaxBytes() {
+        return mMaxBytes;
+    }
+
+    public boolean isSoftReferences() {
+        return mSoftReferences;
+    }
+
+    public boolean isUnlimited() {
+        return mMaxEntries <= 0 && mMaxBytes <= 0;
+    }
+
+    public boolean isExceeded(int numEntries, long numBytes) {
+        return (mMaxEntries > 0 && numEntries > mMaxEntries) || (mMaxBytes > 0 && numBytes > mMaxBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "AssetCacheBudget [MaxEntries=" + mMaxEntries + ", MaxBytes=" + mMaxBytes + ", SoftReferences=" + mSoftReferences + "]";
+    }
+}
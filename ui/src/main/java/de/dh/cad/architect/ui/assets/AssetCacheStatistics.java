@@ -0,0 +1,147 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the state and the counters of an {@link AssetCache}.
+ */
+public class AssetCacheStatistics {
+    /**
+     * Upper bounds of the load time histogram buckets in milliseconds; the last bucket counts all slower loads.
+     */
+    public static final long[] LOAD_TIME_BUCKET_BOUNDS_MS = new long[] {1, 4, 16, 64, 256, 1024};
+
+    protected final AssetCacheType mType;
+    protected final AssetCacheBudget mBudget;
+    protected final int mNumEntries;
+    protected final int mNumSoftEntries;
+    protected final long mEstimatedBytes;
+    protected final long mNumHits;
+    protected final long mNumMisses;
+    protected final long mNumSoftHits;
+    protected final long mNumEvictions;
+    protected final long mNumLoadFailures;
+    protected final long mTotalLoadTimeNanos;
+    protected final long[] mLoadTimeHistogram;
+
+    public AssetCacheStatistics(AssetCacheType type, AssetCacheBudget budget, int numEntries, int numSoftEntries, long estimatedBytes,
+        long numHits, long numMisses, long numSoftHits, long numEvictions, long numLoadFailures, long totalLoadTimeNanos, long[] loadTimeHistogram) {
+        mType = type;
+        mBudget = budget;
+        mNumEntries = numEntries;
+        mNumSoftEntries = numSoftEntries;
+        mEstimatedBytes = estimatedBytes;
+        mNumHits = numHits;
+        mNumMisses = numMisses;
+        mNumSoftHits = numSoftHits;
+        mNumEvictions = numEvictions;
+        mNumLoadFailures = numLoadFailures;
+        mTotalLoadTimeNanos = totalLoadTimeNanos;
+        mLoadTimeHistogram = loadTimeHistogram;
+    }
+
+    public static int getLoadTimeBucket(long loadTimeNanos) {
+        long loadTimeMs = loadTimeNanos / 1_000_000;
+        int i = 0;
+        while (i < LOAD_TIME_BUCKET_BOUNDS_MS.length && loadTimeMs >= LOAD_TIME_BUCKET_BOUNDS_MS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    public AssetCacheType getType() {
+        return mType;
+    }
+
+    public AssetCacheBudget getBudget() {
+        return mBudget;
+    }
+
+    public int getNumEntries() {
+        return mNumEntries;
+    }
+
+    /**
+     * Gets the number of evicted entries which are still softly referenced. Some of them might already have been collected.
+     */
+    public int getNumSoftEntries() {
+        return mNumSoftEntries;
+    }
+
+    public long getEstimatedBytes() {
+        return mEstimatedBytes;
+    }
+
+    /**
+     * Gets the number of requests which were served from the cache or joined a running load.
+     */
+    public long getNumHits() {
+        return mNumHits;
+    }
+
+    /**
+     * Gets the number of requests which caused a new load.
+     */
+    public long getNumMisses() {
+        return mNumMisses;
+    }
+
+    /**
+     * Gets the number of requests which were served from a softly referenced, evicted entry.
+     */
+    public long getNumSoftHits() {
+        return mNumSoftHits;
+    }
+
+    public long getNumEvictions() {
+        return mNumEvictions;
+    }
+
+    public long getNumLoadFailures() {
+        return mNumLoadFailures;
+    }
+
+    public double getHitRatio() {
+        long numRequests = mNumHits + mNumSoftHits + mNumMisses;
+        return numRequests == 0 ? 0 : (double) (mNumHits + mNumSoftHits) / numRequests;
+    }
+
+    public long getNumLoads() {
+        return Arrays.stream(mLoadTimeHistogram).sum();
+    }
+
+    public long getTotalLoadTimeNanos() {
+        return mTotalLoadTimeNanos;
+    }
+
+    /**
+     * Gets the number of successful loads per load time bucket, see {@link #LOAD_TIME_BUCKET_BOUNDS_MS}.
+     */
+    public long[] getLoadTimeHistogram() {
+        return mLoadTimeHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return "AssetCacheStatistics [Type=" + mType + ", Entries=" + mNumEntries + ", EstimatedBytes=" + mEstimatedBytes
+                        + ", Hits=" + mNumHits + ", Misses=" + mNumMisses + ", SoftHits=" + mNumSoftHits + ", Evictions=" + mNumEvictions
+                        + ", LoadFailures=" + mNumLoadFailures + ", LoadTimeHistogram=" + Arrays.toString(mLoadTimeHistogram) + "]";
+    }
+}
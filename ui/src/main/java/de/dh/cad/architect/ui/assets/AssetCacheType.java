@@ -0,0 +1,61 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+/**
+ * Kinds of retained asset caches. Each cache type has its own {@link AssetCacheBudget budget} in the
+ * {@link AssetManagerConfiguration}.
+ */
+public enum AssetCacheType {
+    /**
+     * Icon and other images of asset collections.
+     */
+    Images(1000, 256L * 1024 * 1024),
+
+    /**
+     * Support object descriptors of the current plan.
+     */
+    Descriptors(2000, 32L * 1024 * 1024),
+
+    /**
+     * Raw 3D model data of the support objects of the current plan.
+     */
+    ObjModels(200, 1024L * 1024 * 1024),
+
+    /**
+     * Plan view images of the support objects of the current plan.
+     */
+    PlanViewImages(1000, 128L * 1024 * 1024),
+
+    /**
+     * Material sets of the current plan.
+     */
+    MaterialSets(1000, 64L * 1024 * 1024);
+
+    private final int mDefaultMaxEntries;
+    private final long mDefaultMaxBytes;
+
+    private AssetCacheType(int defaultMaxEntries, long defaultMaxBytes) {
+        mDefaultMaxEntries = defaultMaxEntries;
+        mDefaultMaxBytes = defaultMaxBytes;
+    }
+
+    public AssetCacheBudget getDefaultBudget() {
+        return new AssetCacheBudget(mDefaultMaxEntries, mDefaultMaxBytes, true);
+    }
+}
@@ -34,7 +34,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -61,6 +64,7 @@ import de.dh.cad.architect.utils.vfs.IPathLocator;
 import de.dh.cad.architect.utils.vfs.IResourceLocator;
 import de.dh.utils.Vector2D;
 import de.dh.utils.fx.BoxMesh;
+import de.dh.utils.fx.ImagePyramid;
 import de.dh.utils.fx.ImageUtils;
 import de.dh.utils.io.fx.FxMeshBuilder;
 import de.dh.utils.io.obj.MtlLibraryIO;
@@ -112,7 +116,7 @@ public class AssetLoader {
     public static final String TEMPLATE_SUPPORT_OBJECT_MODEL = "template-support-object-model.obj";
 
     protected final AssetManager mAssetManager;
-    protected final Collection<String> mLoggedMessages = new TreeSet<>(); // To avoid logging the same message multiple times
+    protected final Collection<String> mLoggedMessages = ConcurrentHashMap.newKeySet(); // To avoid logging the same message multiple times
 
     public AssetLoader(AssetManager assetManager) {
         mAssetManager = assetManager;
@@ -164,6 +168,10 @@ public class AssetLoader {
         return loadImageFromResource(SUPPORT_OBJECT_PLACEHOLDER_PLAN_VIEW_IMAGE);
     }
 
+    public static ImagePyramid loadSupportObjectPlaceholderPlanViewImagePyramid() {
+        return ImagePyramid.create(loadSupportObjectPlaceholderPlanViewImage());
+    }
+
     public static ThreeDObject loadBroken3DResource() {
         MeshView result = new MeshView(BoxMesh.createMesh(100, 100, 100));
         PhongMaterial material = new PhongMaterial(Color.RED, loadBrokenImageBig(), null, null, null);
@@ -195,12 +203,20 @@ public class AssetLoader {
     }
 
     public Image loadSupportObjectPlanViewImage(SupportObjectDescriptor descriptor) throws IOException {
+        return loadSupportObjectPlanViewImagePyramid(descriptor).getImage();
+    }
+
+    /**
+     * Loads the plan view image of the given support object together with its downscaled variants.
+     * The pyramid is shared by all callers as long as it is held by the {@link AssetPrefetcher}.
+     */
+    public ImagePyramid loadSupportObjectPlanViewImagePyramid(SupportObjectDescriptor descriptor) throws IOException {
         String resourceName = descriptor.getPlanViewImageResourceName();
         AssetRefPath assetRefPath = descriptor.getSelfRef();
         if (StringUtils.isEmpty(resourceName)) {
             throw new FileNotFoundException("No plan view resource defined in asset descriptor '" + assetRefPath + "'");
         }
-        return loadAssetResourceImage(assetRefPath, resourceName);
+        return mAssetManager.getPrefetcher().getPlanViewImagePyramid(assetRefPath, () -> ImagePyramid.create(loadAssetResourceImage(assetRefPath, resourceName)));
     }
 
     public ThreeDObject loadSupportObject3DResource(SupportObjectDescriptor soDescriptor, Optional<Map<String, AssetRefPath>> oOverriddenSurfaceMaterialRefs) throws IOException {
@@ -214,7 +230,7 @@ public class AssetLoader {
         Optional<Transform> oTrans = Optional.empty();
         if (model instanceof ObjModelResource omr) {
             try {
-                ObjDataRaw objData = loadObjModelData(assetLocation, omr);
+                ObjDataRaw objData = mAssetManager.getPrefetcher().getObjModelData(assetRefPath, () -> loadObjModelData(assetLocation, omr));
                 Map<String, MeshConfiguration> meshNamesToMeshConfigurations = soDescriptor.getMeshNamesToMeshConfigurations();
 
                 Map<String, String> defaultMeshNamesToMaterialNames = objData.getMeshNamesToMaterialNames();
@@ -346,7 +362,11 @@ public class AssetLoader {
         }
         AssetLocation assetLocation = mAssetManager.resolveAssetLocation(assetRefPath);
         IResourceLocator resourceLocator = assetLocation.resolveResource(fileNameOrPath);
-        resourceLocator.delete();
+        try {
+            resourceLocator.delete();
+        } finally {
+            assetLocation.getAssetCollection().invalidate(assetLocation.getCacheKey(fileNameOrPath));
+        }
     }
 
     public void importAssetIconImage(AbstractAssetDescriptor descriptor, Image image, String imageName) throws IOException {
@@ -591,6 +611,13 @@ public class AssetLoader {
     }
 
     public Map<String, RawMaterialData> loadMaterials(AssetRefPath materialSetRefPath) throws IOException {
+        return mAssetManager.getPrefetcher().getMaterialSet(materialSetRefPath, () -> readMaterials(materialSetRefPath));
+    }
+
+    /**
+     * Reads the materials of the given material set without using prefetched data.
+     */
+    protected Map<String, RawMaterialData> readMaterials(AssetRefPath materialSetRefPath) throws IOException {
         Optional<String> oMaterialName = materialSetRefPath.getOMaterialName();
         if (oMaterialName.isPresent()) {
             throw new IllegalArgumentException("Asset ref path '" + materialSetRefPath + "' contains a material name; material set descriptor expected");
@@ -720,27 +747,38 @@ public class AssetLoader {
     }
 
     public Image loadSupportObjectPlanViewImage(AssetRefPath supportObjectDescriptorRef, boolean fallbackToPlaceholder) {
+        ImagePyramid result = loadSupportObjectPlanViewImagePyramid(supportObjectDescriptorRef, fallbackToPlaceholder);
+        return result == null ? null : result.getImage();
+    }
+
+    public Image loadSupportObjectPlanViewImage(SupportObjectDescriptor descriptor, boolean fallbackToPlaceholder) {
+        ImagePyramid result = loadSupportObjectPlanViewImagePyramid(descriptor, fallbackToPlaceholder);
+        return result == null ? null : result.getImage();
+    }
+
+    public ImagePyramid loadSupportObjectPlanViewImagePyramid(AssetRefPath supportObjectDescriptorRef, boolean fallbackToPlaceholder) {
         SupportObjectDescriptor descriptor;
         try {
-            descriptor = mAssetManager.loadSupportObjectDescriptor(supportObjectDescriptorRef);
+            descriptor = mAssetManager.getPrefetcher().getSupportObjectDescriptor(supportObjectDescriptorRef,
+                () -> mAssetManager.loadSupportObjectDescriptor(supportObjectDescriptorRef));
         } catch (IOException e) {
             if (fallbackToPlaceholder) {
                 logMissingDescriptor(supportObjectDescriptorRef, e);
-                return loadSupportObjectPlaceholderPlanViewImage();
+                return loadSupportObjectPlaceholderPlanViewImagePyramid();
             } else {
                 return null;
             }
         }
-        return loadSupportObjectPlanViewImage(descriptor, fallbackToPlaceholder);
+        return loadSupportObjectPlanViewImagePyramid(descriptor, fallbackToPlaceholder);
     }
 
-    public Image loadSupportObjectPlanViewImage(SupportObjectDescriptor descriptor, boolean fallbackToPlaceholder) {
+    public ImagePyramid loadSupportObjectPlanViewImagePyramid(SupportObjectDescriptor descriptor, boolean fallbackToPlaceholder) {
         try {
-            return loadSupportObjectPlanViewImage(descriptor);
+            return loadSupportObjectPlanViewImagePyramid(descriptor);
         } catch (Exception e) {
             if (fallbackToPlaceholder) {
                 logMissingPlanViewImage(descriptor.getSelfRef(), e);
-                return loadSupportObjectPlaceholderPlanViewImage();
+                return loadSupportObjectPlaceholderPlanViewImagePyramid();
             } else {
                 return null;
             }
@@ -750,7 +788,8 @@ public class AssetLoader {
     public ThreeDObject loadSupportObject3DObject(AssetRefPath supportObjectDescriptorRef, Optional<Map<String, AssetRefPath>> overriddenSurfaceMaterialRefs, boolean fallbackToPlaceholder) {
         SupportObjectDescriptor descriptor;
         try {
-            descriptor = mAssetManager.loadSupportObjectDescriptor(supportObjectDescriptorRef);
+            descriptor = mAssetManager.getPrefetcher().getSupportObjectDescriptor(supportObjectDescriptorRef,
+                () -> mAssetManager.loadSupportObjectDescriptor(supportObjectDescriptorRef));
         } catch (IOException e) {
             if (fallbackToPlaceholder) {
                 logMissingDescriptor(supportObjectDescriptorRef, e);
@@ -775,6 +814,56 @@ public class AssetLoader {
         }
     }
 
+    /////////////////////////////////////////////////////// Asynchronous loading ///////////////////////////////////////////////////////
+
+    // The following methods load assets on the load executor of the asset manager or on a given executor.
+    // The resulting futures complete in the loading thread; JavaFX nodes which are created by the loader may be used in
+    // the scene graph only after handing them over to the JavaFX application thread.
+
+    public CompletableFuture<ThreeDObject> loadSupportObject3DObjectAsync(AssetRefPath supportObjectDescriptorRef, Optional<Map<String, AssetRefPath>> overriddenSurfaceMaterialRefs, boolean fallbackToPlaceholder) {
+        return loadSupportObject3DObjectAsync(supportObjectDescriptorRef, overriddenSurfaceMaterialRefs, fallbackToPlaceholder, mAssetManager.getLoadExecutor());
+    }
+
+    public CompletableFuture<ThreeDObject> loadSupportObject3DObjectAsync(AssetRefPath supportObjectDescriptorRef, Optional<Map<String, AssetRefPath>> overriddenSurfaceMaterialRefs, boolean fallbackToPlaceholder, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> loadSupportObject3DObject(supportObjectDescriptorRef, overriddenSurfaceMaterialRefs, fallbackToPlaceholder), executor);
+    }
+
+    public CompletableFuture<Image> loadSupportObjectPlanViewImageAsync(AssetRefPath supportObjectDescriptorRef, boolean fallbackToPlaceholder) {
+        return loadSupportObjectPlanViewImageAsync(supportObjectDescriptorRef, fallbackToPlaceholder, mAssetManager.getLoadExecutor());
+    }
+
+    public CompletableFuture<Image> loadSupportObjectPlanViewImageAsync(AssetRefPath supportObjectDescriptorRef, boolean fallbackToPlaceholder, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> loadSupportObjectPlanViewImage(supportObjectDescriptorRef, fallbackToPlaceholder), executor);
+    }
+
+    public <T> CompletableFuture<Image> loadAssetIconImageAsync(T descriptor, boolean fallbackToPlaceholder) {
+        return loadAssetIconImageAsync(descriptor, fallbackToPlaceholder, mAssetManager.getLoadExecutor());
+    }
+
+    public <T> CompletableFuture<Image> loadAssetIconImageAsync(T descriptor, boolean fallbackToPlaceholder, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> loadAssetIconImage(descriptor, fallbackToPlaceholder), executor);
+    }
+
+    /**
+     * Loads the material of the given ref path asynchronously. If the material cannot be loaded, the returned future
+     * completes exceptionally with a {@link CompletionException} whose cause is the {@link IOException}.
+     */
+    public CompletableFuture<RawMaterialData> loadMaterialDataAsync(AssetRefPath materialRefPath) {
+        return loadMaterialDataAsync(materialRefPath, mAssetManager.getLoadExecutor());
+    }
+
+    public CompletableFuture<RawMaterialData> loadMaterialDataAsync(AssetRefPath materialRefPath, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadMaterialData(materialRefPath);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
     public void configureMaterial(Shape3D shape, AssetRefPath materialRefPath, Optional<Vector2D> oSurfaceSize) {
         if (materialRefPath == null) {
             shape.setMaterial(new PhongMaterial(Color.WHITE));
@@ -820,18 +909,16 @@ public class AssetLoader {
     }
 
     protected void logWarnOnce(String uniqueKey, String msg) {
-        if (mLoggedMessages.contains(uniqueKey)) {
+        if (!mLoggedMessages.add(uniqueKey)) {
             return;
         }
-        mLoggedMessages.add(uniqueKey);
         log.warn(msg);
     }
 
     protected void logWarnOnce(String uniqueKey, String msg, Throwable t) {
-        if (mLoggedMessages.contains(uniqueKey)) {
+        if (!mLoggedMessages.add(uniqueKey)) {
             return;
         }
-        mLoggedMessages.add(uniqueKey);
         if (t == null) {
             log.warn(msg);
         } else {
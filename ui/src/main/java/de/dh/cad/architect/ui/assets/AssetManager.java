@@ -33,8 +33,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
@@ -74,74 +79,66 @@ import javafx.scene.image.Image;
  * use the {@link AssetLoader} API which can be obtained via {@link #buildAssetLoader()}.
  */
 public class AssetManager {
-    protected static enum CacheState {
-        /**
-         * The cache entry was not investigated yet.
-         */
-        Unknown,
-
-        /**
-         * The cache entry was already loaded and seems to be ok.
-         */
-        Healthy,
-
-        /**
-         * The cache entry seems to be erroneous.
-         */
-        Erroneous
-    }
-
-    protected static class AssetCollectionCacheEntry<T extends AbstractAssetDescriptor> {
-        protected CacheState mState;
-        protected T mAssetDescriptor;
-
-        public CacheState getState() {
-            return mState;
-        }
+    /**
+     * Key of a resource in the asset collection caches which are shared by all asset collections.
+     */
+    public static class AssetResourceKey {
+        protected final IAssetPathAnchor mAnchor;
+        protected final Path mRelativePathInAssetCollection;
 
-        public void setState(CacheState value) {
-            mState = value;
+        public AssetResourceKey(IAssetPathAnchor anchor, Path relativePathInAssetCollection) {
+            mAnchor = anchor;
+            mRelativePathInAssetCollection = relativePathInAssetCollection;
         }
 
-        public T getAssetDescriptor() {
-            return mAssetDescriptor;
+        public IAssetPathAnchor getAnchor() {
+            return mAnchor;
         }
 
-        public void setAssetDescriptor(T value) {
-            mAssetDescriptor = value;
+        public Path getRelativePathInAssetCollection() {
+            return mRelativePathInAssetCollection;
         }
 
         @Override
         public int hashCode() {
-            return mAssetDescriptor.hashCode();
+            return Objects.hash(mAnchor, mRelativePathInAssetCollection);
         }
 
         @Override
         public boolean equals(Object obj) {
-            if (!(obj instanceof AssetCollectionCacheEntry)) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof AssetResourceKey other)) {
                 return false;
             }
+            return Objects.equals(mAnchor, other.mAnchor) && Objects.equals(mRelativePathInAssetCollection, other.mRelativePathInAssetCollection);
+        }
 
-            AssetCollectionCacheEntry<?> other = (AssetCollectionCacheEntry<?>) obj;
-            return mAssetDescriptor.equals(other.mAssetDescriptor);
+        @Override
+        public String toString() {
+            return mAnchor + ":" + mRelativePathInAssetCollection;
         }
     }
 
     /**
      * Cached filesystem which represents the root of an asset tree (can be an asset library or a plan).
      * An asset collection is always the root of an asset tree and thus is defined by an asset path anchor.
+     * Asset collections can be accessed concurrently; concurrent loads of the same descriptor or image are joined.
+     * Descriptors are mutable and thus are only shared between concurrent loads, images are kept in the images cache of
+     * the asset manager, which is shared by all asset collections, until they are changed or evicted.
      */
-    // TODO: Implement cache
     public static class AssetCollection {
         protected final IAssetPathAnchor mAnchor;
         protected final IDirectoryLocator mBaseDirectory;
-        protected Map<String, AssetCollectionCacheEntry<MaterialSetDescriptor>> mRootMaterialSetsCache = null; // Ids to cache entries
-        protected Map<String, AssetCollectionCacheEntry<SupportObjectDescriptor>> mSupportObjectsCache = null; // Ids to cache entries
-        protected Map<String, Image> mImagesCache = null; // Relative asset collection paths to images
+        protected final AssetCache<Path, MaterialSetDescriptor> mMaterialSetsCache = new AssetCache<>(); // Relative asset collection paths to descriptors
+        protected final AssetCache<Path, SupportObjectDescriptor> mSupportObjectsCache = new AssetCache<>(); // Relative asset collection paths to descriptors
+        protected final AssetCache<AssetResourceKey, Image> mImagesCache;
 
-        public AssetCollection(IAssetPathAnchor anchor, IDirectoryLocator baseDirectory) {
+        public AssetCollection(IAssetPathAnchor anchor, IDirectoryLocator baseDirectory, AssetCache<AssetResourceKey, Image> imagesCache) {
             mAnchor = anchor;
             mBaseDirectory = baseDirectory;
+            mImagesCache = imagesCache;
         }
 
         public IAssetPathAnchor getAnchor() {
@@ -175,10 +172,20 @@ public class AssetManager {
             return new AssetLocation(this, Path.of(MATERIAL_SETS_DIRECTORY));
         }
 
+        /**
+         * Discards the cached data of the given resource or directory and of all resources below it.
+         */
+        public void invalidate(Path relativePathInAssetCollection) {
+            Path path = relativePathInAssetCollection.normalize();
+            mMaterialSetsCache.invalidateIf(p -> p.startsWith(path));
+            mSupportObjectsCache.invalidateIf(p -> p.startsWith(path));
+            mImagesCache.invalidateIf(k -> k.getAnchor().equals(mAnchor) && k.getRelativePathInAssetCollection().startsWith(path));
+        }
+
         public void clearCache() {
-            mRootMaterialSetsCache = null;
-            mSupportObjectsCache = null;
-            mImagesCache = null;
+            mMaterialSetsCache.clear();
+            mSupportObjectsCache.clear();
+            mImagesCache.invalidateIf(k -> k.getAnchor().equals(mAnchor));
         }
     }
 
@@ -190,7 +197,7 @@ public class AssetManager {
         public LibraryData(AssetLibrary library, IDirectoryLocator libraryRootDirectory) {
             mLibrary = library;
             mRootDirectory = libraryRootDirectory;
-            mAssetCollection = new AssetCollection(new LibraryAssetPathAnchor(library.getId()), mRootDirectory);
+            mAssetCollection = new AssetCollection(new LibraryAssetPathAnchor(library.getId()), mRootDirectory, mImagesCache);
         }
 
         public AssetLibrary getLibrary() {
@@ -342,26 +349,36 @@ public class AssetManager {
             return resolvePath(MATERIAL_SETS_DIRECTORY + "/" + materialSetId);
         }
 
-        // TODO: Cache in AssetCollection
+        protected Path getCacheKey(String fileNameOrPath) {
+            return mRelativePathInAssetCollection.resolve(fileNameOrPath).normalize();
+        }
+
+        protected AssetResourceKey getImageCacheKey(String imageFileName) {
+            return new AssetResourceKey(getAnchor(), getCacheKey(imageFileName));
+        }
+
         protected SupportObjectDescriptor loadSupportObjectDescriptor() throws IOException {
-            IResourceLocator resourceLocator = resolveResource(SUPPORT_OBJECT_DESCRIPTOR_NAME);
-            try (Reader reader = new BufferedReader(new InputStreamReader(resourceLocator.inputStream()))) {
-                AssetRefPath supportObjectDescriptorRef = new AssetRefPath(AssetType.SupportObject, getAnchor(), mRelativePathInAssetCollection);
-                return AssetDescriptorsIO.deserializeSupportObjectDescriptor(reader, supportObjectDescriptorRef);
-            }
+            return mAssetCollection.mSupportObjectsCache.get(mRelativePathInAssetCollection.normalize(), () -> {
+                IResourceLocator resourceLocator = resolveResource(SUPPORT_OBJECT_DESCRIPTOR_NAME);
+                try (Reader reader = new BufferedReader(new InputStreamReader(resourceLocator.inputStream()))) {
+                    AssetRefPath supportObjectDescriptorRef = new AssetRefPath(AssetType.SupportObject, getAnchor(), mRelativePathInAssetCollection);
+                    return AssetDescriptorsIO.deserializeSupportObjectDescriptor(reader, supportObjectDescriptorRef);
+                }
+            });
         }
 
-        // TODO: Cache in AssetCollection
         protected MaterialSetDescriptor loadMaterialSetDescriptor() throws IOException {
-            IResourceLocator resourceLocator = resolveResource(MATERIAL_SET_DESCRIPTOR_NAME);
-            try (Reader reader = new BufferedReader(new InputStreamReader(resourceLocator.inputStream()))) {
-                AssetRefPath materialDescriptorRef = new AssetRefPath(AssetType.MaterialSet, getAnchor(), mRelativePathInAssetCollection);
-                return AssetDescriptorsIO.deserializeMaterialSetDescriptor(reader, materialDescriptorRef);
-            }
+            return mAssetCollection.mMaterialSetsCache.get(mRelativePathInAssetCollection.normalize(), () -> {
+                IResourceLocator resourceLocator = resolveResource(MATERIAL_SET_DESCRIPTOR_NAME);
+                try (Reader reader = new BufferedReader(new InputStreamReader(resourceLocator.inputStream()))) {
+                    AssetRefPath materialDescriptorRef = new AssetRefPath(AssetType.MaterialSet, getAnchor(), mRelativePathInAssetCollection);
+                    return AssetDescriptorsIO.deserializeMaterialSetDescriptor(reader, materialDescriptorRef);
+                }
+            });
         }
 
-        // TODO: Cache in AssetCollection
         public void saveSupportObjectDescriptor(SupportObjectDescriptor descriptor) throws IOException {
+            mAssetCollection.mSupportObjectsCache.invalidate(mRelativePathInAssetCollection.normalize());
             IDirectoryLocator baseDirectory = getDirectoryLocator();
             baseDirectory.mkDirs();
             IResourceLocator resourceLocator = baseDirectory.resolveResource(SUPPORT_OBJECT_DESCRIPTOR_NAME);
@@ -370,8 +387,8 @@ public class AssetManager {
             }
         }
 
-        // TODO: Cache in AssetCollection
         public void saveMaterialSetDescriptor(MaterialSetDescriptor descriptor) throws IOException {
+            mAssetCollection.mMaterialSetsCache.invalidate(mRelativePathInAssetCollection.normalize());
             IDirectoryLocator baseDirectory = getDirectoryLocator();
             baseDirectory.mkDirs();
             IResourceLocator resourceLocator = baseDirectory.resolveResource(MATERIAL_SET_DESCRIPTOR_NAME);
@@ -380,16 +397,20 @@ public class AssetManager {
             }
         }
 
-        // TODO: Cache in AssetCollection
         public Image loadImage(String imageFileName) throws IOException {
-            IResourceLocator resourceLocator = resolveResource(imageFileName);
-            return AssetManager.loadImage(resourceLocator);
+            return mAssetCollection.mImagesCache.get(getImageCacheKey(imageFileName), () -> {
+                IResourceLocator resourceLocator = resolveResource(imageFileName);
+                return AssetManager.loadImage(resourceLocator);
+            });
         }
 
-        // TODO: Cache in AssetCollection
         public void saveImage(Image image, String imageFileName) throws IOException {
             IResourceLocator resourceLocator = resolveResource(imageFileName);
-            AssetManager.saveImage(resourceLocator, image);
+            try {
+                AssetManager.saveImage(resourceLocator, image);
+            } finally {
+                mAssetCollection.mImagesCache.invalidate(getImageCacheKey(imageFileName));
+            }
         }
 
         public void saveMaterialsToMtl(Collection<RawMaterialData> materials, String materialLibraryFileName) throws IOException {
@@ -397,17 +418,22 @@ public class AssetManager {
             AssetManager.saveMaterials(resourceLocator, materials);
         }
 
-        // Should we cache this too?
         public void importResource(IResourceLocator sourceResource, String resourceFileName) throws IOException {
             IResourceLocator targetResourceLocator = resolveResource(resourceFileName);
             try (InputStream inputStream = sourceResource.inputStream()) {
                 targetResourceLocator.copyFrom(inputStream);
+            } finally {
+                mAssetCollection.invalidate(getCacheKey(resourceFileName));
             }
         }
 
         public void importResourceDirectory(IDirectoryLocator sourceDirectory) throws IOException {
             IDirectoryLocator targetDirectoryLocator = getDirectoryLocator();
-            sourceDirectory.copyContentsTo(targetDirectoryLocator);
+            try {
+                sourceDirectory.copyContentsTo(targetDirectoryLocator);
+            } finally {
+                mAssetCollection.invalidate(mRelativePathInAssetCollection);
+            }
         }
 
         // TODO: Update cache entries
@@ -465,7 +491,11 @@ public class AssetManager {
          */
         public void deleteAssetDirectory() throws IOException {
             IDirectoryLocator assetDirectory = getDirectoryLocator();
-            assetDirectory.deleteRecursively();
+            try {
+                assetDirectory.deleteRecursively();
+            } finally {
+                mAssetCollection.invalidate(mRelativePathInAssetCollection);
+            }
         }
     }
 
@@ -487,15 +517,36 @@ public class AssetManager {
 
     public static final String STORE_IMAGE_EXTENSION = "png";
 
+    /**
+     * Number of threads of the default load executor; loading is mostly I/O and parsing, so a few threads are enough.
+     */
+    public static final int DEFAULT_NUM_LOAD_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     protected final AssetManagerConfiguration mConfiguration;
 
-    protected final Map<String, RawMaterialData> mDefaultMaterials = new TreeMap<>(); // Material names to materials
-    protected final Map<String, LibraryData> mAssetLibraries = new TreeMap<>(); // Ids to asset libraries
+    // Sorted maps which can be read from loader threads while libraries are opened or closed
+    protected final Map<String, RawMaterialData> mDefaultMaterials = new ConcurrentSkipListMap<>(); // Material names to materials
+    protected final Map<String, LibraryData> mAssetLibraries = new ConcurrentSkipListMap<>(); // Ids to asset libraries
+
+    protected volatile Optional<PlanContext> mOPlanContext = Optional.empty(); // Set if there is a plan in context, value changes if another plan is opened
+
+    protected final AssetCache<AssetResourceKey, Image> mImagesCache = new AssetCache<>(AssetCacheType.Images, AssetSizeEstimator::estimateImageBytes); // Images of all asset collections
 
-    protected Optional<PlanContext> mOPlanContext = Optional.empty(); // Set if there is a plan in context, value changes if another plan is opened
+    protected final ExecutorService mDefaultLoadExecutor;
+    protected volatile Executor mLoadExecutor;
+    protected final AssetPrefetcher mPrefetcher;
 
     public AssetManager(AssetManagerConfiguration config) {
         mConfiguration = config;
+        AtomicInteger threadCount = new AtomicInteger();
+        mDefaultLoadExecutor = Executors.newFixedThreadPool(DEFAULT_NUM_LOAD_THREADS, r -> {
+            Thread result = new Thread(r, "Asset loader " + threadCount.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+        });
+        mLoadExecutor = mDefaultLoadExecutor;
+        mPrefetcher = new AssetPrefetcher(this);
+        applyCacheBudgets();
     }
 
     public static AssetManager create() {
@@ -524,7 +575,7 @@ public class AssetManager {
         if (planBaseDirectory == null) {
             mOPlanContext = Optional.empty();
         }
-        mOPlanContext = Optional.of(new PlanContext(planId, planBaseDirectory, new AssetCollection(new PlanAssetPathAnchor(planId), planBaseDirectory)));
+        mOPlanContext = Optional.of(new PlanContext(planId, planBaseDirectory, new AssetCollection(new PlanAssetPathAnchor(planId), planBaseDirectory, mImagesCache)));
     }
 
     /**
@@ -557,13 +608,36 @@ public class AssetManager {
     }
 
     public void shutdown() {
-        // Nothing to do ATM
+        mPrefetcher.shutdown();
+        mDefaultLoadExecutor.shutdownNow();
     }
 
     public AssetLoader buildAssetLoader() {
         return AssetLoader.build(this);
     }
 
+    /**
+     * Gets the prefetcher which loads the assets of the current plan in the background.
+     */
+    public AssetPrefetcher getPrefetcher() {
+        return mPrefetcher;
+    }
+
+    /**
+     * Gets the executor which is used for background loading of assets, see the asynchronous methods of {@link AssetLoader}.
+     */
+    public Executor getLoadExecutor() {
+        return mLoadExecutor;
+    }
+
+    /**
+     * Sets the executor to be used for background loading of assets. An executor which is set here is not shut down
+     * by this asset manager. Setting {@code null} restores the default executor.
+     */
+    public void setLoadExecutor(Executor value) {
+        mLoadExecutor = value == null ? mDefaultLoadExecutor : value;
+    }
+
     ////////////////////////////////////////////////////// Cache management /////////////////////////////////////////////////////////
 
     public void clearCache() {
@@ -571,6 +645,37 @@ public class AssetManager {
             ld.getAssetCollection().clearCache();
         }
         mOPlanContext.ifPresent(pc -> pc.getAssetCollection().clearCache());
+        mImagesCache.clear();
+        mPrefetcher.clear();
+    }
+
+    /**
+     * Gets all caches which retain assets.
+     */
+    public Collection<AssetCache<?, ?>> getCaches() {
+        Collection<AssetCache<?, ?>> result = new ArrayList<>();
+        result.add(mImagesCache);
+        result.addAll(mPrefetcher.getCaches());
+        return result;
+    }
+
+    /**
+     * Sets the budgets of all caches from the configuration. Must be called after cache budgets were changed in the configuration.
+     */
+    public void applyCacheBudgets() {
+        for (AssetCache<?, ?> cache : getCaches()) {
+            cache.setBudget(mConfiguration.getCacheBudget(cache.getType()));
+        }
+    }
+
+    /**
+     * Gets a snapshot of the statistics of all caches which retain assets.
+     */
+    public Collection<AssetCacheStatistics> getCacheStatistics() {
+        return getCaches()
+                        .stream()
+                        .map(AssetCache::getStatistics)
+                        .collect(Collectors.toList());
     }
 
     //////////////////////////////////////////////////////// Directory computation /////////////////////////////////////////////////////
@@ -782,12 +887,14 @@ public class AssetManager {
         AssetRefPath refPath = descriptor.getSelfRef();
         AssetLocation assetLocation = resolveAssetLocation(refPath);
         assetLocation.saveMaterialSetDescriptor(descriptor);
+        mPrefetcher.invalidate(refPath);
     }
 
     public void saveSupportObjectDescriptor(SupportObjectDescriptor descriptor) throws IOException {
         AssetRefPath refPath = descriptor.getSelfRef();
         AssetLocation assetLocation = resolveAssetLocation(refPath);
         assetLocation.saveSupportObjectDescriptor(descriptor);
+        mPrefetcher.invalidate(refPath);
     }
 
     public void saveAssetDescriptor(AbstractAssetDescriptor descriptor) throws IOException {
@@ -906,6 +1013,7 @@ public class AssetManager {
         if (assetRefPath.getOMaterialName().isPresent()) {
             throw new IllegalArgumentException("Single material in material set cannot be deleted separately (material set ref path: '" + assetRefPath + "')");
         }
+        mPrefetcher.invalidate(assetRefPath);
         AssetLocation assetLocation = resolveAssetLocation(assetRefPath);
         Path assetBaseDirectoryPath = assetLocation.getRelativePathInAssetCollection();
         try {
@@ -43,6 +43,10 @@ public class AssetManagerConfiguration {
     protected static final String KEY_LAST_IMPORTED_LIBRARY_PATH = "LastImportedLibraryPath";
     protected static final String KEY_LAST_CHOOSEN_EXTERNAL_LIBRARY_PATH = "LastChoosenExternalLibraryPath";
 
+    protected static final String KEY_CACHE_MAX_ENTRIES_PREFIX = "CacheMaxEntries";
+    protected static final String KEY_CACHE_MAX_BYTES_PREFIX = "CacheMaxBytes";
+    protected static final String KEY_CACHE_SOFT_REFERENCES_PREFIX = "CacheSoftReferences";
+
     protected final Preferences mPrefs;
 
     protected AssetManagerConfiguration(Preferences prefs) {
@@ -157,4 +161,21 @@ public class AssetManagerConfiguration {
     public void setLastChoosenExternalLibraryPath(Path value) {
         setPathEntry(KEY_LAST_CHOOSEN_EXTERNAL_LIBRARY_PATH, value);
     }
+
+    /**
+     * Gets the budget of the asset caches of the given type. Changed budgets are applied by {@link AssetManager#applyCacheBudgets()}.
+     */
+    public AssetCacheBudget getCacheBudget(AssetCacheType cacheType) {
+        AssetCacheBudget defaultBudget = cacheType.getDefaultBudget();
+        return new AssetCacheBudget(
+            mPrefs.getInt(KEY_CACHE_MAX_ENTRIES_PREFIX + cacheType.name(), defaultBudget.getMaxEntries()),
+            mPrefs.getLong(KEY_CACHE_MAX_BYTES_PREFIX + cacheType.name(), defaultBudget.getMaxBytes()),
+            mPrefs.getBoolean(KEY_CACHE_SOFT_REFERENCES_PREFIX + cacheType.name(), defaultBudget.isSoftReferences()));
+    }
+
+    public void setCacheBudget(AssetCacheType cacheType, AssetCacheBudget value) {
+        mPrefs.putInt(KEY_CACHE_MAX_ENTRIES_PREFIX + cacheType.name(), value.getMaxEntries());
+        mPrefs.putLong(KEY_CACHE_MAX_BYTES_PREFIX + cacheType.name(), value.getMaxBytes());
+        mPrefs.putBoolean(KEY_CACHE_SOFT_REFERENCES_PREFIX + cacheType.name(), value.isSoftReferences());
+    }
 }
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.model.assets.AbstractModelResource;
+import de.dh.cad.architect.model.assets.AssetRefPath;
+import de.dh.cad.architect.model.assets.MeshConfiguration;
+import de.dh.cad.architect.model.assets.ObjModelResource;
+import de.dh.cad.architect.model.assets.SupportObjectDescriptor;
+import de.dh.cad.architect.model.objects.BaseSolidObject;
+import de.dh.cad.architect.model.objects.SupportObject;
+import de.dh.cad.architect.ui.assets.AssetManager.AssetLocation;
+import de.dh.utils.fx.ImagePyramid;
+import de.dh.utils.io.obj.ObjReader.ObjDataRaw;
+import de.dh.utils.io.obj.RawMaterialData;
+
+/**
+ * Loads the assets which are referenced by a plan in the background, before they are needed by the plan's representations.
+ *
+ * For a given {@link Plan}, the prefetcher collects the distinct support object descriptors, together with their 3D model data
+ * and plan view images, and the material sets of all surfaces. Each of those assets is loaded once by the
+ * {@link AssetManager#getLoadExecutor() load executor} of the asset manager.
+ * The loaded assets are kept for the current plan within the {@link AssetCacheBudget budgets} of their caches and shared
+ * by all callers, which await the corresponding load if the asset is still being loaded. Assets which were not prefetched
+ * are loaded by the first caller and kept as well.
+ *
+ * Prefetched assets must be {@link #invalidate(AssetRefPath) invalidated} when they are changed.
+ */
+public class AssetPrefetcher {
+    private static final Logger log = LoggerFactory.getLogger(AssetPrefetcher.class);
+
+    protected final AssetManager mAssetManager;
+
+    // Support object descriptor refs to the prefetched assets
+    protected final AssetCache<AssetRefPath, SupportObjectDescriptor> mSupportObjectDescriptors = new AssetCache<>(AssetCacheType.Descriptors, AssetSizeEstimator::estimateDescriptorBytes);
+    protected final AssetCache<AssetRefPath, ObjDataRaw> mObjModels = new AssetCache<>(AssetCacheType.ObjModels, AssetSizeEstimator::estimateObjModelBytes);
+    // Plan view images are shared by all representations of a support object, together with their downscaled variants
+    protected final AssetCache<AssetRefPath, ImagePyramid> mPlanViewImages = new AssetCache<>(AssetCacheType.PlanViewImages, AssetSizeEstimator::estimateImagePyramidBytes);
+
+    // Material set refs without material name to the prefetched material sets
+    protected final AssetCache<AssetRefPath, Map<String, RawMaterialData>> mMaterialSets = new AssetCache<>(AssetCacheType.MaterialSets, AssetSizeEstimator::estimateMaterialSetBytes);
+
+    // Incremented when the prefetched assets are discarded, prevents late loads of a former plan from being registered
+    protected volatile int mGeneration = 0;
+
+    public AssetPrefetcher(AssetManager assetManager) {
+        mAssetManager = assetManager;
+    }
+
+    public void shutdown() {
+        clear();
+    }
+
+    /**
+     * Discards all prefetched assets and starts loading the assets which are referenced by the given plan.
+     * Must be called after the plan was set as current plan in the asset manager because plan-local assets are resolved
+     * against the current plan.
+     */
+    public void prefetch(Plan plan) {
+        clear();
+        Collection<AssetRefPath> supportObjectDescriptorRefs = new LinkedHashSet<>();
+        Collection<AssetRefPath> materialSetRefs = new LinkedHashSet<>();
+        plan.forEach(object -> {
+            if (object instanceof BaseSolidObject bso) {
+                for (AssetRefPath materialRef : bso.getSurfaceMaterialRefs().values()) {
+                    materialSetRefs.add(materialRef.withoutMaterialName());
+                }
+            }
+            if (object instanceof SupportObject so && so.getSupportObjectDescriptorRef() != null) {
+                supportObjectDescriptorRefs.add(so.getSupportObjectDescriptorRef());
+            }
+        });
+        log.debug("Prefetching " + supportObjectDescriptorRefs.size() + " support objects and " + materialSetRefs.size() + " material sets");
+        // Material sets first, the surfaces of walls and floors are built before the support objects
+        for (AssetRefPath materialSetRef : materialSetRefs) {
+            prefetchMaterialSet(materialSetRef);
+        }
+        for (AssetRefPath supportObjectDescriptorRef : supportObjectDescriptorRefs) {
+            prefetchSupportObject(supportObjectDescriptorRef);
+        }
+    }
+
+    protected Executor getExecutor() {
+        return mAssetManager.getLoadExecutor();
+    }
+
+    protected void prefetchMaterialSet(AssetRefPath materialSetRef) {
+        mMaterialSets.getAsync(materialSetRef, () -> mAssetManager.buildAssetLoader().readMaterials(materialSetRef), getExecutor());
+    }
+
+    protected void prefetchSupportObject(AssetRefPath supportObjectDescriptorRef) {
+        int generation = mGeneration;
+        CompletableFuture<SupportObjectDescriptor> descriptorFuture = mSupportObjectDescriptors.getAsync(supportObjectDescriptorRef,
+            () -> mAssetManager.loadSupportObjectDescriptor(supportObjectDescriptorRef), getExecutor());
+        descriptorFuture.thenAcceptAsync(descriptor -> {
+            if (generation != mGeneration) {
+                return;
+            }
+            AbstractModelResource model = descriptor.getModel();
+            if (model instanceof ObjModelResource omr) {
+                mObjModels.getAsync(supportObjectDescriptorRef, () -> {
+                    AssetLocation assetLocation = mAssetManager.resolveAssetLocation(descriptor.getSelfRef());
+                    return mAssetManager.buildAssetLoader().loadObjModelData(assetLocation, omr);
+                }, getExecutor());
+            }
+            String planViewImageResourceName = descriptor.getPlanViewImageResourceName();
+            if (!StringUtils.isEmpty(planViewImageResourceName)) {
+                mPlanViewImages.getAsync(supportObjectDescriptorRef, () ->
+                    ImagePyramid.create(mAssetManager.buildAssetLoader().loadAssetResourceImage(descriptor.getSelfRef(), planViewImageResourceName)), getExecutor());
+            }
+            for (MeshConfiguration meshConfiguration : descriptor.getMeshNamesToMeshConfigurations().values()) {
+                AssetRefPath materialRef = meshConfiguration.getMaterialAssignment();
+                if (materialRef != null) {
+                    prefetchMaterialSet(materialRef.withoutMaterialName());
+                }
+            }
+        }, getExecutor());
+    }
+
+    /**
+     * Discards all prefetched assets and cancels all pending loads.
+     */
+    public void clear() {
+        mGeneration++;
+        for (AssetCache<AssetRefPath, ?> cache : getCaches()) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Discards the prefetched data of the given asset. Must be called if the asset was changed.
+     */
+    public void invalidate(AssetRefPath assetRefPath) {
+        AssetRefPath key = assetRefPath.withoutMaterialName();
+        for (AssetCache<AssetRefPath, ?> cache : getCaches()) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Gets the caches which hold the prefetched assets.
+     */
+    public Collection<AssetCache<AssetRefPath, ?>> getCaches() {
+        return List.of(mSupportObjectDescriptors, mObjModels, mPlanViewImages, mMaterialSets);
+    }
+
+    public Optional<CompletableFuture<SupportObjectDescriptor>> getSupportObjectDescriptorFuture(AssetRefPath supportObjectDescriptorRef) {
+        return mSupportObjectDescriptors.getFuture(supportObjectDescriptorRef);
+    }
+
+    public Optional<CompletableFuture<ObjDataRaw>> getObjModelDataFuture(AssetRefPath supportObjectDescriptorRef) {
+        return mObjModels.getFuture(supportObjectDescriptorRef);
+    }
+
+    public Optional<CompletableFuture<ImagePyramid>> getPlanViewImagePyramidFuture(AssetRefPath supportObjectDescriptorRef) {
+        return mPlanViewImages.getFuture(supportObjectDescriptorRef);
+    }
+
+    public Optional<CompletableFuture<Map<String, RawMaterialData>>> getMaterialSetFuture(AssetRefPath materialSetRef) {
+        return mMaterialSets.getFuture(materialSetRef);
+    }
+
+    /**
+     * Returns the prefetched descriptor or, if it was not prefetched, loads it using the given operation.
+     */
+    public SupportObjectDescriptor getSupportObjectDescriptor(AssetRefPath supportObjectDescriptorRef, IAssetLoadOperation<SupportObjectDescriptor> loadOperation) throws IOException {
+        return mSupportObjectDescriptors.get(supportObjectDescriptorRef, loadOperation);
+    }
+
+    /**
+     * Returns the prefetched 3D model data of the given support object or, if it was not prefetched, loads it using the given operation.
+     */
+    public ObjDataRaw getObjModelData(AssetRefPath supportObjectDescriptorRef, IAssetLoadOperation<ObjDataRaw> loadOperation) throws IOException {
+        return mObjModels.get(supportObjectDescriptorRef, loadOperation);
+    }
+
+    /**
+     * Returns the prefetched plan view image pyramid of the given support object or, if it was not prefetched, loads it using the given operation.
+     */
+    public ImagePyramid getPlanViewImagePyramid(AssetRefPath supportObjectDescriptorRef, IAssetLoadOperation<ImagePyramid> loadOperation) throws IOException {
+        return mPlanViewImages.get(supportObjectDescriptorRef, loadOperation);
+    }
+
+    /**
+     * Returns the prefetched materials of the given material set or, if they were not prefetched, loads them using the given operation.
+     */
+    public Map<String, RawMaterialData> getMaterialSet(AssetRefPath materialSetRef, IAssetLoadOperation<Map<String, RawMaterialData>> loadOperation) throws IOException {
+        return mMaterialSets.get(materialSetRef, loadOperation);
+    }
+}
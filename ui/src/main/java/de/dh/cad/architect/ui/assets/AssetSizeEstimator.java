@@ -0,0 +1,75 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.assets;
+
+import java.util.Map;
+import java.util.Optional;
+
+import de.dh.utils.fx.ImagePyramid;
+import de.dh.utils.io.MeshData;
+import de.dh.utils.io.MeshData.FaceNormalsData;
+import de.dh.utils.io.obj.ObjReader.ObjDataRaw;
+import de.dh.utils.io.obj.RawMaterialData;
+import javafx.scene.image.Image;
+
+/**
+ * Rough estimations of the memory sizes of cached assets, used to enforce the {@link AssetCacheBudget byte budgets}
+ * of the asset caches. The estimations don't need to be exact but should be proportional to the real sizes.
+ */
+public class AssetSizeEstimator {
+    // Size of a boxed Float or Integer plus the reference in its list
+    protected static final int BOXED_NUMBER_BYTES = 20;
+
+    protected static final int MESH_OVERHEAD_BYTES = 256;
+    protected static final int MATERIAL_BYTES = 1024;
+    protected static final int DESCRIPTOR_BYTES = 4096;
+
+    public static long estimateImageBytes(Image image) {
+        return (long) Math.ceil(image.getWidth()) * (long) Math.ceil(image.getHeight()) * 4;
+    }
+
+    public static long estimateImagePyramidBytes(ImagePyramid imagePyramid) {
+        long result = 0;
+        for (Image level : imagePyramid.getLevels()) {
+            result += estimateImageBytes(level);
+        }
+        return result;
+    }
+
+    public static long estimateObjModelBytes(ObjDataRaw objData) {
+        long result = 0;
+        for (MeshData mesh : objData.getMeshes()) {
+            long numValues = mesh.getVertices().size() + mesh.getTexCoords().size() + mesh.getFaces().size() + mesh.getSmoothingGroups().size();
+            Optional<FaceNormalsData> oFaceNormalsData = mesh.getOFaceNormalsData();
+            if (oFaceNormalsData.isPresent()) {
+                FaceNormalsData faceNormalsData = oFaceNormalsData.get();
+                numValues += faceNormalsData.getNormals().size() + faceNormalsData.getFaceNormals().size();
+            }
+            result += MESH_OVERHEAD_BYTES + numValues * BOXED_NUMBER_BYTES;
+        }
+        return result;
+    }
+
+    public static long estimateMaterialSetBytes(Map<String, RawMaterialData> materials) {
+        return (long) materials.size() * MATERIAL_BYTES;
+    }
+
+    public static long estimateDescriptorBytes(Object descriptor) {
+        return DESCRIPTOR_BYTES;
+    }
+}
@@ -10,6 +10,7 @@ import de.dh.cad.architect.model.changes.MacroChange;
 public class ChangeEntry {
     protected final IModelChange mModelChange;
     protected final String mChangeDescription;
+    protected long mEstimatedMemorySize = -1;
 
     public ChangeEntry(IModelChange modelChange, String changeDescription) {
         mModelChange = modelChange;
@@ -24,6 +25,16 @@ public class ChangeEntry {
         return mChangeDescription;
     }
 
+    /**
+     * Returns the estimated memory size of this entry's model change, see {@link IModelChange#estimateMemorySize()}.
+     */
+    public long getEstimatedMemorySize() {
+        if (mEstimatedMemorySize < 0) {
+            mEstimatedMemorySize = mModelChange.estimateMemorySize();
+        }
+        return mEstimatedMemorySize;
+    }
+
     public Optional<ChangeEntry> tryMerge(ChangeEntry oldChangeEntry) {
         return mModelChange.tryMerge(oldChangeEntry.getModelChange())
                 .map(mc -> {
@@ -3,20 +3,126 @@ package de.dh.cad.architect.ui.controller;
 import java.util.Optional;
 import java.util.Stack;
 
+import de.dh.cad.architect.ui.IConfig;
+
+/**
+ * Undo/redo history of model changes.
+ * The history is limited by a maximum number of entries and by a maximum estimated memory size of the contained changes.
+ * When one of the limits is exceeded, the oldest undo entries are dropped.
+ */
 public class ChangeHistory {
+    public static final String KEY_MAX_ENTRIES = "ChangeHistoryMaxEntries";
+    public static final String KEY_MAX_ESTIMATED_MEMORY_SIZE = "ChangeHistoryMaxEstimatedMemorySize";
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_MAX_ESTIMATED_MEMORY_SIZE = 64 * 1024 * 1024;
+
     protected final Stack<ChangeEntry> mUndoStack = new Stack<>();
     protected final Stack<ChangeEntry> mRedoStack = new Stack<>();
 
-    public void pushChange(ChangeEntry change, boolean tryMergeChange) {
-        if (!tryMergeChange || !tryMergeChange(change)) {
-            mUndoStack.push(change);
+    protected int mMaxEntries;
+    protected long mMaxEstimatedMemorySize;
+    protected long mEstimatedMemorySize = 0;
+    protected int mNumDroppedEntries = 0;
+
+    public ChangeHistory() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_ESTIMATED_MEMORY_SIZE);
+    }
+
+    /**
+     * Creates a change history with the given limits.
+     * @param maxEntries Maximum number of undo and redo entries.
+     * @param maxEstimatedMemorySize Maximum estimated memory size of all entries in bytes, see {@link ChangeEntry#getEstimatedMemorySize()}.
+     */
+    public ChangeHistory(int maxEntries, long maxEstimatedMemorySize) {
+        mMaxEntries = maxEntries;
+        mMaxEstimatedMemorySize = maxEstimatedMemorySize;
+    }
+
+    public static ChangeHistory fromConfig(IConfig config) {
+        return new ChangeHistory(
+            config.getInt(KEY_MAX_ENTRIES, DEFAULT_MAX_ENTRIES),
+            config.getLong(KEY_MAX_ESTIMATED_MEMORY_SIZE, DEFAULT_MAX_ESTIMATED_MEMORY_SIZE));
+    }
+
+    public int getMaxEntries() {
+        return mMaxEntries;
+    }
+
+    public long getMaxEstimatedMemorySize() {
+        return mMaxEstimatedMemorySize;
+    }
+
+    public void setLimits(int maxEntries, long maxEstimatedMemorySize) {
+        mMaxEntries = maxEntries;
+        mMaxEstimatedMemorySize = maxEstimatedMemorySize;
+        enforceLimits();
+    }
+
+    /**
+     * Gets the estimated memory size of all undo and redo entries in bytes.
+     */
+    public long getEstimatedMemorySize() {
+        return mEstimatedMemorySize;
+    }
+
+    public int getNumEntries() {
+        return mUndoStack.size() + mRedoStack.size();
+    }
+
+    /**
+     * Gets the number of undo entries which have been dropped because of the history limits since the last {@link #clear()}.
+     */
+    public int getNumDroppedEntries() {
+        return mNumDroppedEntries;
+    }
+
+    /**
+     * Adds the given change to the undo stack.
+     * @param tryMergeChange If set to {@code true}, the change is merged into the most recent undo entry, if possible.
+     * @return {@code true} if the change was merged into the most recent undo entry, {@code false} if it was added as a new entry.
+     */
+    public boolean pushChange(ChangeEntry change, boolean tryMergeChange) {
+        boolean merged = tryMergeChange && tryMergeChange(change);
+        if (!merged) {
+            pushEntry(mUndoStack, change);
+        }
+        clearRedoStack();
+        enforceLimits();
+        return merged;
+    }
+
+    protected void pushEntry(Stack<ChangeEntry> stack, ChangeEntry changeEntry) {
+        stack.push(changeEntry);
+        mEstimatedMemorySize += changeEntry.getEstimatedMemorySize();
+    }
+
+    protected ChangeEntry popEntry(Stack<ChangeEntry> stack) {
+        ChangeEntry result = stack.pop();
+        mEstimatedMemorySize -= result.getEstimatedMemorySize();
+        return result;
+    }
+
+    protected void clearRedoStack() {
+        while (!mRedoStack.empty()) {
+            popEntry(mRedoStack);
+        }
+    }
+
+    /**
+     * Drops the oldest undo entries until the history fits into its limits. The most recent undo entry is always kept.
+     */
+    protected void enforceLimits() {
+        while (mUndoStack.size() > 1 && (getNumEntries() > mMaxEntries || mEstimatedMemorySize > mMaxEstimatedMemorySize)) {
+            ChangeEntry droppedEntry = mUndoStack.remove(0);
+            mEstimatedMemorySize -= droppedEntry.getEstimatedMemorySize();
+            mNumDroppedEntries++;
         }
-        mRedoStack.clear();
     }
 
     protected void exchangeRecentChange(ChangeEntry changeEntry) {
-        mUndoStack.pop();
-        mUndoStack.push(changeEntry);
+        popEntry(mUndoStack);
+        pushEntry(mUndoStack, changeEntry);
     }
 
     protected boolean tryMergeChange(ChangeEntry changeEntry) {
@@ -40,9 +146,9 @@ public class ChangeHistory {
         if (mUndoStack.empty()) {
             throw new IllegalStateException("No changes in history to undo");
         }
-        ChangeEntry change = mUndoStack.pop();
+        ChangeEntry change = popEntry(mUndoStack);
         ChangeEntry undoneChange = change.undo();
-        mRedoStack.push(undoneChange);
+        pushEntry(mRedoStack, undoneChange);
         return undoneChange;
     }
 
@@ -54,15 +160,17 @@ public class ChangeHistory {
         if (mRedoStack.empty()) {
             throw new IllegalStateException("No changes in history to redo");
         }
-        ChangeEntry change = mRedoStack.pop();
+        ChangeEntry change = popEntry(mRedoStack);
         ChangeEntry redoneChange = change.undo();
-        mUndoStack.push(redoneChange);
+        pushEntry(mUndoStack, redoneChange);
         return redoneChange;
     }
 
     public void clear() {
         mUndoStack.clear();
         mRedoStack.clear();
+        mEstimatedMemorySize = 0;
+        mNumDroppedEntries = 0;
     }
 
     public Optional<ChangeEntry> tryPeekNextUndoChange() {
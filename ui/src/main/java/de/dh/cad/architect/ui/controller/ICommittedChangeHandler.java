@@ -0,0 +1,31 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.controller;
+
+/**
+ * Handler which is notified about each change entry which was committed to the plan, including
+ * the changes which are executed by undo and redo operations.
+ */
+public interface ICommittedChangeHandler {
+    /**
+     * Called after a change was committed.
+     * @param merged {@code true} if the change was merged into the preceding change entry, e.g. if it is a further step of a
+     * mouse drag operation. A change which is not merged starts a new entry, which means that the preceding change is complete.
+     */
+    void changeCommitted(ChangeEntry changeEntry, boolean merged);
+}
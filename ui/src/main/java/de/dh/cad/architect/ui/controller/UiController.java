@@ -70,6 +70,7 @@ import de.dh.cad.architect.ui.view.MainWindow;
 import de.dh.cad.architect.ui.view.ObjectReconcileOperation;
 import de.dh.cad.architect.utils.IdGenerator;
 import de.dh.utils.fx.SimpleObservableListWrapper;
+import javafx.animation.AnimationTimer;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.ReadOnlyObjectProperty;
@@ -83,13 +84,40 @@ import javafx.collections.ObservableList;
 import javafx.stage.Stage;
 
 public class UiController {
+    /**
+     * Defines when an {@link ObjectsChangeHandler} is notified about model changes.
+     */
+    public enum ChangeNotificationMode {
+        /**
+         * The handler is called immediately for each change. Use this mode for handlers whose state must be
+         * up-to-date directly after a change, e.g. because UI code accesses the state right after the change.
+         */
+        Synchronous,
+
+        /**
+         * All changes which occur during a JavaFX pulse are consolidated and delivered once in the next pulse.
+         * Objects which were added and removed again in between are not reported at all.
+         */
+        Coalesced;
+    }
+
     protected final IConfig mConfiguration;
     protected final Property<Plan> mPlanProperty;
     protected final SimpleObservableListWrapper<String> mSelectedObjectIds = new SimpleObservableListWrapper<>(new ArrayList<>());
     protected final StringProperty mFocusedObjectId = new SimpleStringProperty(null);
     protected final List<ObjectsChangeHandler> mChangeHandlers = new ArrayList<>();
+    protected final List<ObjectsChangeHandler> mCoalescedChangeHandlers = new ArrayList<>();
+    protected final List<IModelChange> mPendingCoalescedChanges = new ArrayList<>();
+    protected final List<ICommittedChangeHandler> mCommittedChangeHandlers = new ArrayList<>();
+    protected final AnimationTimer mCoalescedChangesTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            flushCoalescedChanges();
+        }
+    };
     protected final List<IObjectContextMenuProvider> mContextMenuProviders = new ArrayList<>();
-    protected final ChangeHistory mChangeHistory = new ChangeHistory();
+    protected final ChangeHistory mChangeHistory;
     protected final ObjectProperty<ChangeEntry> mNextUndoOperation = new SimpleObjectProperty<>(null);
     protected final ObjectProperty<ChangeEntry> mNextRedoOperation = new SimpleObjectProperty<>(null);
 
@@ -99,9 +127,13 @@ public class UiController {
 
     protected AbstractPlanView<?, ?> mCurrentView = null;
 
+    // Collects the initialization steps of plan views while a plan is installed in the background, null if not deferring
+    protected List<Runnable> mDeferredViewInitializationSteps = null;
+
     public UiController(Property<Plan> planProperty, IConfig configuration) {
         mPlanProperty = planProperty;
         mConfiguration = configuration;
+        mChangeHistory = ChangeHistory.fromConfig(configuration);
     }
 
     public void initialize(Stage primaryStage, ApplicationController applicationController) {
@@ -142,13 +174,16 @@ public class UiController {
             public void objectsAdded(Collection<BaseObject> addedObjects) {
                 objectTreeControl.objectsAdded(addedObjects);
             }
-        });
+        }, ChangeNotificationMode.Coalesced);
         updateProperties();
 
         ObservableList<String> objectsTreeSelectedObjectIds = objectTreeControl.selectedObjectIds();
         mPlanProperty.addListener(new ChangeListener<>() {
             @Override
             public void changed(ObservableValue<? extends Plan> observable, Plan oldValue, Plan newValue) {
+                // Pending changes refer to the former plan
+                mCoalescedChangesTimer.stop();
+                mPendingCoalescedChanges.clear();
                 mChangeHistory.clear();
                 objectsTreeSelectedObjectIds.clear();
                 objectTreeControl.setInput(getPlan());
@@ -165,6 +200,8 @@ public class UiController {
                 if (mSuppressSelectionChanges) {
                     return;
                 }
+                // Objects which were added together with their selection must be present in the tree before
+                flushCoalescedChanges();
                 mSuppressSelectionChanges = true;
                 try {
                     while (c.next()) {
@@ -198,6 +235,7 @@ public class UiController {
     }
 
     public void shutdown() {
+        mCoalescedChangesTimer.stop();
         mMainWindow.shutdown();
     }
 
@@ -206,6 +244,39 @@ public class UiController {
         updateProperties();
     }
 
+    /**
+     * Starts collecting the initialization steps of plan views instead of executing them immediately.
+     * Used to install a large plan in chunks, see {@link #endDeferredViewInitialization()}.
+     */
+    public void beginDeferredViewInitialization() {
+        mDeferredViewInitializationSteps = new ArrayList<>();
+    }
+
+    /**
+     * Stops collecting view initialization steps and returns the steps which were collected since
+     * {@link #beginDeferredViewInitialization()}. The caller is responsible for executing them in the FX thread,
+     * in the given order.
+     */
+    public List<Runnable> endDeferredViewInitialization() {
+        List<Runnable> result = mDeferredViewInitializationSteps;
+        mDeferredViewInitializationSteps = null;
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    /**
+     * Executes the given initialization steps of a plan view, either immediately or, if view initialization is
+     * currently deferred, later.
+     */
+    public void executeViewInitializationSteps(List<Runnable> steps) {
+        if (mDeferredViewInitializationSteps == null) {
+            for (Runnable step : steps) {
+                step.run();
+            }
+        } else {
+            mDeferredViewInitializationSteps.addAll(steps);
+        }
+    }
+
     public UiState getUiState() {
         return new UiState(mMainWindow.getMainWindowState());
     }
@@ -366,11 +437,34 @@ public class UiController {
     }
 
     public void addChangeHandler(ObjectsChangeHandler handler) {
-        mChangeHandlers.add(handler);
+        addChangeHandler(handler, ChangeNotificationMode.Synchronous);
+    }
+
+    public void addChangeHandler(ObjectsChangeHandler handler, ChangeNotificationMode mode) {
+        if (mode == ChangeNotificationMode.Coalesced) {
+            mCoalescedChangeHandlers.add(handler);
+        } else {
+            mChangeHandlers.add(handler);
+        }
     }
 
     public void removeChangeHandler(ObjectsChangeHandler handler) {
         mChangeHandlers.remove(handler);
+        mCoalescedChangeHandlers.remove(handler);
+    }
+
+    public void addCommittedChangeHandler(ICommittedChangeHandler handler) {
+        mCommittedChangeHandlers.add(handler);
+    }
+
+    public void removeCommittedChangeHandler(ICommittedChangeHandler handler) {
+        mCommittedChangeHandlers.remove(handler);
+    }
+
+    protected void fireChangeCommitted(ChangeEntry changeEntry, boolean merged) {
+        for (ICommittedChangeHandler handler : new ArrayList<>(mCommittedChangeHandlers)) {
+            handler.changeCommitted(changeEntry, merged);
+        }
     }
 
     public void removeObject(BaseObject object) {
@@ -749,7 +843,7 @@ public class UiController {
     }
 
     public void doReconcileObjects(ObjectReconcileOperation oro, List<IModelChange> changeTrace) {
-        oro.reconcileObjects(changeTrace);
+        oro.reconcileObjectsParallel(changeTrace);
     }
 
     public void createGuideLine(GuideLineDirection direction, Length position) {
@@ -828,9 +922,10 @@ public class UiController {
 
     public void notifyChange(IModelChange change, String changeDescription, boolean tryMergeChange) {
         ChangeEntry changeEntry = new ChangeEntry(change, changeDescription);
-        mChangeHistory.pushChange(changeEntry, tryMergeChange);
+        boolean merged = mChangeHistory.pushChange(changeEntry, tryMergeChange);
         checkUndoRedo();
         fireChanges(change);
+        fireChangeCommitted(changeEntry, merged);
     }
 
     public ReadOnlyObjectProperty<ChangeEntry> nextUndoOperationProperty() {
@@ -858,15 +953,22 @@ public class UiController {
         ChangeEntry undoChange = mChangeHistory.undo();
         checkUndoRedo();
         fireChanges(undoChange.getModelChange());
+        fireChangeCommitted(undoChange, false);
     }
 
     public void redo() {
         ChangeEntry redoChange = mChangeHistory.redo();
         checkUndoRedo();
         fireChanges(redoChange.getModelChange());
+        fireChangeCommitted(redoChange, false);
     }
 
     protected void fireChanges(IModelChange change) {
+        if (!mCoalescedChangeHandlers.isEmpty()) {
+            mPendingCoalescedChanges.add(change);
+            mCoalescedChangesTimer.start();
+        }
+
         Collection<BaseObject> additions = change.getAdditions();
         Collection<BaseObject> removals = change.getRemovals();
         boolean objectSetUnChanged = additions.isEmpty() && removals.isEmpty();
@@ -893,35 +995,64 @@ public class UiController {
     }
 
     protected void fireObjectsAdded(Collection<? extends BaseObject> objects) {
+        fireObjectsAdded(objects, mChangeHandlers);
+    }
+
+    protected void fireObjectsAdded(Collection<? extends BaseObject> objects, List<ObjectsChangeHandler> handlers) {
         if (objects == null || objects.isEmpty()) {
             return;
         }
         Collection<BaseObject> objs = Collections.unmodifiableCollection(objects);
-        for (ObjectsChangeHandler handler : mChangeHandlers) {
+        for (ObjectsChangeHandler handler : new ArrayList<>(handlers)) {
             handler.objectsAdded(objs);
         }
     }
 
     protected void fireObjectsRemoved(Collection<? extends BaseObject> objects) {
+        fireObjectsRemoved(objects, mChangeHandlers);
+    }
+
+    protected void fireObjectsRemoved(Collection<? extends BaseObject> objects, List<ObjectsChangeHandler> handlers) {
         if (objects == null || objects.isEmpty()) {
             return;
         }
         Collection<BaseObject> objs = Collections.unmodifiableCollection(objects);
-        for (ObjectsChangeHandler handler : mChangeHandlers) {
+        for (ObjectsChangeHandler handler : new ArrayList<>(handlers)) {
             handler.objectsRemoved(objs);
         }
     }
 
    protected void fireObjectsChanged(Collection<? extends BaseObject> objects) {
+        fireObjectsChanged(objects, mChangeHandlers);
+    }
+
+   protected void fireObjectsChanged(Collection<? extends BaseObject> objects, List<ObjectsChangeHandler> handlers) {
         if (objects == null || objects.isEmpty()) {
             return;
         }
         Collection<BaseObject> objs = Collections.unmodifiableCollection(objects);
-        for (ObjectsChangeHandler handler : mChangeHandlers) {
+        for (ObjectsChangeHandler handler : new ArrayList<>(handlers)) {
             handler.objectsChanged(objs);
         }
     }
 
+   /**
+    * Delivers all changes which have been collected for the {@link ChangeNotificationMode#Coalesced coalesced} change handlers
+    * since the last delivery. This is done automatically in the next JavaFX pulse; this method only needs to be called if
+    * the coalesced handlers must be up-to-date earlier.
+    */
+   public void flushCoalescedChanges() {
+       if (mPendingCoalescedChanges.isEmpty()) {
+           return;
+       }
+       // Consolidates additions, removals and modifications, e.g. objects which were added and removed again are dropped
+       MacroChange coalescedChange = MacroChange.create(new ArrayList<>(mPendingCoalescedChanges), false);
+       mPendingCoalescedChanges.clear();
+       fireObjectsRemoved(coalescedChange.getRemovals(), mCoalescedChangeHandlers);
+       fireObjectsAdded(coalescedChange.getAdditions(), mCoalescedChangeHandlers);
+       fireObjectsChanged(coalescedChange.getModifications(), mCoalescedChangeHandlers);
+   }
+
    public static Collection<BaseObject> unwrapGroups(Collection<BaseObject> objects) {
        Collection<BaseObject> result = new ArrayList<>(objects.size() * 2);
        for (BaseObject obj : objects) {
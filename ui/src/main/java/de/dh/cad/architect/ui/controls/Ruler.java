@@ -17,10 +17,8 @@
  *******************************************************************************/
 package de.dh.cad.architect.ui.controls;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.TreeMap;
 
 import de.dh.cad.architect.model.coords.Length;
@@ -32,46 +30,83 @@ import de.dh.cad.architect.ui.controller.UiController;
 import de.dh.cad.architect.ui.objects.Abstract2DRepresentation;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.utils.fx.FxUtils;
+import de.dh.utils.fx.PulseThrottledAction;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ObservableList;
-import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import javafx.scene.Group;
 import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Text;
 
+/**
+ * Ruler at the border of the construction view. The scale is painted onto a canvas, only the guide arrows and the cursor marker
+ * are scene graph nodes.
+ */
 public class Ruler extends Pane {
     protected static final double GUIDE_ARROW_VISIBLE_OPACITY = 1.0;
     protected static final double GUIDE_ARROW_INVISIBLE_OPACITY = 0.3;
 
-    protected class ScaleLabel {
-        protected final double mPosition;
-        protected final double mScaleLength;
-        protected final Optional<Text> mOLabel;
-        protected final double mTextPosition;
-        public ScaleLabel(double position, double scaleLength, Optional<Text> oLabel, double textPosition) {
-            mPosition = position;
-            mScaleLength = scaleLength;
-            mOLabel = oLabel;
-            mTextPosition = textPosition;
+    protected static final int MAX_CACHED_LABELS = 1000;
+
+    protected static class ScaleLabel {
+        protected final String mText;
+        protected final double mWidth;
+
+        public ScaleLabel(String text, double width) {
+            mText = text;
+            mWidth = width;
         }
-        public double getPosition() {
-            return mPosition;
+
+        public String getText() {
+            return mText;
         }
-        public double getScaleLength() {
-            return mScaleLength;
+
+        public double getWidth() {
+            return mWidth;
         }
-        public Optional<Text> getOLabel() {
-            return mOLabel;
+    }
+
+    /**
+     * Labels of the scale for one zoom level, i.e. for one distance between two main scale lines.
+     * The labels don't depend on the translation of the view, so they are reused while the view is panned.
+     */
+    protected class TickLayout {
+        protected final Length mScaleDelta;
+        protected final LengthUnit mLengthUnit;
+        protected final Map<Long, ScaleLabel> mLabels = new HashMap<>();
+
+        public TickLayout(Length scaleDelta) {
+            mScaleDelta = scaleDelta;
+            mLengthUnit = scaleDelta.getBestUnitForDisplay();
         }
-        public double getTextPosition() {
-            return mTextPosition;
+
+        public Length getScaleDelta() {
+            return mScaleDelta;
+        }
+
+        /**
+         * Gets the label at the given position of the scale.
+         * @param halfStepIndex Position of the label in units of half the distance of two main scale lines.
+         */
+        public ScaleLabel getLabel(long halfStepIndex) {
+            ScaleLabel result = mLabels.get(halfStepIndex);
+            if (result == null) {
+                if (mLabels.size() >= MAX_CACHED_LABELS) {
+                    mLabels.clear();
+                }
+                String text = mScaleDelta.times(halfStepIndex * 0.5).toHumanReadableString(mLengthUnit, true);
+                result = new ScaleLabel(text, measureTextWidth(text));
+                mLabels.put(halfStepIndex, result);
+            }
+            return result;
         }
     }
 
@@ -84,18 +119,30 @@ public class Ruler extends Pane {
 
     protected final UiController mUIController;
     protected final GuideLineDirection mDirection;
-    protected final Group mRulerContentsArea;
+    protected final Canvas mRulerCanvas;
     protected final Group mGuideArrowsArea;
     protected final Line mCursorMarker;
     protected final Map<String, GuideArrow> mGuideArrows = new TreeMap<>();
+    protected final Map<Length, TickLayout> mTickLayouts = new HashMap<>();
+    protected final Text mMeasureText = new Text(); // Only used to measure label sizes, never added to the scene graph
+    protected final PulseThrottledAction mRulerContentsUpdate = new PulseThrottledAction(() -> paintRulerContents());
     protected double mScale = 1;
     protected double mTranslation = 0;
 
+    // State of the last painting of the ruler canvas
+    protected double mPaintedScale = Double.NaN;
+    protected double mPaintedTranslation = Double.NaN;
+    protected double mPaintedWidth = Double.NaN;
+    protected double mPaintedHeight = Double.NaN;
+
     public Ruler(UiController uiController, GuideLineDirection direction) {
         mUIController = uiController;
         mDirection = direction;
         mGuideArrowsArea = new Group();
-        mRulerContentsArea = new Group();
+        mRulerCanvas = new Canvas();
+        mRulerCanvas.setMouseTransparent(true);
+        mRulerCanvas.widthProperty().bind(widthProperty());
+        mRulerCanvas.heightProperty().bind(heightProperty());
         mCursorMarker = new Line();
         mCursorMarker.setMouseTransparent(true);
         mCursorMarker.setVisible(false);
@@ -103,11 +150,11 @@ public class Ruler extends Pane {
         // Guide arrows are in front of ruler contents
         mCursorMarker.setViewOrder(0);
         mGuideArrowsArea.setViewOrder(1);
-        mRulerContentsArea.setViewOrder(2);
+        mRulerCanvas.setViewOrder(2);
 
         mGuideArrowsArea.translateYProperty().bind(heightProperty().subtract(GuideArrow.GUIDE_ARROW_HEIGHT));
         ObservableList<Node> children = getChildren();
-        children.addAll(mGuideArrowsArea, mRulerContentsArea, mCursorMarker);
+        children.addAll(mGuideArrowsArea, mRulerCanvas, mCursorMarker);
 
         setStyle("-fx-background-color: white;");
         FxUtils.addClippingToBounds(this);
@@ -139,37 +186,20 @@ public class Ruler extends Pane {
         return getWidth();
     }
 
-    protected double getTextOffset(Bounds textLayoutBounds) {
-        return -textLayoutBounds.getWidth() / 2;
+    protected double getTextOffset(double textWidth) {
+        return -textWidth / 2;
+    }
+
+    protected double measureTextWidth(String text) {
+        mMeasureText.setText(text);
+        return mMeasureText.getLayoutBounds().getWidth();
     }
 
     public void doUpdateView() {
         for (GuideArrow guideArrow : mGuideArrows.values()) {
             updateGuideArrow(guideArrow);
         }
-
-        ObservableList<Node> children = mRulerContentsArea.getChildren();
-        children.clear();
-
-        double height = getHeight();
-        double width = getWidth();
-
-        children.add(new Line(0, 0, 0, height)); // Left
-        children.add(new Line(0, 0, width, 0)); // Top
-        children.add(new Line(width, 0, width, height)); // Right
-        children.add(new Line(0, height - 1, width, height - 1)); // Bottom
-        for (ScaleLabel sl : calculateScaleLabels()) {
-            double position = sl.getPosition();
-            double scaleLength = sl.getScaleLength();
-            double textPosition = sl.getTextPosition();
-            Optional<Text> oLabel = sl.getOLabel();
-            children.add(new Line(position, height - scaleLength, position, height - 1));
-            oLabel.ifPresent(label -> {
-                label.setX(textPosition);
-                label.setY(label.getLayoutBounds().getHeight());
-                children.add(label);
-            });
-        }
+        mRulerContentsUpdate.schedule();
     }
 
     public void updateView() {
@@ -315,57 +345,87 @@ public class Ruler extends Pane {
         return CoordinateUtils.lengthToCoords(position, null) * mScale + mTranslation;
     }
 
-    protected List<ScaleLabel> calculateScaleLabels() {
+    protected TickLayout getTickLayout() {
+        Length scaleDelta = Length.ofMM(1);
+        double minSizePerLabel = 50 / mScale;
+        while (CoordinateUtils.lengthToCoords(scaleDelta, null) < minSizePerLabel) {
+            scaleDelta = scaleDelta.times(10);
+        }
+        return mTickLayouts.computeIfAbsent(scaleDelta, sd -> new TickLayout(sd));
+    }
+
+    /**
+     * Paints the scale onto the ruler canvas. Painting is skipped if the visible range didn't change since the last call.
+     */
+    protected void paintRulerContents() {
+        double height = getHeight();
+        double width = getWidth();
+        if (mScale == mPaintedScale && mTranslation == mPaintedTranslation && width == mPaintedWidth && height == mPaintedHeight) {
+            return;
+        }
+        mPaintedScale = mScale;
+        mPaintedTranslation = mTranslation;
+        mPaintedWidth = width;
+        mPaintedHeight = height;
+
+        GraphicsContext gc = mRulerCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(1);
+        gc.setFill(Color.BLACK);
+        gc.setFont(mMeasureText.getFont());
+
+        gc.strokeLine(0, 0, 0, height); // Left
+        gc.strokeLine(0, 0, width, 0); // Top
+        gc.strokeLine(width, 0, width, height); // Right
+        gc.strokeLine(0, height - 1, width, height - 1); // Bottom
+
         double visibleRange = getVisibleRange();
+        mMeasureText.setText("0");
+        double textY = mMeasureText.getLayoutBounds().getHeight();
 
         // Length of our visible range
         double rangeStartPos = -mTranslation / mScale;
         Length rangeStart = CoordinateUtils.coordsToLength(rangeStartPos, null);
 
-        Length scaleDelta = Length.ofMM(1);
-        double minSizePerLabel = 50 / mScale;
-        while (CoordinateUtils.lengthToCoords(scaleDelta, null) < minSizePerLabel) {
-            scaleDelta = scaleDelta.times(10);
-        }
-        LengthUnit lengthUnit = scaleDelta.getBestUnitForDisplay();
+        TickLayout tickLayout = getTickLayout();
+        Length scaleDelta = tickLayout.getScaleDelta();
         double scaleDeltaDiff = CoordinateUtils.lengthToCoords(scaleDelta, null) * mScale;
+        boolean printMiddle = scaleDeltaDiff > 70;
+        boolean printMiddleLabel = scaleDeltaDiff > 150;
+        boolean printTenth = scaleDeltaDiff > 100;
 
-        List<ScaleLabel> result = new ArrayList<>();
-        Length p = scaleDelta.times((int) rangeStart.divideBy(scaleDelta) - 1);
+        long index = (long) rangeStart.divideBy(scaleDelta) - 1;
         while (true) {
             // Main label
-            String label = p.toHumanReadableString(lengthUnit, true);
-            Text text = new Text(label);
-            double currentPos = (CoordinateUtils.lengthToCoords(p, null) - rangeStartPos) * mScale;
-            double textStart = currentPos + getTextOffset(text.getLayoutBounds());
+            ScaleLabel label = tickLayout.getLabel(index * 2);
+            double currentPos = (CoordinateUtils.lengthToCoords(scaleDelta.times(index), null) - rangeStartPos) * mScale;
+            double textStart = currentPos + getTextOffset(label.getWidth());
             if (textStart > visibleRange) {
                 break;
             }
-            result.add(new ScaleLabel(currentPos, SCALE_LENGTH, Optional.of(text), textStart));
-            boolean printMiddle = scaleDeltaDiff > 70;
-            boolean printMiddleLabel = scaleDeltaDiff > 150;
+            gc.strokeLine(currentPos, height - SCALE_LENGTH, currentPos, height - 1);
+            gc.fillText(label.getText(), textStart, textY);
             // 10th scale line
-            if (scaleDeltaDiff > 100) {
+            if (printTenth) {
                 for (int i = 1; i < 10; i++) {
                     if (printMiddle && i == 5) {
                         continue;
                     }
-                    result.add(new ScaleLabel(currentPos + i * scaleDeltaDiff/10, TENTH_SCALE_LENGTH, Optional.empty(), 0));
+                    double tenthPos = currentPos + i * scaleDeltaDiff/10;
+                    gc.strokeLine(tenthPos, height - TENTH_SCALE_LENGTH, tenthPos, height - 1);
                 }
             }
             if (printMiddle) {
                 double middlePos = currentPos + scaleDeltaDiff/2;
                 if (printMiddleLabel) {
-                    String label2 = p.plus(scaleDelta.times(0.5)).toHumanReadableString(lengthUnit, true);
-                    Text middleLabel = new Text(label2);
-                    double middleTextStart = middlePos + getTextOffset(middleLabel.getLayoutBounds());
-                    result.add(new ScaleLabel(middlePos, MIDDLE_SCALE_LENGTH, Optional.of(middleLabel), middleTextStart));
+                    ScaleLabel middleLabel = tickLayout.getLabel(index * 2 + 1);
+                    gc.fillText(middleLabel.getText(), middlePos + getTextOffset(middleLabel.getWidth()), textY);
                 }
-                result.add(new ScaleLabel(middlePos, MIDDLE_SCALE_LENGTH, Optional.empty(), 0));
+                gc.strokeLine(middlePos, height - MIDDLE_SCALE_LENGTH, middlePos, height - 1);
             }
 
-            p = p.plus(scaleDelta);
+            index++;
         }
-        return result;
     }
 }
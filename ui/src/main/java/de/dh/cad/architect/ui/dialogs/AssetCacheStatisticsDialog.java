@@ -0,0 +1,151 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.dialogs;
+
+import java.text.MessageFormat;
+import java.util.function.Function;
+
+import de.dh.cad.architect.ui.Strings;
+import de.dh.cad.architect.ui.assets.AssetCacheBudget;
+import de.dh.cad.architect.ui.assets.AssetCacheStatistics;
+import de.dh.cad.architect.ui.assets.AssetCacheType;
+import de.dh.cad.architect.ui.assets.AssetManager;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.DialogPane;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.stage.Modality;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+/**
+ * Non-modal dialog which shows the live statistics of the asset caches.
+ */
+public class AssetCacheStatisticsDialog extends Dialog<Void> {
+    protected static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+    protected static final double MEGABYTE = 1024 * 1024;
+
+    protected final AssetManager mAssetManager;
+    protected final TableView<AssetCacheStatistics> mTableView = new TableView<>();
+    protected final Timeline mRefreshTimeline;
+
+    public AssetCacheStatisticsDialog(AssetManager assetManager, Window ownerWindow) {
+        mAssetManager = assetManager;
+        setTitle(Strings.ASSET_CACHE_STATISTICS_DIALOG_TITLE);
+        setHeaderText(Strings.ASSET_CACHE_STATISTICS_DIALOG_HEADER);
+        initOwner(ownerWindow);
+        initModality(Modality.NONE);
+        setResizable(true);
+
+        DialogPane dialogPane = getDialogPane();
+        dialogPane.getButtonTypes().add(ButtonType.CLOSE);
+        dialogPane.setContent(buildContent());
+        dialogPane.setPrefSize(1000, 350);
+
+        mRefreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refresh()));
+        mRefreshTimeline.setCycleCount(Timeline.INDEFINITE);
+        setOnShown(event -> {
+            refresh();
+            mRefreshTimeline.play();
+        });
+        setOnHidden(event -> mRefreshTimeline.stop());
+    }
+
+    public static AssetCacheStatisticsDialog create(AssetManager assetManager, Window ownerWindow) {
+        return new AssetCacheStatisticsDialog(assetManager, ownerWindow);
+    }
+
+    protected static TableColumn<AssetCacheStatistics, String> createColumn(String title, Function<AssetCacheStatistics, String> valueFunction) {
+        TableColumn<AssetCacheStatistics, String> result = new TableColumn<>(title);
+        result.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(valueFunction.apply(cellData.getValue())));
+        result.setSortable(false);
+        return result;
+    }
+
+    protected static String getCacheTypeName(AssetCacheType type) {
+        return switch (type) {
+        case Images -> Strings.ASSET_CACHE_TYPE_IMAGES;
+        case Descriptors -> Strings.ASSET_CACHE_TYPE_DESCRIPTORS;
+        case ObjModels -> Strings.ASSET_CACHE_TYPE_OBJ_MODELS;
+        case PlanViewImages -> Strings.ASSET_CACHE_TYPE_PLAN_VIEW_IMAGES;
+        case MaterialSets -> Strings.ASSET_CACHE_TYPE_MATERIAL_SETS;
+        };
+    }
+
+    protected static String formatMegabytes(long numBytes) {
+        return MessageFormat.format("{0,number,0.0} MB", numBytes / MEGABYTE);
+    }
+
+    protected static String formatBudget(AssetCacheBudget budget) {
+        String maxEntries = budget.getMaxEntries() > 0 ? Integer.toString(budget.getMaxEntries()) : "-";
+        String maxBytes = budget.getMaxBytes() > 0 ? formatMegabytes(budget.getMaxBytes()) : "-";
+        return maxEntries + " / " + maxBytes;
+    }
+
+    protected static String formatLoadTimeHistogram(AssetCacheStatistics statistics) {
+        long[] histogram = statistics.getLoadTimeHistogram();
+        long[] bounds = AssetCacheStatistics.LOAD_TIME_BUCKET_BOUNDS_MS;
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < histogram.length; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(i < bounds.length ? "<" + bounds[i] : ">=" + bounds[bounds.length - 1]);
+            result.append("ms: ");
+            result.append(histogram[i]);
+        }
+        return result.toString();
+    }
+
+    protected BorderPane buildContent() {
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_CACHE, s -> getCacheTypeName(s.getType())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_ENTRIES, s -> Integer.toString(s.getNumEntries())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_SIZE, s -> formatMegabytes(s.getEstimatedBytes())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_BUDGET, s -> formatBudget(s.getBudget())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_HITS, s -> Long.toString(s.getNumHits())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_MISSES, s -> Long.toString(s.getNumMisses())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_HIT_RATIO, s -> MessageFormat.format("{0,number,percent}", s.getHitRatio())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_EVICTIONS, s -> Long.toString(s.getNumEvictions())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_SOFT_HITS, s -> s.getNumSoftHits() + " / " + s.getNumSoftEntries()));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_LOAD_FAILURES, s -> Long.toString(s.getNumLoadFailures())));
+        mTableView.getColumns().add(createColumn(Strings.ASSET_CACHE_STATISTICS_COLUMN_LOAD_TIMES, AssetCacheStatisticsDialog::formatLoadTimeHistogram));
+
+        Button clearButton = new Button(Strings.ASSET_CACHE_STATISTICS_CLEAR_CACHES_BUTTON);
+        clearButton.setOnAction(event -> {
+            mAssetManager.clearCache();
+            refresh();
+        });
+        HBox buttons = new HBox(clearButton);
+        buttons.setSpacing(5);
+
+        BorderPane.setMargin(buttons, new Insets(5, 0, 0, 0));
+        return new BorderPane(mTableView, null, null, buttons, null);
+    }
+
+    public void refresh() {
+        mTableView.getItems().setAll(mAssetManager.getCacheStatistics());
+    }
+}
@@ -20,17 +20,23 @@ package de.dh.cad.architect.ui.objects;
 import java.util.Objects;
 import java.util.Optional;
 
+import de.dh.cad.architect.model.coords.Geometry2D;
 import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.objects.Anchor;
 import de.dh.cad.architect.model.objects.BaseObject;
 import de.dh.cad.architect.ui.controller.UiController;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Shape;
 
 /**
@@ -57,6 +63,11 @@ public abstract class Abstract2DRepresentation extends Abstract2DUiObject implem
 
     protected final BaseObject mModelObject;
 
+    // Reused buffer for the polygon coordinates of the intersection check
+    protected double[] mOutlineCoords = new double[0];
+
+    protected LevelOfDetail mLevelOfDetail = LevelOfDetail.Full;
+
     // In the constructor, the sub class should create all graphical shapes for this representation
     // and bind to the selected property, updating their UI elements if necessary.
     // Each created shape must be added using the add(Shape, boolean) method and removed using the remove(Shape) method.
@@ -70,6 +81,29 @@ public abstract class Abstract2DRepresentation extends Abstract2DUiObject implem
         // To be overridden
     }
 
+    public LevelOfDetail getLevelOfDetail() {
+        return mLevelOfDetail;
+    }
+
+    /**
+     * Sets the level of detail, this representation should be drawn with. The level of detail is set by the parent
+     * view depending on its zoom scale.
+     */
+    public void setLevelOfDetail(LevelOfDetail value) {
+        if (mLevelOfDetail == value) {
+            return;
+        }
+        mLevelOfDetail = value;
+        updateToLevelOfDetail();
+    }
+
+    /**
+     * Updates the visibility of details of this representation to the current {@link #getLevelOfDetail() level of detail}.
+     */
+    protected void updateToLevelOfDetail() {
+        // To be overridden
+    }
+
     public void enableMouseOverSpot() {
         mouseOverProperty().addListener(MOUSE_OVER_SPOT_LISTENER);
     }
@@ -211,11 +245,45 @@ public abstract class Abstract2DRepresentation extends Abstract2DUiObject implem
         return Optional.empty();
     }
 
-    public boolean intersects(Shape other) {
-        return isVisible() && getShapeForIntersectionCheck().map(shape -> {
-            Shape intersect = Shape.intersect(shape, other);
-            return intersect.getBoundsInLocal().getWidth() != -1;
-        }).orElseGet(() -> intersects(other.getBoundsInLocal()));
+    /**
+     * Checks whether this representation intersects the given rectangle in plan coordinates.
+     * If the {@link #getShapeForIntersectionCheck() shape for the intersection check} is a {@link Polygon}, the exact
+     * polygon area is checked, else the bounds of the shape are checked. Subclasses whose shape can be described more exactly
+     * by their model object should override this method.
+     */
+    public boolean intersectsPlanRectangle(double minX, double minY, double maxX, double maxY) {
+        if (!isVisible()) {
+            return false;
+        }
+        Optional<Shape> oShape = getShapeForIntersectionCheck();
+        if (oShape.isEmpty()) {
+            return intersects(minX, minY, maxX - minX, maxY - minY);
+        }
+        Shape shape = oShape.get();
+        if (shape instanceof Polygon polygon) {
+            return Geometry2D.polygonIntersectsRectangle(getOutlineCoords(polygon), minX, minY, maxX, maxY);
+        }
+        // Transform the bounds up to our parent's (plan) coordinate system without using the scene, we might be culled
+        Bounds bounds = shape.getBoundsInParent();
+        for (Node node = shape.getParent(); node != null && node != getParent(); node = node.getParent()) {
+            bounds = node.localToParent(bounds);
+        }
+        return bounds.intersects(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    /**
+     * Returns the points of the given polygon as array of x/y coordinate pairs. The returned array is reused by subsequent calls.
+     */
+    protected double[] getOutlineCoords(Polygon polygon) {
+        ObservableList<Double> points = polygon.getPoints();
+        int numCoords = points.size();
+        if (mOutlineCoords.length != numCoords) {
+            mOutlineCoords = new double[numCoords];
+        }
+        for (int i = 0; i < numCoords; i++) {
+            mOutlineCoords[i] = points.get(i);
+        }
+        return mOutlineCoords;
     }
 
     @Override
@@ -69,6 +69,7 @@ public abstract class Abstract2DUiObject extends Group {
 
     protected final Collection<UnscaledNode> mUnscaledNodes = new ArrayList<>();
     protected final Abstract2DView mParentView;
+    protected double mAppliedScaleCompensation = Double.NaN;
 
     protected final BooleanProperty mMouseOverProperty = new SimpleBooleanProperty(this, "isMouseOver", false);
 
@@ -118,11 +119,19 @@ public abstract class Abstract2DUiObject extends Group {
         return ((ConstructionView) mParentView).getScaleCompensation();
     }
 
+    /**
+     * Gets the scale compensation which was applied by the last call to {@link #updateScale(double)}.
+     */
+    public double getAppliedScaleCompensation() {
+        return mAppliedScaleCompensation;
+    }
+
     /**
      * Updates the scale compensation for unscaled nodes.
      * This method can be overridden to be used as hook to update after a scale process.
      */
     public void updateScale(double scaleCompensation) {
+        mAppliedScaleCompensation = scaleCompensation;
         for (UnscaledNode un : mUnscaledNodes) {
             updateScale(un, scaleCompensation);
         }
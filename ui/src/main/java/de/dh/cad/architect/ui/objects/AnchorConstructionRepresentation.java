@@ -19,6 +19,7 @@ package de.dh.cad.architect.ui.objects;
 
 import java.util.Optional;
 
+import de.dh.cad.architect.model.coords.Geometry2D;
 import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.objects.Anchor;
 import de.dh.cad.architect.model.objects.BaseAnchoredObject;
@@ -27,6 +28,7 @@ import de.dh.cad.architect.ui.utils.Axis;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
 import de.dh.cad.architect.ui.view.construction.DragControl2D;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import de.dh.cad.architect.ui.view.construction.UiPlanPosition;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -129,6 +131,13 @@ public class AnchorConstructionRepresentation extends Abstract2DRepresentation {
             mShape.getStrokeDashArray().clear();
         }
         setViewOrder(ownerViewOrder - 1 + viewOrderOffset);
+        // Anchor handles are only shown at small scales if they are currently edited
+        mShape.setVisible(mLevelOfDetail == LevelOfDetail.Full || isSelected() || isObjectFocused() || isObjectEmphasized());
+    }
+
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
     }
 
     protected void updateCenter() {
@@ -259,4 +268,11 @@ public class AnchorConstructionRepresentation extends Abstract2DRepresentation {
     protected Optional<Shape> getShapeForIntersectionCheck() {
         return Optional.of(mShape);
     }
+
+    @Override
+    public boolean intersectsPlanRectangle(double minX, double minY, double maxX, double maxY) {
+        // The circle is unscaled, so its radius in plan coordinates depends on the zoom level
+        return isVisible() && Geometry2D.circleIntersectsRectangle(mShape.getCenterX(), mShape.getCenterY(),
+            mShape.getRadius() * getScaleCompensation(), minX, minY, maxX, maxY);
+    }
 }
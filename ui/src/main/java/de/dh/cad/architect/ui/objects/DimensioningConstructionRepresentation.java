@@ -27,6 +27,7 @@ import de.dh.cad.architect.model.objects.Dimensioning;
 import de.dh.cad.architect.ui.Constants;
 import de.dh.cad.architect.ui.Strings;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.paint.Color;
@@ -91,6 +92,10 @@ public class DimensioningConstructionRepresentation extends AbstractAnchoredObje
         } else {
             setViewOrder(Constants.VIEW_ORDER_DIMENSIONING + Constants.VIEW_ORDER_OFFSET_NORMAL);
         }
+        // Edited dimensionings are always shown completely
+        boolean edited = isSelected() || isObjectFocused();
+        mVisual.setVisible(edited || mLevelOfDetail.isAtLeast(LevelOfDetail.Reduced));
+        mVisual.setLabelVisible(edited || mLevelOfDetail == LevelOfDetail.Full);
         updateShape();
     }
 
@@ -100,6 +105,11 @@ public class DimensioningConstructionRepresentation extends AbstractAnchoredObje
         updateShape();
     }
 
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
+    }
+
     protected void updateShape() {
         Dimensioning dimensioning = getDimensioning();
         Position2D position1 = dimensioning.getAnchor1().getPosition().projectionXY();
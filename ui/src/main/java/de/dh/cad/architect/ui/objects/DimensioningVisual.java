@@ -60,6 +60,8 @@ public class DimensioningVisual {
     protected Vector2D mP1;
     protected Vector2D mP2;
     protected Point2D mDP1;
+    protected boolean mVisible = true;
+    protected boolean mLabelVisible = true;
 
     protected BooleanProperty mMouseOverProperty = new SimpleBooleanProperty(false);
     protected DoubleProperty mLabelDistanceProperty = new SimpleDoubleProperty(50);
@@ -143,6 +145,33 @@ public class DimensioningVisual {
         });
     }
 
+    /**
+     * Shows or hides the whole dimensioning.
+     */
+    public void setVisible(boolean value) {
+        mVisible = value;
+        updateVisibility();
+    }
+
+    /**
+     * Shows or hides the length label. Without label, the dimensioning line is drawn without gap.
+     * The caller must update the shape after changing the label visibility.
+     */
+    public void setLabelVisible(boolean value) {
+        mLabelVisible = value;
+        updateVisibility();
+    }
+
+    protected void updateVisibility() {
+        mBorderLine1.setVisible(mVisible);
+        mBorderLine2.setVisible(mVisible);
+        mAcrossLine1.setVisible(mVisible);
+        mAcrossLine2.setVisible(mVisible);
+        mAngularLine1.setVisible(mVisible);
+        mAngularLine2.setVisible(mVisible);
+        mText.setVisible(mVisible && mLabelVisible);
+    }
+
     protected void setArtifactsColor(Color color) {
         mBorderLine1.setStroke(color);
         mBorderLine2.setStroke(color);
@@ -240,25 +269,28 @@ public class DimensioningVisual {
         mBorderLine2.setEndY(y2);
         mBorderLine2.strokeWidthProperty().bind(strokeWidth);
 
-        Length length = CoordinateUtils.coordsToLength(distance, null);
-        String lengthStr = length.toNormalPlanString();
-        if (oLabel.isPresent()) {
-            mText.setText(MessageFormat.format(oLabel.get(), lengthStr));
-        } else {
-            mText.setText(lengthStr);
-        }
-        double textWidth = mText.getLayoutBounds().getWidth(); // Text is unscaled!
-        double acrossLineLength = (distance - (textWidth + 20) * scaleCompensation) / 2;
-        Vector2D mp = dp1.plus(v.times(0.5));
-        mText.setX(mp.getX() - textWidth / 2);
-        mText.setY(mp.getY());
-        mTextScaleCorrection.setPivotX(mp.getX());
-        mTextScaleCorrection.setPivotY(mp.getY());
-        double rotation = Math.signum(vu.getY()) * Math.acos(vu.getX()) * 180 / Math.PI;
-        if (rotation < -90 + EPSILON || rotation > 90 + EPSILON) { // Use slightly bigger comparison angles to make text always flip to the same side with angles near 90 degrees
-            rotation += 180;
+        double acrossLineLength = distance / 2;
+        if (mLabelVisible) {
+            Length length = CoordinateUtils.coordsToLength(distance, null);
+            String lengthStr = length.toNormalPlanString();
+            if (oLabel.isPresent()) {
+                mText.setText(MessageFormat.format(oLabel.get(), lengthStr));
+            } else {
+                mText.setText(lengthStr);
+            }
+            double textWidth = mText.getLayoutBounds().getWidth(); // Text is unscaled!
+            acrossLineLength = (distance - (textWidth + 20) * scaleCompensation) / 2;
+            Vector2D mp = dp1.plus(v.times(0.5));
+            mText.setX(mp.getX() - textWidth / 2);
+            mText.setY(mp.getY());
+            mTextScaleCorrection.setPivotX(mp.getX());
+            mTextScaleCorrection.setPivotY(mp.getY());
+            double rotation = Math.signum(vu.getY()) * Math.acos(vu.getX()) * 180 / Math.PI;
+            if (rotation < -90 + EPSILON || rotation > 90 + EPSILON) { // Use slightly bigger comparison angles to make text always flip to the same side with angles near 90 degrees
+                rotation += 180;
+            }
+            mText.setRotate(rotation);
         }
-        mText.setRotate(rotation);
 
         mAcrossLine1.setStartX(dp1.getX());
         mAcrossLine1.setStartY(dp1.getY());
@@ -34,6 +34,7 @@ import de.dh.cad.architect.ui.utils.Axis;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.VPos;
@@ -95,6 +96,12 @@ public class FloorConstructionRepresentation extends AbstractAnchoredObjectConst
             setViewOrder(Constants.VIEW_ORDER_FLOOR + Constants.VIEW_ORDER_OFFSET_NORMAL);
         }
         configureMainBorderDefault(mShape);
+        mAreaText.setVisible(mLevelOfDetail == LevelOfDetail.Full || isSelected());
+    }
+
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
     }
 
     protected void updatePoints() {
@@ -19,6 +19,7 @@ package de.dh.cad.architect.ui.objects;
 
 import java.util.Optional;
 
+import de.dh.cad.architect.model.coords.Geometry2D;
 import de.dh.cad.architect.model.coords.Length;
 import de.dh.cad.architect.model.objects.SupportObject;
 import de.dh.cad.architect.ui.Constants;
@@ -27,8 +28,10 @@ import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
 import de.dh.cad.architect.ui.view.construction.DragControl2D;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import de.dh.cad.architect.ui.view.construction.UiPlanPosition;
 import de.dh.utils.Vector2D;
+import de.dh.utils.fx.ImagePyramid;
 import de.dh.utils.fx.MouseHandlerContext;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -47,6 +50,9 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
         void move(de.dh.cad.architect.model.coords.Vector2D delta, boolean firstMoveEvent);
     }
 
+    protected static final Color BOUNDING_RECTANGLE_FILL = Color.GRAY.deriveColor(0, 1, 1, 0.4);
+
+    protected final ImagePyramid mImagePyramid;
     protected final ImageView mImage;
     protected final Rectangle mSpotRectangle;
 
@@ -56,12 +62,12 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
         super(supportObject, parentView);
 
         AssetLoader assetLoader = parentView.getAssetLoader();
-        Image image = assetLoader.loadSupportObjectPlanViewImage(supportObject.getSupportObjectDescriptorRef(), true);
+        mImagePyramid = assetLoader.loadSupportObjectPlanViewImagePyramid(supportObject.getSupportObjectDescriptorRef(), true);
         //setViewOrder(Constants.VIEW_ORDER_SUPPORT_OBJECT); -- set in updateProperties()
         mSpotRectangle = new Rectangle();
         mSpotRectangle.getStrokeDashArray().setAll(3d, 10d);
         addScaled(mSpotRectangle);
-        mImage = new ImageView(image);
+        mImage = new ImageView(mImagePyramid.getImage());
         addScaled(mImage);
 
         ChangeListener<Boolean> propertiesUpdaterListener = new ChangeListener<>() {
@@ -87,8 +93,6 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
     }
 
     protected void updateProperties() {
-        // Transparent fill of the spot rectangle is needed to make it react to the intersection check even if it is only intersected in the middle part
-        mSpotRectangle.setFill(Color.BLACK.deriveColor(0, 0, 0, 0));
         mSpotRectangle.setStrokeWidth(2);
         mSpotRectangle.setStrokeType(StrokeType.OUTSIDE);
         boolean selected = isSelected();
@@ -97,7 +101,13 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
         } else {
             mSpotRectangle.setStroke(Color.BLACK);
         }
-        mSpotRectangle.setVisible(isObjectSpotted() || isObjectEmphasized() || selected);
+        boolean highlighted = isObjectSpotted() || isObjectEmphasized() || selected;
+        // At reduced levels of detail, the image is replaced by the bounding rectangle which also catches the mouse events
+        boolean imageVisible = mLevelOfDetail == LevelOfDetail.Full || selected || isObjectFocused();
+        mImage.setVisible(imageVisible);
+        // Transparent fill of the spot rectangle is needed to make it react to the intersection check even if it is only intersected in the middle part
+        mSpotRectangle.setFill(imageVisible ? Color.BLACK.deriveColor(0, 0, 0, 0) : BOUNDING_RECTANGLE_FILL);
+        mSpotRectangle.setVisible(highlighted || !imageVisible);
         if (isObjectEmphasized()) {
             mSpotRectangle.getStrokeDashArray().setAll(6d, 8d);
         } else {
@@ -114,6 +124,11 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
         }
     }
 
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
+    }
+
     @Override
     public void updateScale(double scaleCompensation) {
         super.updateScale(scaleCompensation);
@@ -139,8 +154,45 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
         mImage.setY(tl.getY());
         mImage.setFitWidth(size.getX());
         mImage.setFitHeight(size.getY());
+        updateImageLevel(size.getX(), size.getY());
         mImage.setRotationAxis(rotationAxis);
         mImage.setRotate(rotationDeg);
+        updateOutline(center.getX(), center.getY(), size.getX(), size.getY(), rotationDeg);
+    }
+
+    /**
+     * Shows the variant of the plan view image which matches the current size of this object on the screen.
+     */
+    protected void updateImageLevel(double width, double height) {
+        double devicePixelScale = getParentView().getDevicePixelScale();
+        Image image = mImagePyramid.getImageForSize(width * devicePixelScale, height * devicePixelScale);
+        if (mImage.getImage() != image) {
+            mImage.setImage(image);
+        }
+    }
+
+    /**
+     * Calculates the corners of the rotated spot rectangle in plan coordinates for the intersection check.
+     */
+    protected void updateOutline(double centerX, double centerY, double width, double height, double rotationDeg) {
+        if (mOutlineCoords.length != 8) {
+            mOutlineCoords = new double[8];
+        }
+        double rad = Math.toRadians(rotationDeg);
+        double cos = Math.cos(rad);
+        double sin = Math.sin(rad);
+        double w2 = width / 2;
+        double h2 = height / 2;
+        int i = 0;
+        for (int sy = -1; sy <= 1; sy += 2) {
+            for (int sx = -1; sx <= 1; sx += 2) {
+                // Order top-left, top-right, bottom-right, bottom-left
+                double dx = (sy < 0 ? sx : -sx) * w2;
+                double dy = sy * h2;
+                mOutlineCoords[i++] = centerX + dx * cos - dy * sin;
+                mOutlineCoords[i++] = centerY + dx * sin + dy * cos;
+            }
+        }
     }
 
     public void enableCollectiveMove(IMoveHandler moveHandler) {
@@ -185,4 +237,9 @@ public class SupportObjectConstructionRepresentation extends AbstractAnchoredObj
     protected Optional<Shape> getShapeForIntersectionCheck() {
         return Optional.of(mSpotRectangle);
     }
+
+    @Override
+    public boolean intersectsPlanRectangle(double minX, double minY, double maxX, double maxY) {
+        return isVisible() && Geometry2D.polygonIntersectsRectangle(mOutlineCoords, minX, minY, maxX, maxY);
+    }
 }
@@ -32,7 +32,6 @@ import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.objects.SurfaceConfiguration;
 import de.dh.cad.architect.model.objects.Wall;
 import de.dh.cad.architect.model.objects.WallHole;
-import de.dh.cad.architect.model.wallmodel.WallAnchorPositions;
 import de.dh.cad.architect.model.wallmodel.WallOutline;
 import de.dh.cad.architect.model.wallmodel.WallOutlineConnection;
 import de.dh.cad.architect.model.wallmodel.WallOutlineCorner;
@@ -286,8 +285,7 @@ public class Wall3DRepresentation extends Abstract3DRepresentation {
         Vector2D longEdgeWallU = longEdgeWall.toUnitVector();
 
 
-        Optional<WallAnchorPositions> oWap = wall.extractWallAnchorPositions();
-        Optional<WallOutline> oWallOutlineCW = oWap.map(wap -> wap.calculateWallOutlineCW());
+        Optional<WallOutline> oWallOutlineCW = wall.extractWallOutlineCW();
         if (oWallOutlineCW.isPresent()) {
             WallOutline wallOutlineCW = oWallOutlineCW.get();
             CSG csg = createWallCSG(wall, wallOutlineCW.getCornersAsList());
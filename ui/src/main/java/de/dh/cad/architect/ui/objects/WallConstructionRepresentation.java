@@ -28,7 +28,6 @@ import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.objects.Anchor;
 import de.dh.cad.architect.model.objects.BaseAnchoredObject;
 import de.dh.cad.architect.model.objects.Wall;
-import de.dh.cad.architect.model.wallmodel.WallAnchorPositions;
 import de.dh.cad.architect.model.wallmodel.WallOutline;
 import de.dh.cad.architect.ui.Constants;
 import de.dh.cad.architect.ui.controller.UiController;
@@ -37,6 +36,7 @@ import de.dh.cad.architect.ui.objects.WallReconciler.DividedWallParts;
 import de.dh.cad.architect.ui.utils.Axis;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.ChangeWallsVisualFeedbackManager;
 import de.dh.utils.Vector2D;
 import javafx.beans.value.ChangeListener;
@@ -117,6 +117,9 @@ public class WallConstructionRepresentation extends AbstractAnchoredObjectConstr
         updateWallLabelsVisibility();
         if (selected) {
             mBorder.setStroke(SELECTED_OBJECTS_COLOR);
+        } else if (mLevelOfDetail == LevelOfDetail.Sketch && !isObjectFocused()) {
+            // Only the wall area is drawn in the sketch, the border lines would merge with the fill anyway
+            mBorder.setStroke(null);
         } else {
             mBorder.setStroke(Color.BLACK.deriveColor(1, 1, 1, 0.5));
         }
@@ -130,6 +133,11 @@ public class WallConstructionRepresentation extends AbstractAnchoredObjectConstr
         configureMainBorderDefault(mBorder);
     }
 
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
+    }
+
     protected void configureForInvalidState() {
         mBorder.getPoints().clear();
         mInvalidState = true;
@@ -145,7 +153,7 @@ public class WallConstructionRepresentation extends AbstractAnchoredObjectConstr
         }
         boolean focused = isObjectFocused();
         boolean spotted = isObjectSpotted();
-        boolean wallLabelsVisible = focused || spotted;
+        boolean wallLabelsVisible = focused || (spotted && mLevelOfDetail == LevelOfDetail.Full);
         mWallEndA.setVisible(wallLabelsVisible);
         mWallEndB.setVisible(wallLabelsVisible);
         mWallSide1.setVisible(wallLabelsVisible);
@@ -155,8 +163,7 @@ public class WallConstructionRepresentation extends AbstractAnchoredObjectConstr
     protected void updateShape() {
         Wall wall = getWall();
 
-        Optional<WallAnchorPositions> oWap = wall.extractWallAnchorPositions();
-        Optional<WallOutline> oWallOutlineCW = oWap.map(wap -> wap.calculateWallOutlineCW());
+        Optional<WallOutline> oWallOutlineCW = wall.extractWallOutlineCW();
         if (oWallOutlineCW.isPresent()) {
             List<Double> coords = new ArrayList<>();
             List<Position2D> groundPoints = oWallOutlineCW.get().calculateAllGroundPoints();
@@ -35,6 +35,7 @@ import de.dh.cad.architect.ui.utils.CoordinateUtils;
 import de.dh.cad.architect.ui.view.construction.Abstract2DView;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
 import de.dh.cad.architect.ui.view.construction.DragControl2D;
+import de.dh.cad.architect.ui.view.construction.LevelOfDetail;
 import de.dh.cad.architect.ui.view.construction.UiPlanPosition;
 import de.dh.utils.Vector2D;
 import de.dh.utils.fx.MouseHandlerContext;
@@ -394,6 +395,12 @@ public class WallHoleConstructionRepresentation extends Abstract2DRepresentation
             setViewOrder(Constants.VIEW_ORDER_WALL_HOLE + Constants.VIEW_ORDER_OFFSET_NORMAL);
         }
         configureMainBorderDefault(mBorder);
+        mBorder.setVisible(mLevelOfDetail.isAtLeast(LevelOfDetail.Reduced) || isSelected() || isObjectFocused());
+    }
+
+    @Override
+    protected void updateToLevelOfDetail() {
+        updateProperties();
     }
 
     @Override
@@ -20,9 +20,15 @@ package de.dh.cad.architect.ui.persistence;
 import javax.xml.bind.annotation.XmlElement;
 
 public class ConstructionViewState extends ViewState {
+    public static final double DEFAULT_LEVEL_OF_DETAIL_REDUCED_SCALE = 0.3;
+    public static final double DEFAULT_LEVEL_OF_DETAIL_SKETCH_SCALE = 0.1;
+
     protected double mScale = 0;
     protected double mTranslateX = 0;
     protected double mTranslateY = 0;
+    protected boolean mLargePlanMode = false;
+    protected double mLevelOfDetailReducedScale = DEFAULT_LEVEL_OF_DETAIL_REDUCED_SCALE;
+    protected double mLevelOfDetailSketchScale = DEFAULT_LEVEL_OF_DETAIL_SKETCH_SCALE;
 
     public ConstructionViewState() {
         // For JAXB
@@ -54,4 +60,37 @@ public class ConstructionViewState extends ViewState {
     public void setTranslateY(double value) {
         mTranslateY = value;
     }
+
+    @XmlElement(name = "LargePlanMode")
+    public boolean isLargePlanMode() {
+        return mLargePlanMode;
+    }
+
+    public void setLargePlanMode(boolean value) {
+        mLargePlanMode = value;
+    }
+
+    /**
+     * Gets the zoom scale below which the construction view shows a reduced level of detail.
+     */
+    @XmlElement(name = "LevelOfDetailReducedScale")
+    public double getLevelOfDetailReducedScale() {
+        return mLevelOfDetailReducedScale;
+    }
+
+    public void setLevelOfDetailReducedScale(double value) {
+        mLevelOfDetailReducedScale = value;
+    }
+
+    /**
+     * Gets the zoom scale below which the construction view only shows a sketch of the plan.
+     */
+    @XmlElement(name = "LevelOfDetailSketchScale")
+    public double getLevelOfDetailSketchScale() {
+        return mLevelOfDetailSketchScale;
+    }
+
+    public void setLevelOfDetailSketchScale(double value) {
+        mLevelOfDetailSketchScale = value;
+    }
 }
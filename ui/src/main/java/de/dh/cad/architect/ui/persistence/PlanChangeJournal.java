@@ -0,0 +1,456 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.DoubleConsumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dh.cad.architect.model.Plan;
+
+/**
+ * Append-only journal of the changes of a plan, stored next to the plan file, together with a checkpoint file.
+ *
+ * Each committed change is appended as a one-line {@link Record record} which contains the serialized states of all plan
+ * objects which were added or modified by the change and the ids of the removed objects. Replaying the records in their
+ * order onto the plan file reconstructs the plan state of the last record. Replaying is idempotent: Records which are
+ * already contained in the base plan only set the objects to the same states again.
+ *
+ * When the journal has grown to a given number of records, the records are replayed onto the former base and the result is
+ * written to the {@link #getCheckpointPath(Path) checkpoint file}, which is the base for the following records. Both files
+ * are never truncated or modified in place; they are replaced atomically, so a crash at any time leaves a consistent state.
+ * A record which was only written partly during a crash is detected by its checksum and ignored, together with all
+ * following records.
+ *
+ * The methods of a journal instance do file I/O and must be called by a single background thread, in the same order as the
+ * plan file is written. A journal which failed once is closed and ignores all further calls.
+ */
+public class PlanChangeJournal implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(PlanChangeJournal.class);
+
+    public static final String JOURNAL_FILE_SUFFIX = ".journal";
+    public static final String CHECKPOINT_FILE_SUFFIX = ".checkpoint";
+
+    protected static final String FIELD_SEPARATOR = "\t";
+    protected static final String LIST_SEPARATOR = " ";
+    protected static final char ID_SEPARATOR = ':';
+    protected static final int NUM_FIELDS = 5;
+
+    /**
+     * A journal record, containing the net effect of a committed change.
+     */
+    public static class Record {
+        protected final Instant mTime;
+        protected final String mChangeDescription;
+        protected final Map<String, String> mObjectStates;
+        protected final Collection<String> mRemovedObjectIds;
+
+        /**
+         * Creates a journal record.
+         * @param objectStates Map of the ids of the added or modified plan level objects to their XML fragments, as written
+         * by {@link PlanFileStreamIO#writePlanObject(de.dh.cad.architect.model.objects.BaseObject)}.
+         * @param removedObjectIds Ids of the removed plan level objects.
+         */
+        public Record(Instant time, String changeDescription, Map<String, String> objectStates, Collection<String> removedObjectIds) {
+            mTime = time;
+            mChangeDescription = changeDescription;
+            mObjectStates = objectStates;
+            mRemovedObjectIds = removedObjectIds;
+        }
+
+        public Instant getTime() {
+            return mTime;
+        }
+
+        public String getChangeDescription() {
+            return mChangeDescription;
+        }
+
+        public Map<String, String> getObjectStates() {
+            return mObjectStates;
+        }
+
+        public Collection<String> getRemovedObjectIds() {
+            return mRemovedObjectIds;
+        }
+
+        public String serialize() {
+            StringBuilder sb = new StringBuilder()
+                    .append(mTime.toString())
+                    .append(FIELD_SEPARATOR)
+                    .append(escape(mChangeDescription))
+                    .append(FIELD_SEPARATOR)
+                    .append(String.join(LIST_SEPARATOR, mRemovedObjectIds))
+                    .append(FIELD_SEPARATOR);
+            Base64.Encoder encoder = Base64.getEncoder();
+            boolean first = true;
+            for (Map.Entry<String, String> entry : mObjectStates.entrySet()) {
+                if (!first) {
+                    sb.append(LIST_SEPARATOR);
+                }
+                first = false;
+                sb.append(entry.getKey()).append(ID_SEPARATOR).append(encoder.encodeToString(entry.getValue().getBytes(StandardCharsets.UTF_8)));
+            }
+            String content = sb.toString();
+            return content + FIELD_SEPARATOR + checksum(content);
+        }
+
+        /**
+         * Parses a serialized record.
+         * @return The record or {@code null}, if the given string is not a complete, valid record.
+         */
+        public static Record deserialize(String str) {
+            int checksumPos = str.lastIndexOf(FIELD_SEPARATOR);
+            if (checksumPos < 0 || !str.substring(checksumPos + 1).equals(checksum(str.substring(0, checksumPos)))) {
+                return null;
+            }
+            String[] fields = str.split(FIELD_SEPARATOR, -1);
+            if (fields.length != NUM_FIELDS) {
+                return null;
+            }
+            try {
+                List<String> removedObjectIds = new ArrayList<>();
+                for (String id : fields[2].split(LIST_SEPARATOR)) {
+                    if (!id.isEmpty()) {
+                        removedObjectIds.add(id);
+                    }
+                }
+                Map<String, String> objectStates = new LinkedHashMap<>();
+                Base64.Decoder decoder = Base64.getDecoder();
+                for (String objectState : fields[3].split(LIST_SEPARATOR)) {
+                    if (objectState.isEmpty()) {
+                        continue;
+                    }
+                    int idSeparatorPos = objectState.lastIndexOf(ID_SEPARATOR);
+                    objectStates.put(objectState.substring(0, idSeparatorPos),
+                        new String(decoder.decode(objectState.substring(idSeparatorPos + 1)), StandardCharsets.UTF_8));
+                }
+                return new Record(Instant.parse(fields[0]), fields[1], objectStates, removedObjectIds);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        protected static String escape(String str) {
+            return str == null ? "" : str.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+        }
+
+        protected static String checksum(String str) {
+            CRC32 crc = new CRC32();
+            crc.update(str.getBytes(StandardCharsets.UTF_8));
+            return Long.toHexString(crc.getValue());
+        }
+    }
+
+    /**
+     * Information about unsaved changes of a plan file which can be restored.
+     */
+    public static class RecoveryInfo {
+        protected final Instant mLastChangeTime;
+        protected final Optional<String> mOLastChangeDescription;
+
+        public RecoveryInfo(Instant lastChangeTime, Optional<String> oLastChangeDescription) {
+            mLastChangeTime = lastChangeTime;
+            mOLastChangeDescription = oLastChangeDescription;
+        }
+
+        public Instant getLastChangeTime() {
+            return mLastChangeTime;
+        }
+
+        /**
+         * Gets the description of the last journaled change, if the last change isn't only contained in the checkpoint.
+         */
+        public Optional<String> getLastChangeDescription() {
+            return mOLastChangeDescription;
+        }
+    }
+
+    protected final Path mPlanFilePath;
+    protected final Path mJournalPath;
+    protected final Path mCheckpointPath;
+    protected final int mCheckpointInterval;
+    protected FileChannel mChannel = null;
+    protected int mNumRecords = 0;
+    protected boolean mClosed = false;
+
+    /**
+     * Creates a journal for the given plan file. No file is touched until the journal is {@link #open(boolean) opened}.
+     * @param checkpointInterval Number of records after which a new checkpoint is written.
+     */
+    public PlanChangeJournal(Path planFilePath, int checkpointInterval) {
+        mPlanFilePath = planFilePath;
+        mJournalPath = getJournalPath(planFilePath);
+        mCheckpointPath = getCheckpointPath(planFilePath);
+        mCheckpointInterval = checkpointInterval;
+    }
+
+    public static Path getJournalPath(Path planFilePath) {
+        return planFilePath.resolveSibling(planFilePath.getFileName().toString() + JOURNAL_FILE_SUFFIX);
+    }
+
+    public static Path getCheckpointPath(Path planFilePath) {
+        return planFilePath.resolveSibling(planFilePath.getFileName().toString() + CHECKPOINT_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads all valid records of the given journal file. Reading stops at the first invalid record, which was
+     * typically written partly during a crash.
+     */
+    protected static List<Record> readRecords(Path journalPath) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return Collections.emptyList();
+        }
+        List<Record> result = new ArrayList<>();
+        for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            Record record = Record.deserialize(line);
+            if (record == null) {
+                log.warn("Ignoring invalid record and all following records in change journal '" + journalPath + "'");
+                break;
+            }
+            result.add(record);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given plan file's journal or checkpoint contains changes which are newer than the plan file itself,
+     * which is the case if the application wasn't terminated regularly while the plan had unsaved changes.
+     */
+    public static Optional<RecoveryInfo> tryFindRecovery(Path planFilePath) {
+        try {
+            FileTime planFileTime = Files.exists(planFilePath) ? Files.getLastModifiedTime(planFilePath) : null;
+            Path checkpointPath = getCheckpointPath(planFilePath);
+            boolean hasCheckpoint = Files.exists(checkpointPath);
+            if (hasCheckpoint && planFileTime != null && planFileTime.compareTo(Files.getLastModifiedTime(checkpointPath)) >= 0) {
+                // Journal and checkpoint belong to an older state of the plan file
+                return Optional.empty();
+            }
+            List<Record> records = readRecords(getJournalPath(planFilePath));
+            if (records.isEmpty()) {
+                return hasCheckpoint
+                        ? Optional.of(new RecoveryInfo(Files.getLastModifiedTime(checkpointPath).toInstant(), Optional.empty()))
+                        : Optional.empty();
+            }
+            Record lastRecord = records.get(records.size() - 1);
+            if (!hasCheckpoint && planFileTime != null && !lastRecord.getTime().isAfter(planFileTime.toInstant())) {
+                // Plan file was written after the last change, e.g. if the application crashed while the journal was reset after saving
+                return Optional.empty();
+            }
+            return Optional.of(new RecoveryInfo(lastRecord.getTime(), Optional.of(lastRecord.getChangeDescription())));
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading recovery information for plan file '" + planFilePath + "'", e);
+        }
+    }
+
+    /**
+     * Reads the plan file state of the last journaled change, i.e. reads the checkpoint, if present, else the plan file, and
+     * replays the journal onto it.
+     * @param progressListener Optional listener which is called with the read progress from {@code 0} to {@code 1}.
+     */
+    public static PlanFile restorePlanFile(Path planFilePath, DoubleConsumer progressListener) {
+        try {
+            Path checkpointPath = getCheckpointPath(planFilePath);
+            PlanFile base = PlanFileIO.deserializePlanFile(Files.exists(checkpointPath) ? checkpointPath : planFilePath, progressListener);
+            return replay(base, readRecords(getJournalPath(planFilePath)));
+        } catch (IOException e) {
+            throw new RuntimeException("Error restoring plan file '" + planFilePath + "' from change journal", e);
+        }
+    }
+
+    /**
+     * Applies the given records in their order to the given plan file.
+     */
+    protected static PlanFile replay(PlanFile base, List<Record> records) {
+        if (records.isEmpty()) {
+            return base;
+        }
+        Plan basePlan = base.getPlan();
+        Map<String, String> objectStates = PlanFileStreamIO.writePlanObjects(basePlan);
+        for (Record record : records) {
+            for (String removedObjectId : record.getRemovedObjectIds()) {
+                objectStates.remove(removedObjectId);
+            }
+            objectStates.putAll(record.getObjectStates());
+        }
+        return new PlanFile(PlanFileStreamIO.readPlanObjects(basePlan.getId(), objectStates.values()), base.getUiState());
+    }
+
+    public Path getPlanFilePath() {
+        return mPlanFilePath;
+    }
+
+    /**
+     * Prepares the journal files.
+     * @param keepRecords If set to {@code true}, the existing journal and checkpoint are continued, which must be done
+     * if the current plan state was restored from them and not saved yet. Else, they are deleted.
+     */
+    public void open(boolean keepRecords) {
+        if (mClosed) {
+            return;
+        }
+        try {
+            if (keepRecords) {
+                List<Record> records = readRecords(mJournalPath);
+                // Drops a partly written record, further records would be appended to it
+                writeJournal(records);
+                mNumRecords = records.size();
+            } else {
+                Files.deleteIfExists(mCheckpointPath);
+                Files.deleteIfExists(mJournalPath);
+                mNumRecords = 0;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening change journal '" + mJournalPath + "'", e);
+        }
+    }
+
+    /**
+     * Appends the given record and forces it to the storage device. If the journal reached the checkpoint interval,
+     * a new checkpoint is written.
+     */
+    public void append(Record record) {
+        if (mClosed) {
+            return;
+        }
+        try {
+            if (mChannel == null) {
+                mChannel = FileChannel.open(mJournalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap((record.serialize() + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                mChannel.write(buffer);
+            }
+            mChannel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing change journal '" + mJournalPath + "'", e);
+        }
+        mNumRecords++;
+        if (mNumRecords >= mCheckpointInterval) {
+            writeCheckpoint();
+        }
+    }
+
+    /**
+     * Replays the journal onto the current base, writes the result to the checkpoint file and starts a new, empty journal.
+     * The plan is read from the files, so this method doesn't need access to the current plan.
+     */
+    public void writeCheckpoint() {
+        if (mClosed) {
+            return;
+        }
+        try {
+            closeChannel();
+            PlanFile checkpoint = restorePlanFile(mPlanFilePath, null);
+            PlanFileIO.writeFileAtomically(PlanFileIO.serializePlanFileToBytes(checkpoint), mCheckpointPath, null);
+            // A crash before the new journal is written leaves the former records, which are already contained in the checkpoint
+            writeJournal(Collections.emptyList());
+            mNumRecords = 0;
+            log.debug("Change journal was merged into checkpoint '" + mCheckpointPath + "'");
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing checkpoint '" + mCheckpointPath + "'", e);
+        }
+    }
+
+    /**
+     * Must be called after the plan file was written with all journaled changes. Deletes the checkpoint and starts a new,
+     * empty journal.
+     */
+    public void planFileWritten() {
+        if (mClosed) {
+            return;
+        }
+        try {
+            closeChannel();
+            // The checkpoint must be deleted first, else an old checkpoint without journal could be taken as the newest state
+            Files.deleteIfExists(mCheckpointPath);
+            writeJournal(Collections.emptyList());
+            mNumRecords = 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Error resetting change journal '" + mJournalPath + "'", e);
+        }
+    }
+
+    /**
+     * Replaces the journal file atomically by a new file with the given records.
+     */
+    protected void writeJournal(List<Record> records) throws IOException {
+        closeChannel();
+        if (records.isEmpty()) {
+            Files.deleteIfExists(mJournalPath);
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Record record : records) {
+            sb.append(record.serialize()).append('\n');
+        }
+        PlanFileIO.writeFileAtomically(sb.toString().getBytes(StandardCharsets.UTF_8), mJournalPath, null);
+    }
+
+    protected void closeChannel() throws IOException {
+        if (mChannel != null) {
+            FileChannel channel = mChannel;
+            mChannel = null;
+            channel.close();
+        }
+    }
+
+    /**
+     * Closes this journal and deletes its files. This must be done if the plan doesn't contain changes which are
+     * not saved or which should be kept.
+     */
+    public void discard() {
+        close();
+        try {
+            Files.deleteIfExists(mJournalPath);
+            Files.deleteIfExists(mCheckpointPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Error discarding change journal '" + mJournalPath + "'", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        mClosed = true;
+        try {
+            closeChannel();
+        } catch (IOException e) {
+            throw new RuntimeException("Error closing change journal '" + mJournalPath + "'", e);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.ui.persistence.PlanFileIO.ReadProgressTracker;
+import de.dh.cad.architect.ui.persistence.PlanFileStreamIO.IdRefCollectingReader;
+import de.dh.cad.architect.ui.persistence.PlanFileStreamIO.PlanObjectList;
+import de.dh.cad.architect.ui.persistence.PlanFileStreamIO.PlanReadContext;
+
+/**
+ * Compressed plan file container.
+ *
+ * The container is a ZIP archive with separate entries for the manifest, for each object list of the plan and for the
+ * {@link UiState}:
+ * <ul>
+ * <li>{@value #ENTRY_MANIFEST}: Binary header with format magic and version, plan id and the number of objects in each
+ * object list. Numbers are written as varints, strings as varint length followed by the UTF-8 bytes.</li>
+ * <li>{@value #ENTRY_OBJECTS_PREFIX}{@code <ObjectList>.xml}: Objects of one object list, in the XML format of the
+ * plan file's object list element.</li>
+ * <li>{@value #ENTRY_UI_STATE}: The UI state in the XML format of the plan file's {@code UiState} element.</li>
+ * </ul>
+ * The separate entries allow reading the manifest or the UI state without reading the plan objects.
+ */
+public class PlanFileBinaryIO {
+    protected static final String ENTRY_MANIFEST = "manifest";
+    protected static final String ENTRY_OBJECTS_PREFIX = "objects/";
+    protected static final String ENTRY_UI_STATE = "uistate.xml";
+
+    protected static final byte[] MANIFEST_MAGIC = "APLN".getBytes(StandardCharsets.US_ASCII);
+    protected static final int FORMAT_VERSION = 1;
+
+    // The XML writer produces many small writes which are expensive for the deflater
+    protected static final int ENTRY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Contents of the manifest entry of a binary plan file.
+     */
+    public static class Manifest {
+        protected final int mFormatVersion;
+        protected final String mPlanId;
+        protected final Map<String, Integer> mNumObjectsByObjectList;
+
+        public Manifest(int formatVersion, String planId, Map<String, Integer> numObjectsByObjectList) {
+            mFormatVersion = formatVersion;
+            mPlanId = planId;
+            mNumObjectsByObjectList = Collections.unmodifiableMap(numObjectsByObjectList);
+        }
+
+        public int getFormatVersion() {
+            return mFormatVersion;
+        }
+
+        public String getPlanId() {
+            return mPlanId;
+        }
+
+        /**
+         * Returns the object list names, e.g. {@code "Walls"}, mapped to the number of objects in the list, in the order
+         * of the entries in the file.
+         */
+        public Map<String, Integer> getNumObjectsByObjectList() {
+            return mNumObjectsByObjectList;
+        }
+
+        public int getNumObjects() {
+            return mNumObjectsByObjectList.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    protected static String getObjectListEntryName(PlanObjectList objectList) {
+        return ENTRY_OBJECTS_PREFIX + objectList.name() + ".xml";
+    }
+
+    public static byte[] serializePlanFileToBytes(PlanFile planFile) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(result)) {
+            writePlanFile(planFile, zos);
+        } catch (IOException | XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error serializing plan file", e);
+        }
+        return result.toByteArray();
+    }
+
+    protected static void writePlanFile(PlanFile planFile, ZipOutputStream zos) throws IOException, XMLStreamException, JAXBException {
+        zos.setLevel(Deflater.BEST_SPEED);
+        Marshaller m = PlanFileStreamIO.createFragmentMarshaller();
+        OutputStream entryStream = new BufferedOutputStream(zos, ENTRY_BUFFER_SIZE);
+        Map<String, Integer> numObjectsByObjectList = new LinkedHashMap<>();
+        Plan plan = planFile.getPlan();
+        if (plan != null) {
+            for (PlanObjectList objectList : PlanObjectList.values()) {
+                zos.putNextEntry(new ZipEntry(getObjectListEntryName(objectList)));
+                XMLStreamWriter writer = PlanFileStreamIO.createWriter(entryStream);
+                writer.writeStartDocument("UTF-8", "1.0");
+                int numObjects = PlanFileStreamIO.writeObjectList(objectList, plan, writer, m);
+                writer.writeEndDocument();
+                writer.close(); // Doesn't close the underlying stream
+                entryStream.flush();
+                zos.closeEntry();
+                numObjectsByObjectList.put(objectList.name(), numObjects);
+            }
+        }
+        UiState uiState = planFile.getUiState();
+        if (uiState != null) {
+            zos.putNextEntry(new ZipEntry(ENTRY_UI_STATE));
+            XMLStreamWriter writer = PlanFileStreamIO.createWriter(entryStream);
+            writer.writeStartDocument("UTF-8", "1.0");
+            PlanFileStreamIO.writeUiState(uiState, writer, m);
+            writer.writeEndDocument();
+            writer.close();
+            entryStream.flush();
+            zos.closeEntry();
+        }
+        zos.putNextEntry(new ZipEntry(ENTRY_MANIFEST));
+        writeManifest(new Manifest(FORMAT_VERSION, plan == null ? null : plan.getId(), numObjectsByObjectList), entryStream);
+        entryStream.flush();
+        zos.closeEntry();
+    }
+
+    protected static void writeManifest(Manifest manifest, OutputStream os) throws IOException {
+        os.write(MANIFEST_MAGIC);
+        writeVarInt(manifest.getFormatVersion(), os);
+        writeString(manifest.getPlanId() == null ? "" : manifest.getPlanId(), os);
+        Map<String, Integer> numObjectsByObjectList = manifest.getNumObjectsByObjectList();
+        writeVarInt(numObjectsByObjectList.size(), os);
+        for (Map.Entry<String, Integer> entry : numObjectsByObjectList.entrySet()) {
+            writeString(entry.getKey(), os);
+            writeVarInt(entry.getValue(), os);
+        }
+    }
+
+    protected static Manifest readManifest(InputStream is) throws IOException {
+        byte[] magic = is.readNBytes(MANIFEST_MAGIC.length);
+        if (!Arrays.equals(magic, MANIFEST_MAGIC)) {
+            throw new IOException("Invalid plan file manifest");
+        }
+        int formatVersion = readVarInt(is);
+        if (formatVersion > FORMAT_VERSION) {
+            throw new IOException("Unsupported plan file format version " + formatVersion);
+        }
+        String planId = readString(is);
+        int numObjectLists = readVarInt(is);
+        Map<String, Integer> numObjectsByObjectList = new LinkedHashMap<>();
+        for (int i = 0; i < numObjectLists; i++) {
+            String objectListName = readString(is);
+            numObjectsByObjectList.put(objectListName, readVarInt(is));
+        }
+        return new Manifest(formatVersion, planId.isEmpty() ? null : planId, numObjectsByObjectList);
+    }
+
+    /**
+     * Reads only the manifest of the given binary plan file.
+     */
+    public static Manifest readManifest(Path path) {
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            return readManifest(zipFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading manifest of plan file '" + path + "'", e);
+        }
+    }
+
+    protected static Manifest readManifest(ZipFile zipFile) throws IOException {
+        ZipEntry manifestEntry = zipFile.getEntry(ENTRY_MANIFEST);
+        if (manifestEntry == null) {
+            throw new IOException("Plan file manifest is missing");
+        }
+        try (InputStream is = zipFile.getInputStream(manifestEntry)) {
+            return readManifest(is);
+        }
+    }
+
+    /**
+     * Reads only the UI state of the given binary plan file without reading the plan objects.
+     * @return UI state or {@code null} if the plan file doesn't contain a UI state.
+     */
+    public static UiState readUiState(Path path) {
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            readManifest(zipFile);
+            PlanReadContext context = new PlanReadContext();
+            UiState result = readUiState(zipFile, context);
+            context.finish(null);
+            return result;
+        } catch (IOException | XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error reading UI state of plan file '" + path + "'", e);
+        }
+    }
+
+    protected static UiState readUiState(ZipFile zipFile, PlanReadContext context) throws IOException, XMLStreamException, JAXBException {
+        ZipEntry uiStateEntry = zipFile.getEntry(ENTRY_UI_STATE);
+        if (uiStateEntry == null) {
+            return null;
+        }
+        try (Reader entryReader = new InputStreamReader(zipFile.getInputStream(uiStateEntry), StandardCharsets.UTF_8)) {
+            IdRefCollectingReader reader = context.createReader(entryReader);
+            reader.nextTag();
+            return context.readUiState(reader);
+        }
+    }
+
+    public static PlanFile deserializePlanFile(Path path) {
+        return deserializePlanFile(path, null);
+    }
+
+    /**
+     * Reads the binary plan file at the given path.
+     * @param progressListener Optional listener which is called with the read progress from {@code 0} to {@code 1}.
+     */
+    public static PlanFile deserializePlanFile(Path path, DoubleConsumer progressListener) {
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            Manifest manifest = readManifest(zipFile);
+            PlanReadContext context = new PlanReadContext();
+            Plan plan = null;
+            String planId = manifest.getPlanId();
+            ReadProgressTracker progressTracker = new ReadProgressTracker(getUncompressedSize(zipFile), progressListener);
+            if (planId != null) {
+                plan = new Plan(planId);
+                for (String objectListName : manifest.getNumObjectsByObjectList().keySet()) {
+                    PlanObjectList objectList = PlanObjectList.forWrapperElement(objectListName);
+                    if (objectList == null) {
+                        continue;
+                    }
+                    readObjectList(zipFile, objectList, plan, context, progressTracker);
+                }
+            }
+            UiState uiState = readUiState(zipFile, context);
+            context.finish(plan);
+            return new PlanFile(plan, uiState);
+        } catch (IOException | XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error loading plan from path '" + path + "'", e);
+        }
+    }
+
+    protected static long getUncompressedSize(ZipFile zipFile) {
+        return zipFile.stream()
+            .filter(entry -> entry.getName().startsWith(ENTRY_OBJECTS_PREFIX))
+            .mapToLong(entry -> Math.max(0, entry.getSize()))
+            .sum();
+    }
+
+    protected static void readObjectList(ZipFile zipFile, PlanObjectList objectList, Plan plan, PlanReadContext context,
+        ReadProgressTracker progressTracker) throws IOException, XMLStreamException, JAXBException {
+        String entryName = getObjectListEntryName(objectList);
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            throw new IOException("Plan file entry '" + entryName + "' is missing");
+        }
+        try (Reader entryReader = new InputStreamReader(progressTracker.track(zipFile.getInputStream(entry)), StandardCharsets.UTF_8)) {
+            IdRefCollectingReader reader = context.createReader(entryReader);
+            reader.nextTag();
+            reader.require(XMLStreamConstants.START_ELEMENT, null, objectList.name());
+            context.readObjectList(reader, objectList, plan);
+        }
+    }
+
+    protected static void writeVarInt(int value, OutputStream os) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            os.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        os.write(value);
+    }
+
+    protected static int readVarInt(InputStream is) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = is.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    protected static void writeString(String value, OutputStream os) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, os);
+        os.write(bytes);
+    }
+
+    protected static String readString(InputStream is) throws IOException {
+        int length = readVarInt(is);
+        byte[] bytes = is.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
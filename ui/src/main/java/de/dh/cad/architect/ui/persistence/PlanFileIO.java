@@ -17,12 +17,28 @@
  *******************************************************************************/
 package de.dh.cad.architect.ui.persistence;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.DoubleConsumer;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -30,6 +46,8 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.Unmarshaller.Listener;
 
+import org.apache.commons.io.input.ProxyInputStream;
+
 import de.dh.cad.architect.utils.jaxb.IDeserializationHandler;
 import de.dh.cad.architect.utils.jaxb.JAXBUtility;
 
@@ -38,12 +56,41 @@ public class PlanFileIO {
      * Plan file extension without {@code '.'}.
      */
     public static final String PLAN_FILE_EXTENSION = "xml";
+
+    /**
+     * Extension of compressed plan files without {@code '.'}, see {@link PlanFileBinaryIO}.
+     */
+    public static final String BINARY_PLAN_FILE_EXTENSION = "aplz";
+
     public static final String DEFAULT_ROOT_PATH_NAME = "PlanFile" + "." + PLAN_FILE_EXTENSION;
 
     public static final String PLAN_FILE_SCHEMA_URL = "http://www.dh-software.de/architect/v2/planfile";
 
     protected static final JAXBContext mJAXBContext = JAXBUtility.initializeJAXBContext(PlanFile.class);
 
+    protected static final int WRITE_CHUNK_SIZE = 64 * 1024;
+
+    public enum PlanFileFormat {
+        /**
+         * XML plan file, readable by all program versions.
+         */
+        Xml,
+
+        /**
+         * Compressed plan file container, see {@link PlanFileBinaryIO}.
+         */
+        Binary;
+
+        /**
+         * Determines the plan file format from the extension of the given path. Paths with an unknown extension are
+         * treated as XML plan files.
+         */
+        public static PlanFileFormat forPath(Path path) {
+            String fileName = path.getFileName().toString();
+            return fileName.toLowerCase().endsWith("." + BINARY_PLAN_FILE_EXTENSION) ? Binary : Xml;
+        }
+    }
+
     public static void serializePlanFile(PlanFile planFile, Writer writer) {
         try {
             Marshaller m = mJAXBContext.createMarshaller();
@@ -55,11 +102,123 @@ public class PlanFileIO {
         }
     }
 
-    public static void serializePlanFile(PlanFile planFile, Path path) {
-        try (Writer writer = Files.newBufferedWriter(path)) {
+    /**
+     * Serializes the given plan file into memory. The result is a snapshot of the plan which is independent from
+     * further changes of the plan, so it can be written to disk in a background thread.
+     * The plan is written by the streaming {@link PlanFileStreamIO} without formatting.
+     */
+    public static byte[] serializePlanFileToBytes(PlanFile planFile) {
+        return serializePlanFileToBytes(planFile, false);
+    }
+
+    /**
+     * Serializes the given plan file into memory.
+     * @param formatted If set to {@code true}, the plan file is written by JAXB with formatted output, else it is
+     * written by the faster, streaming {@link PlanFileStreamIO} without formatting.
+     */
+    public static byte[] serializePlanFileToBytes(PlanFile planFile, boolean formatted) {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        if (!formatted) {
+            PlanFileStreamIO.writePlanFile(planFile, result);
+            return result.toByteArray();
+        }
+        try (Writer writer = new OutputStreamWriter(result, StandardCharsets.UTF_8)) {
             serializePlanFile(planFile, writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Error serializing plan file", e);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Serializes the given plan file into memory in the given format.
+     */
+    public static byte[] serializePlanFileToBytes(PlanFile planFile, PlanFileFormat format) {
+        return switch (format) {
+        case Xml -> serializePlanFileToBytes(planFile);
+        case Binary -> PlanFileBinaryIO.serializePlanFileToBytes(planFile);
+        };
+    }
+
+    /**
+     * Writes the given plan file to the given path. The file format is chosen by the path's extension.
+     */
+    public static void serializePlanFile(PlanFile planFile, Path path) {
+        writeFileAtomically(serializePlanFileToBytes(planFile, PlanFileFormat.forPath(path)), path, null);
+    }
+
+    /**
+     * Converts the plan file at the given source path to the format of the given target path, according to the paths' extensions.
+     */
+    public static void convertPlanFile(Path sourcePath, Path targetPath) {
+        serializePlanFile(deserializePlanFile(sourcePath), targetPath);
+    }
+
+    /**
+     * Writes the given data to a temporary file next to the given target path, forces it to the storage device
+     * and replaces the target file by the temporary file. A crash during this operation leaves either the former
+     * or the new file at the target path, but never a partly written file.
+     * The temporary file is created with default permissions; if the target file already exists, its permissions
+     * are transferred to the new file.
+     * @param progressListener Optional listener which is called with the write progress from {@code 0} to {@code 1}.
+     */
+    public static void writeFileAtomically(byte[] data, Path path, DoubleConsumer progressListener) {
+        Path directory = path.toAbsolutePath().getParent();
+        Path tempFile = null;
+        try {
+            // Files.createTempFile() would restrict the permissions of the temporary file (and thus of the written file) to the owner
+            tempFile = directory.resolve(path.getFileName().toString() + "." + UUID.randomUUID() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                int position = 0;
+                while (position < data.length) {
+                    int length = Math.min(WRITE_CHUNK_SIZE, data.length - position);
+                    ByteBuffer buffer = ByteBuffer.wrap(data, position, length);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    position += length;
+                    if (progressListener != null) {
+                        progressListener.accept((double) position / data.length);
+                    }
+                }
+                channel.force(true);
+            }
+            copyPermissions(path, tempFile);
+            try {
+                Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
         } catch (Exception e) {
             throw new RuntimeException("Error writing plan file to path '" + path + "'", e);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    // Ignore, the original exception is more important
+                }
+            }
+        }
+    }
+
+    protected static void copyPermissions(Path sourcePath, Path targetPath) throws IOException {
+        if (!Files.exists(sourcePath)) {
+            return;
+        }
+        PosixFileAttributeView sourceView = Files.getFileAttributeView(sourcePath, PosixFileAttributeView.class);
+        PosixFileAttributeView targetView = Files.getFileAttributeView(targetPath, PosixFileAttributeView.class);
+        if (sourceView == null || targetView == null) {
+            // Not a POSIX file system, e.g. Windows, where the new file inherits the ACL of its directory
+            return;
+        }
+        PosixFileAttributes sourceAttributes = sourceView.readAttributes();
+        targetView.setPermissions(sourceAttributes.permissions());
+        try {
+            targetView.setGroup(sourceAttributes.group());
+        } catch (IOException e) {
+            // Group can only be changed if the user is a member of the target group, keep the default group
         }
     }
 
@@ -103,11 +262,69 @@ public class PlanFileIO {
         }
     }
 
+    /**
+     * Reads the plan file at the given path. The file format is chosen by the path's extension.
+     */
     public static PlanFile deserializePlanFile(Path path) {
-        try (Reader reader = Files.newBufferedReader(path)) {
-            return deserializePlanFile(reader);
+        return deserializePlanFile(path, null);
+    }
+
+    /**
+     * Reads the plan file at the given path. The file format is chosen by the path's extension.
+     * @param progressListener Optional listener which is called with the read progress from {@code 0} to {@code 1}.
+     */
+    public static PlanFile deserializePlanFile(Path path, DoubleConsumer progressListener) {
+        if (PlanFileFormat.forPath(path) == PlanFileFormat.Binary) {
+            return PlanFileBinaryIO.deserializePlanFile(path, progressListener);
+        }
+        try {
+            ReadProgressTracker progressTracker = new ReadProgressTracker(Files.size(path), progressListener);
+            try (Reader reader = new BufferedReader(new InputStreamReader(progressTracker.track(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+                return PlanFileStreamIO.readPlanFile(reader);
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error loading root plan from path '" + path + "'", e);
         }
     }
+
+    /**
+     * Reports the progress of reading a known number of bytes from one or more input streams.
+     */
+    static class ReadProgressTracker {
+        // Report at most each 0.5 % to avoid flooding the listener
+        protected static final double REPORT_STEP = 0.005;
+
+        protected final long mTotalBytes;
+        protected final DoubleConsumer mProgressListener;
+        protected long mReadBytes = 0;
+        protected double mLastReportedProgress = -1;
+
+        ReadProgressTracker(long totalBytes, DoubleConsumer progressListener) {
+            mTotalBytes = totalBytes;
+            mProgressListener = progressListener;
+        }
+
+        public InputStream track(InputStream inputStream) {
+            if (mProgressListener == null || mTotalBytes <= 0) {
+                return inputStream;
+            }
+            return new ProxyInputStream(inputStream) {
+                @Override
+                protected void afterRead(int n) {
+                    if (n > 0) {
+                        bytesRead(n);
+                    }
+                }
+            };
+        }
+
+        protected void bytesRead(int n) {
+            mReadBytes += n;
+            double progress = Math.min(1, (double) mReadBytes / mTotalBytes);
+            if (progress - mLastReportedProgress >= REPORT_STEP || progress == 1 && mLastReportedProgress < 1) {
+                mLastReportedProgress = progress;
+                mProgressListener.accept(progress);
+            }
+        }
+    }
 }
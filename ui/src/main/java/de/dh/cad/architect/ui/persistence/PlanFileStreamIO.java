@@ -0,0 +1,594 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.persistence;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.Unmarshaller.Listener;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.model.changes.IModelChange;
+import de.dh.cad.architect.model.objects.Anchor;
+import de.dh.cad.architect.model.objects.BaseAnchoredObject;
+import de.dh.cad.architect.model.objects.BaseObject;
+import de.dh.cad.architect.model.objects.Ceiling;
+import de.dh.cad.architect.model.objects.Covering;
+import de.dh.cad.architect.model.objects.Dimensioning;
+import de.dh.cad.architect.model.objects.Floor;
+import de.dh.cad.architect.model.objects.GuideLine;
+import de.dh.cad.architect.model.objects.ObjectsGroup;
+import de.dh.cad.architect.model.objects.SupportObject;
+import de.dh.cad.architect.model.objects.Wall;
+import de.dh.cad.architect.utils.jaxb.IDeserializationHandler;
+
+/**
+ * Streaming reader and writer for plan files. Reads and writes the same XML format as the JAXB based methods in
+ * {@link PlanFileIO}, so files can be exchanged between both implementations.
+ *
+ * The plan structure ({@code Planfile}, {@code Plan} and the object lists) is processed with StAX while each single plan
+ * object is bound with JAXB as an XML fragment, directly from and into the plan's maps. In contrast to the plain JAXB
+ * implementation, no copy of the plan's object lists and no JAXB id table is built. Id references ({@code Anchors},
+ * {@code DockMaster} and group {@code Objects}) are collected while reading and resolved at the end using a single
+ * id table of all read objects.
+ */
+public class PlanFileStreamIO {
+    private static final Logger log = LoggerFactory.getLogger(PlanFileStreamIO.class);
+
+    protected static final String ELEMENT_PLAN_FILE = "Planfile";
+    protected static final String ELEMENT_PLAN = "Plan";
+    protected static final String ELEMENT_UI_STATE = "UiState";
+    protected static final String ATTRIBUTE_ID = "id";
+
+    protected static final String ELEMENT_ANCHORS = "Anchors";
+    protected static final String ELEMENT_DOCK_MASTER = "DockMaster";
+    protected static final String ELEMENT_GROUP_OBJECTS = "Objects";
+
+    /**
+     * Object list wrapper elements in the plan together with the names and classes of their child elements,
+     * in the order they are written by JAXB.
+     */
+    protected enum PlanObjectList {
+        Anchors("Anchor", Anchor.class),
+        Ceilings("Ceiling", Ceiling.class),
+        Coverings("Covering", Covering.class),
+        Dimensionings("Dimensioning", Dimensioning.class),
+        Floors("Floor", Floor.class),
+        Groups("Group", ObjectsGroup.class),
+        GuideLines("GuideLine", GuideLine.class),
+        SupportObjects("SupportObject", SupportObject.class),
+        Walls("Wall", Wall.class);
+
+        private final String mElementName;
+        private final Class<? extends BaseObject> mObjectClass;
+
+        private PlanObjectList(String elementName, Class<? extends BaseObject> objectClass) {
+            mElementName = elementName;
+            mObjectClass = objectClass;
+        }
+
+        public String getElementName() {
+            return mElementName;
+        }
+
+        public Class<? extends BaseObject> getObjectClass() {
+            return mObjectClass;
+        }
+
+        public Collection<? extends BaseObject> getObjects(Plan plan) {
+            return switch (this) {
+            case Anchors -> plan.getAnchors().values();
+            case Ceilings -> plan.getCeilings().values();
+            case Coverings -> plan.getCoverings().values();
+            case Dimensionings -> plan.getDimensionings().values();
+            case Floors -> plan.getFloors().values();
+            case Groups -> plan.getGroups().values();
+            case GuideLines -> plan.getGuideLines().values();
+            case SupportObjects -> plan.getSupportObjects().values();
+            case Walls -> plan.getWalls().values();
+            };
+        }
+
+        public static PlanObjectList forWrapperElement(String elementName) {
+            for (PlanObjectList objectList : values()) {
+                if (objectList.name().equals(elementName)) {
+                    return objectList;
+                }
+            }
+            return null;
+        }
+
+        public static PlanObjectList forObjectElement(String elementName) {
+            for (PlanObjectList objectList : values()) {
+                if (objectList.getElementName().equals(elementName)) {
+                    return objectList;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the object list which holds the given object or {@code null}, if the object isn't stored in a plan level
+         * object list, e.g. a wall hole, which is stored in its wall.
+         */
+        public static PlanObjectList forObject(BaseObject object) {
+            for (PlanObjectList objectList : values()) {
+                if (objectList.getObjectClass().isInstance(object)) {
+                    return objectList;
+                }
+            }
+            return null;
+        }
+    }
+
+
+    /**
+     * Writes the given plan file to the given stream. The output is not formatted.
+     */
+    public static void writePlanFile(PlanFile planFile, OutputStream outputStream) {
+        try {
+            XMLStreamWriter writer = createWriter(outputStream);
+            Marshaller m = createFragmentMarshaller();
+
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement(ELEMENT_PLAN_FILE);
+            writer.writeNamespace("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+            writer.writeAttribute("xsi", XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation", PlanFileIO.PLAN_FILE_SCHEMA_URL);
+
+            Plan plan = planFile.getPlan();
+            if (plan != null) {
+                writer.writeStartElement(ELEMENT_PLAN);
+                writer.writeAttribute(ATTRIBUTE_ID, plan.getId());
+                for (PlanObjectList objectList : PlanObjectList.values()) {
+                    writeObjectList(objectList, plan, writer, m);
+                }
+                writer.writeEndElement();
+            }
+            UiState uiState = planFile.getUiState();
+            if (uiState != null) {
+                writeUiState(uiState, writer, m);
+            }
+
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error serializing plan file", e);
+        }
+    }
+
+    protected static XMLStreamWriter createWriter(OutputStream outputStream) throws XMLStreamException {
+        return XMLOutputFactory.newFactory().createXMLStreamWriter(outputStream, "UTF-8");
+    }
+
+    protected static Marshaller createFragmentMarshaller() throws JAXBException {
+        Marshaller result = PlanFileIO.mJAXBContext.createMarshaller();
+        result.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        return result;
+    }
+
+    /**
+     * Writes the wrapper element of the given object list together with all objects of that list.
+     * @return Number of written objects.
+     */
+    @SuppressWarnings("unchecked")
+    protected static int writeObjectList(PlanObjectList objectList, Plan plan, XMLStreamWriter writer, Marshaller m) throws XMLStreamException, JAXBException {
+        writer.writeStartElement(objectList.name());
+        QName elementName = new QName(objectList.getElementName());
+        Class<BaseObject> objectClass = (Class<BaseObject>) objectList.getObjectClass();
+        int result = 0;
+        for (BaseObject object : objectList.getObjects(plan)) {
+            m.marshal(new JAXBElement<>(elementName, objectClass, object), writer);
+            result++;
+        }
+        writer.writeEndElement();
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static String writePlanObject(PlanObjectList objectList, BaseObject object, Marshaller m) throws JAXBException {
+        StringWriter result = new StringWriter();
+        m.marshal(new JAXBElement<>(new QName(objectList.getElementName()), (Class<BaseObject>) objectList.getObjectClass(), object), result);
+        return result.toString();
+    }
+
+    /**
+     * Serializes the given object of a plan level object list to an XML fragment, which has the same form as the object's
+     * element in a plan file.
+     */
+    public static String writePlanObject(BaseObject object) {
+        PlanObjectList objectList = PlanObjectList.forObject(object);
+        if (objectList == null) {
+            throw new IllegalArgumentException("Object <" + object + "> is not stored in a plan level object list");
+        }
+        try {
+            return writePlanObject(objectList, object, createFragmentMarshaller());
+        } catch (JAXBException e) {
+            throw new RuntimeException("Error serializing plan object <" + object + ">", e);
+        }
+    }
+
+    /**
+     * Serializes all objects of the object lists of the given plan to XML fragments, see {@link #writePlanObject(BaseObject)}.
+     * @return Map of object ids to the XML fragments of the objects, in the order of the plan file.
+     */
+    public static Map<String, String> writePlanObjects(Plan plan) {
+        try {
+            Marshaller m = createFragmentMarshaller();
+            Map<String, String> result = new LinkedHashMap<>();
+            for (PlanObjectList objectList : PlanObjectList.values()) {
+                for (BaseObject object : objectList.getObjects(plan)) {
+                    result.put(object.getId(), writePlanObject(objectList, object, m));
+                }
+            }
+            return result;
+        } catch (JAXBException e) {
+            throw new RuntimeException("Error serializing plan objects", e);
+        }
+    }
+
+    protected static void writeUiState(UiState uiState, XMLStreamWriter writer, Marshaller m) throws JAXBException {
+        m.marshal(new JAXBElement<>(new QName(ELEMENT_UI_STATE), UiState.class, uiState), writer);
+    }
+
+    /**
+     * Reads a plan file from the given reader.
+     * A reader is used instead of a stream because plan files written by JAXB declare the encoding {@code "UTF8"},
+     * which is not accepted by the StAX parser.
+     */
+    public static PlanFile readPlanFile(Reader planFileReader) {
+        try {
+            PlanReadContext context = new PlanReadContext();
+            IdRefCollectingReader reader = context.createReader(planFileReader);
+            try {
+                reader.nextTag();
+                reader.require(XMLStreamConstants.START_ELEMENT, null, ELEMENT_PLAN_FILE);
+
+                PlanFile result = new PlanFile();
+                forEachChildElement(reader, () -> {
+                    switch (reader.getLocalName()) {
+                    case ELEMENT_PLAN -> result.setPlan(readPlan(reader, context));
+                    case ELEMENT_UI_STATE -> result.setUiState(context.readUiState(reader));
+                    default -> skipElement(reader);
+                    }
+                });
+                context.finish(result.getPlan());
+                return result;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error deserializing plan", e);
+        }
+    }
+
+    /**
+     * Reads a plan from the XML fragments of its objects, as written by {@link #writePlanObject(BaseObject)}. Id references
+     * between the given objects are resolved like in a complete plan file.
+     */
+    public static Plan readPlanObjects(String planId, Collection<String> objectFragments) {
+        try {
+            PlanReadContext context = new PlanReadContext();
+            Plan result = new Plan(planId);
+            for (String objectFragment : objectFragments) {
+                IdRefCollectingReader reader = context.createReader(new StringReader(objectFragment));
+                try {
+                    reader.nextTag();
+                    PlanObjectList objectList = PlanObjectList.forObjectElement(reader.getLocalName());
+                    if (objectList == null) {
+                        log.warn("Skipping unknown plan object element '" + reader.getLocalName() + "'");
+                        continue;
+                    }
+                    context.readObject(reader, objectList, result);
+                } finally {
+                    reader.close();
+                }
+            }
+            context.finish(result);
+            return result;
+        } catch (XMLStreamException | JAXBException e) {
+            throw new RuntimeException("Error deserializing plan objects", e);
+        }
+    }
+
+    protected static Plan readPlan(IdRefCollectingReader reader, PlanReadContext context) throws XMLStreamException, JAXBException {
+        Plan result = new Plan(reader.getAttributeValue(null, ATTRIBUTE_ID));
+        forEachChildElement(reader, () -> {
+            PlanObjectList objectList = PlanObjectList.forWrapperElement(reader.getLocalName());
+            if (objectList == null) {
+                skipElement(reader);
+                return;
+            }
+            context.readObjectList(reader, objectList, result);
+        });
+        return result;
+    }
+
+    /**
+     * State of a plan read process. Collects all read objects in a single id table together with the id references
+     * between them and resolves those references when all parts of the plan have been read.
+     * A single context can be used for multiple XML documents, each read by its own {@link #createReader(Reader) reader}.
+     */
+    protected static class PlanReadContext {
+        protected final Unmarshaller mUnmarshaller;
+        protected final Map<String, BaseObject> mObjectsById = new HashMap<>();
+        protected final List<PlanFileIO.PendingUnmarshalCall> mPendingUnmarshalCalls = new ArrayList<>();
+        protected final List<IModelChange> mUnUsedChangeTrace = new ArrayList<>();
+
+        protected final Map<String, List<String>> mAnchorIdsByOwnerId = new HashMap<>();
+        protected final Map<String, String> mDockMasterIdsByAnchorId = new HashMap<>();
+        protected final Map<String, List<String>> mGroupedObjectIdsByGroupId = new HashMap<>();
+
+        public PlanReadContext() throws JAXBException {
+            mUnmarshaller = PlanFileIO.mJAXBContext.createUnmarshaller();
+            mUnmarshaller.setListener(new Listener() {
+                @Override
+                public void afterUnmarshal(Object target, Object parent) {
+                    if (target instanceof BaseObject bo) {
+                        mObjectsById.put(bo.getId(), bo);
+                    }
+                    if (target instanceof IDeserializationHandler handler) {
+                        mPendingUnmarshalCalls.add(new PlanFileIO.PendingUnmarshalCall(handler, parent));
+                    }
+                }
+            });
+        }
+
+        public IdRefCollectingReader createReader(Reader reader) throws XMLStreamException {
+            XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+            inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            return new IdRefCollectingReader(inputFactory.createXMLStreamReader(reader), this);
+        }
+
+        /**
+         * Reads all objects of the object list wrapper element at the current reader position and adds them to the given plan.
+         */
+        public void readObjectList(IdRefCollectingReader reader, PlanObjectList objectList, Plan plan) throws XMLStreamException, JAXBException {
+            forEachChildElement(reader, () -> readObject(reader, objectList, plan));
+        }
+
+        /**
+         * Reads the object element of the given object list at the current reader position and adds the object to the given plan.
+         */
+        public void readObject(IdRefCollectingReader reader, PlanObjectList objectList, Plan plan) throws JAXBException {
+            BaseObject object = reader.unmarshalObject(mUnmarshaller, objectList.getObjectClass());
+            if (object instanceof Anchor anchor) {
+                plan.addAnchor_Internal(anchor, mUnUsedChangeTrace);
+            } else {
+                plan.addOwnedChild_Internal(object, mUnUsedChangeTrace);
+            }
+            mUnUsedChangeTrace.clear();
+        }
+
+        public UiState readUiState(IdRefCollectingReader reader) throws JAXBException {
+            return mUnmarshaller.unmarshal(reader, UiState.class).getValue();
+        }
+
+        /**
+         * Resolves all collected id references and finishes the deserialization of all read objects.
+         */
+        public void finish(Plan plan) {
+            if (plan != null) {
+                resolveIdRefs();
+                plan.afterDeserialize();
+            }
+            for (PlanFileIO.PendingUnmarshalCall pendingUnmarshalCall : mPendingUnmarshalCalls) {
+                pendingUnmarshalCall.getHandler().afterDeserialize(pendingUnmarshalCall.getParent());
+            }
+            mPendingUnmarshalCalls.clear();
+        }
+
+        protected <T extends BaseObject> T resolve(String id, Class<T> objectClass, String referencingId) {
+            BaseObject result = mObjectsById.get(id);
+            if (objectClass.isInstance(result)) {
+                return objectClass.cast(result);
+            }
+            log.warn("Unable to resolve id '" + id + "' referenced by object '" + referencingId + "'");
+            return null;
+        }
+
+        protected void resolveIdRefs() {
+            mAnchorIdsByOwnerId.forEach((ownerId, anchorIds) -> {
+                BaseAnchoredObject owner = resolve(ownerId, BaseAnchoredObject.class, ownerId);
+                if (owner == null) {
+                    return;
+                }
+                for (String anchorId : anchorIds) {
+                    Anchor anchor = resolve(anchorId, Anchor.class, ownerId);
+                    if (anchor != null) {
+                        owner.getAnchors().add(anchor);
+                    }
+                }
+            });
+            mDockMasterIdsByAnchorId.forEach((anchorId, dockMasterId) -> {
+                Anchor anchor = resolve(anchorId, Anchor.class, anchorId);
+                if (anchor != null) {
+                    anchor.setDockMaster_JAXB(resolve(dockMasterId, Anchor.class, anchorId));
+                }
+            });
+            mGroupedObjectIdsByGroupId.forEach((groupId, objectIds) -> {
+                ObjectsGroup group = resolve(groupId, ObjectsGroup.class, groupId);
+                if (group == null) {
+                    return;
+                }
+                for (String objectId : objectIds) {
+                    BaseObject object = resolve(objectId, BaseObject.class, groupId);
+                    if (object != null) {
+                        group.getGroupedObjects().add(object);
+                    }
+                }
+            });
+            mAnchorIdsByOwnerId.clear();
+            mDockMasterIdsByAnchorId.clear();
+            mGroupedObjectIdsByGroupId.clear();
+        }
+    }
+
+    @FunctionalInterface
+    protected interface IElementHandler {
+        /**
+         * Processes the element at the current reader position. The handler must consume the element, i.e. leave the reader
+         * either at the element's end tag or behind it.
+         */
+        void handleElement() throws XMLStreamException, JAXBException;
+    }
+
+    /**
+     * Calls the given handler for each child element of the element at the current reader position. After this method returns,
+     * the reader is positioned at the end tag of that element.
+     */
+    protected static void forEachChildElement(IdRefCollectingReader reader, IElementHandler handler) throws XMLStreamException, JAXBException {
+        int parentDepth = reader.getDepth();
+        int event = reader.next();
+        while (event != XMLStreamConstants.END_ELEMENT || reader.getDepth() >= parentDepth) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                handler.handleElement();
+                event = reader.getEventType();
+                if (event != XMLStreamConstants.END_ELEMENT || reader.getDepth() != parentDepth) {
+                    // JAXB leaves the reader behind the end tag of the unmarshalled element
+                    continue;
+                }
+            }
+            event = reader.next();
+        }
+    }
+
+    protected static void skipElement(IdRefCollectingReader reader) throws XMLStreamException {
+        int depth = reader.getDepth();
+        while (reader.next() != XMLStreamConstants.END_ELEMENT || reader.getDepth() >= depth) {
+            // Skip
+        }
+    }
+
+    /**
+     * Reader which tracks the element depth and, while a plan object is unmarshalled, hides the id reference elements
+     * from JAXB and collects the referenced ids in the read context instead.
+     */
+    protected static class IdRefCollectingReader extends StreamReaderDelegate {
+        protected final PlanReadContext mContext;
+        protected final Deque<String> mOwnerIds = new ArrayDeque<>();
+        protected int mDepth = 0;
+        protected boolean mCollectIdRefs = false;
+
+        public IdRefCollectingReader(XMLStreamReader reader, PlanReadContext context) {
+            super(reader);
+            mContext = context;
+        }
+
+        public int getDepth() {
+            return mDepth;
+        }
+
+        public <T extends BaseObject> T unmarshalObject(Unmarshaller u, Class<T> objectClass) throws JAXBException {
+            mCollectIdRefs = true;
+            try {
+                return u.unmarshal(this, objectClass).getValue();
+            } finally {
+                mCollectIdRefs = false;
+            }
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            int event = super.next();
+            while (true) {
+                if (event == START_ELEMENT) {
+                    if (mCollectIdRefs && tryCollectIdRefs()) {
+                        event = super.next();
+                        continue;
+                    }
+                    mDepth++;
+                    String id = getAttributeValue(null, ATTRIBUTE_ID);
+                    mOwnerIds.push(id == null ? "" : id);
+                } else if (event == END_ELEMENT) {
+                    mDepth--;
+                    mOwnerIds.pop();
+                }
+                return event;
+            }
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int event = next();
+            while ((event == CHARACTERS && isWhiteSpace()) || event == SPACE || event == COMMENT || event == PROCESSING_INSTRUCTION) {
+                event = next();
+            }
+            if (event != START_ELEMENT && event != END_ELEMENT) {
+                throw new XMLStreamException("Expected start or end tag", getLocation());
+            }
+            return event;
+        }
+
+        /**
+         * Checks whether the current start element is an id reference element of the enclosing object and consumes it,
+         * in that case.
+         * @return {@code true} if the element was consumed, i.e. the reader is positioned at its end tag.
+         */
+        protected boolean tryCollectIdRefs() throws XMLStreamException {
+            String ownerId = mOwnerIds.peek();
+            if (ownerId == null || ownerId.isEmpty()) {
+                return false;
+            }
+            switch (getLocalName()) {
+            case ELEMENT_ANCHORS -> mContext.mAnchorIdsByOwnerId.put(ownerId, readIdList());
+            case ELEMENT_DOCK_MASTER -> mContext.mDockMasterIdsByAnchorId.put(ownerId, getElementText().trim());
+            case ELEMENT_GROUP_OBJECTS -> mContext.mGroupedObjectIdsByGroupId.put(ownerId, readIdList());
+            default -> {
+                return false;
+            }
+            }
+            return true;
+        }
+
+        protected List<String> readIdList() throws XMLStreamException {
+            List<String> result = new ArrayList<>();
+            while (super.nextTag() == START_ELEMENT) {
+                result.add(getElementText().trim());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.management.NotificationEmitter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javafx.application.Platform;
+
+/**
+ * Notifies listeners in the JavaFX application thread when the heap is still filled above a threshold after a garbage collection.
+ * Components which keep optional data, e.g. suspended views, can register here to drop that data when memory gets low.
+ */
+public class MemoryPressureMonitor {
+    private static final Logger log = LoggerFactory.getLogger(MemoryPressureMonitor.class);
+
+    /**
+     * Fraction of the maximum size of a heap memory pool which must still be in use after a garbage collection to signal memory pressure.
+     */
+    public static final double USAGE_THRESHOLD = 0.8;
+
+    protected static MemoryPressureMonitor INSTANCE = null;
+
+    protected final List<Runnable> mListeners = new CopyOnWriteArrayList<>();
+
+    protected MemoryPressureMonitor() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && max > 0) {
+                pool.setCollectionUsageThreshold((long) (max * USAGE_THRESHOLD));
+            }
+        }
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        emitter.addNotificationListener((notification, handback) -> {
+            if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+                log.info("Memory pressure detected, notifying " + mListeners.size() + " listeners");
+                Platform.runLater(this::fireMemoryPressure);
+            }
+        }, null, null);
+    }
+
+    public static synchronized MemoryPressureMonitor getInstance() {
+        if (INSTANCE == null) {
+            INSTANCE = new MemoryPressureMonitor();
+        }
+        return INSTANCE;
+    }
+
+    public void addListener(Runnable listener) {
+        mListeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        mListeners.remove(listener);
+    }
+
+    protected void fireMemoryPressure() {
+        for (Runnable listener : mListeners) {
+            listener.run();
+        }
+    }
+}
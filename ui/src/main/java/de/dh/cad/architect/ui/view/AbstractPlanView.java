@@ -21,9 +21,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import de.dh.cad.architect.model.Plan;
 import de.dh.cad.architect.model.objects.BaseObject;
@@ -31,8 +39,10 @@ import de.dh.cad.architect.ui.Constants;
 import de.dh.cad.architect.ui.assets.AssetLoader;
 import de.dh.cad.architect.ui.controller.ObjectsChangeHandler;
 import de.dh.cad.architect.ui.controller.UiController;
+import de.dh.cad.architect.ui.controller.UiController.ChangeNotificationMode;
 import de.dh.cad.architect.ui.objects.IModelBasedObject;
 import de.dh.cad.architect.ui.persistence.ViewState;
+import de.dh.cad.architect.ui.utils.MemoryPressureMonitor;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -50,8 +60,67 @@ import javafx.scene.layout.VBox;
 import javafx.scene.shape.Shape;
 
 public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc extends Node> extends BorderPane {
+    /**
+     * Collects the model changes which occur while the view is suspended. The changes are consolidated per object,
+     * objects which were added and removed again during the suspension are only passed to the removal handler
+     * which ignores objects without representation.
+     */
+    protected static class SuspendedChangesCollector implements ObjectsChangeHandler {
+        protected final Map<String, BaseObject> mAddedObjects = new LinkedHashMap<>();
+        protected final Map<String, BaseObject> mRemovedObjects = new LinkedHashMap<>();
+        protected final Map<String, BaseObject> mChangedObjects = new LinkedHashMap<>();
+
+        @Override
+        public void objectsAdded(Collection<BaseObject> addedObjects) {
+            for (BaseObject object : addedObjects) {
+                String id = object.getId();
+                mAddedObjects.put(id, object);
+                mChangedObjects.remove(id);
+            }
+        }
+
+        @Override
+        public void objectsRemoved(Collection<BaseObject> removedObjects) {
+            for (BaseObject object : removedObjects) {
+                String id = object.getId();
+                mRemovedObjects.put(id, object);
+                mAddedObjects.remove(id);
+                mChangedObjects.remove(id);
+            }
+        }
+
+        @Override
+        public void objectsChanged(Collection<BaseObject> changedObjects) {
+            for (BaseObject object : changedObjects) {
+                String id = object.getId();
+                if (!mAddedObjects.containsKey(id)) {
+                    mChangedObjects.put(id, object);
+                }
+            }
+        }
+
+        public Collection<BaseObject> getAddedObjects() {
+            return mAddedObjects.values();
+        }
+
+        public Collection<BaseObject> getRemovedObjects() {
+            return mRemovedObjects.values();
+        }
+
+        public Collection<BaseObject> getChangedObjects() {
+            return mChangedObjects.values();
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractPlanView.class);
+
     public static final String FOCUSABLE_VIEW_STYLE_CLASS = "focusable-view";
 
+    /**
+     * Number of objects whose representations are created or updated in a single view initialization step.
+     */
+    public static final int INITIALIZATION_STEP_NUM_OBJECTS = 100;
+
     protected final ObjectsChangeHandler OBJECTS_CHANGE_HANDLER = new ObjectsChangeHandler() {
         @Override
         public void objectsRemoved(Collection<BaseObject> removedObjects) {
@@ -86,6 +155,8 @@ public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc ext
                 List<String> removedSelectionIdsf = removedSelectionIds;
                 List<String> addedSelectionIdsf = addedSelectionIds;
                 Platform.runLater(() -> {
+                    // Objects which were added together with their selection must have their representations before
+                    mUiController.flushCoalescedChanges();
                     AbstractPlanView.this.handleObjectsSelectionChanged(removedSelectionIdsf, addedSelectionIdsf);
                 });
             }
@@ -95,6 +166,7 @@ public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc ext
     protected final ChangeListener<String> FOCUSED_OBJECT_CHANGE_LISTENER = new ChangeListener<>() {
         @Override
         public void changed(ObservableValue<? extends String> observable, String oldValue, String newValue) {
+            mUiController.flushCoalescedChanges();
             if (oldValue != null) {
                 AbstractPlanView.this.handleObjectFocusChanged(oldValue, false);
             }
@@ -116,6 +188,13 @@ public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc ext
         }
     };
 
+    protected final Runnable MEMORY_PRESSURE_LISTENER = () -> {
+        if (isSuspended()) {
+            log.info("Discarding representations of suspended view '" + getTitle() + "' due to memory pressure");
+            dispose();
+        }
+    };
+
     protected final UiController mUiController;
     protected AssetLoader mAssetLoader = null;
     protected ObjectProperty<AbstractViewBehavior<TRepr, TAnc>> mBehaviorProperty = new SimpleObjectProperty<>();
@@ -129,6 +208,14 @@ public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc ext
     protected final Map<String, TRepr> mRepresentationsById = new HashMap<>();
     protected final Map<String, TAnc> mAncillaryObjectsById = new HashMap<>();
 
+    // Incremented on each (un)initialization to invalidate initialization steps which were not executed yet
+    protected int mInitializationGeneration = 0;
+
+    // Set while this view is suspended
+    protected SuspendedChangesCollector mSuspendedChanges = null;
+    protected Set<String> mSuspendedSelectedObjectIds = null;
+    protected String mSuspendedFocusedObjectId = null;
+
     public AbstractPlanView(UiController uiController) {
         mUiController = uiController;
         getStyleClass().add(FOCUSABLE_VIEW_STYLE_CLASS);
@@ -144,52 +231,214 @@ public abstract class AbstractPlanView<TRepr extends IModelBasedObject, TAnc ext
 
     public abstract boolean canClose();
 
+    /**
+     * Returns the information whether this view holds representations of the plan. This is also the case if the view
+     * is {@link #isSuspended() suspended}.
+     */
     public abstract boolean isAlive();
 
+    /**
+     * Returns the information whether this view is suspended, i.e. it is hidden but still holds its representations.
+     */
+    public boolean isSuspended() {
+        return mSuspendedChanges != null;
+    }
+
+    /**
+     * Makes this view work on the current plan. If this view is suspended, the changes of the plan since the suspension
+     * are applied to the retained representations, else all representations are created.
+     */
     public void revive() {
+        if (isSuspended()) {
+            resume();
+            return;
+        }
         if (isAlive()) {
             return;
         }
         initialize();
-        handleObjectsSelectionChanged(Collections.emptyList(), mUiController.selectedObjectIds());
     }
 
+    /**
+     * Discards all representations of this view, also if it is suspended.
+     */
     public void dispose() {
         if (!isAlive()) {
             return;
         }
+        if (isSuspended()) {
+            endSuspension();
+        }
         uninitialize();
     }
 
+    /**
+     * Stops updating this view while it is hidden but retains its representations, so it can be {@link #revive() revived}
+     * without rebuilding them. Model changes are collected in the meantime. Suspended views are {@link #dispose() disposed}
+     * when the {@link MemoryPressureMonitor} signals memory pressure.
+     */
+    public void suspend() {
+        if (!isAlive() || isSuspended()) {
+            return;
+        }
+        unregisterModelListeners();
+        mSuspendedSelectedObjectIds = new HashSet<>(mUiController.selectedObjectIds());
+        mSuspendedFocusedObjectId = mUiController.focusedObjectId().get();
+        mSuspendedChanges = new SuspendedChangesCollector();
+        // Coalesced mode also receives the changes which are still pending for coalesced handlers
+        mUiController.addChangeHandler(mSuspendedChanges, ChangeNotificationMode.Coalesced);
+        MemoryPressureMonitor.getInstance().addListener(MEMORY_PRESSURE_LISTENER);
+    }
+
+    protected SuspendedChangesCollector endSuspension() {
+        MemoryPressureMonitor.getInstance().removeListener(MEMORY_PRESSURE_LISTENER);
+        SuspendedChangesCollector result = mSuspendedChanges;
+        mUiController.removeChangeHandler(result);
+        mSuspendedChanges = null;
+        return result;
+    }
+
+    protected void resume() {
+        // Deliver changes which are still pending for coalesced handlers to the collector, they would be lost for synchronous views
+        mUiController.flushCoalescedChanges();
+        SuspendedChangesCollector changes = endSuspension();
+        Set<String> formerSelectedObjectIds = mSuspendedSelectedObjectIds;
+        String formerFocusedObjectId = mSuspendedFocusedObjectId;
+        mSuspendedSelectedObjectIds = null;
+        mSuspendedFocusedObjectId = null;
+
+        registerModelListeners();
+
+        if (!changes.getRemovedObjects().isEmpty()) {
+            handleObjectsRemoved(new ArrayList<>(changes.getRemovedObjects()));
+        }
+        if (!changes.getAddedObjects().isEmpty()) {
+            handleObjectsAdded(new ArrayList<>(changes.getAddedObjects()));
+        }
+        if (!changes.getChangedObjects().isEmpty()) {
+            handleObjectsChanged(new ArrayList<>(changes.getChangedObjects()));
+        }
+
+        Set<String> selectedObjectIds = new HashSet<>(mUiController.selectedObjectIds());
+        List<String> removedSelectionIds = formerSelectedObjectIds
+                        .stream()
+                        .filter(id -> !selectedObjectIds.contains(id))
+                        .toList();
+        List<String> addedSelectionIds = selectedObjectIds
+                        .stream()
+                        .filter(id -> !formerSelectedObjectIds.contains(id))
+                        .toList();
+        if (!removedSelectionIds.isEmpty() || !addedSelectionIds.isEmpty()) {
+            handleObjectsSelectionChanged(removedSelectionIds, addedSelectionIds);
+        }
+
+        String focusedObjectId = mUiController.focusedObjectId().get();
+        if (!Objects.equals(formerFocusedObjectId, focusedObjectId)) {
+            if (formerFocusedObjectId != null) {
+                handleObjectFocusChanged(formerFocusedObjectId, false);
+            }
+            if (focusedObjectId != null) {
+                handleObjectFocusChanged(focusedObjectId, true);
+            }
+        }
+    }
+
+    protected void registerModelListeners() {
+        mUiController.selectedObjectIds().addListener(SELECTED_OBJECTS_CHANGE_HANDLER);
+        mUiController.focusedObjectId().addListener(FOCUSED_OBJECT_CHANGE_LISTENER);
+        mUiController.addChangeHandler(OBJECTS_CHANGE_HANDLER, getChangeNotificationMode());
+    }
+
+    protected void unregisterModelListeners() {
+        mUiController.removeChangeHandler(OBJECTS_CHANGE_HANDLER);
+        mUiController.focusedObjectId().removeListener(FOCUSED_OBJECT_CHANGE_LISTENER);
+        mUiController.selectedObjectIds().removeListener(SELECTED_OBJECTS_CHANGE_HANDLER);
+    }
+
     protected void initialize() {
         initializeMenuArea();
 
         mAssetLoader = mUiController.getAssetManager().buildAssetLoader();
 
-        mUiController.selectedObjectIds().addListener(SELECTED_OBJECTS_CHANGE_HANDLER);
-        mUiController.focusedObjectId().addListener(FOCUSED_OBJECT_CHANGE_LISTENER);
-        mUiController.addChangeHandler(OBJECTS_CHANGE_HANDLER);
+        registerModelListeners();
 
         mBehaviorProperty.addListener(VIEW_BEHAVIOR_LISTENER);
         bindBehavior();
 
-        initializeFromPlan();
+        List<Runnable> steps = new ArrayList<>();
+        initializeFromPlan(steps);
+        steps.add(() -> {
+            List<String> selectedObjectIds = new ArrayList<>(mUiController.selectedObjectIds());
+            if (!selectedObjectIds.isEmpty()) {
+                handleObjectsSelectionChanged(Collections.emptyList(), selectedObjectIds);
+            }
+        });
+        int generation = ++mInitializationGeneration;
+        mUiController.executeViewInitializationSteps(steps
+            .stream()
+            .<Runnable>map(step -> () -> {
+                // The view might have been disposed or re-initialized in the meantime
+                if (isAlive() && mInitializationGeneration == generation) {
+                    step.run();
+                }
+            })
+            .toList());
     }
 
     protected void uninitialize() {
+        mInitializationGeneration++;
         unbindBehavior();
         mBehaviorProperty.removeListener(VIEW_BEHAVIOR_LISTENER);
 
-        mUiController.removeChangeHandler(OBJECTS_CHANGE_HANDLER);
-        mUiController.focusedObjectId().removeListener(FOCUSED_OBJECT_CHANGE_LISTENER);
-        mUiController.selectedObjectIds().removeListener(SELECTED_OBJECTS_CHANGE_HANDLER);
+        unregisterModelListeners();
         mAssetLoader = null;
 
         mRepresentationsById.clear();
         mAncillaryObjectsById.clear();
     }
 
-    protected abstract void initializeFromPlan();
+    /**
+     * Adds the steps which create the representations of the current plan to the given list.
+     * The steps are either executed directly at the end of {@link #initialize()} or, while a plan is loaded,
+     * one after the other in separate pulses of the FX thread to keep the UI responsive,
+     * see {@link UiController#executeViewInitializationSteps(List)}.
+     */
+    protected abstract void initializeFromPlan(List<Runnable> steps);
+
+    /**
+     * Adds steps which create the UI representations of the given objects in chunks of
+     * {@link #INITIALIZATION_STEP_NUM_OBJECTS} objects.
+     */
+    protected void addCreateRepresentationsSteps(Collection<? extends BaseObject> objects, List<Runnable> steps) {
+        for (List<? extends BaseObject> chunk : ListUtils.partition(new ArrayList<>(objects), INITIALIZATION_STEP_NUM_OBJECTS)) {
+            steps.add(() -> addUIRepresentations(chunk));
+        }
+    }
+
+    /**
+     * Adds steps which update the UI representations of the given objects to their model in chunks of
+     * {@link #INITIALIZATION_STEP_NUM_OBJECTS} objects.
+     */
+    protected void addUpdateRepresentationsSteps(Collection<? extends BaseObject> objects, List<Runnable> steps) {
+        for (List<? extends BaseObject> chunk : ListUtils.partition(new ArrayList<>(objects), INITIALIZATION_STEP_NUM_OBJECTS)) {
+            steps.add(() -> {
+                for (BaseObject object : chunk) {
+                    TRepr repr = getRepresentationByModelId(object.getId());
+                    if (repr != null) {
+                        repr.updateToModel();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the mode in which this view wants to be notified about model changes.
+     * Views whose representations are accessed directly after a model change by behaviors must be notified synchronously.
+     */
+    protected ChangeNotificationMode getChangeNotificationMode() {
+        return ChangeNotificationMode.Synchronous;
+    }
 
     protected void initializeMenuArea() {
         mToolBar = new ToolBar();
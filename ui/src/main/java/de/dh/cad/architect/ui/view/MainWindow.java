@@ -44,6 +44,7 @@ import de.dh.cad.architect.ui.Constants;
 import de.dh.cad.architect.ui.Strings;
 import de.dh.cad.architect.ui.controller.ChangeEntry;
 import de.dh.cad.architect.ui.controller.UiController;
+import de.dh.cad.architect.ui.dialogs.AssetCacheStatisticsDialog;
 import de.dh.cad.architect.ui.logoutput.LogOutputControl;
 import de.dh.cad.architect.ui.objects.IModelBasedObject;
 import de.dh.cad.architect.ui.objecttree.ObjectTreeControl;
@@ -439,8 +440,10 @@ public class MainWindow implements Initializable {
             @Override
             public void changed(ObservableValue<? extends Plan> observable, Plan oldValue, Plan newValue) {
                 for (AbstractPlanView<? extends IModelBasedObject, ? extends Node> planView : mPlanViews) {
-                    if (planView.isAlive()) {
-                        closeView(planView);
+                    // Representations of suspended views belong to the former plan, so they are discarded
+                    boolean visible = planView.isAlive() && !planView.isSuspended();
+                    disposeView(planView);
+                    if (visible) {
                         openView(planView);
                     }
                 }
@@ -529,13 +532,20 @@ public class MainWindow implements Initializable {
         logOutputViewItem.setOnAction(event -> {
             mLogOutputViewManager.ensureVisible(getStage(), true, true);
         });
+        MenuItem assetCacheStatisticsItem = new MenuItem(Strings.WINDOW_MENU_ITEM_ASSET_CACHE_STATISTICS);
+        assetCacheStatisticsItem.setOnAction(event -> {
+            AssetCacheStatisticsDialog dialog = AssetCacheStatisticsDialog.create(mApplicationController.getAssetManager(), getStage());
+            dialog.show();
+        });
         return Arrays.asList(
             constructionViewItem,
             threeDViewItem,
             propertiesViewItem,
             objectsViewItem,
             scriptConsoleViewItem,
-            logOutputViewItem);
+            logOutputViewItem,
+            new SeparatorMenuItem(),
+            assetCacheStatisticsItem);
     }
 
     protected void updateUndoMenuItem(ChangeEntry nextOperation) {
@@ -593,9 +603,8 @@ public class MainWindow implements Initializable {
             Tooltip.install(l, tt);
             CustomMenuItem item = new CustomMenuItem(l);
             item.setOnAction(event -> {
-                if (mApplicationController.queryLoadPlanFile(getStage(), path)) {
-                    updateRecentFilesMenu();
-                }
+                // The recent files menu is updated when the new plan was loaded
+                mApplicationController.queryLoadPlanFile(getStage(), path);
             });
             items.add(item);
         }
@@ -680,9 +689,19 @@ public class MainWindow implements Initializable {
     }
 
     /**
-     * Hides the given view, also deactivating it.
+     * Hides the given view, also deactivating it. The view is suspended, so it can be shown again without rebuilding its representations.
      */
     protected void closeView(AbstractPlanView<? extends IModelBasedObject, ? extends Node> view) {
+        if (view == mActiveView) {
+            deactivateView();
+        }
+        view.suspend();
+    }
+
+    /**
+     * Deactivates the given view and discards its representations.
+     */
+    protected void disposeView(AbstractPlanView<? extends IModelBasedObject, ? extends Node> view) {
         if (view == mActiveView) {
             deactivateView();
         }
@@ -754,12 +773,11 @@ public class MainWindow implements Initializable {
     }
 
     protected void onFileSaveAction(ActionEvent event) {
-        mApplicationController.saveOrQueryPath(getStage());
+        mApplicationController.saveInBackgroundOrQueryPath(getStage());
     }
 
     protected void onFileSaveAsAction(ActionEvent event) {
-        mApplicationController.querySaveAs(getStage());
-        updateRecentFilesMenu();
+        mApplicationController.querySaveAs(getStage(), () -> updateRecentFilesMenu());
     }
 
     protected void onFileQuitAction(ActionEvent event) {
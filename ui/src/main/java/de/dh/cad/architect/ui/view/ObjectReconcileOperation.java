@@ -17,7 +17,10 @@
  *******************************************************************************/
 package de.dh.cad.architect.ui.view;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,6 +42,8 @@ import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.coords.Position3D;
 import de.dh.cad.architect.model.objects.Anchor;
 import de.dh.cad.architect.model.objects.BaseAnchoredObject;
+import de.dh.cad.architect.model.objects.BaseObject;
+import de.dh.cad.architect.model.objects.IObjectsContainer;
 import de.dh.cad.architect.model.objects.ObjectHealReason;
 import de.dh.cad.architect.model.objects.ReconcileResult;
 import de.dh.cad.architect.ui.objects.AbstractObjectUIRepresentation;
@@ -49,14 +54,33 @@ import de.dh.cad.architect.ui.objects.ObjectTypesRegistry;
  * the objects and docked anchors. This model is used during a move or modify operation of objects
  * to collect/calculate all derived anchor position updates in a transaction. After derived position updates are calcuated and
  * approved by the participating members, the collected updates are executed to match all new object constraints.
+ *
+ * Objects are reconciled in waves. The objects of a wave are ordered along their dependencies (an object whose dependent
+ * anchors are docked to handle anchors of another object is reconciled before that other object), so each object is processed
+ * only once per wave. Objects which are affected by a reconcile step and which are not pending in the current wave anymore
+ * are scheduled for the next wave. The waves are repeated until no more handle anchor changes occur or until
+ * {@link #MAX_RECONCILE_WAVES} is reached.
  */
 public class ObjectReconcileOperation {
     private static final Logger log = LoggerFactory.getLogger(ObjectReconcileOperation.class);
 
     private static final Length EPSILON = Length.ofMM(0.01);
 
+    /**
+     * Upper bound of reconcile waves. Dock networks normally settle after a few waves, this bound only protects
+     * against objects which continuously move each other.
+     */
+    public static final int MAX_RECONCILE_WAVES = 100;
+
+    /**
+     * Minimum number of objects to reconcile for which it is worth to split the operation into dock components
+     * and to reconcile those in parallel.
+     */
+    public static final int MIN_OBJECTS_FOR_PARALLEL_RECONCILE = 32;
+
     protected final String mDescription;
-    protected final Collection<BaseAnchoredObject> mUnprocessedObjects = ListOrderedSet.listOrderedSet(new TreeSet<>()); // Objects to be reconciled
+    protected final Collection<BaseAnchoredObject> mUnprocessedObjects = ListOrderedSet.listOrderedSet(new TreeSet<>()); // Objects to be reconciled in the next wave
+    protected final Collection<BaseAnchoredObject> mPendingWaveObjects = new TreeSet<>(); // Objects of the current wave which are not processed yet
     protected final Map<String, AnchorTarget> mProcessedHandleAnchorPositions = new TreeMap<>();
     protected final Collection<BaseAnchoredObject> mProcessedObjects = new TreeSet<>();
     protected final MultiValuedMap<BaseAnchoredObject, ObjectHealReason> mObjectsToHeal = new ArrayListValuedHashMap<>();
@@ -88,14 +112,8 @@ public class ObjectReconcileOperation {
     }
 
     public void tryAddObjectToProcess(BaseAnchoredObject object) {
-        if (mProcessedObjects.contains(object)) {
-            // This short-cut can lead to incompletely solved/reconciled situations if the order of objects
-            // is wrong, for example if the object, which has already been reconciled, changes as a result
-            // of a later reconcile operation.
-            // But we also cannot simply remove this short-cut return, else we can get an infinite loop
-            // if two objects return each other as included reconcile object.
-            // To avoid this, it would require a sophisticated check if none of the properties has
-            // changed from which the need for the object to reconcile derives.
+        if (mPendingWaveObjects.contains(object)) {
+            // Object will be reconciled later in the current wave and will see the change
             return;
         }
         mUnprocessedObjects.add(object);
@@ -117,6 +135,11 @@ public class ObjectReconcileOperation {
             return;
         }
         BaseAnchoredObject owner = handleAnchor.getAnchorOwner();
+        if (!handleAnchor.isHandle() && mProcessedObjects.contains(owner)) {
+            // Dependent anchors are only positioned by their owner, which has already been reconciled; reconciling it
+            // again would move the anchor back and could make the involved objects move each other forever
+            return;
+        }
         tryAddObjectToProcess(owner);
     }
 
@@ -152,34 +175,110 @@ public class ObjectReconcileOperation {
         }
     }
 
+    /**
+     * Orders the objects of a reconcile wave along their dependencies. Object {@code B} depends on object {@code A} if a
+     * dependent anchor of {@code A} is docked to a handle anchor of {@code B}, i.e. if reconciling {@code A} can move
+     * {@code B}. Independent objects keep their order from the given list. Dependency cycles are broken at the
+     * first object of the cycle in list order.
+     */
+    protected List<BaseAnchoredObject> scheduleWave(List<BaseAnchoredObject> waveObjects) {
+        Map<BaseAnchoredObject, Integer> inDegrees = new TreeMap<>();
+        for (BaseAnchoredObject object : waveObjects) {
+            inDegrees.put(object, 0);
+        }
+        Map<BaseAnchoredObject, Collection<BaseAnchoredObject>> successors = new TreeMap<>();
+        for (BaseAnchoredObject object : waveObjects) {
+            Collection<BaseAnchoredObject> objectSuccessors = ListOrderedSet.listOrderedSet(new TreeSet<>());
+            for (Anchor dependentAnchor : object.getDependentAnchors()) {
+                for (Anchor dockedAnchor : dependentAnchor.getAllDockedAnchors()) {
+                    BaseAnchoredObject dockedOwner = dockedAnchor.getAnchorOwner();
+                    if (dockedOwner == null || dockedOwner.equals(object) || !inDegrees.containsKey(dockedOwner) || !dockedAnchor.isHandle()) {
+                        continue;
+                    }
+                    if (objectSuccessors.add(dockedOwner)) {
+                        inDegrees.merge(dockedOwner, 1, Integer::sum);
+                    }
+                }
+            }
+            successors.put(object, objectSuccessors);
+        }
+
+        List<BaseAnchoredObject> result = new ArrayList<>(waveObjects.size());
+        Deque<BaseAnchoredObject> readyObjects = new ArrayDeque<>();
+        for (BaseAnchoredObject object : waveObjects) {
+            if (inDegrees.get(object) == 0) {
+                readyObjects.add(object);
+            }
+        }
+        while (result.size() < waveObjects.size()) {
+            if (readyObjects.isEmpty()) {
+                // All remaining objects are part of or depend on a dependency cycle
+                for (BaseAnchoredObject object : waveObjects) {
+                    if (inDegrees.get(object) > 0) {
+                        log.debug("Reconcile operation '" + mDescription + "': Breaking dependency cycle at object " + object);
+                        inDegrees.put(object, 0);
+                        readyObjects.add(object);
+                        break;
+                    }
+                }
+            }
+            BaseAnchoredObject object = readyObjects.poll();
+            result.add(object);
+            for (BaseAnchoredObject successor : successors.get(object)) {
+                int inDegree = inDegrees.get(successor);
+                if (inDegree > 0) {
+                    inDegrees.put(successor, inDegree - 1);
+                    if (inDegree == 1) {
+                        readyObjects.add(successor);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    protected void reconcileObject(BaseAnchoredObject object, List<IModelChange> changeTrace) {
+        AbstractObjectUIRepresentation uiRepresentation = ObjectTypesRegistry.getUIRepresentation(object.getClass());
+        IObjectReconciler reconciler = uiRepresentation.getReconciler();
+        ReconcileResult reconcileResult = reconciler.reconcileObjectChange(object, changeTrace);
+        // Remember positions of processed anchors to be able to determine further changes
+        mProcessedHandleAnchorPositions.putAll(AnchorTarget.mapAnchorIdToTargetFromAnchors(object.getHandleAnchors()));
+        mProcessedObjects.add(object);
+
+        // Get the anchors of the processed object which have been changed during the reconcile operation and
+        // propagate their new position to docked anchors, potentially cascading the reconcile process to their owner objects.
+        Collection<Anchor> dependentAnchors = reconcileResult.getDependentAnchors();
+        tryAddDependentAnchorChanges(dependentAnchors, changeTrace); // Propagate movements of dependent anchors
+
+        // Schedule objects to heal later
+        addObjectsToHeal(reconcileResult.getHealObjects());
+    }
+
     public void reconcileObjects(List<IModelChange> changeTrace) {
         // Each scheduled object will be propagated to its UI reconciler.
         // This can generate more anchor moves, which means the set of anchors to be moved in the reconcile operation structure
         // will grow during the operation. Furthermore, more object properties might become invalid during that process
         // (think of a wall whose wall end handle anchor was moved. After that, the wall's apex points must be repositioned to
         // match the new wall's position and the positions of the connected walls).
-        // So, the first loop will process all direct and transitive anchor moves.
+        // So, the first loop will process all direct and transitive anchor moves, wave by wave, until no more handle anchors move.
         // After that, we go through all objects which were invalidated by the first run ("objects to heal") and heal them.
         try {
-            // Step 1: Reconcile object by object
+            // Step 1: Reconcile objects in dependency order, wave by wave
+            int wave = 0;
             while (!mUnprocessedObjects.isEmpty()) {
-                BaseAnchoredObject object = mUnprocessedObjects.iterator().next();
-                mUnprocessedObjects.remove(object);
-                AbstractObjectUIRepresentation uiRepresentation = ObjectTypesRegistry.getUIRepresentation(object.getClass());
-                IObjectReconciler reconciler = uiRepresentation.getReconciler();
-                ReconcileResult reconcileResult = reconciler.reconcileObjectChange(object, changeTrace);
-                // Remember positions of processed anchors to be able to determine further changes
-                mProcessedHandleAnchorPositions.putAll(AnchorTarget.mapAnchorIdToTargetFromAnchors(object.getHandleAnchors()));
-                // Remember processed objects to be able to break infinite loops
-                mProcessedObjects.add(object);
-
-                // Get the anchors of the processed object which have been changed during the reconcile operation and
-                // propagate their new position to docked anchors, potentially cascading the reconcile process to their owner objects.
-                Collection<Anchor> dependentAnchors = reconcileResult.getDependentAnchors();
-                tryAddDependentAnchorChanges(dependentAnchors, changeTrace); // Propagate movements of dependent anchors
-
-                // Schedule objects to heal later
-                addObjectsToHeal(reconcileResult.getHealObjects());
+                if (wave == MAX_RECONCILE_WAVES) {
+                    log.warn("Reconcile operation '" + mDescription + "' did not settle after " + MAX_RECONCILE_WAVES + " waves, "
+                            + mUnprocessedObjects.size() + " objects remain unreconciled");
+                    break;
+                }
+                List<BaseAnchoredObject> waveObjects = scheduleWave(new ArrayList<>(mUnprocessedObjects));
+                mUnprocessedObjects.clear();
+                mPendingWaveObjects.addAll(waveObjects);
+                for (BaseAnchoredObject object : waveObjects) {
+                    mPendingWaveObjects.remove(object);
+                    reconcileObject(object, changeTrace);
+                }
+                wave++;
             }
 
             // Step 2: Heal objects
@@ -192,6 +291,109 @@ public class ObjectReconcileOperation {
         }
     }
 
+    /**
+     * Collects all objects which are connected to the given object, either because an anchor of one object is docked
+     * to an anchor of the other object or because one object is the owner of the other object (like a wall and its wall holes).
+     * Reconciling an object can only have an effect on the objects of its component.
+     */
+    protected static Collection<BaseAnchoredObject> collectDockComponent(BaseAnchoredObject startObject) {
+        Collection<BaseAnchoredObject> result = new TreeSet<>();
+        Deque<BaseAnchoredObject> openObjects = new ArrayDeque<>();
+        result.add(startObject);
+        openObjects.add(startObject);
+        while (!openObjects.isEmpty()) {
+            BaseAnchoredObject object = openObjects.poll();
+            Collection<BaseAnchoredObject> connectedObjects = new ArrayList<>();
+            for (Anchor anchor : object.getAnchors()) {
+                for (Anchor dockedAnchor : anchor.getAllDockedAnchors()) {
+                    BaseAnchoredObject dockedOwner = dockedAnchor.getAnchorOwner();
+                    if (dockedOwner != null) {
+                        connectedObjects.add(dockedOwner);
+                    }
+                }
+            }
+            if (object.getOwnerContainer() instanceof BaseAnchoredObject ownerObject) {
+                connectedObjects.add(ownerObject);
+            }
+            if (object instanceof IObjectsContainer container) {
+                for (BaseObject child : container.getOwnedChildren()) {
+                    if (child instanceof BaseAnchoredObject anchoredChild) {
+                        connectedObjects.add(anchoredChild);
+                    }
+                }
+            }
+            for (BaseAnchoredObject connectedObject : connectedObjects) {
+                if (result.add(connectedObject)) {
+                    openObjects.add(connectedObject);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits the objects to reconcile and to heal of this operation into independent operations, one for each
+     * connected component of the dock graph (see {@link #collectDockComponent(BaseAnchoredObject)}).
+     * The returned operations don't share any objects and thus can be executed concurrently. They are ordered by
+     * the position of their first object in this operation.
+     */
+    public List<ObjectReconcileOperation> splitByDockComponents() {
+        Map<BaseAnchoredObject, ObjectReconcileOperation> objectsToComponents = new TreeMap<>();
+        List<ObjectReconcileOperation> result = new ArrayList<>();
+        Collection<BaseAnchoredObject> seedObjects = ListOrderedSet.listOrderedSet(new TreeSet<>());
+        seedObjects.addAll(mUnprocessedObjects);
+        seedObjects.addAll(new TreeSet<>(mObjectsToHeal.keySet()));
+        for (BaseAnchoredObject seedObject : seedObjects) {
+            if (objectsToComponents.containsKey(seedObject)) {
+                continue;
+            }
+            ObjectReconcileOperation componentOperation = new ObjectReconcileOperation(mDescription);
+            result.add(componentOperation);
+            for (BaseAnchoredObject object : collectDockComponent(seedObject)) {
+                objectsToComponents.put(object, componentOperation);
+            }
+        }
+        for (BaseAnchoredObject object : mUnprocessedObjects) {
+            objectsToComponents.get(object).mUnprocessedObjects.add(object);
+        }
+        for (Entry<BaseAnchoredObject, ObjectHealReason> entry : mObjectsToHeal.entries()) {
+            objectsToComponents.get(entry.getKey()).addObjectToHeal(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Does the same as {@link #reconcileObjects(List)} but reconciles independent dock components of large operations in parallel.
+     * The changes of the components are added to the given change trace in a deterministic order.
+     */
+    public void reconcileObjectsParallel(List<IModelChange> changeTrace) {
+        if (mUnprocessedObjects.size() + mObjectsToHeal.keySet().size() < MIN_OBJECTS_FOR_PARALLEL_RECONCILE) {
+            reconcileObjects(changeTrace);
+            return;
+        }
+        List<ObjectReconcileOperation> componentOperations = splitByDockComponents();
+        if (componentOperations.size() < 2) {
+            reconcileObjects(changeTrace);
+            return;
+        }
+        List<List<IModelChange>> componentChangeTraces = componentOperations
+                .parallelStream()
+                .map(componentOperation -> {
+                    List<IModelChange> componentChangeTrace = new ArrayList<>();
+                    componentOperation.reconcileObjects(componentChangeTrace);
+                    return componentChangeTrace;
+                })
+                .toList();
+        for (int i = 0; i < componentOperations.size(); i++) {
+            ObjectReconcileOperation componentOperation = componentOperations.get(i);
+            changeTrace.addAll(componentChangeTraces.get(i));
+            mProcessedObjects.addAll(componentOperation.getProcessedObjects());
+            mProcessedHandleAnchorPositions.putAll(componentOperation.mProcessedHandleAnchorPositions);
+        }
+        mUnprocessedObjects.clear();
+        mObjectsToHeal.clear();
+    }
+
     @Override
     public String toString() {
         return mDescription + ": " + mProcessedObjects.size() + " objects processed, " + mUnprocessedObjects.size() + " objects to reconcile";
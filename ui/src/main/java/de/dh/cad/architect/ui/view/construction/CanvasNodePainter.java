@@ -0,0 +1,195 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction;
+
+import java.util.List;
+
+import javafx.collections.ObservableList;
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Line;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Polyline;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.Shape;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
+
+/**
+ * Paints a (detached) node tree in immediate mode to a {@link GraphicsContext}.
+ * Supports the node types which are used by the 2D representations: groups, polygons, polylines, lines, rectangles,
+ * circles, ellipses, arcs, texts and image views. Other node types are skipped.
+ * Stroke types are not supported; all strokes are painted centered.
+ */
+public class CanvasNodePainter {
+    private CanvasNodePainter() {
+        // Only static methods
+    }
+
+    public static void paint(GraphicsContext gc, Node node) {
+        if (!node.isVisible() || node.getOpacity() <= 0) {
+            return;
+        }
+        gc.save();
+        gc.setGlobalAlpha(gc.getGlobalAlpha() * node.getOpacity());
+        Transform t = node.getLocalToParentTransform();
+        gc.transform(t.getMxx(), t.getMyx(), t.getMxy(), t.getMyy(), t.getTx(), t.getTy());
+        if (node instanceof Parent parent) {
+            List<Node> children = parent.getChildrenUnmodifiable();
+            for (int i = 0; i < children.size(); i++) {
+                paint(gc, children.get(i));
+            }
+        } else if (node instanceof Shape shape) {
+            paintShape(gc, shape);
+        } else if (node instanceof ImageView imageView) {
+            paintImageView(gc, imageView);
+        }
+        gc.restore();
+    }
+
+    protected static void paintShape(GraphicsContext gc, Shape shape) {
+        Paint fill = shape.getFill();
+        Paint stroke = shape.getStroke();
+        gc.setFill(fill);
+        gc.setStroke(stroke);
+        gc.setLineWidth(shape.getStrokeWidth());
+        gc.setLineCap(shape.getStrokeLineCap());
+        gc.setLineJoin(shape.getStrokeLineJoin());
+        ObservableList<Double> dashArray = shape.getStrokeDashArray();
+        if (dashArray.isEmpty()) {
+            gc.setLineDashes((double[]) null);
+        } else {
+            double[] dashes = new double[dashArray.size()];
+            for (int i = 0; i < dashes.length; i++) {
+                dashes[i] = dashArray.get(i);
+            }
+            gc.setLineDashes(dashes);
+            gc.setLineDashOffset(shape.getStrokeDashOffset());
+        }
+
+        if (shape instanceof Polygon polygon) {
+            ObservableList<Double> points = polygon.getPoints();
+            int numPoints = points.size() / 2;
+            double[] xs = new double[numPoints];
+            double[] ys = new double[numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                xs[i] = points.get(2 * i);
+                ys[i] = points.get(2 * i + 1);
+            }
+            if (fill != null) {
+                gc.fillPolygon(xs, ys, numPoints);
+            }
+            if (stroke != null) {
+                gc.strokePolygon(xs, ys, numPoints);
+            }
+        } else if (shape instanceof Polyline polyline) {
+            ObservableList<Double> points = polyline.getPoints();
+            int numPoints = points.size() / 2;
+            double[] xs = new double[numPoints];
+            double[] ys = new double[numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                xs[i] = points.get(2 * i);
+                ys[i] = points.get(2 * i + 1);
+            }
+            if (fill != null) {
+                gc.fillPolygon(xs, ys, numPoints);
+            }
+            if (stroke != null) {
+                gc.strokePolyline(xs, ys, numPoints);
+            }
+        } else if (shape instanceof Line line) {
+            if (stroke != null) {
+                gc.strokeLine(line.getStartX(), line.getStartY(), line.getEndX(), line.getEndY());
+            }
+        } else if (shape instanceof Rectangle rect) {
+            double arcWidth = rect.getArcWidth();
+            double arcHeight = rect.getArcHeight();
+            if (fill != null) {
+                gc.fillRoundRect(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight(), arcWidth, arcHeight);
+            }
+            if (stroke != null) {
+                gc.strokeRoundRect(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight(), arcWidth, arcHeight);
+            }
+        } else if (shape instanceof Circle circle) {
+            double r = circle.getRadius();
+            if (fill != null) {
+                gc.fillOval(circle.getCenterX() - r, circle.getCenterY() - r, 2 * r, 2 * r);
+            }
+            if (stroke != null) {
+                gc.strokeOval(circle.getCenterX() - r, circle.getCenterY() - r, 2 * r, 2 * r);
+            }
+        } else if (shape instanceof Ellipse ellipse) {
+            double rx = ellipse.getRadiusX();
+            double ry = ellipse.getRadiusY();
+            if (fill != null) {
+                gc.fillOval(ellipse.getCenterX() - rx, ellipse.getCenterY() - ry, 2 * rx, 2 * ry);
+            }
+            if (stroke != null) {
+                gc.strokeOval(ellipse.getCenterX() - rx, ellipse.getCenterY() - ry, 2 * rx, 2 * ry);
+            }
+        } else if (shape instanceof Arc arc) {
+            double rx = arc.getRadiusX();
+            double ry = arc.getRadiusY();
+            ArcType type = arc.getType();
+            if (fill != null) {
+                gc.fillArc(arc.getCenterX() - rx, arc.getCenterY() - ry, 2 * rx, 2 * ry, arc.getStartAngle(), arc.getLength(), type);
+            }
+            if (stroke != null) {
+                gc.strokeArc(arc.getCenterX() - rx, arc.getCenterY() - ry, 2 * rx, 2 * ry, arc.getStartAngle(), arc.getLength(), type);
+            }
+        } else if (shape instanceof Text text) {
+            String str = text.getText();
+            if (str == null || str.isEmpty()) {
+                return;
+            }
+            gc.setFont(text.getFont());
+            VPos origin = text.getTextOrigin();
+            gc.setTextBaseline(origin == null ? VPos.BASELINE : origin);
+            if (fill != null) {
+                gc.fillText(str, text.getX(), text.getY());
+            }
+            if (stroke != null) {
+                gc.strokeText(str, text.getX(), text.getY());
+            }
+        }
+    }
+
+    protected static void paintImageView(GraphicsContext gc, ImageView imageView) {
+        Image image = imageView.getImage();
+        if (image == null) {
+            return;
+        }
+        double width = imageView.getFitWidth() > 0 ? imageView.getFitWidth() : image.getWidth();
+        double height = imageView.getFitHeight() > 0 ? imageView.getFitHeight() : image.getHeight();
+        if (imageView.isPreserveRatio() && imageView.getFitWidth() > 0 && imageView.getFitHeight() > 0) {
+            double ratio = Math.min(width / image.getWidth(), height / image.getHeight());
+            width = image.getWidth() * ratio;
+            height = image.getHeight() * ratio;
+        }
+        gc.drawImage(image, imageView.getX(), imageView.getY(), width, height);
+    }
+}
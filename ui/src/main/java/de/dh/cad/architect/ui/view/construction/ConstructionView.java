@@ -17,9 +17,15 @@
  *******************************************************************************/
 package de.dh.cad.architect.ui.view.construction;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
@@ -39,6 +45,7 @@ import de.dh.cad.architect.ui.controls.VerticalRuler;
 import de.dh.cad.architect.ui.objects.Abstract2DAncillaryObject;
 import de.dh.cad.architect.ui.objects.Abstract2DRepresentation;
 import de.dh.cad.architect.ui.objects.Abstract2DUiObject;
+import de.dh.cad.architect.ui.objects.AnchorConstructionRepresentation;
 import de.dh.cad.architect.ui.persistence.ConstructionViewState;
 import de.dh.cad.architect.ui.persistence.ViewState;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
@@ -48,20 +55,32 @@ import de.dh.cad.architect.ui.view.OptionalCoordinates2D;
 import de.dh.cad.architect.ui.view.construction.behaviors.AbstractConstructionBehavior;
 import de.dh.utils.Vector2D;
 import de.dh.utils.fx.ImageUtils;
+import de.dh.utils.fx.PulseThrottledAction;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.collections.ObservableList;
+import javafx.event.Event;
 import javafx.event.EventHandler;
+import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.Tooltip;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.transform.Affine;
+import javafx.stage.Window;
 
 public class ConstructionView extends Abstract2DView {
     protected static final double SNAP_DELTA = 10;
+    protected static final double REPRESENTATIONS_INDEX_CELL_SIZE = 100; // 1 m in plan coordinates
+    protected static final double CULLING_MARGIN = 200; // Margin around the visible area in pixels where representations are kept attached
 
     protected static final String ICON_SELECTION_MODE_RESOURCE = "SelectionMode.png";
     protected static final String ICON_GROUND_PLAN_MODE_RESOURCE = "GroundPlanMode.png";
@@ -79,6 +98,7 @@ public class ConstructionView extends Abstract2DView {
     protected ToggleButton mSelectionModeButton = null;
     protected ToggleButton mGroundPlanModeButton = null;
     protected ToggleButton mSupportObjectsModeButton = null;
+    protected ToggleButton mLargePlanModeButton = null;
 
     protected HorizontalRuler mHorizontalRuler;
     protected VerticalRuler mVerticalRuler;
@@ -90,6 +110,61 @@ public class ConstructionView extends Abstract2DView {
     protected Map<String, Line> mGuideLines = new TreeMap<>();
     protected ConstructionViewState mSavedViewState;
 
+    // Index of the bounds of all representations in plan coordinates, used for area queries like the rubber-band selection.
+    // Representations whose bounds changed are only collected and re-indexed lazily before the next query.
+    protected final SpatialGridIndex<Abstract2DRepresentation> mRepresentationsIndex = new SpatialGridIndex<>(REPRESENTATIONS_INDEX_CELL_SIZE);
+    protected final Set<Abstract2DRepresentation> mRepresentationsIndexDirty = new HashSet<>();
+
+    // Representations outside the visible plan area are detached from the scene graph to save CSS, layout and rendering costs
+    protected final Set<Abstract2DRepresentation> mCulledRepresentations = new HashSet<>();
+    protected boolean mCullingUpdateScheduled = false;
+
+    // Zoom only updates the scale compensation and the level of detail of the attached objects, at most once per pulse;
+    // culled representations are updated when they are attached again
+    protected final PulseThrottledAction mScaleCompensationUpdate = new PulseThrottledAction(() -> updateAttachedObjectsScale());
+
+    // In the large plan mode, only interactive representations are rendered as nodes, all others are painted on the canvas layer
+    protected final PlanCanvasLayer mCanvasLayer = new PlanCanvasLayer(this);
+    protected boolean mLargePlanMode = false;
+
+    protected final InvalidationListener REPRESENTATION_BOUNDS_LISTENER = observable -> {
+        mRepresentationsIndexDirty.add((Abstract2DRepresentation) ((ReadOnlyProperty<?>) observable).getBean());
+        scheduleCullingUpdate();
+    };
+
+    protected final InvalidationListener VIEWPORT_SIZE_LISTENER = observable -> {
+        scheduleCullingUpdate();
+    };
+
+    // Listens to properties which affect the look of a representation or whether it is rendered as node in the large plan mode
+    protected final InvalidationListener REPRESENTATION_STATE_LISTENER = observable -> {
+        if (!mLargePlanMode) {
+            return;
+        }
+        Abstract2DRepresentation repr = (Abstract2DRepresentation) ((ReadOnlyProperty<?>) observable).getBean();
+        invalidateCanvas(repr);
+        scheduleCullingUpdate();
+    };
+
+    // Representations which are painted on the canvas layer don't get mouse events, so we pick them ourselves and redirect clicks to them
+    protected final EventHandler<MouseEvent> LARGE_PLAN_MODE_CLICK_FILTER = event -> {
+        if (!mLargePlanMode || event.getButton() != MouseButton.PRIMARY) {
+            return;
+        }
+        for (Object target = event.getTarget(); target instanceof Node node; target = node.getParent()) {
+            if (node instanceof Abstract2DRepresentation) {
+                // Click on a representation which is rendered as node
+                return;
+            }
+        }
+        Abstract2DRepresentation repr = pickCanvasRenderedRepresentation(event.getSceneX(), event.getSceneY());
+        if (repr == null) {
+            return;
+        }
+        event.consume();
+        Event.fireEvent(repr, event.copyFor(repr, repr));
+    };
+
     public ConstructionView(UiController uiController) {
         super(uiController);
 
@@ -115,6 +190,19 @@ public class ConstructionView extends Abstract2DView {
         mSelectionModeButton = null;
         mGroundPlanModeButton = null;
         mSupportObjectsModeButton = null;
+        mLargePlanModeButton = null;
+
+        for (Abstract2DRepresentation repr : mRepresentationsById.values()) {
+            repr.boundsInParentProperty().removeListener(REPRESENTATION_BOUNDS_LISTENER);
+            removeRepresentationStateListener(repr);
+        }
+        mRepresentationsIndex.clear();
+        mRepresentationsIndexDirty.clear();
+        mCulledRepresentations.clear();
+        mCenterPane.layoutBoundsProperty().removeListener(VIEWPORT_SIZE_LISTENER);
+        mScaleCompensationUpdate.cancel();
+        mCanvasLayer.clear();
+        mCenterPane.removeEventFilter(MouseEvent.MOUSE_CLICKED, LARGE_PLAN_MODE_CLICK_FILTER);
 
         super.uninitialize();
     }
@@ -147,8 +235,20 @@ public class ConstructionView extends Abstract2DView {
             setConstructionMode(mSupportObjectsMode);
         });
 
+        mLargePlanModeButton = new ToggleButton(Strings.CONSTRUCTION_LARGE_PLAN_MODE_ACTION_TITLE);
+        mLargePlanModeButton.setTooltip(new Tooltip(Strings.CONSTRUCTION_LARGE_PLAN_MODE_ACTION_TOOLTIP));
+        mLargePlanModeButton.setOnAction(action -> {
+            setLargePlanMode(mLargePlanModeButton.isSelected());
+        });
+
+        mLargePlanMode = false; // Will be restored from the view state
+        mCanvasLayer.setVisible(false);
+
         super.initialize();
-        setToolBarContributionItems(mSelectionModeButton, mGroundPlanModeButton, mSupportObjectsModeButton);
+        mCenterPane.getChildren().add(0, mCanvasLayer);
+        mCenterPane.layoutBoundsProperty().addListener(VIEWPORT_SIZE_LISTENER);
+        mCenterPane.addEventFilter(MouseEvent.MOUSE_CLICKED, LARGE_PLAN_MODE_CLICK_FILTER);
+        setToolBarContributionItems(mSelectionModeButton, mGroundPlanModeButton, mSupportObjectsModeButton, mLargePlanModeButton);
 
         updateViewToViewState();
         updateToTransform(true);
@@ -164,23 +264,30 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
     }
 
     @Override
-    protected void initializeFromPlan() {
+    protected void initializeFromPlan(List<Runnable> steps) {
         Plan plan = getPlan();
 
-        addUIRepresentations(plan.getDimensionings().values());
-        addUIRepresentations(plan.getAnchors().values());
-        addUIRepresentations(plan.getFloors().values());
-        addUIRepresentations(plan.getWalls().values());
-        addUIRepresentations(plan.getWalls().values().stream().flatMap(w -> w.getWallHoles().stream()).collect(Collectors.toList()));
-        addUIRepresentations(plan.getCeilings().values());
-        addUIRepresentations(plan.getCoverings().values());
-        addUIRepresentations(plan.getSupportObjects().values());
-        for (Abstract2DRepresentation repr : mRepresentationsById.values()) {
-            repr.updateToModel();
+        // Order of the object groups determines the z-order of the representations
+        List<Collection<? extends BaseObject>> objectGroups = List.of(
+            plan.getDimensionings().values(),
+            plan.getAnchors().values(),
+            plan.getFloors().values(),
+            plan.getWalls().values(),
+            plan.getWalls().values().stream().flatMap(w -> w.getWallHoles().stream()).collect(Collectors.toList()),
+            plan.getCeilings().values(),
+            plan.getCoverings().values(),
+            plan.getSupportObjects().values());
+        for (Collection<? extends BaseObject> objects : objectGroups) {
+            addCreateRepresentationsSteps(objects, steps);
         }
-        for (GuideLine guideLine : plan.getGuideLines().values()) {
-            addGuideLine(guideLine);
+        for (Collection<? extends BaseObject> objects : objectGroups) {
+            addUpdateRepresentationsSteps(objects, steps);
         }
+        steps.add(() -> {
+            for (GuideLine guideLine : plan.getGuideLines().values()) {
+                addGuideLine(guideLine);
+            }
+        });
     }
 
     public AbstractUiMode<Abstract2DRepresentation, Abstract2DAncillaryObject> getConstructionMode() {
@@ -207,6 +314,52 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         } else if (value instanceof SupportObjectsMode) {
             mSupportObjectsModeButton.setSelected(true);
         }
+        if (mLargePlanMode) {
+            mCanvasLayer.invalidateAll();
+            scheduleCullingUpdate();
+        }
+    }
+
+    public boolean isLargePlanMode() {
+        return mLargePlanMode;
+    }
+
+    /**
+     * Switches the large plan mode on or off. In the large plan mode, only representations which are currently interactive
+     * (see {@link #isRenderedAsNode(Abstract2DRepresentation)}) are rendered as scene graph nodes; all others are painted on
+     * a tiled canvas layer, which stays responsive for plans with far more objects than the scene graph can handle.
+     */
+    public void setLargePlanMode(boolean value) {
+        if (mLargePlanMode == value) {
+            return;
+        }
+        mLargePlanMode = value;
+        if (mLargePlanModeButton != null) {
+            mLargePlanModeButton.setSelected(value);
+        }
+        if (!isAlive()) {
+            return;
+        }
+        if (value) {
+            mCanvasLayer.setVisible(true);
+            mCanvasLayer.updateToTransform();
+            mCanvasLayer.invalidateAll();
+        } else {
+            mCanvasLayer.clear();
+            mCanvasLayer.setVisible(false);
+        }
+        updateCulling();
+    }
+
+    /**
+     * Returns the information whether the given representation is rendered as scene graph node.
+     * In the large plan mode, this is only the case for selected, focused, spotted and emphasized representations and for anchors,
+     * which serve as handles; all other representations are painted on the canvas layer.
+     */
+    public boolean isRenderedAsNode(Abstract2DRepresentation repr) {
+        return !mLargePlanMode
+                || repr.isSelected() || repr.isObjectFocused() || repr.isObjectSpotted() || repr.isObjectEmphasized()
+                || repr instanceof AnchorConstructionRepresentation;
     }
 
     public Affine getRootTransform() {
@@ -237,6 +390,7 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         mSavedViewState.setScale(mScale);
         mSavedViewState.setTranslateX(mCombinedTranslation.getX());
         mSavedViewState.setTranslateY(mCombinedTranslation.getY());
+        mSavedViewState.setLargePlanMode(mLargePlanMode);
     }
 
     protected void updateViewToViewState() {
@@ -253,6 +407,7 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         mRootTransform.appendTranslation(tx, ty);
         mRootTransform.appendScale(mScale, mScale);
         updateToTransform(true);
+        setLargePlanMode(mSavedViewState.isLargePlanMode());
     }
 
     protected void addRulers() {
@@ -271,6 +426,33 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         return mScale;
     }
 
+    /**
+     * Gets the number of device pixels per plan coordinate unit at the current zoom scale, including the output scale of
+     * the window on HiDPI screens.
+     */
+    public double getDevicePixelScale() {
+        Scene scene = getScene();
+        Window window = scene == null ? null : scene.getWindow();
+        return window == null ? mScale : mScale * window.getOutputScaleX();
+    }
+
+    /**
+     * Gets the level of detail, the representations should be drawn with at the current zoom scale.
+     * The thresholds are configured in the {@link ConstructionViewState}.
+     */
+    public LevelOfDetail getLevelOfDetail() {
+        if (mSavedViewState == null) {
+            return LevelOfDetail.Full;
+        }
+        if (mScale < mSavedViewState.getLevelOfDetailSketchScale()) {
+            return LevelOfDetail.Sketch;
+        }
+        if (mScale < mSavedViewState.getLevelOfDetailReducedScale()) {
+            return LevelOfDetail.Reduced;
+        }
+        return LevelOfDetail.Full;
+    }
+
     /**
      * Gets a double value, a scene node can be scaled with to neutralize the scaling of the transform root node.
      */
@@ -298,6 +480,214 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         return result;
     }
 
+    @Override
+    protected void registerRepresentation(String modelId, Abstract2DRepresentation uiRepr) {
+        super.registerRepresentation(modelId, uiRepr);
+        uiRepr.boundsInParentProperty().addListener(REPRESENTATION_BOUNDS_LISTENER);
+        addRepresentationStateListener(uiRepr);
+        uiRepr.setLevelOfDetail(getLevelOfDetail());
+        mRepresentationsIndexDirty.add(uiRepr);
+        scheduleCullingUpdate();
+    }
+
+    @Override
+    protected void unregisterRepresentation(String modelId) {
+        Abstract2DRepresentation repr = getRepresentationByModelId(modelId);
+        if (repr != null) {
+            repr.boundsInParentProperty().removeListener(REPRESENTATION_BOUNDS_LISTENER);
+            removeRepresentationStateListener(repr);
+            invalidateCanvas(repr);
+            mRepresentationsIndex.remove(repr);
+            mRepresentationsIndexDirty.remove(repr);
+            mCulledRepresentations.remove(repr);
+        }
+        super.unregisterRepresentation(modelId);
+    }
+
+    protected void addRepresentationStateListener(Abstract2DRepresentation repr) {
+        repr.selectedProperty().addListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectFocusedProperty().addListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectSpottedProperty().addListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectEmphasizedProperty().addListener(REPRESENTATION_STATE_LISTENER);
+        repr.visibleProperty().addListener(REPRESENTATION_STATE_LISTENER);
+        repr.opacityProperty().addListener(REPRESENTATION_STATE_LISTENER);
+    }
+
+    protected void removeRepresentationStateListener(Abstract2DRepresentation repr) {
+        repr.selectedProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectFocusedProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectSpottedProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+        repr.objectEmphasizedProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+        repr.visibleProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+        repr.opacityProperty().removeListener(REPRESENTATION_STATE_LISTENER);
+    }
+
+    /**
+     * Schedules a repaint of the canvas layer in the indexed and in the current area of the given representation.
+     */
+    protected void invalidateCanvas(Abstract2DRepresentation repr) {
+        if (!mLargePlanMode) {
+            return;
+        }
+        double[] indexedBounds = mRepresentationsIndex.getBounds(repr);
+        if (indexedBounds != null) {
+            mCanvasLayer.invalidate(indexedBounds[0], indexedBounds[1], indexedBounds[2], indexedBounds[3]);
+        }
+        Bounds bounds = repr.getBoundsInParent();
+        mCanvasLayer.invalidate(bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+    }
+
+    /**
+     * Returns all visible representations which are painted on the canvas layer in the given area in plan coordinates,
+     * ordered from back to front.
+     */
+    public List<Abstract2DRepresentation> getCanvasRenderedRepresentations(double minX, double minY, double maxX, double maxY) {
+        List<Abstract2DRepresentation> result = new ArrayList<>();
+        LevelOfDetail levelOfDetail = getLevelOfDetail();
+        for (Abstract2DRepresentation repr : getRepresentationCandidates(minX, minY, maxX, maxY)) {
+            if (repr.isVisible() && !isRenderedAsNode(repr)) {
+                // Canvas rendered representations are never attached, so they are updated when they are painted
+                updateToViewScale(repr, levelOfDetail);
+                result.add(repr);
+            }
+        }
+        // Higher view order is painted first; ties are ordered by id to get the same order in all tiles
+        result.sort(Comparator.comparingDouble((Abstract2DRepresentation repr) -> -repr.getViewOrder())
+            .thenComparing(repr -> repr.getModelId()));
+        return result;
+    }
+
+    /**
+     * Returns the top most representation painted on the canvas layer at the given scene position or {@code null}.
+     */
+    public Abstract2DRepresentation pickCanvasRenderedRepresentation(double sceneX, double sceneY) {
+        Point2D planPoint = getPointOnPlanFromScene(sceneX, sceneY);
+        double tolerance = SNAP_DELTA / 2 * mScaleCompensation;
+        double minX = planPoint.getX() - tolerance;
+        double minY = planPoint.getY() - tolerance;
+        double maxX = planPoint.getX() + tolerance;
+        double maxY = planPoint.getY() + tolerance;
+        List<Abstract2DRepresentation> reprs = getCanvasRenderedRepresentations(minX, minY, maxX, maxY);
+        for (int i = reprs.size() - 1; i >= 0; i--) {
+            Abstract2DRepresentation repr = reprs.get(i);
+            if (!repr.isMouseTransparent() && repr.intersectsPlanRectangle(minX, minY, maxX, maxY)) {
+                return repr;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns all representations whose bounds might intersect the given rectangle in plan coordinates.
+     * The result is a superset of the intersecting representations; callers must do the exact check,
+     * e.g. by calling {@link Abstract2DRepresentation#intersectsPlanRectangle(double, double, double, double)}.
+     */
+    public Collection<Abstract2DRepresentation> getRepresentationCandidates(double minX, double minY, double maxX, double maxY) {
+        updateRepresentationsIndex();
+        Collection<Abstract2DRepresentation> result = new ArrayList<>();
+        mRepresentationsIndex.query(minX, minY, maxX, maxY, result);
+        return result;
+    }
+
+    protected void updateRepresentationsIndex() {
+        for (Abstract2DRepresentation repr : mRepresentationsIndexDirty) {
+            invalidateCanvas(repr);
+            // Reading the bounds re-validates them, so the listener will be notified about the next change
+            Bounds bounds = repr.getBoundsInParent();
+            mRepresentationsIndex.put(repr, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+        }
+        mRepresentationsIndexDirty.clear();
+    }
+
+    /**
+     * Returns the currently visible area of the plan in plan coordinates or {@code null} if this view is not layouted yet.
+     */
+    public Bounds getVisiblePlanArea() {
+        Bounds viewportBounds = mCenterPane.getLayoutBounds();
+        if (viewportBounds.getWidth() <= 0 || viewportBounds.getHeight() <= 0) {
+            return null;
+        }
+        return mTransformedRoot.sceneToLocal(mCenterPane.localToScene(viewportBounds));
+    }
+
+    protected void scheduleCullingUpdate() {
+        if (mCullingUpdateScheduled) {
+            return;
+        }
+        mCullingUpdateScheduled = true;
+        Platform.runLater(() -> {
+            mCullingUpdateScheduled = false;
+            updateCulling();
+        });
+    }
+
+    /**
+     * Attaches all representations inside the visible plan area plus {@link #CULLING_MARGIN} which are
+     * {@link #isRenderedAsNode(Abstract2DRepresentation) rendered as node} to the scene graph and detaches all others.
+     * Ancillary objects are always kept attached.
+     */
+    protected void updateCulling() {
+        if (!isAlive()) {
+            return;
+        }
+        updateRepresentationsIndex();
+        ObservableList<Node> children = mTransformedRoot.getChildren();
+        Bounds visibleArea = getVisiblePlanArea();
+        if (visibleArea == null) {
+            // Not layouted yet, we cannot know what is visible
+            List<Node> attach = new ArrayList<>();
+            for (Iterator<Abstract2DRepresentation> i = mCulledRepresentations.iterator(); i.hasNext();) {
+                Abstract2DRepresentation repr = i.next();
+                if (isRenderedAsNode(repr)) {
+                    i.remove();
+                    attachRepresentation(repr, attach);
+                }
+            }
+            children.addAll(attach);
+            return;
+        }
+        double margin = CULLING_MARGIN * mScaleCompensation;
+        Set<Abstract2DRepresentation> inView = new HashSet<>();
+        mRepresentationsIndex.query(visibleArea.getMinX() - margin, visibleArea.getMinY() - margin,
+            visibleArea.getMaxX() + margin, visibleArea.getMaxY() + margin, inView);
+
+        // Only the attached and the newly visible representations are touched, so the costs scale with the visible part of the plan
+        Set<Node> detach = new HashSet<>();
+        for (Node child : children) {
+            if (child instanceof Abstract2DRepresentation repr && (!inView.contains(repr) || !isRenderedAsNode(repr))) {
+                detach.add(repr);
+                mCulledRepresentations.add(repr);
+            }
+        }
+        List<Node> attach = new ArrayList<>();
+        for (Abstract2DRepresentation repr : inView) {
+            if (isRenderedAsNode(repr) && mCulledRepresentations.remove(repr)) {
+                attachRepresentation(repr, attach);
+            }
+        }
+        if (!detach.isEmpty()) {
+            children.removeAll(detach);
+        }
+        if (!attach.isEmpty()) {
+            children.addAll(attach);
+        }
+    }
+
+    protected void attachRepresentation(Abstract2DRepresentation repr, List<Node> attach) {
+        updateToViewScale(repr, getLevelOfDetail());
+        attach.add(repr);
+    }
+
+    /**
+     * Updates the scale compensation and the level of detail of the given representation if they are outdated.
+     */
+    protected void updateToViewScale(Abstract2DRepresentation repr, LevelOfDetail levelOfDetail) {
+        if (repr.getAppliedScaleCompensation() != mScaleCompensation) {
+            repr.updateScale(mScaleCompensation);
+        }
+        repr.setLevelOfDetail(levelOfDetail);
+    }
+
     @Override
     protected void onModelObjectsAdded(Collection<BaseObject> addedObjects) {
         super.onModelObjectsAdded(addedObjects);
@@ -343,6 +733,15 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
         }
     }
 
+    @Override
+    protected void uiRepresentationsChanged(Collection<Abstract2DRepresentation> changedReprs) {
+        super.uiRepresentationsChanged(changedReprs);
+        // Changes which don't affect the bounds, e.g. colors, must be repainted too
+        for (Abstract2DRepresentation repr : changedReprs) {
+            invalidateCanvas(repr);
+        }
+    }
+
     @Override
     protected void handleObjectsSelectionChanged(Collection<String> removedSelectionIds, Collection<String> addedSelectionIds) {
         super.handleObjectsSelectionChanged(removedSelectionIds, addedSelectionIds);
@@ -497,24 +896,42 @@ mCenterPane.setStyle("-fx-background-color: cornsilk;");
 
     /**
      * Updates all UI elements to changed values in {@link #mCombinedTranslation}, {@link #mScale}, {@link #mScaleCompensation} and {@link #mRootTransform}.
-     * @param updateScaleCompensation Set this to {@code true} if {@link #mScaleCompensation} was changed. This will update the scale compensation
-     * in all UI representations.
+     * @param updateScaleCompensation Set this to {@code true} if {@link #mScaleCompensation} was changed. This will schedule an update
+     * of the scale compensation and of the level of detail in all attached UI representations and ancillary objects for the next pulse.
      */
     protected void updateToTransform(boolean updateScaleCompensation) {
         if (updateScaleCompensation) {
-            for (Abstract2DRepresentation repr : mRepresentationsById.values()) {
-                repr.updateScale(mScaleCompensation);
-            }
-            for (Abstract2DUiObject obj : mAncillaryObjectsById.values()) {
-                obj.updateScale(mScaleCompensation);
-            }
+            mScaleCompensationUpdate.schedule();
         }
         mTransformedRoot.getTransforms().setAll(mRootTransform);
+        updateCulling();
+        if (mLargePlanMode) {
+            mCanvasLayer.updateToTransform();
+        }
         mHorizontalRuler.setTransform(mScale, mCombinedTranslation);
         mVerticalRuler.setTransform(mScale, mCombinedTranslation);
         updateAllGuideLines();
     }
 
+    /**
+     * Updates the scale compensation of all UI objects and the level of detail of all representations which are
+     * currently attached to the scene graph.
+     */
+    protected void updateAttachedObjectsScale() {
+        if (!isAlive()) {
+            return;
+        }
+        LevelOfDetail levelOfDetail = getLevelOfDetail();
+        // Iterate a copy, the update of an object might add or remove ancillary objects
+        for (Node child : new ArrayList<>(mTransformedRoot.getChildren())) {
+            if (child instanceof Abstract2DRepresentation repr) {
+                updateToViewScale(repr, levelOfDetail);
+            } else if (child instanceof Abstract2DUiObject obj && obj.getAppliedScaleCompensation() != mScaleCompensation) {
+                obj.updateScale(mScaleCompensation);
+            }
+        }
+    }
+
     public void enableRulerCursorMarker() {
         if (mCursorMarkerMoveEventHandler == null) {
             mCursorMarkerMoveEventHandler = new EventHandler<>() {
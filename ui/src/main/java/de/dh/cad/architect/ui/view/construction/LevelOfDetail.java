@@ -0,0 +1,47 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction;
+
+/**
+ * Level of detail of the plan representations in the {@link ConstructionView}, depending on the zoom scale.
+ * Details which are not readable anymore at a small scale are hidden to keep large plans clear and fast.
+ */
+public enum LevelOfDetail {
+    /**
+     * All details are shown.
+     */
+    Full,
+
+    /**
+     * Texts, symbols, handles and images are hidden, support objects are drawn as their bounding rectangle.
+     */
+    Reduced,
+
+    /**
+     * Only the coarse outlines of the plan are drawn, e.g. walls without their border lines; small objects like
+     * dimensionings and wall holes are hidden.
+     */
+    Sketch;
+
+    /**
+     * Returns {@code true} if this level shows at least the details of the given level.
+     */
+    public boolean isAtLeast(LevelOfDetail other) {
+        return ordinal() <= other.ordinal();
+    }
+}
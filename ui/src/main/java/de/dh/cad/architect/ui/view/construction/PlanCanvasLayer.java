@@ -0,0 +1,206 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import de.dh.cad.architect.ui.objects.Abstract2DRepresentation;
+import de.dh.utils.fx.FxUtils;
+import de.dh.utils.fx.PulseThrottledAction;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.transform.Affine;
+
+/**
+ * Layer of the {@link ConstructionView} which paints the representations which are not rendered as scene graph nodes
+ * in the large plan mode onto canvas tiles.
+ * The tiles form a grid in scaled plan coordinates, so panning only moves the tiles and paints the newly exposed ones,
+ * while zooming repaints all visible tiles. Changes of representations only repaint the tiles which cover the changed area.
+ * All updates are done at most once per pulse.
+ */
+public class PlanCanvasLayer extends Pane {
+    protected static final int TILE_SIZE = 512;
+
+    // Tile coordinates are clamped to this range, so the number of tiles of an area fits into a long
+    protected static final int MIN_TILE = -(1 << 30);
+    protected static final int MAX_TILE = 1 << 30;
+
+    protected final ConstructionView mView;
+    protected final Map<Long, Canvas> mTiles = new HashMap<>();
+    protected final Set<Long> mDirtyTiles = new HashSet<>();
+    protected final List<Canvas> mUnusedTiles = new ArrayList<>();
+    protected final PulseThrottledAction mUpdate = new PulseThrottledAction(() -> update());
+    protected double mTilesScale = Double.NaN; // Scale which was used to paint the current tiles
+
+    public PlanCanvasLayer(ConstructionView view) {
+        mView = view;
+        setMouseTransparent(true);
+        FxUtils.addClippingToBounds(this);
+        layoutBoundsProperty().addListener(observable -> mUpdate.schedule());
+    }
+
+    /**
+     * Schedules an update of the tile positions and painting of newly exposed tiles, e.g. after the plan was moved or zoomed.
+     */
+    public void updateToTransform() {
+        mUpdate.schedule();
+    }
+
+    /**
+     * Schedules a repaint of all tiles which overlap the given area in plan coordinates.
+     * Infinite coordinates are clamped to the outermost tiles; an area with NaN coordinates is ignored.
+     */
+    public void invalidate(double minX, double minY, double maxX, double maxY) {
+        if (mTiles.isEmpty() || !(maxX >= minX && maxY >= minY)) {
+            return;
+        }
+        int minI = toTile(minX * mTilesScale);
+        int minJ = toTile(minY * mTilesScale);
+        int maxI = toTile(maxX * mTilesScale);
+        int maxJ = toTile(maxY * mTilesScale);
+        if (((long) maxI - minI + 1) * ((long) maxJ - minJ + 1) > mTiles.size()) {
+            for (Entry<Long, Canvas> entry : mTiles.entrySet()) {
+                long key = entry.getKey();
+                int i = (int) (key >> 32);
+                int j = (int) key;
+                if (i >= minI && i <= maxI && j >= minJ && j <= maxJ) {
+                    mDirtyTiles.add(key);
+                }
+            }
+        } else {
+            for (int i = minI; i <= maxI; i++) {
+                for (int j = minJ; j <= maxJ; j++) {
+                    long key = tileKey(i, j);
+                    if (mTiles.containsKey(key)) {
+                        mDirtyTiles.add(key);
+                    }
+                }
+            }
+        }
+        if (!mDirtyTiles.isEmpty()) {
+            mUpdate.schedule();
+        }
+    }
+
+    public void invalidateAll() {
+        mDirtyTiles.addAll(mTiles.keySet());
+        mUpdate.schedule();
+    }
+
+    /**
+     * Removes all tiles and stops painting.
+     */
+    public void clear() {
+        mUpdate.cancel();
+        getChildren().clear();
+        mTiles.clear();
+        mDirtyTiles.clear();
+        mUnusedTiles.clear();
+        mTilesScale = Double.NaN;
+    }
+
+    protected void update() {
+        if (!isVisible() || !mView.isAlive()) {
+            return;
+        }
+        // Updating the index might invalidate further tiles, so this must be done before we iterate
+        mView.updateRepresentationsIndex();
+
+        Affine rootTransform = mView.getRootTransform();
+        double scale = rootTransform.getMxx();
+        double tx = rootTransform.getTx();
+        double ty = rootTransform.getTy();
+        if (scale != mTilesScale) {
+            for (Canvas tile : mTiles.values()) {
+                mUnusedTiles.add(tile);
+            }
+            getChildren().clear();
+            mTiles.clear();
+            mDirtyTiles.clear();
+            mTilesScale = scale;
+        }
+
+        // Tile (i, j) covers the scaled plan coordinates [i * TILE_SIZE, (i + 1) * TILE_SIZE) in x direction, same for y
+        int minI = toTile(-tx);
+        int minJ = toTile(-ty);
+        int maxI = toTile(getWidth() - tx);
+        int maxJ = toTile(getHeight() - ty);
+        for (Iterator<Entry<Long, Canvas>> it = mTiles.entrySet().iterator(); it.hasNext();) {
+            Entry<Long, Canvas> entry = it.next();
+            long key = entry.getKey();
+            int i = (int) (key >> 32);
+            int j = (int) key;
+            if (i < minI || i > maxI || j < minJ || j > maxJ) {
+                Canvas tile = entry.getValue();
+                getChildren().remove(tile);
+                mUnusedTiles.add(tile);
+                mDirtyTiles.remove(key);
+                it.remove();
+            }
+        }
+        for (int i = minI; i <= maxI; i++) {
+            for (int j = minJ; j <= maxJ; j++) {
+                long key = tileKey(i, j);
+                Canvas tile = mTiles.get(key);
+                if (tile == null) {
+                    tile = mUnusedTiles.isEmpty() ? new Canvas(TILE_SIZE, TILE_SIZE) : mUnusedTiles.remove(mUnusedTiles.size() - 1);
+                    mTiles.put(key, tile);
+                    getChildren().add(tile);
+                    paintTile(tile, i, j, scale);
+                } else if (mDirtyTiles.contains(key)) {
+                    paintTile(tile, i, j, scale);
+                }
+                tile.relocate(tx + (double) i * TILE_SIZE, ty + (double) j * TILE_SIZE);
+            }
+        }
+        mDirtyTiles.clear();
+    }
+
+    protected void paintTile(Canvas tile, int i, int j, double scale) {
+        GraphicsContext gc = tile.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, TILE_SIZE, TILE_SIZE);
+        double tileX = (double) i * TILE_SIZE;
+        double tileY = (double) j * TILE_SIZE;
+        double minX = tileX / scale;
+        double minY = tileY / scale;
+        double maxX = (tileX + TILE_SIZE) / scale;
+        double maxY = (tileY + TILE_SIZE) / scale;
+        gc.setTransform(scale, 0, 0, scale, -tileX, -tileY);
+        for (Abstract2DRepresentation repr : mView.getCanvasRenderedRepresentations(minX, minY, maxX, maxY)) {
+            CanvasNodePainter.paint(gc, repr);
+        }
+    }
+
+    protected static int toTile(double scaledCoord) {
+        double tile = Math.floor(scaledCoord / TILE_SIZE);
+        return (int) Math.max(MIN_TILE, Math.min(MAX_TILE, tile));
+    }
+
+    protected static long tileKey(int i, int j) {
+        return ((long) i << 32) | (j & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid which indexes objects by their axis aligned bounds to quickly find the candidates for area queries.
+ * Objects spanning more than {@link #MAX_CELLS_PER_ENTRY} cells are not distributed over the grid but kept in a separate
+ * list which is checked by each query.
+ * Infinite coordinates are clamped to the outermost grid cells; NaN coordinates are treated as unbounded, so an object with
+ * NaN bounds is a candidate for every query and a query with NaN bounds returns all objects.
+ */
+public class SpatialGridIndex<T> {
+    protected static final int MAX_CELLS_PER_ENTRY = 256;
+
+    // Cell coordinates are clamped to this range, so the number of cells of an area fits into a long
+    protected static final int MIN_CELL = -(1 << 30);
+    protected static final int MAX_CELL = 1 << 30;
+
+    protected static class Entry<T> {
+        protected final T mObject;
+        protected double mMinX;
+        protected double mMinY;
+        protected double mMaxX;
+        protected double mMaxY;
+        protected int mMinCellX;
+        protected int mMinCellY;
+        protected int mMaxCellX;
+        protected int mMaxCellY;
+        protected boolean mOversized;
+        protected int mQueryStamp = 0;
+
+        public Entry(T object) {
+            mObject = object;
+        }
+    }
+
+    protected final double mCellSize;
+    protected final Map<Long, List<Entry<T>>> mCells = new HashMap<>();
+    protected final Map<T, Entry<T>> mEntries = new HashMap<>();
+    protected final List<Entry<T>> mOversizedEntries = new ArrayList<>();
+    protected int mQueryStamp = 0;
+
+    /**
+     * Creates a new grid index.
+     * @param cellSize Width and height of a grid cell in the coordinate system of the indexed bounds.
+     */
+    public SpatialGridIndex(double cellSize) {
+        mCellSize = cellSize;
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    public boolean contains(T object) {
+        return mEntries.containsKey(object);
+    }
+
+    /**
+     * Adds the given object with the given bounds to this index or updates its bounds if it is already indexed.
+     */
+    public void put(T object, double minX, double minY, double maxX, double maxY) {
+        Entry<T> entry = mEntries.get(object);
+        if (entry == null) {
+            entry = new Entry<>(object);
+            mEntries.put(object, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.mMinX = minX;
+        entry.mMinY = minY;
+        entry.mMaxX = maxX;
+        entry.mMaxY = maxY;
+        entry.mMinCellX = toMinCell(minX);
+        entry.mMinCellY = toMinCell(minY);
+        entry.mMaxCellX = toMaxCell(maxX);
+        entry.mMaxCellY = toMaxCell(maxY);
+        link(entry);
+    }
+
+    /**
+     * Returns the indexed bounds of the given object as array {@code [minX, minY, maxX, maxY]} or {@code null} if the object is not indexed.
+     */
+    public double[] getBounds(T object) {
+        Entry<T> entry = mEntries.get(object);
+        return entry == null ? null : new double[] {entry.mMinX, entry.mMinY, entry.mMaxX, entry.mMaxY};
+    }
+
+    public void remove(T object) {
+        Entry<T> entry = mEntries.remove(object);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    public void clear() {
+        mCells.clear();
+        mEntries.clear();
+        mOversizedEntries.clear();
+    }
+
+    /**
+     * Adds all indexed objects whose cells overlap the given area to the given result collection. Each object is added at most once.
+     * The result is a superset of the objects whose bounds intersect the given area; callers are expected to do an exact check.
+     */
+    public void query(double minX, double minY, double maxX, double maxY, Collection<T> result) {
+        int stamp = ++mQueryStamp;
+        int minCellX = toMinCell(minX);
+        int minCellY = toMinCell(minY);
+        int maxCellX = toMaxCell(maxX);
+        int maxCellY = toMaxCell(maxY);
+        for (Entry<T> entry : mOversizedEntries) {
+            addIfOverlapping(entry, minCellX, minCellY, maxCellX, maxCellY, stamp, result);
+        }
+        if (((long) maxCellX - minCellX + 1) * ((long) maxCellY - minCellY + 1) > mCells.size()) {
+            // Area spans more cells than are populated, so iterating the populated cells is cheaper
+            for (List<Entry<T>> cellEntries : mCells.values()) {
+                for (Entry<T> entry : cellEntries) {
+                    addIfOverlapping(entry, minCellX, minCellY, maxCellX, maxCellY, stamp, result);
+                }
+            }
+            return;
+        }
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cy = minCellY; cy <= maxCellY; cy++) {
+                List<Entry<T>> cellEntries = mCells.get(cellKey(cx, cy));
+                if (cellEntries == null) {
+                    continue;
+                }
+                for (Entry<T> entry : cellEntries) {
+                    if (entry.mQueryStamp != stamp) {
+                        entry.mQueryStamp = stamp;
+                        result.add(entry.mObject);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void addIfOverlapping(Entry<T> entry, int minCellX, int minCellY, int maxCellX, int maxCellY, int stamp, Collection<T> result) {
+        if (entry.mQueryStamp == stamp) {
+            return;
+        }
+        if (entry.mMaxCellX < minCellX || entry.mMinCellX > maxCellX || entry.mMaxCellY < minCellY || entry.mMinCellY > maxCellY) {
+            return;
+        }
+        entry.mQueryStamp = stamp;
+        result.add(entry.mObject);
+    }
+
+    protected void link(Entry<T> entry) {
+        long numCells = ((long) entry.mMaxCellX - entry.mMinCellX + 1) * ((long) entry.mMaxCellY - entry.mMinCellY + 1);
+        entry.mOversized = numCells > MAX_CELLS_PER_ENTRY;
+        if (entry.mOversized) {
+            mOversizedEntries.add(entry);
+            return;
+        }
+        for (int cx = entry.mMinCellX; cx <= entry.mMaxCellX; cx++) {
+            for (int cy = entry.mMinCellY; cy <= entry.mMaxCellY; cy++) {
+                mCells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    protected void unlink(Entry<T> entry) {
+        if (entry.mOversized) {
+            mOversizedEntries.remove(entry);
+            return;
+        }
+        for (int cx = entry.mMinCellX; cx <= entry.mMaxCellX; cx++) {
+            for (int cy = entry.mMinCellY; cy <= entry.mMaxCellY; cy++) {
+                Long key = cellKey(cx, cy);
+                List<Entry<T>> cellEntries = mCells.get(key);
+                if (cellEntries == null) {
+                    continue;
+                }
+                cellEntries.remove(entry);
+                if (cellEntries.isEmpty()) {
+                    mCells.remove(key);
+                }
+            }
+        }
+    }
+
+    protected int toCell(double coord) {
+        double cell = Math.floor(coord / mCellSize);
+        return (int) Math.max(MIN_CELL, Math.min(MAX_CELL, cell));
+    }
+
+    protected int toMinCell(double coord) {
+        return Double.isNaN(coord) ? MIN_CELL : toCell(coord);
+    }
+
+    protected int toMaxCell(double coord) {
+        return Double.isNaN(coord) ? MAX_CELL : toCell(coord);
+    }
+
+    protected static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
@@ -53,7 +53,6 @@ import javafx.geometry.Point2D;
 import javafx.scene.Cursor;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.ScrollEvent;
-import javafx.scene.shape.Shape;
 
 public abstract class AbstractConstructionBehavior extends AbstractViewBehavior<Abstract2DRepresentation, Abstract2DAncillaryObject> {
     protected EventHandler<ScrollEvent> mZoomEventHandler = null;
@@ -68,18 +67,18 @@ public abstract class AbstractConstructionBehavior extends AbstractViewBehavior<
     }
 
     /**
-     * Returns all visible objects whose shape intersects the given shape.
+     * Returns all visible objects whose shape intersects the given rectangle in plan coordinates.
      * The returned collection only contains objects which are not hidden and which are visible regarding the {@link #getUIElementFilter() UI element filter}.
      */
-    public Collection<Abstract2DRepresentation> getIntersectingObjects(Shape checkShape) {
+    public Collection<Abstract2DRepresentation> getIntersectingObjects(double minX, double minY, double maxX, double maxY) {
         ConstructionView view = getView();
 
         Collection<Abstract2DRepresentation> objs = new ArrayList<>(200);
-        for (Abstract2DRepresentation repr : view.getAllRepresentations()) {
+        for (Abstract2DRepresentation repr : view.getRepresentationCandidates(minX, minY, maxX, maxY)) {
             if (!mUIElementFilter.isUIElementVisible(repr) || mUIElementFilter.isUIElementMouseTransparent(repr)) {
                 continue;
             }
-            if (!repr.intersects(checkShape)) {
+            if (!repr.intersectsPlanRectangle(minX, minY, maxX, maxY)) {
                 continue;
             }
             objs.add(repr);
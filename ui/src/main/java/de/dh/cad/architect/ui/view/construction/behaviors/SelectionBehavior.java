@@ -128,7 +128,12 @@ public class SelectionBehavior extends AbstractConstructionBehavior {
      */
     public void selectInsideRange(Point2D sceneFrom, Point2D sceneTo) {
         updateSelectionRectangle(sceneFrom, sceneTo);
-        getUiController().setSelectedObjectIds(getIntersectingObjects(mSelectionRectangle)
+        ConstructionView view = getView();
+        Point2D planFrom = view.getPointOnPlanFromScene(sceneFrom.getX(), sceneFrom.getY());
+        Point2D planTo = view.getPointOnPlanFromScene(sceneTo.getX(), sceneTo.getY());
+        getUiController().setSelectedObjectIds(getIntersectingObjects(
+                Math.min(planFrom.getX(), planTo.getX()), Math.min(planFrom.getY(), planTo.getY()),
+                Math.max(planFrom.getX(), planTo.getX()), Math.max(planFrom.getY(), planTo.getY()))
             .stream()
             .map(repr -> repr.getModelId())
             .collect(Collectors.toList()));
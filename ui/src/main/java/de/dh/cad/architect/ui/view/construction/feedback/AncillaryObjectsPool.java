@@ -0,0 +1,73 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction.feedback;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+import de.dh.cad.architect.ui.objects.Abstract2DAncillaryObject;
+import de.dh.cad.architect.ui.view.construction.ConstructionView;
+
+/**
+ * Pool of ancillary feedback objects whose number changes while the user drags.
+ * Released objects are only hidden and stay in the view until they are reused by a later {@link #acquire()},
+ * so the scene graph doesn't need to be changed each time a feedback symbol appears or disappears.
+ */
+public class AncillaryObjectsPool<T extends Abstract2DAncillaryObject> {
+    protected final ConstructionView mView;
+    protected final Supplier<T> mFactory;
+    protected final Deque<T> mUnusedObjects = new ArrayDeque<>();
+
+    public AncillaryObjectsPool(ConstructionView view, Supplier<T> factory) {
+        mView = view;
+        mFactory = factory;
+    }
+
+    /**
+     * Returns a visible ancillary object which is added to the view, either a formerly released one or a new one.
+     */
+    public T acquire() {
+        T result = mUnusedObjects.poll();
+        if (result == null) {
+            result = mFactory.get();
+            mView.addAncillaryObject(result);
+        } else {
+            result.setVisible(true);
+        }
+        return result;
+    }
+
+    /**
+     * Hides the given ancillary object and keeps it for reuse.
+     */
+    public void release(T ancillaryObject) {
+        ancillaryObject.setVisible(false);
+        mUnusedObjects.push(ancillaryObject);
+    }
+
+    /**
+     * Removes all currently unused ancillary objects from the view.
+     */
+    public void clear() {
+        for (T ancillaryObject : mUnusedObjects) {
+            ancillaryObject.removeFromView();
+        }
+        mUnusedObjects.clear();
+    }
+}
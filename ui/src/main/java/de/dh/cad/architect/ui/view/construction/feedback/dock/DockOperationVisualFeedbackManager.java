@@ -22,9 +22,16 @@ import de.dh.cad.architect.ui.objects.PositionCircleMarkerAncillary;
 import de.dh.cad.architect.ui.objects.PositionCrossMarkerAncillary;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
 import de.dh.cad.architect.ui.view.construction.feedback.AncillaryPosition;
+import de.dh.utils.fx.PulseThrottledAction;
 
+/**
+ * Shows the source and target markers of a dock operation. Position updates are coalesced to a single update per JavaFX pulse.
+ */
 public class DockOperationVisualFeedbackManager {
     protected final ConstructionView mView;
+    protected final PulseThrottledAction mVisualObjectsUpdate = new PulseThrottledAction(() -> doUpdateVisualObjects());
+    protected AncillaryPosition mSourcePosition = null;
+    protected AncillaryPosition mTargetPosition = null;
     protected PositionCircleMarkerAncillary mSourceAnchorMarker = null;
     protected PositionCrossMarkerAncillary mTargetAnchorMarker = null;
     protected ConnectionArrowAncillary mArcArrow = null;
@@ -34,6 +41,14 @@ public class DockOperationVisualFeedbackManager {
     }
 
     public void updateVisualObjects(AncillaryPosition sourcePosition, AncillaryPosition targetPosition) {
+        mSourcePosition = sourcePosition;
+        mTargetPosition = targetPosition;
+        mVisualObjectsUpdate.schedule();
+    }
+
+    protected void doUpdateVisualObjects() {
+        AncillaryPosition sourcePosition = mSourcePosition;
+        AncillaryPosition targetPosition = mTargetPosition;
         if (sourcePosition == null) {
             if (mSourceAnchorMarker != null) {
                 mView.removeAncillaryObject(mSourceAnchorMarker.getAncillaryObjectId());
@@ -73,6 +88,9 @@ public class DockOperationVisualFeedbackManager {
     }
 
     public void removeVisualObjects() {
-        updateVisualObjects(null, null);
+        mVisualObjectsUpdate.cancel();
+        mSourcePosition = null;
+        mTargetPosition = null;
+        doUpdateVisualObjects();
     }
 }
@@ -23,17 +23,24 @@ import java.util.stream.Collectors;
 import de.dh.cad.architect.ui.objects.BasePolylineShapeAncillary;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
 import de.dh.cad.architect.ui.view.construction.feedback.AncillaryPosition;
+import de.dh.utils.fx.PulseThrottledAction;
 import javafx.scene.shape.StrokeType;
 
+/**
+ * Shows the polyline of a shape which is being added. Position updates are coalesced to a single update per JavaFX pulse.
+ */
 public class AddPolylineShapeVisualFeedbackManager {
     protected final ConstructionView mView;
+    protected final PulseThrottledAction mVisualObjectsUpdate = new PulseThrottledAction(() -> doUpdateVisualObjects());
     protected BasePolylineShapeAncillary mPolylineAncillaryObject = null;
+    protected List<AncillaryPosition> mPositions = null;
 
     public AddPolylineShapeVisualFeedbackManager(ConstructionView view) {
         mView = view;
     }
 
     public BasePolylineShapeAncillary getPolylineShape() {
+        mVisualObjectsUpdate.runPending();
         return mPolylineAncillaryObject;
     }
 
@@ -41,18 +48,25 @@ public class AddPolylineShapeVisualFeedbackManager {
         if (positions == null) {
             removeVisualObjects();
         } else {
-            if (mPolylineAncillaryObject == null) {
-                mPolylineAncillaryObject = new BasePolylineShapeAncillary(true, mView);
-                mView.addAncillaryObject(mPolylineAncillaryObject);
-            }
-            mPolylineAncillaryObject.updatePositions(positions
-                .stream()
-                .map(AncillaryPosition::getPosition)
-                .collect(Collectors.toList()), StrokeType.INSIDE);
+            mPositions = positions;
+            mVisualObjectsUpdate.schedule();
         }
     }
 
+    protected void doUpdateVisualObjects() {
+        if (mPolylineAncillaryObject == null) {
+            mPolylineAncillaryObject = new BasePolylineShapeAncillary(true, mView);
+            mView.addAncillaryObject(mPolylineAncillaryObject);
+        }
+        mPolylineAncillaryObject.updatePositions(mPositions
+            .stream()
+            .map(AncillaryPosition::getPosition)
+            .collect(Collectors.toList()), StrokeType.INSIDE);
+    }
+
     public void removeVisualObjects() {
+        mVisualObjectsUpdate.cancel();
+        mPositions = null;
         if (mPolylineAncillaryObject != null) {
             mView.removeAncillaryObject(mPolylineAncillaryObject.getAncillaryObjectId());
             mPolylineAncillaryObject = null;
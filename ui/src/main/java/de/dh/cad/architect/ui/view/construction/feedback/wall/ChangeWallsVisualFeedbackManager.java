@@ -38,20 +38,30 @@ import de.dh.cad.architect.model.wallmodel.AdaptedModelAnchor;
 import de.dh.cad.architect.model.wallmodel.AdaptedModelWall;
 import de.dh.cad.architect.model.wallmodel.IWall;
 import de.dh.cad.architect.model.wallmodel.IWallAnchor;
+import de.dh.cad.architect.ui.objects.WallAlignmentConstructionAncillary;
 import de.dh.cad.architect.ui.objects.WallAlignmentConstructionAncillary.WallAlignment;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.feedback.AncillaryObjectsPool;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsAlignmentModel.BendPointAngle;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsAlignmentModel.POWallState;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsAlignmentModel.WallStates;
 import de.dh.cad.architect.utils.SortedPair;
+import de.dh.utils.fx.PulseThrottledAction;
 
+/**
+ * Manages the visual feedback while walls are added or changed.
+ * Mouse events during a drag operation can arrive much more often than frames are rendered, so {@link #updateVisualObjects()}
+ * only schedules the update of the feedback objects, which is then done once per JavaFX pulse for the latest state of the walls.
+ */
 public class ChangeWallsVisualFeedbackManager {
     protected final ConstructionView mView;
     protected final WallsFeedback mWallsFeedback;
     protected final Map<IWall, WallDimensioningsFeedback> mWallDimensioningsFeedbacks;
     protected final Map<IWall, WallAlignmentsFeedback> mWallAlignmentsFeedback;
+    protected final AncillaryObjectsPool<WallAlignmentConstructionAncillary> mWallAlignmentsPool;
     protected final WallAnglesFeedback mWallAnglesFeedback;
     protected final RelatedPositionsFeedback mRelatedPositionsFeedback;
+    protected final PulseThrottledAction mVisualObjectsUpdate = new PulseThrottledAction(() -> doUpdateVisualObjects());
 
     protected Map<String, ? extends IWall> mVirtualWalls = null;
     protected Collection<? extends IWall> mWallsForDimensioningsFeedback = null;
@@ -67,6 +77,7 @@ public class ChangeWallsVisualFeedbackManager {
         mWallsFeedback = new WallsFeedback(view);
         mWallDimensioningsFeedbacks = new HashMap<>();
         mWallAlignmentsFeedback = new HashMap<>();
+        mWallAlignmentsPool = new AncillaryObjectsPool<>(view, () -> new WallAlignmentConstructionAncillary(view));
         mWallAnglesFeedback = new WallAnglesFeedback(view);
         mRelatedPositionsFeedback = new RelatedPositionsFeedback(view);
     }
@@ -99,7 +110,8 @@ public class ChangeWallsVisualFeedbackManager {
             dimensioningsFeedback.install();
             mWallDimensioningsFeedbacks.put(wall, dimensioningsFeedback);
         }
-        updateVisualObjects();
+        // Show initial feedback immediately
+        doUpdateVisualObjects();
     }
 
     public void initializeForAddWall(PrincipalWallAncillaryWallsModel ancillaryWallsModel) {
@@ -126,7 +138,15 @@ public class ChangeWallsVisualFeedbackManager {
         return mSnappingModel.snapAnchorPosition(targetPosition, mView.getScale());
     }
 
+    /**
+     * Schedules an update of all visual feedback objects for the next pulse. Calling this method multiple times before
+     * the next pulse only results in a single update.
+     */
     public void updateVisualObjects() {
+        mVisualObjectsUpdate.schedule();
+    }
+
+    protected void doUpdateVisualObjects() {
         // Ghost walls
         mWallsFeedback.update(mVirtualWalls);
 
@@ -174,7 +194,7 @@ public class ChangeWallsVisualFeedbackManager {
             IWall wall = entry.getKey();
             Set<WallAlignment> wallAlignments = entry.getValue();
             WallAlignmentsFeedback feedback = mWallAlignmentsFeedback.computeIfAbsent(wall, w -> {
-                WallAlignmentsFeedback result = new WallAlignmentsFeedback(mView, wall);
+                WallAlignmentsFeedback result = new WallAlignmentsFeedback(mView, wall, mWallAlignmentsPool);
                 result.install();
                 return result;
             });
@@ -187,13 +207,17 @@ public class ChangeWallsVisualFeedbackManager {
     }
 
     public void removeVisualObjects() {
+        mVisualObjectsUpdate.cancel();
         mWallsFeedback.uninstall();
         for (WallDimensioningsFeedback feedbacks : mWallDimensioningsFeedbacks.values()) {
             feedbacks.uninstall();
         }
+        mWallDimensioningsFeedbacks.clear();
         for (WallAlignmentsFeedback feedbacks : mWallAlignmentsFeedback.values()) {
             feedbacks.uninstall();
         }
+        mWallAlignmentsFeedback.clear();
+        mWallAlignmentsPool.clear();
         mWallAnglesFeedback.uninstall();
         mRelatedPositionsFeedback.uninstall();
     }
@@ -24,6 +24,7 @@ import java.util.TreeMap;
 
 import de.dh.cad.architect.ui.objects.ReferenceAngleConstructionAncillary;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.feedback.AncillaryObjectsPool;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.RelatedPositionsModel.RelatedPosition;
 
 /**
@@ -32,25 +33,23 @@ import de.dh.cad.architect.ui.view.construction.feedback.wall.RelatedPositionsMo
 public class RelatedPositionsFeedback {
     protected final ConstructionView mParentView;
     protected final Map<String, ReferenceAngleConstructionAncillary> mRelatedPositionFeedbacks = new TreeMap<>();
+    protected final AncillaryObjectsPool<ReferenceAngleConstructionAncillary> mFeedbacksPool;
 
     public RelatedPositionsFeedback(ConstructionView parentView) {
         mParentView = parentView;
+        mFeedbacksPool = new AncillaryObjectsPool<>(parentView, () -> new ReferenceAngleConstructionAncillary(parentView));
     }
 
     public void update(Map<String, RelatedPosition> relatedPositions) {
         for (String positionId : new ArrayList<>(mRelatedPositionFeedbacks.keySet())) {
             if (!relatedPositions.containsKey(positionId)) {
-                mRelatedPositionFeedbacks.remove(positionId).removeFromView();
+                mFeedbacksPool.release(mRelatedPositionFeedbacks.remove(positionId));
             }
         }
         for (Entry<String, RelatedPosition> entry : relatedPositions.entrySet()) {
             String positionId = entry.getKey();
             RelatedPosition relatedPosition = entry.getValue();
-            ReferenceAngleConstructionAncillary feedback = mRelatedPositionFeedbacks.computeIfAbsent(positionId, id -> {
-                ReferenceAngleConstructionAncillary result = new ReferenceAngleConstructionAncillary(mParentView);
-                mParentView.addAncillaryObject(result);
-                return result;
-            });
+            ReferenceAngleConstructionAncillary feedback = mRelatedPositionFeedbacks.computeIfAbsent(positionId, id -> mFeedbacksPool.acquire());
             feedback.update(relatedPosition.getPosition(), relatedPosition.getAngle());
         }
     }
@@ -61,7 +60,8 @@ public class RelatedPositionsFeedback {
 
     public void uninstall() {
         for (String positionId : new ArrayList<>(mRelatedPositionFeedbacks.keySet())) {
-            mRelatedPositionFeedbacks.get(positionId).removeFromView();
+            mRelatedPositionFeedbacks.remove(positionId).removeFromView();
         }
+        mFeedbacksPool.clear();
     }
 }
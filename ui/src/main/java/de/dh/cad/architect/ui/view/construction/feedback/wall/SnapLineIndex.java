@@ -0,0 +1,226 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction.feedback.wall;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.dh.cad.architect.model.coords.Geometry2D;
+import de.dh.cad.architect.model.coords.MutableVector2D;
+import de.dh.cad.architect.model.coords.Position2D;
+import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsSnappingModel.SnapLine;
+
+/**
+ * Spatial index of the snap lines of a {@link WallsSnappingModel}, holding the lines in primitive arrays in internal length format.
+ *
+ * Snap lines are infinite, so they cannot be located by their origin. Instead, horizontal and vertical lines, which are the vast
+ * majority of all snap lines, are kept sorted by their constant coordinate; the lines passing near a position are found by a binary
+ * search. All other lines are few and are checked one by one.
+ * This makes it possible to calculate the crossing points of the snap lines lazily, only for the lines which pass near the cursor,
+ * instead of intersecting all pairs of lines in advance.
+ */
+public class SnapLineIndex {
+    /**
+     * Maximum absolute cross product of two unit direction vectors to treat the lines as parallel.
+     */
+    protected static final double PARALLEL_EPSILON = 1e-8;
+
+    /**
+     * Lines whose constant coordinate differs by less than this value are treated as the same line.
+     */
+    protected static final double SAME_LINE_EPSILON = 1e-6;
+
+    protected final double[] mHorizontalYs; // Sorted
+    protected final double[] mVerticalXs; // Sorted
+    protected final double[] mObliqueLines; // Origin x/y and unit direction x/y for each line
+    protected final int mNumObliqueLines;
+
+    // Reused buffer for the lines near the queried position, origin x/y and unit direction x/y for each line
+    protected double[] mCandidates = new double[64];
+
+    public SnapLineIndex(Collection<SnapLine> lines) {
+        double[] horizontalYs = new double[lines.size()];
+        int numHorizontal = 0;
+        double[] verticalXs = new double[lines.size()];
+        int numVertical = 0;
+        double[] obliqueLines = new double[lines.size() * 4];
+        int numOblique = 0;
+        for (SnapLine line : lines) {
+            double ax = line.getA().getX().inInternalFormat();
+            double ay = line.getA().getY().inInternalFormat();
+            double vx = line.getV().getX().inInternalFormat();
+            double vy = line.getV().getY().inInternalFormat();
+            double length = Math.sqrt(vx * vx + vy * vy);
+            double ux = vx / length;
+            double uy = vy / length;
+            if (Math.abs(uy) <= PARALLEL_EPSILON) {
+                horizontalYs[numHorizontal++] = ay;
+            } else if (Math.abs(ux) <= PARALLEL_EPSILON) {
+                verticalXs[numVertical++] = ax;
+            } else {
+                obliqueLines[4 * numOblique] = ax;
+                obliqueLines[4 * numOblique + 1] = ay;
+                obliqueLines[4 * numOblique + 2] = ux;
+                obliqueLines[4 * numOblique + 3] = uy;
+                numOblique++;
+            }
+        }
+        mHorizontalYs = sortedDistinct(horizontalYs, numHorizontal);
+        mVerticalXs = sortedDistinct(verticalXs, numVertical);
+        mObliqueLines = obliqueLines;
+        mNumObliqueLines = numOblique;
+    }
+
+    protected static double[] sortedDistinct(double[] values, int numValues) {
+        double[] result = Arrays.copyOf(values, numValues);
+        Arrays.sort(result);
+        int numDistinct = 0;
+        for (int i = 0; i < numValues; i++) {
+            if (numDistinct == 0 || result[i] - result[numDistinct - 1] > SAME_LINE_EPSILON) {
+                result[numDistinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, numDistinct);
+    }
+
+    /**
+     * Returns the index of the first value in the given sorted array which is not smaller than the given value.
+     */
+    protected static int lowerBound(double[] sortedValues, double value) {
+        int low = 0;
+        int high = sortedValues.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedValues[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int getNumLines() {
+        return mHorizontalYs.length + mVerticalXs.length + mNumObliqueLines;
+    }
+
+    protected void addCandidate(int index, double ax, double ay, double ux, double uy) {
+        if (mCandidates.length < 4 * (index + 1)) {
+            mCandidates = Arrays.copyOf(mCandidates, mCandidates.length * 2);
+        }
+        mCandidates[4 * index] = ax;
+        mCandidates[4 * index + 1] = ay;
+        mCandidates[4 * index + 2] = ux;
+        mCandidates[4 * index + 3] = uy;
+    }
+
+    /**
+     * Collects all lines whose distance to the given position is not bigger than {@code maxDistance} into {@link #mCandidates}.
+     * @return Number of collected lines.
+     */
+    protected int collectLinesNear(double x, double y, double maxDistance) {
+        int result = 0;
+        for (int i = lowerBound(mHorizontalYs, y - maxDistance); i < mHorizontalYs.length && mHorizontalYs[i] <= y + maxDistance; i++) {
+            addCandidate(result++, x, mHorizontalYs[i], 1, 0);
+        }
+        for (int i = lowerBound(mVerticalXs, x - maxDistance); i < mVerticalXs.length && mVerticalXs[i] <= x + maxDistance; i++) {
+            addCandidate(result++, mVerticalXs[i], y, 0, 1);
+        }
+        for (int i = 0; i < mNumObliqueLines; i++) {
+            double ax = mObliqueLines[4 * i];
+            double ay = mObliqueLines[4 * i + 1];
+            double ux = mObliqueLines[4 * i + 2];
+            double uy = mObliqueLines[4 * i + 3];
+            if (Math.abs(Geometry2D.crossProduct(ux, uy, x - ax, y - ay)) <= maxDistance) {
+                addCandidate(result++, ax, ay, ux, uy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the crossing points of all lines which pass the given position in a distance of not more than {@code maxDistance}.
+     * That are all crossing points which can be located in that distance to the given position, and maybe some more.
+     * Crossing points which are located in a distance of not more than {@code maxDistanceForEqual} in both directions
+     * to a former crossing point are omitted.
+     * @param x X coordinate of the position in internal format.
+     * @param y Y coordinate of the position in internal format.
+     * @param maxDistance Maximum distance of the lines to the given position in internal format.
+     * @param maxDistanceForEqual Maximum distance of crossing points to be treated as the same point in internal format.
+     */
+    public Collection<Position2D> calculateCrossingPointsNear(double x, double y, double maxDistance, double maxDistanceForEqual) {
+        Collection<Position2D> result = new ArrayList<>();
+        int numLines = collectLinesNear(x, y, maxDistance);
+        if (numLines < 2) {
+            return result;
+        }
+        // Each cell of the size of maxDistanceForEqual holds at most one point; similar points can only be located in the neighbor cells
+        Map<Long, Position2D> cells = new HashMap<>();
+        MutableVector2D crossingPoint = new MutableVector2D();
+        for (int i = 0; i < numLines; i++) {
+            double a1x = mCandidates[4 * i];
+            double a1y = mCandidates[4 * i + 1];
+            double u1x = mCandidates[4 * i + 2];
+            double u1y = mCandidates[4 * i + 3];
+            for (int j = i + 1; j < numLines; j++) {
+                double a2x = mCandidates[4 * j];
+                double a2y = mCandidates[4 * j + 1];
+                double u2x = mCandidates[4 * j + 2];
+                double u2y = mCandidates[4 * j + 3];
+                if (Math.abs(Geometry2D.crossProduct(u1x, u1y, u2x, u2y)) <= PARALLEL_EPSILON) {
+                    continue;
+                }
+                if (!Geometry2D.calculateLinesIntersectionPoint(
+                    a1x, a1y, a1x + u1x, a1y + u1y,
+                    a2x, a2y, a2x + u2x, a2y + u2y, crossingPoint)) {
+                    continue;
+                }
+                double px = crossingPoint.getX();
+                double py = crossingPoint.getY();
+                long cellX = (long) Math.floor(px / maxDistanceForEqual);
+                long cellY = (long) Math.floor(py / maxDistanceForEqual);
+                if (containsSimilarPoint(cells, cellX, cellY, px, py, maxDistanceForEqual)) {
+                    continue;
+                }
+                Position2D point = Position2D.ofInternalFormat(px, py);
+                cells.put(cellKey(cellX, cellY), point);
+                result.add(point);
+            }
+        }
+        return result;
+    }
+
+    protected static long cellKey(long cellX, long cellY) {
+        return (cellX << 32) ^ (cellY & 0xFFFFFFFFL);
+    }
+
+    protected static boolean containsSimilarPoint(Map<Long, Position2D> cells, long cellX, long cellY, double x, double y, double maxDistance) {
+        for (long cx = cellX - 1; cx <= cellX + 1; cx++) {
+            for (long cy = cellY - 1; cy <= cellY + 1; cy++) {
+                Position2D point = cells.get(cellKey(cx, cy));
+                if (point != null && Geometry2D.isAlmostEqual(point.getX().inInternalFormat(), point.getY().inInternalFormat(), x, y, maxDistance)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
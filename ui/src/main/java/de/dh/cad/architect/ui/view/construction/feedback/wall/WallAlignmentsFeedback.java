@@ -30,21 +30,25 @@ import de.dh.cad.architect.ui.objects.WallAlignmentConstructionAncillary;
 import de.dh.cad.architect.ui.objects.WallAlignmentConstructionAncillary.WallAlignment;
 import de.dh.cad.architect.ui.objects.WallAlignmentConstructionAncillary.WallAlignmentData;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.feedback.AncillaryObjectsPool;
 import de.dh.cad.architect.utils.Context;
 
 /**
  * Manages the visual feedbacks for a given wall of interest.
+ * The alignment symbols are taken from and given back to a pool which is shared by the feedbacks of all walls.
  */
 public class WallAlignmentsFeedback {
     protected final ConstructionView mParentView;
     protected final Map<WallAlignment, WallAlignmentConstructionAncillary> mWallAlignmentFeedbacks = new TreeMap<>();
+    protected final AncillaryObjectsPool<WallAlignmentConstructionAncillary> mFeedbacksPool;
     protected final IWall mWall;
     protected Position2D mPosA;
     protected Position2D mPosB;
 
-    public WallAlignmentsFeedback(ConstructionView parentView, IWall wall) {
+    public WallAlignmentsFeedback(ConstructionView parentView, IWall wall, AncillaryObjectsPool<WallAlignmentConstructionAncillary> feedbacksPool) {
         mWall = wall;
         mParentView = parentView;
+        mFeedbacksPool = feedbacksPool;
     }
 
     public void update(Set<WallAlignment> wallAlignments) {
@@ -57,7 +61,7 @@ public class WallAlignmentsFeedback {
 
         for (WallAlignment formerAlignment : new ArrayList<>(mWallAlignmentFeedbacks.keySet())) {
             if (!wallAlignments.contains(formerAlignment)) {
-                mWallAlignmentFeedbacks.remove(formerAlignment).removeFromView();
+                mFeedbacksPool.release(mWallAlignmentFeedbacks.remove(formerAlignment));
                 changed.set(true);
             }
         }
@@ -65,10 +69,8 @@ public class WallAlignmentsFeedback {
         List<WallAlignmentData> alignments = new ArrayList<>();
         for (WallAlignment wallAlignment : wallAlignments) {
             WallAlignmentConstructionAncillary feedback = mWallAlignmentFeedbacks.computeIfAbsent(wallAlignment, wa -> {
-                WallAlignmentConstructionAncillary result = new WallAlignmentConstructionAncillary(mParentView);
-                mParentView.addAncillaryObject(result);
                 changed.set(true);
-                return result;
+                return mFeedbacksPool.acquire();
             });
             alignments.add(new WallAlignmentData(feedback, wallAlignment));
         }
@@ -82,9 +84,12 @@ public class WallAlignmentsFeedback {
         // Nothing to do
     }
 
+    /**
+     * Gives all alignment symbols of this feedback back to the pool. They are removed from the view when the pool is cleared.
+     */
     public void uninstall() {
-        for (WallAlignmentConstructionAncillary feedback : new ArrayList<>(mWallAlignmentFeedbacks.values())) {
-            feedback.removeFromView();
+        for (WallAlignmentConstructionAncillary feedback : mWallAlignmentFeedbacks.values()) {
+            mFeedbacksPool.release(feedback);
         }
         mWallAlignmentFeedbacks.clear();
     }
@@ -34,6 +34,7 @@ import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.wallmodel.IWallAnchor;
 import de.dh.cad.architect.ui.objects.WallAngleConstructionAncillary;
 import de.dh.cad.architect.ui.view.construction.ConstructionView;
+import de.dh.cad.architect.ui.view.construction.feedback.AncillaryObjectsPool;
 import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsAlignmentModel.BendPointAngle;
 import de.dh.cad.architect.utils.CircularLinkedList;
 import de.dh.cad.architect.utils.CircularLinkedList.Node;
@@ -93,9 +94,11 @@ public class WallAnglesFeedback {
 
     protected final ConstructionView mParentView;
     protected final Map<Pair<IWallAnchor, IWallAnchor>, WallAngleConstructionAncillary> mNeighbourWallFeedbacks = new TreeMap<>();
+    protected final AncillaryObjectsPool<WallAngleConstructionAncillary> mFeedbacksPool;
 
     public WallAnglesFeedback(ConstructionView parentView) {
         mParentView = parentView;
+        mFeedbacksPool = new AncillaryObjectsPool<>(parentView, () -> new WallAngleConstructionAncillary(parentView));
     }
 
     public void update(Map<SortedPair<IWallAnchor>, BendPointAngle> neighborWallAngles) {
@@ -148,23 +151,20 @@ public class WallAnglesFeedback {
             }
         }
 
+        // Release feedbacks first to make them available for the new angles
+        for (Pair<IWallAnchor, IWallAnchor> bendPoint : new ArrayList<>(mNeighbourWallFeedbacks.keySet())) {
+            if (!remainingAngles.containsKey(bendPoint)) {
+                mFeedbacksPool.release(mNeighbourWallFeedbacks.remove(bendPoint));
+            }
+        }
         for (Entry<Pair<IWallAnchor, IWallAnchor>, AngleResult> entry : remainingAngles.entrySet()) {
             Pair<IWallAnchor, IWallAnchor> anchors = entry.getKey();
             AngleResult angles = entry.getValue();
-            WallAngleConstructionAncillary feedback = mNeighbourWallFeedbacks.computeIfAbsent(anchors, key -> {
-                WallAngleConstructionAncillary result = new WallAngleConstructionAncillary(mParentView);
-                mParentView.addAncillaryObject(result);
-                return result;
-            });
+            WallAngleConstructionAncillary feedback = mNeighbourWallFeedbacks.computeIfAbsent(anchors, key -> mFeedbacksPool.acquire());
             feedback.update(
                 angles.getPosition(),
                 angles.getAngle1(), angles.getAngle2(), angles.isTurnToSmallerAngleSide());
         }
-        for (Pair<IWallAnchor, IWallAnchor> bendPoint : new ArrayList<>(mNeighbourWallFeedbacks.keySet())) {
-            if (!remainingAngles.containsKey(bendPoint)) {
-                mNeighbourWallFeedbacks.remove(bendPoint).removeFromView();
-            }
-        }
     }
 
     public void install() {
@@ -175,5 +175,6 @@ public class WallAnglesFeedback {
         for (Pair<IWallAnchor, IWallAnchor> bendPoint : new ArrayList<>(mNeighbourWallFeedbacks.keySet())) {
             mNeighbourWallFeedbacks.remove(bendPoint).removeFromView();
         }
+        mFeedbacksPool.clear();
     }
 }
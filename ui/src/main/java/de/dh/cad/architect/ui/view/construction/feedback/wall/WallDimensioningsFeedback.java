@@ -98,7 +98,7 @@ public class WallDimensioningsFeedback implements IVisualObjectFeedback<IWall> {
             mParentView.addAncillaryObject(mSideTwoDimensioning);
         }
 
-        Optional<WallOutline> oWallOutline = WallAnchorPositions.calculateDockSituation(mWall).map(wap -> wap.calculateWallOutlineCW());
+        Optional<WallOutline> oWallOutline = WallAnchorPositions.getDockSituation(mWall).map(wap -> wap.calculateWallOutlineCW());
         if (oWallOutline.isPresent()) {
             WallOutline wallOutline = oWallOutline.get();
             boolean sideOneVisible = true;
@@ -131,6 +131,7 @@ public class WallDimensioningsFeedback implements IVisualObjectFeedback<IWall> {
             }
             mSideTwoDimensioning.setVisible(sideTwoVisible);
 
+            // The base dimensioning is only hidden if not needed, it typically comes and goes several times during a drag operation
             if (needBaseDimensioning) {
                 if (mBaseDimensioning == null) {
                     mBaseDimensioning = new DimensioningAncillary(mParentView);
@@ -138,11 +139,9 @@ public class WallDimensioningsFeedback implements IVisualObjectFeedback<IWall> {
                 }
                 mBaseDimensioning.setProperties(handleAPosition, handleBPosition,
                     CoordinateUtils.lengthToCoords(mWall.getThickness(), null) / 2, BASE_DIMENSIONING_LABEL_DISTANCE, true);
-            } else {
-                if (mBaseDimensioning != null) {
-                    mParentView.removeAncillaryObject(mBaseDimensioning.getId());
-                    mBaseDimensioning = null;
-                }
+                mBaseDimensioning.setVisible(true);
+            } else if (mBaseDimensioning != null) {
+                mBaseDimensioning.setVisible(false);
             }
         }
     }
@@ -53,7 +53,7 @@ public class WallShapeFeedback implements IVisualObjectFeedback<IWall> {
 
     @Override
     public void update() {
-        Optional<List<Position2D>> oGroundPoints = WallAnchorPositions.calculateDockSituation(mWall).map(wap -> wap.calculateWallOutlineCW().calculateAllGroundPoints());
+        Optional<List<Position2D>> oGroundPoints = WallAnchorPositions.getDockSituation(mWall).map(wap -> wap.calculateWallOutlineCW().calculateAllGroundPoints());
         if (oGroundPoints.isEmpty()) {
             mWallShape.setVisible(false);
             return;
@@ -30,7 +30,6 @@ import java.util.stream.Stream;
 
 import de.dh.cad.architect.model.coords.Angle;
 import de.dh.cad.architect.model.coords.Length;
-import de.dh.cad.architect.model.coords.MathUtils;
 import de.dh.cad.architect.model.coords.Position2D;
 import de.dh.cad.architect.model.coords.Vector2D;
 import de.dh.cad.architect.model.objects.GuideLine;
@@ -38,7 +37,6 @@ import de.dh.cad.architect.model.objects.GuideLine.GuideLineDirection;
 import de.dh.cad.architect.model.wallmodel.IWall;
 import de.dh.cad.architect.model.wallmodel.IWallAnchor;
 import de.dh.cad.architect.ui.utils.CoordinateUtils;
-import de.dh.cad.architect.ui.view.construction.feedback.wall.VirtualLinesCenter.Distance;
 
 /**
  * Calculates snapping positions for wall change feedback.
@@ -105,16 +103,16 @@ public class WallsSnappingModel {
      */
     protected static final Length MAX_POINT_DISTANCE_FOR_EQUAL = Length.ofMM(1);
 
-    protected static final double EPSILON = 0.01;
-
     protected final Collection<VirtualLinesCenter> mWallSnapData;
     protected final Collection<GuideLine> mGuideLines;
-    protected final Collection<Position2D> mStaticSnapPositions;
+    protected final SnapLineIndex mSnapLines; // The crossing points of the snap lines are our static snap positions
+    protected final WallsSnappingSession mSession;
 
-    public WallsSnappingModel(Collection<VirtualLinesCenter> wallSnapData, Collection<GuideLine> guideLines, Collection<Position2D> staticSnapPositions) {
+    public WallsSnappingModel(Collection<VirtualLinesCenter> wallSnapData, Collection<GuideLine> guideLines, SnapLineIndex snapLines) {
         mWallSnapData = wallSnapData;
         mGuideLines = guideLines;
-        mStaticSnapPositions = staticSnapPositions;
+        mSnapLines = snapLines;
+        mSession = new WallsSnappingSession(snapLines, wallSnapData, guideLines, MAX_POINT_DISTANCE_FOR_EQUAL);
     }
 
     public static WallsSnappingModel create(Optional<? extends IWallAnchor> oSnapWallHandle,
@@ -203,7 +201,7 @@ public class WallsSnappingModel {
         snapLines.addAll(SnapLine.fromGuideLines(guideLines));
         snapLines.addAll(SnapLine.fromWallSnapData(wallSnapData.values()));
 
-        return new WallsSnappingModel(wallSnapData.values(), guideLines, calculateCrossingPoints(snapLines));
+        return new WallsSnappingModel(wallSnapData.values(), guideLines, new SnapLineIndex(snapLines));
     }
 
     /**
@@ -212,33 +210,14 @@ public class WallsSnappingModel {
      * @param scale The current view's scale to make the maximum snapping distance equal in physical view coordinates.
      */
     public Optional<Position2D> snapAnchorPosition(Position2D startPos, double scale) {
-        // Snap priority 1: Prefer static snap positions
-        double maxSnapDiff = MAX_SNAP_POSITION_DIFF / scale;
-        Optional<Position2D> oNearestSnapPosition = findNearestPoint(startPos, mStaticSnapPositions, maxSnapDiff);
-        if (oNearestSnapPosition.isPresent()) {
-            return oNearestSnapPosition;
-        }
-
-        // Snap priority 2: Fallback to dynamic snap positions along snap lines
-        Collection<Position2D> snapPositions = new ArrayList<>();
-
         // TODO: Snap to positions where each pair of the walls docked to the snap wall handle is orthogonal.
         // Those positions are located on an arc going from each opposite handle to another.
         // Snapping to those arcs should be separated into two priorities:
         // - First need to snap to each intersection point of the arcs and all other wall snap lines (goes to snap priority 2a)
         // - Then we need to snap to the arc lines itself (goes to snap priority 2b)
-
-        // Snap to wall angle lines
-        snapPositions.addAll(calculateSnapPositionsFromWalls(startPos));
-
-        // Snap to guidelines
-        snapPositions.addAll(calculateSnapPositionsFromGuideLines(startPos));
-
-        oNearestSnapPosition = findNearestPoint(startPos, snapPositions, maxSnapDiff);
-        if (oNearestSnapPosition.isPresent()) {
-            return oNearestSnapPosition;
-        }
-        return Optional.empty();
+        double maxSnapDiff = MAX_SNAP_POSITION_DIFF / scale;
+        double maxSnapDiffI = CoordinateUtils.coordsToLength(maxSnapDiff, null).inInternalFormat();
+        return mSession.snap(startPos.getX().inInternalFormat(), startPos.getY().inInternalFormat(), maxSnapDiffI);
     }
 
     public Collection<VirtualLinesCenter> getWallSnapData() {
@@ -249,44 +228,8 @@ public class WallsSnappingModel {
         return mGuideLines;
     }
 
-    public Collection<Position2D> getStaticSnapPositions() {
-        return mStaticSnapPositions;
-    }
-
-    protected Collection<Position2D> calculateSnapPositionsFromGuideLines(Position2D currentPoint) {
-        Collection<Position2D> result = new ArrayList<>();
-        for (GuideLine guideLine : mGuideLines) {
-            switch (guideLine.getDirection()) {
-            case Vertical:
-                result.add(currentPoint.withX(guideLine.getPosition()));
-                break;
-            case Horizontal:
-                result.add(currentPoint.withY(guideLine.getPosition()));
-                break;
-            default:
-                throw new RuntimeException("Unknown guideline direction " + guideLine.getDirection());
-            }
-        }
-        return result;
-    }
-
-    protected Position2D calculateSnapPositionForAngle(Position2D centerPosition, Angle snapAngle,
-        Position2D startPos) {
-        Vector2D currentVector = Vector2D.between(centerPosition, startPos);
-        Length length = currentVector.getLength();
-        double angleRad = snapAngle.getAngleRad();
-        return new Position2D(
-            centerPosition.getX().plus(length.times(Math.cos(angleRad))),
-            centerPosition.getY().plus(length.times(Math.sin(angleRad))));
-    }
-
-    protected Collection<Position2D> calculateSnapPositionsFromWalls(Position2D startPos) {
-        Collection<Position2D> result = new ArrayList<>();
-        for (VirtualLinesCenter wsd : mWallSnapData) {
-            Distance distance = wsd.calculateSmallestLineDistance(startPos);
-            result.add(calculateSnapPositionForAngle(wsd.getCenterPosition(), distance.getAngleToDistance(), startPos));
-        }
-        return result;
+    public SnapLineIndex getSnapLines() {
+        return mSnapLines;
     }
 
     /**
@@ -307,48 +250,4 @@ public class WallsSnappingModel {
         IWall ownerWall = handle.getOwner();
         return ownerWall.getAnchorWallHandle(handle.getHandleAnchorDockEnd().get().opposite());
     }
-
-    protected static Optional<Position2D> findNearestPoint(Position2D startPos, Collection<Position2D> positions, double maxDistance) {
-        double nearestDistance = Double.MAX_VALUE;
-        Position2D nearestPos = null;
-        for (Position2D position : positions) {
-            double distance = CoordinateUtils.lengthToCoords(position.distance(startPos), null);
-            if (distance < Math.min(nearestDistance, maxDistance)) {
-                nearestDistance = distance;
-                nearestPos = position;
-            }
-        }
-        return Optional.ofNullable(nearestPos);
-    }
-
-    protected static boolean containsSimilarPoint(Collection<Position2D> collection, Position2D point) {
-        for (Position2D pos : collection) {
-            if (MathUtils.isAlmostEqual(pos, point, MAX_POINT_DISTANCE_FOR_EQUAL)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    protected static Collection<Position2D> calculateCrossingPoints(Collection<SnapLine> lines) {
-        List<SnapLine> lLines = lines instanceof List ? (List<SnapLine>) lines : new ArrayList<>(lines);
-        Collection<Position2D> result = new ArrayList<>(lLines.size() * lLines.size());
-        for (int i = 0; i < lLines.size(); i++) {
-            SnapLine line1 = lLines.get(i);
-            for (int j = i + 1; j < lLines.size(); j++) {
-                SnapLine line2 = lLines.get(j);
-                if (line1.getV().isParallelTo(line2.getV(), EPSILON)) {
-                    continue;
-                }
-                Optional<Position2D> oCrossingPoint = MathUtils.calculateLinesIntersectionPoint(
-                    line1.getA(), line1.getA().plus(line1.getV()), line2.getA(), line2.getA().plus(line2.getV()));
-                oCrossingPoint.ifPresent(crossingPoint -> {
-                    if (!containsSimilarPoint(result, crossingPoint)) {
-                        result.add(crossingPoint);
-                    }
-                });
-            }
-        }
-        return result;
-    }
 }
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ *     Architect - A free 2D/3D home and interior designer
+ *     Copyright (C) 2021 - 2023  Daniel Höh
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with this program.  If not, see <https://www.gnu.org/licenses/>
+ *******************************************************************************/
+package de.dh.cad.architect.ui.view.construction.feedback.wall;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import de.dh.cad.architect.model.coords.Angle;
+import de.dh.cad.architect.model.coords.Geometry2D;
+import de.dh.cad.architect.model.coords.Length;
+import de.dh.cad.architect.model.coords.Position2D;
+import de.dh.cad.architect.model.objects.GuideLine;
+import de.dh.cad.architect.model.objects.GuideLine.GuideLineDirection;
+
+/**
+ * Answers the snap queries of a {@link WallsSnappingModel} during a single wall change operation, i.e. across all mouse moves
+ * of a drag or add-wall gesture.
+ *
+ * All snap lines are precomputed in primitive arrays in internal length format. The lines are bucketed by their angle
+ * and sorted by their offset from the origin inside each bucket, so the lines passing near a position are found by a binary
+ * search per angle.
+ * The plan is divided into cells of the size of the maximum snap distance. The snap lines and crossing points which can
+ * be reached from a cell are collected once when the cursor enters the cell; further mouse moves in the same cell only
+ * check those candidates.
+ */
+public class WallsSnappingSession {
+    /**
+     * Snap lines of a single direction.
+     */
+    protected static class AngleBucket {
+        protected final double mUX; // Unit direction, the normal is (-mUY, mUX)
+        protected final double mUY;
+        protected double[] mOffsets = new double[8]; // Offsets of the lines along the normal, sorted after build
+        protected double[] mOriginsX = new double[8];
+        protected double[] mOriginsY = new double[8];
+        protected boolean[] mRotational = new boolean[8];
+        protected int mNumLines = 0;
+
+        public AngleBucket(double ux, double uy) {
+            mUX = ux;
+            mUY = uy;
+        }
+
+        public void add(double originX, double originY, boolean rotational) {
+            if (mNumLines == mOffsets.length) {
+                int newLength = mNumLines * 2;
+                mOffsets = Arrays.copyOf(mOffsets, newLength);
+                mOriginsX = Arrays.copyOf(mOriginsX, newLength);
+                mOriginsY = Arrays.copyOf(mOriginsY, newLength);
+                mRotational = Arrays.copyOf(mRotational, newLength);
+            }
+            mOffsets[mNumLines] = calculateOffset(originX, originY);
+            mOriginsX[mNumLines] = originX;
+            mOriginsY[mNumLines] = originY;
+            mRotational[mNumLines] = rotational;
+            mNumLines++;
+        }
+
+        public double calculateOffset(double x, double y) {
+            return mUX * y - mUY * x;
+        }
+
+        /**
+         * Sorts the lines by their offset.
+         */
+        public void build() {
+            Integer[] order = new Integer[mNumLines];
+            for (int i = 0; i < mNumLines; i++) {
+                order[i] = i;
+            }
+            double[] offsets = mOffsets;
+            Arrays.sort(order, (a, b) -> Double.compare(offsets[a], offsets[b]));
+            double[] sortedOffsets = new double[mNumLines];
+            double[] sortedOriginsX = new double[mNumLines];
+            double[] sortedOriginsY = new double[mNumLines];
+            boolean[] sortedRotational = new boolean[mNumLines];
+            for (int i = 0; i < mNumLines; i++) {
+                int j = order[i];
+                sortedOffsets[i] = mOffsets[j];
+                sortedOriginsX[i] = mOriginsX[j];
+                sortedOriginsY[i] = mOriginsY[j];
+                sortedRotational[i] = mRotational[j];
+            }
+            mOffsets = sortedOffsets;
+            mOriginsX = sortedOriginsX;
+            mOriginsY = sortedOriginsY;
+            mRotational = sortedRotational;
+        }
+
+        /**
+         * Returns the index of the first line whose offset is not smaller than the given offset.
+         */
+        public int lowerBound(double offset) {
+            int low = 0;
+            int high = mNumLines;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (mOffsets[mid] < offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Directions whose angles differ less than this value in degrees share a bucket.
+     */
+    protected static final double ANGLE_BUCKET_RESOLUTION_DEG = 1e-6;
+
+    protected final SnapLineIndex mSnapLines;
+    protected final double mMaxDistanceForEqual;
+    protected final AngleBucket[] mBuckets;
+
+    // Candidates of the current cell
+    protected double mCellSize = Double.NaN;
+    protected long mCellX;
+    protected long mCellY;
+    protected double[] mCellCrossingPoints = new double[32]; // x/y for each point
+    protected int mNumCellCrossingPoints = 0;
+    protected int[] mCellLines = new int[64]; // Bucket index/line index for each line
+    protected int mNumCellLines = 0;
+
+    /**
+     * Creates a snapping session.
+     * @param snapLines Index of the snap lines whose crossing points are the static snap positions.
+     * @param wallSnapData Centers of the lines which provide dynamic snap positions at the same distance to the center as the cursor.
+     * @param guideLines Guide lines which provide dynamic snap positions at the projection of the cursor.
+     * @param maxPointDistanceForEqual Snap points of a smaller distance won't be treated as separate points.
+     */
+    public WallsSnappingSession(SnapLineIndex snapLines, Collection<VirtualLinesCenter> wallSnapData, Collection<GuideLine> guideLines, Length maxPointDistanceForEqual) {
+        mSnapLines = snapLines;
+        mMaxDistanceForEqual = maxPointDistanceForEqual.inInternalFormat();
+        Map<Long, AngleBucket> buckets = new TreeMap<>();
+        for (VirtualLinesCenter wsd : wallSnapData) {
+            double cx = wsd.getCenterPosition().getX().inInternalFormat();
+            double cy = wsd.getCenterPosition().getY().inInternalFormat();
+            for (Angle angle : wsd.getAngles()) {
+                getBucket(buckets, angle.getAngleDeg()).add(cx, cy, true);
+            }
+        }
+        for (GuideLine guideLine : guideLines) {
+            double position = guideLine.getPosition().inInternalFormat();
+            if (guideLine.getDirection() == GuideLineDirection.Horizontal) {
+                getBucket(buckets, 0).add(0, position, false);
+            } else {
+                getBucket(buckets, 90).add(position, 0, false);
+            }
+        }
+        mBuckets = buckets.values().toArray(new AngleBucket[buckets.size()]);
+        for (AngleBucket bucket : mBuckets) {
+            bucket.build();
+        }
+    }
+
+    protected static AngleBucket getBucket(Map<Long, AngleBucket> buckets, double angleDeg) {
+        // Lines are undirected, so opposite angles share a bucket
+        double normalizedDeg = angleDeg % 180;
+        if (normalizedDeg < 0) {
+            normalizedDeg += 180;
+        }
+        long key = Math.round(normalizedDeg / ANGLE_BUCKET_RESOLUTION_DEG);
+        if (key == Math.round(180 / ANGLE_BUCKET_RESOLUTION_DEG)) {
+            key = 0;
+        }
+        return buckets.computeIfAbsent(key, k -> {
+            double rad = Math.toRadians(k * ANGLE_BUCKET_RESOLUTION_DEG);
+            return new AngleBucket(Math.cos(rad), Math.sin(rad));
+        });
+    }
+
+    /**
+     * Calculates the best snapping position for the given position.
+     * @param x X coordinate of the position in internal format.
+     * @param y Y coordinate of the position in internal format.
+     * @param maxDistance Maximum snap distance in internal format.
+     */
+    public Optional<Position2D> snap(double x, double y, double maxDistance) {
+        updateCell(x, y, maxDistance);
+
+        double maxDistanceSq = maxDistance * maxDistance;
+
+        // Snap priority 1: Prefer static snap positions
+        double nearestDistanceSq = maxDistanceSq;
+        double nearestX = 0;
+        double nearestY = 0;
+        boolean found = false;
+        for (int i = 0; i < mNumCellCrossingPoints; i++) {
+            double px = mCellCrossingPoints[2 * i];
+            double py = mCellCrossingPoints[2 * i + 1];
+            double distanceSq = Geometry2D.distanceSq(x, y, px, py);
+            if (distanceSq < nearestDistanceSq) {
+                nearestDistanceSq = distanceSq;
+                nearestX = px;
+                nearestY = py;
+                found = true;
+            }
+        }
+        if (found) {
+            return Optional.of(Position2D.ofInternalFormat(nearestX, nearestY));
+        }
+
+        // Snap priority 2: Fallback to dynamic snap positions along snap lines
+        for (int i = 0; i < mNumCellLines; i++) {
+            AngleBucket bucket = mBuckets[mCellLines[2 * i]];
+            int line = mCellLines[2 * i + 1];
+            double ox = bucket.mOriginsX[line];
+            double oy = bucket.mOriginsY[line];
+            double ux = bucket.mUX;
+            double uy = bucket.mUY;
+            double vx = x - ox;
+            double vy = y - oy;
+            double dot = ux * vx + uy * vy;
+            double px;
+            double py;
+            if (bucket.mRotational[line]) {
+                // Rotate the position around the line's origin onto the line, at the side of the line nearest to the position
+                double length = Math.sqrt(vx * vx + vy * vy);
+                double signedLength = dot < 0 ? -length : length;
+                px = ox + signedLength * ux;
+                py = oy + signedLength * uy;
+            } else {
+                // Project the position onto the line
+                px = ox + dot * ux;
+                py = oy + dot * uy;
+            }
+            double distanceSq = Geometry2D.distanceSq(x, y, px, py);
+            if (distanceSq < nearestDistanceSq) {
+                nearestDistanceSq = distanceSq;
+                nearestX = px;
+                nearestY = py;
+                found = true;
+            }
+        }
+        if (found) {
+            return Optional.of(Position2D.ofInternalFormat(nearestX, nearestY));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Collects the candidates for the cell of the given position if the position left the current cell.
+     * The candidates are all snap lines and crossing points in the maximum snap distance of any position in the cell.
+     */
+    protected void updateCell(double x, double y, double maxDistance) {
+        long cellX = (long) Math.floor(x / maxDistance);
+        long cellY = (long) Math.floor(y / maxDistance);
+        if (mCellSize == maxDistance && mCellX == cellX && mCellY == cellY) {
+            return;
+        }
+        mCellSize = maxDistance;
+        mCellX = cellX;
+        mCellY = cellY;
+        double centerX = (cellX + 0.5) * maxDistance;
+        double centerY = (cellY + 0.5) * maxDistance;
+        // Each position in the cell is at most half of the cell diagonal away from the cell center
+        double searchDistance = maxDistance * (1 + Math.sqrt(0.5));
+
+        mNumCellCrossingPoints = 0;
+        for (Position2D point : mSnapLines.calculateCrossingPointsNear(centerX, centerY, searchDistance, mMaxDistanceForEqual)) {
+            if (mCellCrossingPoints.length < 2 * (mNumCellCrossingPoints + 1)) {
+                mCellCrossingPoints = Arrays.copyOf(mCellCrossingPoints, mCellCrossingPoints.length * 2);
+            }
+            mCellCrossingPoints[2 * mNumCellCrossingPoints] = point.getX().inInternalFormat();
+            mCellCrossingPoints[2 * mNumCellCrossingPoints + 1] = point.getY().inInternalFormat();
+            mNumCellCrossingPoints++;
+        }
+
+        // The distance of a rotated snap position is never smaller than the distance to its line,
+        // so all lines which can provide a snap position pass the cell center in the search distance
+        mNumCellLines = 0;
+        for (int b = 0; b < mBuckets.length; b++) {
+            AngleBucket bucket = mBuckets[b];
+            double offset = bucket.calculateOffset(centerX, centerY);
+            for (int i = bucket.lowerBound(offset - searchDistance); i < bucket.mNumLines && bucket.mOffsets[i] <= offset + searchDistance; i++) {
+                if (mCellLines.length < 2 * (mNumCellLines + 1)) {
+                    mCellLines = Arrays.copyOf(mCellLines, mCellLines.length * 2);
+                }
+                mCellLines[2 * mNumCellLines] = b;
+                mCellLines[2 * mNumCellLines + 1] = i;
+                mNumCellLines++;
+            }
+        }
+    }
+}
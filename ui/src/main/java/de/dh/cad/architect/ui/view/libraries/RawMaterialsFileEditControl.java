@@ -149,6 +149,7 @@ public class RawMaterialsFileEditControl extends BorderPane implements Initializ
         try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(mtlResource.outputStream()))) {
             bw.append(mMtlEditor.getText());
         }
+        mAssetLoader.getAssetManager().getPrefetcher().invalidate(materialSetRef);
         mMaterialPreviewControl.initialize(mDescriptor);
     }
 
@@ -20,12 +20,14 @@ package de.dh.cad.architect.ui.view.threed;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import de.dh.cad.architect.fx.nodes.CombinedTransformGroup;
 import de.dh.cad.architect.model.coords.Length;
 import de.dh.cad.architect.model.objects.BaseObject;
 import de.dh.cad.architect.ui.controller.UiController;
+import de.dh.cad.architect.ui.controller.UiController.ChangeNotificationMode;
 import de.dh.cad.architect.ui.objects.Abstract3DAncillaryObject;
 import de.dh.cad.architect.ui.objects.Abstract3DRepresentation;
 import de.dh.cad.architect.ui.objects.AbstractObjectUIRepresentation;
@@ -69,6 +71,12 @@ public abstract class Abstract3DView extends AbstractPlanView<Abstract3DRepresen
         return mTransformedRoot != null;
     }
 
+    @Override
+    protected ChangeNotificationMode getChangeNotificationMode() {
+        // Rebuilding 3D representations is expensive, it's enough to do that once per frame
+        return ChangeNotificationMode.Coalesced;
+    }
+
     public Group getRootGroup() {
         return mRootGroup;
     }
@@ -138,7 +146,7 @@ public abstract class Abstract3DView extends AbstractPlanView<Abstract3DRepresen
     }
 
     @Override
-    protected abstract void initializeFromPlan();
+    protected abstract void initializeFromPlan(List<Runnable> steps);
 
     @Override
     protected Collection<Abstract3DRepresentation> doAddUIRepresentations(Collection<? extends BaseObject> addedObjects) {
@@ -17,6 +17,8 @@
  *******************************************************************************/
 package de.dh.cad.architect.ui.view.threed;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -24,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.dh.cad.architect.model.Plan;
+import de.dh.cad.architect.model.objects.BaseObject;
 import de.dh.cad.architect.ui.Strings;
 import de.dh.cad.architect.ui.controller.UiController;
 import de.dh.cad.architect.ui.objects.Abstract3DAncillaryObject;
@@ -65,18 +68,22 @@ public class ThreeDView extends Abstract3DView {
     }
 
     @Override
-    protected void initializeFromPlan() {
+    protected void initializeFromPlan(List<Runnable> steps) {
         Plan plan = getPlan();
 
-        addUIRepresentations(plan.getDimensionings().values());
-        addUIRepresentations(plan.getAnchors().values());
-        addUIRepresentations(plan.getFloors().values());
-        addUIRepresentations(plan.getWalls().values());
-        addUIRepresentations(plan.getCeilings().values());
-        addUIRepresentations(plan.getCoverings().values());
-        addUIRepresentations(plan.getSupportObjects().values());
-        for (Abstract3DRepresentation repr : mRepresentationsById.values()) {
-            repr.updateToModel();
+        List<Collection<? extends BaseObject>> objectGroups = List.of(
+            plan.getDimensionings().values(),
+            plan.getAnchors().values(),
+            plan.getFloors().values(),
+            plan.getWalls().values(),
+            plan.getCeilings().values(),
+            plan.getCoverings().values(),
+            plan.getSupportObjects().values());
+        for (Collection<? extends BaseObject> objects : objectGroups) {
+            addCreateRepresentationsSteps(objects, steps);
+        }
+        for (Collection<? extends BaseObject> objects : objectGroups) {
+            addUpdateRepresentationsSteps(objects, steps);
         }
     }
 
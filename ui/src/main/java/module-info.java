@@ -49,6 +49,8 @@ module de.dh.cad.architect.ui {
     requires transitive javafx.controls;
     requires org.slf4j;
     requires java.desktop;
+    requires java.xml;
+    requires java.management;
     requires org.apache.commons.collections4;
     requires org.apache.commons.lang3;
     requires org.apache.commons.io;
@@ -0,0 +1,158 @@
+package de.dh.cad.architect.ui.view.construction.feedback.wall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.dh.cad.architect.model.coords.Angle;
+import de.dh.cad.architect.model.coords.Geometry2D;
+import de.dh.cad.architect.model.coords.Length;
+import de.dh.cad.architect.model.coords.Position2D;
+import de.dh.cad.architect.model.objects.GuideLine;
+import de.dh.cad.architect.model.objects.GuideLine.GuideLineDirection;
+import de.dh.cad.architect.ui.view.construction.feedback.wall.VirtualLinesCenter.Distance;
+import de.dh.cad.architect.ui.view.construction.feedback.wall.WallsSnappingModel.SnapLine;
+
+/**
+ * Test class for {@link WallsSnappingSession}.
+ */
+public class WallsSnappingSessionTest {
+    protected static final Length MAX_POINT_DISTANCE_FOR_EQUAL = Length.ofMM(1);
+    protected static final double PLAN_SIZE = 20000;
+    protected static final int NUM_PLANS = 20;
+    protected static final int NUM_MOVES = 2000;
+
+    protected static class SnapData {
+        protected final Collection<VirtualLinesCenter> mWallSnapData = new ArrayList<>();
+        protected final Collection<GuideLine> mGuideLines = new ArrayList<>();
+        protected final SnapLineIndex mSnapLines;
+
+        public SnapData(Random random) {
+            int numCenters = 1 + random.nextInt(30);
+            for (int i = 0; i < numCenters; i++) {
+                VirtualLinesCenter wsd = new VirtualLinesCenter("Center-" + i, randomPosition(random));
+                Collection<Angle> angles = wsd.getAngles();
+                angles.add(new Angle(0.0));
+                angles.add(new Angle(90.0));
+                int numWallAngles = random.nextInt(3);
+                for (int j = 0; j < numWallAngles; j++) {
+                    angles.add(new Angle(random.nextDouble() * 360));
+                }
+                mWallSnapData.add(wsd);
+            }
+            int numGuideLines = random.nextInt(5);
+            for (int i = 0; i < numGuideLines; i++) {
+                mGuideLines.add(new GuideLine("GuideLine-" + i, "GuideLine-" + i,
+                    random.nextBoolean() ? GuideLineDirection.Horizontal : GuideLineDirection.Vertical,
+                    Length.ofInternalFormat((random.nextDouble() - 0.5) * PLAN_SIZE)));
+            }
+            Collection<SnapLine> snapLines = new ArrayList<>();
+            snapLines.addAll(SnapLine.fromGuideLines(mGuideLines));
+            snapLines.addAll(SnapLine.fromWallSnapData(mWallSnapData));
+            mSnapLines = new SnapLineIndex(snapLines);
+        }
+    }
+
+    protected static Position2D randomPosition(Random random) {
+        return Position2D.ofInternalFormat((random.nextDouble() - 0.5) * PLAN_SIZE, (random.nextDouble() - 0.5) * PLAN_SIZE);
+    }
+
+    /**
+     * Former snapping algorithm of {@link WallsSnappingModel#snapAnchorPosition(Position2D, double)}, which collected all snap
+     * positions for each query and scanned them linearly.
+     */
+    protected static Optional<Position2D> snapLinear(SnapData snapData, Position2D startPos, double maxDistance) {
+        // Snap priority 1: Static snap positions
+        Collection<Position2D> staticSnapPositions = snapData.mSnapLines.calculateCrossingPointsNear(
+            startPos.getX().inInternalFormat(), startPos.getY().inInternalFormat(), maxDistance, MAX_POINT_DISTANCE_FOR_EQUAL.inInternalFormat());
+        Optional<Position2D> oNearestSnapPosition = findNearestPoint(startPos, staticSnapPositions, maxDistance);
+        if (oNearestSnapPosition.isPresent()) {
+            return oNearestSnapPosition;
+        }
+
+        // Snap priority 2: Dynamic snap positions along snap lines
+        Collection<Position2D> snapPositions = new ArrayList<>();
+        for (VirtualLinesCenter wsd : snapData.mWallSnapData) {
+            Distance distance = wsd.calculateSmallestLineDistance(startPos);
+            Position2D centerPosition = wsd.getCenterPosition();
+            double cx = centerPosition.getX().inInternalFormat();
+            double cy = centerPosition.getY().inInternalFormat();
+            double length = Geometry2D.distance(cx, cy, startPos.getX().inInternalFormat(), startPos.getY().inInternalFormat());
+            double angleRad = distance.getAngleToDistance().getAngleRad();
+            snapPositions.add(Position2D.ofInternalFormat(cx + length * Math.cos(angleRad), cy + length * Math.sin(angleRad)));
+        }
+        for (GuideLine guideLine : snapData.mGuideLines) {
+            snapPositions.add(guideLine.getDirection() == GuideLineDirection.Vertical
+                ? startPos.withX(guideLine.getPosition())
+                : startPos.withY(guideLine.getPosition()));
+        }
+        return findNearestPoint(startPos, snapPositions, maxDistance);
+    }
+
+    protected static Optional<Position2D> findNearestPoint(Position2D startPos, Collection<Position2D> positions, double maxDistance) {
+        double nearestDistance = maxDistance * maxDistance;
+        double sx = startPos.getX().inInternalFormat();
+        double sy = startPos.getY().inInternalFormat();
+        Position2D nearestPos = null;
+        for (Position2D position : positions) {
+            double distance = Geometry2D.distanceSq(sx, sy, position.getX().inInternalFormat(), position.getY().inInternalFormat());
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearestPos = position;
+            }
+        }
+        return Optional.ofNullable(nearestPos);
+    }
+
+    @Test
+    @DisplayName("Session snaps to the same positions as the linear algorithm")
+    public void testCompareWithLinearAlgorithm() {
+        Random random = new Random(4711);
+        int numSnapped = 0;
+        int numQueries = 0;
+        for (int p = 0; p < NUM_PLANS; p++) {
+            SnapData snapData = new SnapData(random);
+            WallsSnappingSession session = new WallsSnappingSession(snapData.mSnapLines, snapData.mWallSnapData, snapData.mGuideLines, MAX_POINT_DISTANCE_FOR_EQUAL);
+            List<Double> maxDistances = List.of(50.0, 200.0, 1000.0);
+            double maxDistance = maxDistances.get(0);
+            double x = 0;
+            double y = 0;
+            for (int i = 0; i < NUM_MOVES; i++) {
+                // Mostly small mouse moves to stay in the session's cell, sometimes jumps and zoom changes
+                if (random.nextInt(100) == 0) {
+                    Position2D jumpPos = randomPosition(random);
+                    x = jumpPos.getX().inInternalFormat();
+                    y = jumpPos.getY().inInternalFormat();
+                    maxDistance = maxDistances.get(random.nextInt(maxDistances.size()));
+                } else {
+                    x += (random.nextDouble() - 0.5) * maxDistance / 5;
+                    y += (random.nextDouble() - 0.5) * maxDistance / 5;
+                }
+                Position2D startPos = Position2D.ofInternalFormat(x, y);
+                Optional<Position2D> oExpected = snapLinear(snapData, startPos, maxDistance);
+                Optional<Position2D> oActual = session.snap(x, y, maxDistance);
+                String message = "Snap position for " + startPos + " at maximum distance " + maxDistance + " in plan " + p;
+                assertEquals(oExpected.isPresent(), oActual.isPresent(), message);
+                if (oExpected.isPresent()) {
+                    Position2D expected = oExpected.get();
+                    Position2D actual = oActual.get();
+                    assertTrue(Geometry2D.isAlmostEqual(expected.getX().inInternalFormat(), expected.getY().inInternalFormat(),
+                        actual.getX().inInternalFormat(), actual.getY().inInternalFormat(), MAX_POINT_DISTANCE_FOR_EQUAL.inInternalFormat()),
+                        message + ": expected " + expected + ", got " + actual);
+                    numSnapped++;
+                }
+                numQueries++;
+            }
+        }
+        // Make sure the test data covers both cases
+        assertTrue(numSnapped > numQueries / 10 && numSnapped < numQueries - numQueries / 10, "Test data must cover snapped and free positions, snapped " + numSnapped + " of " + numQueries);
+    }
+}